@@ -0,0 +1,190 @@
+package darwin;
+
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+import darwin.command.Command;
+import darwin.command.CommandResult;
+
+/**
+ * Runs commands one at a time on a single thread, so the task list and the storage only ever
+ * have one writer. A <code>CommandEngine</code> takes commands from any number of threads (the
+ * window, reminders, other front ends) through a lock-free queue; submitting never blocks.
+ *
+ * The engine thread drains the queue in turns. Each drain takes in changes other Darwins made to
+ * the file, runs the waiting commands in the order they were submitted, and then saves once, so a
+ * burst of commands costs one save rather than one per command. A command's future completes once
+ * the drain that ran it has been saved; a command that fails completes its future exceptionally
+ * without affecting the others.
+ */
+public class CommandEngine {
+
+    private static final String THREAD_NAME = "darwin-engine";
+    private static final int MAX_DRAIN_SIZE = 256; // bounds how long the first command waits for its save
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000;
+
+    /**
+     * A command waiting to run, or null to only take in external changes, and the future of its result.
+     */
+    private static final class Job {
+        private final Command command;
+        private final CompletableFuture<CommandResult> result = new CompletableFuture<>();
+
+        private Job(Command command) {
+            this.command = command;
+        }
+    }
+
+    private final Darwin darwin;
+    private final ConcurrentLinkedQueue<Job> queue = new ConcurrentLinkedQueue<>();
+    private final Thread thread;
+    private volatile boolean isRunning = true;
+    private volatile long drainCount;
+
+    /**
+     * Constructs an engine for the Darwin's tasks. Commands may be submitted straight away; they
+     * run once {@link #start()} is called.
+     *
+     * @param darwin The Darwin whose task list and storage the engine writes.
+     */
+    CommandEngine(Darwin darwin) {
+        this.darwin = darwin;
+        this.thread = new Thread(this::runLoop, THREAD_NAME);
+        thread.setDaemon(true);
+    }
+
+    /**
+     * Starts the engine thread. Called once, when the tasks are loaded.
+     */
+    void start() {
+        thread.start();
+    }
+
+    /**
+     * Queues a command to run after every command submitted before it. Safe to call from any thread.
+     *
+     * @param command The command to run.
+     * @return The result of the command, completed on the engine thread once it has been saved.
+     */
+    public CompletableFuture<CommandResult> submit(Command command) {
+        assert command != null : "Command cannot be null";
+
+        return enqueue(new Job(command));
+    }
+
+    /**
+     * Queues a check for changes other Darwins made to the file. Safe to call from any thread.
+     *
+     * @return The changes taken in, or null if there were none or they were taken in by an
+     *         earlier drain.
+     */
+    public CompletableFuture<CommandResult> submitReload() {
+        return enqueue(new Job(null));
+    }
+
+    private CompletableFuture<CommandResult> enqueue(Job job) {
+        if (!isRunning) {
+            job.result.cancel(false);
+            return job.result;
+        }
+        queue.offer(job);
+        LockSupport.unpark(thread); // the permit is kept if the engine is not parked yet
+        if (!isRunning && queue.remove(job)) {
+            job.result.cancel(false); // shut down while being queued, after the engine's last poll
+        }
+        return job.result;
+    }
+
+    /**
+     * Returns the number of drains run so far, i.e. the most saves the engine has made.
+     */
+    public long getDrainCount() {
+        return drainCount;
+    }
+
+    /**
+     * Stops the engine thread once the current drain is done, and waits for it. Commands still
+     * waiting are cancelled.
+     */
+    void shutdown() {
+        isRunning = false;
+        LockSupport.unpark(thread);
+        if (thread.isAlive()) {
+            try {
+                thread.join(SHUTDOWN_TIMEOUT_MILLIS); // so the list is not closed under a running command
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        cancelWaitingJobs(); // in case the engine was never started
+    }
+
+    // ============ ENGINE THREAD ============
+    private void runLoop() {
+        ArrayList<Job> drain = new ArrayList<>();
+        while (isRunning) {
+            Job job;
+            while (drain.size() < MAX_DRAIN_SIZE && (job = queue.poll()) != null) {
+                drain.add(job);
+            }
+            if (drain.isEmpty()) {
+                LockSupport.park(this); // woken by the next submit, or spuriously; either way poll again
+                continue;
+            }
+            try {
+                runDrain(drain);
+            } catch (RuntimeException | AssertionError e) {
+                for (Job failedJob : drain) {
+                    failedJob.result.completeExceptionally(e); // no effect on those already completed
+                }
+            }
+            drain.clear();
+        }
+
+        cancelWaitingJobs();
+    }
+
+    private void cancelWaitingJobs() {
+        Job job;
+        while ((job = queue.poll()) != null) {
+            job.result.cancel(false);
+        }
+    }
+
+    private void runDrain(ArrayList<Job> drain) {
+        CommandResult[] results = new CommandResult[drain.size()];
+        Throwable[] failures = new Throwable[drain.size()];
+        CommandResult changes;
+        CommandResult saveProblem;
+
+        darwin.beginDrain();
+        try {
+            changes = darwin.applyExternalChanges();
+            for (int i = 0; i < drain.size(); i++) {
+                Command command = drain.get(i).command;
+                try {
+                    results[i] = command == null ? null : darwin.executeCommand(command);
+                } catch (RuntimeException | AssertionError e) { // one broken command must not stop the engine
+                    failures[i] = e;
+                }
+            }
+            saveProblem = darwin.saveTasks();
+        } finally {
+            darwin.endDrain();
+            drainCount++; // only ever written by this thread
+        }
+
+        for (int i = 0; i < drain.size(); i++) {
+            Job job = drain.get(i);
+            if (failures[i] != null) {
+                job.result.completeExceptionally(failures[i]);
+                continue;
+            }
+            // The changes are reported once, to the first caller; a save problem to every command
+            job.result.complete(Darwin.combine(changes, results[i], job.command == null ? null : saveProblem));
+            changes = null;
+        }
+    }
+}
@@ -1,11 +1,29 @@
 package darwin;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+import darwin.command.ArchiveCommand;
 import darwin.command.Command;
+import darwin.command.CommandResult;
+import darwin.parser.Autocompleter;
+import darwin.parser.Autocompleter.Suggestion;
 import darwin.parser.Parser;
+import darwin.reminder.ReminderScheduler;
+import darwin.reminder.TaskReminders;
 import darwin.storage.Storage;
+import darwin.storage.StorageChange;
 import darwin.task.TaskList;
+import darwin.task.TaskSnapshot;
 import darwin.task.Task;
+import darwin.task.TaskChange;
+import darwin.ui.CompactRenderer;
+import darwin.ui.JsonRenderer;
+import darwin.ui.ResultRenderer;
 import darwin.ui.Ui;
 
 /**
@@ -16,14 +34,49 @@ import darwin.ui.Ui;
 public class Darwin {
 
     private static final String FILE_PATH = "./data/darwin.txt";
+
+    // ============ TASK STORE SELECTION ============
+    private static final String TASK_STORE_PROPERTY = "darwin.taskStore";
+    private static final String TASK_STORE_COLUMNAR = "columnar";
+    private static final String TASK_STORE_OFF_HEAP = "offheap";
+
+    // ============ STORAGE SELECTION ============
+    private static final String STORAGE_PROPERTY = "darwin.storage";
+    private static final String STORAGE_SINGLE_FILE = "file";
+
+    // ============ OUTPUT SELECTION ============
+    private static final String OUTPUT_PROPERTY = "darwin.output";
+    private static final String OUTPUT_COMPACT = "compact";
+    private static final String OUTPUT_JSON = "json";
+
+    // ============ ARCHIVING POLICY ============
+    private static final String ARCHIVE_AFTER_DAYS_PROPERTY = "darwin.archiveAfterDays";
+
     private final Storage storage;
-    private TaskList tasks;
+    private volatile TaskList tasks;
     private final Ui ui;
+    private final String outputFormat;
+    private final CommandEngine engine = new CommandEngine(this);
+    private final ReminderScheduler reminderScheduler = new ReminderScheduler();
+
+    // Written by the loading thread, read by the UI thread
+    private volatile boolean isLoaded;
+    private volatile boolean isExitRequested;
+    private volatile String loadErrorMessage;
+
+    // Refreshed after every change, read by the autocomplete and filter threads
+    private volatile TaskSnapshot taskSnapshot = new TaskList().snapshot();
+
+    // Filled by each batch of changes to the list, cleared once the list is saved
+    private final ArrayList<TaskChange> unsavedChanges = new ArrayList<>();
+    private boolean isFullSaveNeeded;
+    // Filled the same way, cleared once applied to the snapshot at the end of a drain
+    private final ArrayList<TaskChange> unsnapshottedChanges = new ArrayList<>();
 
     /**
      * Constructs a new Darwin application instance with the specified file path.
-     * Initializes the user interface, storage system, and loads existing tasks from the file.
-     * If loading fails, starts with an empty task list.
+     * Initializes the user interface and storage system without touching the file, so that
+     * construction is cheap; the tasks are read by {@link #loadTasks(IntConsumer)}.
      *
      * @param filePath The file path where tasks are persistently stored and loaded from.
      */
@@ -33,22 +86,199 @@ public class Darwin {
         ui = new Ui();
         assert ui != null : "UI component should be initialized";
 
-        storage = new Storage(filePath); // load tasks from file
+        outputFormat = System.getProperty(OUTPUT_PROPERTY, "");
+
+        storage = createStorage(filePath);
         assert storage != null : "Storage component should be initialized";
 
+        tasks = new TaskList(); // replaced once the tasks are loaded
+    }
+
+    /**
+     * Creates the storage of the kind chosen by the <code>darwin.storage</code> system property:
+     * <code>file</code> keeps every record in the file itself, and segment files listed by the
+     * file are used otherwise.
+     */
+    private static Storage createStorage(String filePath) {
+        if (STORAGE_SINGLE_FILE.equals(System.getProperty(STORAGE_PROPERTY, ""))) {
+            return new Storage(filePath);
+        }
+        return Storage.createSegmented(filePath);
+    }
+
+    /**
+     * Creates a renderer of the kind chosen by the <code>darwin.output</code> system property:
+     * <code>compact</code> for terse lines, <code>json</code> for one JSON object per result, and
+     * Professor Darwin's prose otherwise. Each response gets its own, and results hold copies of
+     * the tasks they show, so a response can be rendered on any thread after later commands ran.
+     */
+    private ResultRenderer createRenderer() {
+        switch (outputFormat) {
+            case OUTPUT_COMPACT:
+                return new CompactRenderer();
+            case OUTPUT_JSON:
+                return new JsonRenderer();
+            default:
+                return new Ui();
+        }
+    }
+
+    /**
+     * Loads the existing tasks from the file. If loading fails, starts with an empty task list.
+     * This may take a while for a large archive, so it can be called from a background thread;
+     * commands must not be run until {@link #isLoaded()} returns true.
+     *
+     * @param progressListener Receives the percentage of the file read so far.
+     */
+    public void loadTasks(IntConsumer progressListener) {
+        TaskList loadedList;
         try {
-            ArrayList<Task> loadedTasks = storage.loadTasks();
+            ArrayList<Task> loadedTasks = storage.loadTasks(progressListener);
             assert loadedTasks != null : "loadTasks() should never return null";
 
-            tasks = new TaskList(loadedTasks);
+            loadedList = createTaskList(loadedTasks);
 
-            assert tasks != null : "TaskList should be initialized";
+            assert loadedList != null : "TaskList should be initialized";
+            applyArchivePolicy(loadedList);
+        } catch (DarwinException e) {
+            loadErrorMessage = "Error loading tasks: " + e.getMessage();
+            loadedList = new TaskList();
+
+            assert loadedList.getTaskCount() == 0 : "New TaskList should be empty";
+        }
+
+        loadedList.addListener(new TaskReminders(reminderScheduler, loadedList));
+        loadedList.addListener(changes -> {
+            unsavedChanges.addAll(changes);
+            unsnapshottedChanges.addAll(changes);
+        });
+        tasks = loadedList;
+        taskSnapshot = loadedList.snapshot();
+        isLoaded = true;
+        engine.start();
+        StartupTimer.mark("tasks loaded");
+    }
+
+    /**
+     * Archives the done tasks older than the number of days given by the
+     * <code>darwin.archiveAfterDays</code> system property, if it is set, so that they are not
+     * loaded again next time. Runs before reminders are scheduled for the list.
+     */
+    private void applyArchivePolicy(TaskList loadedList) {
+        Integer archiveAfterDays = Integer.getInteger(ARCHIVE_AFTER_DAYS_PROPERTY);
+        if (archiveAfterDays == null || archiveAfterDays < 0) {
+            return;
+        }
+        storage.lock();
+        try {
+            ArchiveCommand.archiveDoneTasks(loadedList, storage, archiveAfterDays, LocalDate.now());
         } catch (DarwinException e) {
-            ui.printError("Error loading tasks: " + e.getMessage());
-            tasks = new TaskList();
+            loadErrorMessage = "Error archiving old tasks: " + e.getMessage();
+        } finally {
+            storage.unlock();
+        }
+    }
 
-            assert tasks != null : "TaskList should be initialized even on error";
-            assert tasks.getTaskCount() == 0 : "New TaskList should be empty";
+    /**
+     * Returns whether the tasks have finished loading.
+     *
+     * @return true once {@link #loadTasks(IntConsumer)} has completed.
+     */
+    public boolean isLoaded() {
+        return isLoaded;
+    }
+
+    /**
+     * Creates the task list using the store selected by the <code>darwin.taskStore</code> system
+     * property: <code>columnar</code>, <code>offheap</code>, or the default object list.
+     */
+    private TaskList createTaskList(ArrayList<Task> loadedTasks) {
+        switch (System.getProperty(TASK_STORE_PROPERTY, "")) {
+            case TASK_STORE_COLUMNAR:
+                return TaskList.createColumnar(loadedTasks);
+            case TASK_STORE_OFF_HEAP:
+                return TaskList.createOffHeap(loadedTasks);
+            default:
+                return new TaskList(loadedTasks);
+        }
+    }
+
+    /**
+     * Releases the resources held by the application. Called once when the application closes.
+     */
+    public void shutdown() {
+        engine.shutdown();
+        storage.stopWatching();
+        reminderScheduler.shutdown();
+        tasks.close();
+    }
+
+    /**
+     * Sets the listener that receives reminders for upcoming deadlines and events.
+     * The listener is called on the reminder thread, not the caller's thread.
+     *
+     * @param listener The listener for reminder messages.
+     */
+    public void setReminderListener(Consumer<String> listener) {
+        reminderScheduler.setListener(listener);
+    }
+
+    /**
+     * Starts watching the storage file for changes made by other Darwins sharing it.
+     * The listener is called on the watcher thread and may call {@link #submitReload()} from there.
+     *
+     * @param listener Called when the file may have changed.
+     */
+    public void startWatching(Runnable listener) {
+        assert isLoaded : "Tasks must be loaded before changes to them are watched";
+
+        storage.startWatching(listener);
+    }
+
+    /**
+     * Takes in the changes other Darwins made to the storage file, if any, and waits for them.
+     * Changes are held back while a transaction is open; if they are still there when it is
+     * committed, the other version of the file is kept aside instead.
+     *
+     * @return A message describing the changes, or null if there were none.
+     */
+    public String reloadExternalChanges() {
+        return submitReload().join();
+    }
+
+    /**
+     * Queues a check for changes other Darwins made to the storage file, after the commands
+     * already submitted. Safe to call from any thread.
+     *
+     * @return A message describing the changes, or null if there were none.
+     */
+    public CompletableFuture<String> submitReload() {
+        return engine.submitReload().thenApply(changes -> changes == null ? null : render(changes));
+    }
+
+    /**
+     * Suggests ways to complete a command as it is typed. Safe to call from any thread; if the
+     * calling thread is interrupted, returns early with the suggestions found so far.
+     *
+     * @param input The text typed so far.
+     * @param limit The largest number of suggestions to return.
+     * @return The suggestions, best first.
+     */
+    public ArrayList<Suggestion> suggest(String input, int limit) {
+        return Autocompleter.suggest(input, tasks, taskSnapshot.getDescriptions(), limit);
+    }
+
+    /**
+     * Returns the tasks as they were after the last command. Safe to call from any thread.
+     */
+    public TaskSnapshot getTaskSnapshot() {
+        return taskSnapshot;
+    }
+
+    private void refreshTaskSnapshot() {
+        if (!unsnapshottedChanges.isEmpty()) {
+            taskSnapshot = taskSnapshot.apply(unsnapshottedChanges);
+            unsnapshottedChanges.clear();
         }
     }
 
@@ -60,54 +290,202 @@ public class Darwin {
     }
 
     /**
-     * Generates a response for the user's chat message.
+     * Returns the problems found while loading the tasks, or null if they loaded cleanly.
+     * Only meaningful once the tasks are loaded.
+     */
+    public String getLoadProblems() {
+        assert isLoaded : "Tasks must be loaded before their problems are known";
+
+        StringBuilder problemBuilder = new StringBuilder();
+        ui.setResponseBuilder(problemBuilder);
+        if (loadErrorMessage != null) {
+            ui.printError(loadErrorMessage);
+        }
+        if (storage.getRecoveryMessage() != null) {
+            ui.printError(storage.getRecoveryMessage());
+        }
+        return problemBuilder.length() == 0 ? null : problemBuilder.toString().trim();
+    }
+
+    /**
+     * Returns whether a command has asked the application to close.
+     */
+    public boolean isExitRequested() {
+        return isExitRequested;
+    }
+
+    /**
+     * Generates a response for the user's chat message, written by the renderer chosen with the
+     * <code>darwin.output</code> system property. Waits for the commands submitted before it.
      */
     public String getResponse(String input) {
+        assert isLoaded : "Waiting for a command before the tasks are loaded never ends";
+
+        return submit(input).join();
+    }
+
+    /**
+     * Queues the user's chat message to run after the commands already submitted. Safe to call
+     * from any thread.
+     *
+     * @param input The command as typed.
+     * @return The response, written by the renderer chosen with the <code>darwin.output</code>
+     *         system property, once the command has run and been saved.
+     */
+    public CompletableFuture<String> submit(String input) {
         assert input != null : "Input cannot be null";
-        assert ui != null : "UI component must be initialized";
-        assert tasks != null : "TaskList must be initialized";
-        assert storage != null : "Storage must be initialized";
+
+        return engine.submit(parseCommand(input)).handle((result, error) -> {
+            if (error == null) {
+                return render(result);
+            }
+            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+            if (cause instanceof DarwinException) {
+                ResultRenderer renderer = createRenderer();
+                renderer.printCommandFailed(cause.getMessage());
+                return renderer.getResponse();
+            }
+            throw new CompletionException(cause);
+        });
+    }
+
+    /**
+     * Runs the user's command and returns what it did without rendering it, for callers that
+     * want the data rather than text. Changes other Darwins made to the file beforehand, and
+     * problems saving afterwards, are part of the result. Waits for the commands submitted before it.
+     *
+     * @param input The command as typed.
+     * @return The result of the command.
+     * @throws DarwinException If the command is invalid or cannot be carried out.
+     */
+    public CommandResult run(String input) throws DarwinException {
+        assert input != null : "Input cannot be null";
+        assert isLoaded : "Waiting for a command before the tasks are loaded never ends";
 
         try {
-            setupResponseBuilder();
-            Command command = parseCommand(input);
-            executeCommand(command);
-            saveTasks();
+            return engine.submit(parseCommand(input)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof DarwinException) {
+                throw (DarwinException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the engine that runs commands, for front ends that submit parsed commands themselves.
+     */
+    public CommandEngine getEngine() {
+        return engine;
+    }
 
-            String response = buildResponse(command);  // Use buildResponse method
-            return response;
+    private Command parseCommand(String input) {
+        try {
+            return Parser.parse(input);
         } catch (DarwinException e) {
-            return e.getMessage();
+            return new UnparsableCommand(e);
         }
     }
 
-    // getResponse helper - START
-    private void setupResponseBuilder() {
-        StringBuilder responseBuilder = new StringBuilder();
-        ui.clearResponse();
-        ui.setResponseBuilder(responseBuilder);
+    /**
+     * Stands in for input that could not be parsed, so that its error is reported in turn, after
+     * the responses to the commands submitted before it.
+     */
+    private static final class UnparsableCommand extends Command {
+        private final DarwinException error;
+
+        private UnparsableCommand(DarwinException error) {
+            this.error = error;
+        }
+
+        @Override
+        public CommandResult execute(TaskList tasks, Storage storage) throws DarwinException {
+            throw error;
+        }
     }
 
-    private Command parseCommand(String input) throws DarwinException {
-        return Parser.parse(input);
+    private String render(CommandResult result) {
+        ResultRenderer renderer = createRenderer();
+        result.renderTo(renderer);
+        return renderer.getResponse();
     }
 
-    private void executeCommand(Command command) throws DarwinException {
-        command.execute(tasks, ui, storage);
+    // ============ DRAIN STEPS, RUN BY THE ENGINE THREAD ONLY ============
+    // Held from the start of a drain until its changes are saved, so no other Darwin writes the file in between
+    void beginDrain() {
+        assert isLoaded : "Commands must wait until the tasks are loaded";
+
+        storage.lock();
     }
 
-    private void saveTasks() {
-        storage.saveTasks(tasks.getTasks());
+    void endDrain() {
+        refreshTaskSnapshot();
+        storage.unlock();
     }
 
-    private String buildResponse(Command command) {
-        String response = ui.getResponseBuilder().toString().trim();
+    CommandResult applyExternalChanges() {
+        if (tasks.isInTransaction()) {
+            return null;
+        }
+        StorageChange change = storage.readChanges();
+        if (change == null) {
+            return null;
+        }
+        int unsavedChangeCount = unsavedChanges.size();
+        tasks.replaceTasks(change.getFirstIndex(), change.getRemovedCount(), change.getAddedTasks());
+        unsavedChanges.subList(unsavedChangeCount, unsavedChanges.size()).clear(); // came from the file
+        // Changes made before these no longer line up with the records on disk
+        isFullSaveNeeded |= unsavedChangeCount > 0;
+        return new CommandResult.ExternalChanges(change.getAddedTasks().size(), change.getRemovedCount(),
+                tasks.getTaskCount());
+    }
+
+    CommandResult executeCommand(Command command) throws DarwinException {
+        tasks.beginBatch(); // the command's changes reach the listeners together
+        CommandResult result;
+        try {
+            result = command.execute(tasks, storage);
+        } finally {
+            tasks.endBatch();
+        }
+        if (result.isExit()) {
+            isExitRequested = true;
+        }
+        return result;
+    }
 
-        if (command.isExit()) {
-            response += "Bye. Hope to see you again soon!\n[Darwin will now close...]";
+    CommandResult saveTasks() {
+        if (tasks.isInTransaction() || (unsavedChanges.isEmpty() && !isFullSaveNeeded)) {
+            return null; // nothing changed, or saved once the transaction is committed
         }
+        if (isFullSaveNeeded) {
+            storage.saveTasks(tasks.getTasks());
+        } else {
+            storage.saveChanges(unsavedChanges, tasks::getTasks);
+        }
+        unsavedChanges.clear();
+        isFullSaveNeeded = false;
+        if (storage.getConflictMessage() != null) {
+            return new CommandResult.Warning(storage.getConflictMessage());
+        }
+        return null;
+    }
 
-        return response;
+    /**
+     * Joins the parts of a response that are there, in order.
+     *
+     * @return The parts as one result, or null if there are none.
+     */
+    static CommandResult combine(CommandResult changes, CommandResult result, CommandResult saveProblem) {
+        ArrayList<CommandResult> results = new ArrayList<>();
+        for (CommandResult part : new CommandResult[] {changes, result, saveProblem}) {
+            if (part != null) {
+                results.add(part);
+            }
+        }
+        if (results.size() <= 1) {
+            return results.isEmpty() ? null : results.get(0);
+        }
+        return new CommandResult.Sequence(results);
     }
-    // getResponse helper - END
 }
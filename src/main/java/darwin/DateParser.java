@@ -1,5 +1,6 @@
 package darwin;
 
+import java.time.DateTimeException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
@@ -15,6 +16,35 @@ import java.time.format.DateTimeParseException;
 public class DateParser {
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MMM dd yyyy");
+    private static final String INVALID_FORMAT_MESSAGE = " Invalid date format. Please use yyyy-mm-dd (e.g., 2019-12-02)";
+    private static final String OUT_OF_RANGE_MESSAGE = " Date is too far from today. Please use a year within"
+            + " a few million years of 1970.";
+
+    // ============ ISO DATE LAYOUT ============
+    private static final int ISO_DATE_LENGTH = 10;
+    private static final int YEAR_END = 4;
+    private static final int MONTH_START = 5;
+    private static final int MONTH_END = 7;
+    private static final int DAY_START = 8;
+    private static final char DATE_SEPARATOR = '-';
+
+    // ============ DISPLAY CACHE ============
+    private static final int DISPLAY_CACHE_SIZE = 1024; // must be a power of two
+    private static final DisplayEntry[] DISPLAY_CACHE = new DisplayEntry[DISPLAY_CACHE_SIZE];
+
+    /**
+     * An immutable cache slot, so that a slot read by one thread can never pair the epoch day of
+     * one entry with the display string of another.
+     */
+    private static final class DisplayEntry {
+        private final long epochDay;
+        private final String display;
+
+        private DisplayEntry(long epochDay, String display) {
+            this.epochDay = epochDay;
+            this.display = display;
+        }
+    }
 
     /**
      * Parses a date string in yyyy-mm-dd format into a LocalDate object.
@@ -27,20 +57,69 @@ public class DateParser {
     public static LocalDate parseDate(String dateString) throws DarwinException {
         assert dateString != null : "Date string cannot be null";
 
+        String trimmed = dateString.trim();
         try {
-            LocalDate parsedDate = LocalDate.parse(dateString.trim());
+            LocalDate parsedDate = isFixedWidthIsoDate(trimmed) ? decodeIsoDate(trimmed) : LocalDate.parse(trimmed);
 
             assert parsedDate != null : "Parsed date should not be null";
 
             return parsedDate; // uses yyyy-mm-dd
-        } catch (DateTimeParseException e) {
-            throw new DarwinException(" Invalid date format. Please use yyyy-mm-dd (e.g., 2019-12-02)");
+        } catch (DateTimeException e) {
+            throw new DarwinException(INVALID_FORMAT_MESSAGE);
         }
     }
 
+    /**
+     * Parses a date string in yyyy-mm-dd format into a day count from 1970-01-01, as tasks store
+     * their dates. Dates whose day count does not fit in an int (years beyond about 5.8 million
+     * either side of 1970) are rejected rather than wrapped around.
+     *
+     * @param dateString The date string to parse in yyyy-mm-dd format (e.g., "2019-12-02").
+     * @return The parsed date as an epoch day.
+     * @throws DarwinException If the date string is not in the expected format or is out of range.
+     */
+    public static int parseEpochDay(String dateString) throws DarwinException {
+        long epochDay = parseDate(dateString).toEpochDay();
+        if (epochDay < Integer.MIN_VALUE || epochDay > Integer.MAX_VALUE) {
+            throw new DarwinException(OUT_OF_RANGE_MESSAGE);
+        }
+        return (int) epochDay;
+    }
+
+    // parseDate helpers - START
+    private static boolean isFixedWidthIsoDate(String s) {
+        return s.length() == ISO_DATE_LENGTH
+                && s.charAt(YEAR_END) == DATE_SEPARATOR
+                && s.charAt(MONTH_END) == DATE_SEPARATOR;
+    }
+
+    /**
+     * Decodes a fixed-width yyyy-mm-dd string digit by digit, avoiding the general-purpose
+     * DateTimeFormatter machinery used by LocalDate.parse.
+     */
+    private static LocalDate decodeIsoDate(String s) throws DateTimeException {
+        int year = parseDigits(s, 0, YEAR_END);
+        int month = parseDigits(s, MONTH_START, MONTH_END);
+        int day = parseDigits(s, DAY_START, ISO_DATE_LENGTH);
+        return LocalDate.of(year, month, day); // validates month and day ranges
+    }
+
+    private static int parseDigits(String s, int start, int end) throws DateTimeParseException {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = s.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new DateTimeParseException("Not a digit", s, i);
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+    // parseDate helpers - END
+
     /**
      * Formats a LocalDate object into a human-readable display string in MMM dd yyyy format.
-     * If the date is null, returns null.
+     * If the date is null, returns null. Recently formatted dates are served from a small cache.
      *
      * @param date The LocalDate object to format, or null.
      * @return A formatted date string in MMM dd yyyy format (e.g., "Dec 02 2019"), or null if input is null.
@@ -50,13 +129,31 @@ public class DateParser {
             return null;
         }
 
-        String formatted = date.format(DATE_FORMATTER);
+        return formatEpochDayForDisplay(date.toEpochDay());
+    }
+
+    /**
+     * Formats a date given as a day count from 1970-01-01 in MMM dd yyyy format. A LocalDate is
+     * only created when the date is not already in the cache.
+     *
+     * @param epochDay The date as an epoch day.
+     * @return A formatted date string in MMM dd yyyy format (e.g., "Dec 02 2019").
+     */
+    public static String formatEpochDayForDisplay(long epochDay) {
+        int slot = (int) (epochDay & (DISPLAY_CACHE_SIZE - 1));
+        DisplayEntry entry = DISPLAY_CACHE[slot];
+        if (entry != null && entry.epochDay == epochDay) {
+            return entry.display;
+        }
+
+        String formatted = LocalDate.ofEpochDay(epochDay).format(DATE_FORMATTER);
 
         assert formatted != null : "Formatted date should not be null";
         assert !formatted.trim().isEmpty() : "Formatted date should not be empty";
         assert formatted.matches("[A-Z][a-z]{2} \\d{2} \\d{4}") :
                 "Date should be in format 'MMM dd yyyy', but was: " + formatted;
 
+        DISPLAY_CACHE[slot] = new DisplayEntry(epochDay, formatted);
         return formatted;
     }
 }
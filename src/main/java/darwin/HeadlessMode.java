@@ -0,0 +1,606 @@
+package darwin;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import darwin.command.CommandResult;
+import darwin.parser.Parser;
+import darwin.storage.Storage;
+import darwin.task.Deadline;
+import darwin.task.Event;
+import darwin.task.Task;
+import darwin.task.TaskList;
+import darwin.task.ToDo;
+
+/**
+ * Runs Darwin without a window, for the build rather than for users. A training run exercises the
+ * common commands and loads the GUI classes so that the JVM can record every class startup needs
+ * in a class data sharing archive; a startup probe measures how long it takes to reach the greeting;
+ * an engine benchmark measures how many commands the command engine runs per second when many
+ * threads submit them at once; a date benchmark compares DateParser with the general-purpose
+ * java.time parsing and formatting it replaces; a memory benchmark measures the heap a loaded list
+ * takes per task; a capacity benchmark fills an off-heap list to its cap and measures its heap and
+ * collections; a scan benchmark compares the object and columnar task stores; a script benchmark
+ * compares running a long script one saved command at a time with running it as one transaction.
+ */
+public class HeadlessMode {
+
+    public static final String TRAIN_FLAG = "--train";
+    public static final String PROBE_STARTUP_FLAG = "--probe-startup";
+    public static final String BENCHMARK_ENGINE_FLAG = "--benchmark-engine";
+    public static final String BENCHMARK_DATES_FLAG = "--benchmark-dates";
+    public static final String BENCHMARK_MEMORY_FLAG = "--benchmark-memory";
+    public static final String BENCHMARK_CAPACITY_FLAG = "--benchmark-capacity";
+    public static final String BENCHMARK_SCAN_FLAG = "--benchmark-scan";
+    public static final String BENCHMARK_SCRIPT_FLAG = "--benchmark-script";
+
+    private static final String DEFAULT_FILE_PATH = "./data/darwin.txt";
+
+    // Commands covering the parser, every command and the storage paths they trigger
+    private static final String[] TRAINING_COMMANDS = {
+        "todo read book",
+        "deadline return book /by 2026-03-01",
+        "event book fair /from 2026-01-01 /to 2026-01-03",
+        "deadline water plants /by 2026-03-02 /every week",
+        "list",
+        "list by due",
+        "list /from 2026-01-01 /to 2026-03-31",
+        "mark 1",
+        "unmark 1",
+        "find book",
+        "find~ bokk",
+        "find --where type:D (done:no or due<2026-06-01) not word:fair",
+        "explain find --where done:no word:book",
+        "export training.csv",
+        "export training.jsonl",
+        "export training.ics",
+        "import training.csv",
+        "delete 5",
+        "nonsense",
+        "bye",
+    };
+
+    // Engine benchmark: producer threads per run, and add/delete pairs each one submits
+    private static final int[] BENCHMARK_PRODUCER_COUNTS = {1, 4, 16};
+    private static final int BENCHMARK_PAIRS_PER_PRODUCER = 2000;
+    private static final int BENCHMARK_SEED_TASKS = 50;
+
+    // Timed benchmarks report the best of this many rounds
+    private static final int BENCHMARK_ROUNDS = 10;
+
+    // Date benchmark: tasks rendered per round, and distinct due dates among them
+    private static final int DATE_BENCHMARK_TASKS = 100_000;
+    private static final int DATE_BENCHMARK_DAYS = 730;
+    private static final LocalDate DATE_BENCHMARK_START = LocalDate.of(2026, 1, 1);
+
+    // Memory benchmark: tasks loaded, and distinct descriptions among them
+    private static final int MEMORY_BENCHMARK_TASKS = 100_000;
+    private static final int MEMORY_BENCHMARK_DESCRIPTIONS = 50;
+
+    // Capacity benchmark: tasks added, the cap of a columnar list, distinct descriptions among them,
+    // and edits timed on the full list
+    private static final int CAPACITY_BENCHMARK_TASKS = 5_000_000;
+    private static final int CAPACITY_BENCHMARK_DESCRIPTIONS = 10_000;
+    private static final int CAPACITY_BENCHMARK_EDITS = 1000;
+
+    // Scan benchmark: tasks per list, and one in this many holds the searched word or is done
+    private static final int SCAN_BENCHMARK_TASKS = 100_000;
+    private static final int SCAN_BENCHMARK_MATCH_INTERVAL = 1000;
+
+    // Script benchmark: tasks in the list beforehand, and commands in the script
+    private static final int SCRIPT_BENCHMARK_SEED_TASKS = 1000;
+    private static final int SCRIPT_BENCHMARK_COMMANDS = 10_000;
+
+    // GUI classes the window needs; loaded but not initialised, as there may be no display
+    private static final String[] GUI_CLASSES = {
+        "darwin.Main",
+        "darwin.MainWindow",
+        "darwin.DialogBox",
+        "javafx.application.Platform",
+        "javafx.fxml.FXMLLoader",
+        "javafx.scene.Scene",
+        "javafx.scene.control.Button",
+        "javafx.scene.control.Label",
+        "javafx.scene.control.ScrollPane",
+        "javafx.scene.control.TextField",
+        "javafx.scene.image.Image",
+        "javafx.scene.image.ImageView",
+        "javafx.scene.layout.AnchorPane",
+        "javafx.scene.layout.HBox",
+        "javafx.scene.layout.StackPane",
+        "javafx.scene.layout.VBox",
+        "javafx.animation.PauseTransition",
+        "javafx.stage.Stage",
+    };
+
+    /**
+     * Runs the headless mode named by the first argument, if any.
+     *
+     * @param args The command line arguments.
+     * @return true if a headless mode ran and the application should exit, false to start the GUI.
+     */
+    public static boolean runIfRequested(String[] args) {
+        if (args.length == 0) {
+            return false;
+        }
+
+        switch (args[0]) {
+            case TRAIN_FLAG:
+                train();
+                return true;
+            case PROBE_STARTUP_FLAG:
+                probeStartup();
+                return true;
+            case BENCHMARK_ENGINE_FLAG:
+                benchmarkEngine();
+                return true;
+            case BENCHMARK_DATES_FLAG:
+                benchmarkDates();
+                return true;
+            case BENCHMARK_MEMORY_FLAG:
+                benchmarkMemory();
+                return true;
+            case BENCHMARK_CAPACITY_FLAG:
+                benchmarkCapacity();
+                return true;
+            case BENCHMARK_SCAN_FLAG:
+                benchmarkScans();
+                return true;
+            case BENCHMARK_SCRIPT_FLAG:
+                benchmarkScripts();
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Runs every kind of command against a scratch archive in a temporary directory, then loads
+     * the GUI classes.
+     */
+    private static void train() {
+        Path directory = null;
+        try {
+            directory = Files.createTempDirectory("darwin-training");
+            Darwin darwin = new Darwin(directory.resolve("darwin.txt").toString());
+            darwin.getGreeting();
+            darwin.loadTasks(percent -> { });
+            for (String command : TRAINING_COMMANDS) {
+                String input = command.startsWith("export ") || command.startsWith("import ")
+                        ? command.replace("training.", directory.resolve("training.").toString())
+                        : command;
+                darwin.getResponse(input);
+            }
+            darwin.shutdown();
+        } catch (IOException e) {
+            System.err.println("Training run failed: " + e.getMessage());
+        } finally {
+            deleteRecursively(directory);
+        }
+
+        for (String className : GUI_CLASSES) {
+            try {
+                Class.forName(className, false, HeadlessMode.class.getClassLoader());
+            } catch (ClassNotFoundException e) {
+                System.err.println("Training run could not load " + className);
+            }
+        }
+        StartupTimer.mark("training finished");
+    }
+
+    /**
+     * Does what the GUI does before the user can type, without showing a window: builds Darwin,
+     * produces the greeting and loads the archive, then prints the startup marks to standard output.
+     */
+    private static void probeStartup() {
+        Darwin darwin = new Darwin(DEFAULT_FILE_PATH);
+        darwin.getGreeting();
+        StartupTimer.mark("greeting ready");
+        darwin.loadTasks(percent -> { });
+        darwin.shutdown();
+        System.out.print(StartupTimer.getReport());
+    }
+
+    /**
+     * Runs the engine benchmark once per producer count, each against a fresh archive in a
+     * temporary directory, and prints the throughput and the number of drains, each ending in at most one save. Every
+     * producer alternates adding a task with deleting the first one, so the list stays the same
+     * size, and submits without waiting for its earlier commands.
+     */
+    private static void benchmarkEngine() {
+        for (int producerCount : BENCHMARK_PRODUCER_COUNTS) {
+            Path directory = null;
+            try {
+                directory = Files.createTempDirectory("darwin-benchmark");
+                Darwin darwin = new Darwin(directory.resolve("darwin.txt").toString());
+                darwin.loadTasks(percent -> { });
+                for (int i = 0; i < BENCHMARK_SEED_TASKS; i++) {
+                    darwin.getResponse("todo seed task " + i);
+                }
+                System.out.println(runProducers(darwin, producerCount));
+                darwin.shutdown();
+            } catch (IOException | InterruptedException e) {
+                System.err.println("Engine benchmark failed: " + e.getMessage());
+            } finally {
+                deleteRecursively(directory);
+            }
+        }
+    }
+
+    private static String runProducers(Darwin darwin, int producerCount) throws InterruptedException {
+        CommandEngine engine = darwin.getEngine();
+        CountDownLatch startGate = new CountDownLatch(1);
+        ArrayList<CompletableFuture<CommandResult>> results = new ArrayList<>();
+        ArrayList<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < producerCount; p++) {
+            String description = "benchmark task " + p;
+            Thread producer = new Thread(() -> {
+                ArrayList<CompletableFuture<CommandResult>> ownResults = new ArrayList<>();
+                try {
+                    startGate.await();
+                    for (int i = 0; i < BENCHMARK_PAIRS_PER_PRODUCER; i++) {
+                        ownResults.add(engine.submit(Parser.parse("todo " + description)));
+                        ownResults.add(engine.submit(Parser.parse("delete 1")));
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                synchronized (results) {
+                    results.addAll(ownResults);
+                }
+            }, "darwin-benchmark-" + p);
+            producers.add(producer);
+            producer.start();
+        }
+
+        long drainsBefore = engine.getDrainCount();
+        long startTime = System.nanoTime();
+        startGate.countDown();
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).join();
+        long elapsedNanos = System.nanoTime() - startTime;
+
+        int commandCount = producerCount * BENCHMARK_PAIRS_PER_PRODUCER * 2;
+        return String.format("engine, %d producers: %d commands in %d ms (%d commands/sec, %d drains)",
+                producerCount, commandCount, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                commandCount * TimeUnit.SECONDS.toNanos(1) / Math.max(elapsedNanos, 1),
+                engine.getDrainCount() - drainsBefore);
+    }
+
+    /**
+     * Parses and renders a list of 100,000 deadlines both through DateParser and through
+     * LocalDate.parse and a DateTimeFormatter, as DateParser did before its fast paths, and prints
+     * the best time of several rounds for each. Rendering uses toString rather than the display
+     * string cached on the task, so every round formats every date.
+     */
+    private static void benchmarkDates() {
+        String[] dateStrings = new String[DATE_BENCHMARK_TASKS];
+        for (int i = 0; i < DATE_BENCHMARK_TASKS; i++) {
+            dateStrings[i] = DATE_BENCHMARK_START.plusDays(i % DATE_BENCHMARK_DAYS).toString();
+        }
+        DateTimeFormatter displayFormatter = DateTimeFormatter.ofPattern("MMM dd yyyy");
+        ArrayList<Task> deadlines = new ArrayList<>();
+        for (String dateString : dateStrings) {
+            deadlines.add(new Deadline("return book", dateString));
+        }
+
+        long[] checksum = new long[1]; // keeps the work from being optimised away
+        printBest("dates, parse, LocalDate.parse", DATE_BENCHMARK_TASKS, () -> {
+            for (String dateString : dateStrings) {
+                checksum[0] += LocalDate.parse(dateString).toEpochDay();
+            }
+        });
+        printBest("dates, parse, DateParser", DATE_BENCHMARK_TASKS, () -> {
+            for (String dateString : dateStrings) {
+                checksum[0] += DateParser.parseDate(dateString).toEpochDay();
+            }
+        });
+        printBest("dates, render, DateTimeFormatter", DATE_BENCHMARK_TASKS, () -> {
+            for (Task task : deadlines) {
+                LocalDate date = ((Deadline) task).getDate();
+                checksum[0] += ("[D][ ] " + task.getDescription() + " (by: " + date.format(displayFormatter) + ")")
+                        .length();
+            }
+        });
+        printBest("dates, render, DateParser", DATE_BENCHMARK_TASKS, () -> {
+            for (Task task : deadlines) {
+                checksum[0] += task.toString().length();
+            }
+        });
+        System.out.println("(checksum " + checksum[0] + ")");
+    }
+
+    /**
+     * Builds the same 100,000 tasks into an object list, a columnar list and an off-heap columnar
+     * list, and prints the best time of several rounds for two scans over each: a find for a word
+     * one task in a thousand holds, and a select of the done tasks, which one in a thousand are.
+     */
+    private static void benchmarkScans() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < SCAN_BENCHMARK_TASKS; i++) {
+            boolean isMatch = i % SCAN_BENCHMARK_MATCH_INTERVAL == 0;
+            String description = (isMatch ? "find the needle " : "read book chapter ") + i;
+            Task task = i % 2 == 0 ? new ToDo(description)
+                    : new Deadline(description, DATE_BENCHMARK_START.plusDays(i % DATE_BENCHMARK_DAYS).toString());
+            if (isMatch) {
+                task.markAsDone();
+            }
+            tasks.add(task);
+        }
+
+        TaskList[] lists = {new TaskList(tasks), TaskList.createColumnar(tasks), TaskList.createOffHeap(tasks)};
+        String[] labels = {"object", "columnar", "off-heap"};
+        long[] checksum = new long[1]; // keeps the work from being optimised away
+        for (int i = 0; i < lists.length; i++) {
+            TaskList list = lists[i];
+            printBest("scan, find, " + labels[i], SCAN_BENCHMARK_TASKS,
+                    () -> checksum[0] += list.findTasks("needle").size());
+            printBest("scan, done, " + labels[i], SCAN_BENCHMARK_TASKS,
+                    () -> checksum[0] += list.selectTasks((typeCode, isDone) -> isDone, task -> true).size());
+        }
+        lists[2].close();
+        System.out.println("(checksum " + checksum[0] + ")");
+    }
+
+    /**
+     * Runs the same 10,000-command script against a list of 1,000 tasks three ways, each against a
+     * fresh archive in a temporary directory, and prints the throughput of each: one command per
+     * input, each saved before the next runs, as a script fed to Darwin line by line was before
+     * pipelines; the same inputs between <code>begin</code> and <code>commit</code>; and a single
+     * <code>do</code> line. The last two save once, at the end.
+     */
+    private static void benchmarkScripts() {
+        ArrayList<String> script = new ArrayList<>();
+        for (int i = 0; i < SCRIPT_BENCHMARK_COMMANDS; i++) {
+            script.add(i % 2 == 0
+                    ? "todo script task " + i
+                    : "mark " + (SCRIPT_BENCHMARK_SEED_TASKS + i / 2 + 1)); // the task added just before
+        }
+        ArrayList<String> transaction = new ArrayList<>(script);
+        transaction.add(0, "begin");
+        transaction.add("commit");
+
+        runScript("one save per command", script, SCRIPT_BENCHMARK_COMMANDS);
+        runScript("begin/commit", transaction, SCRIPT_BENCHMARK_COMMANDS);
+        runScript("one do line", List.of("do " + String.join(" ; ", script)), SCRIPT_BENCHMARK_COMMANDS);
+    }
+
+    private static void runScript(String label, List<String> inputs, int commandCount) {
+        Path directory = null;
+        try {
+            directory = Files.createTempDirectory("darwin-benchmark");
+            Darwin darwin = new Darwin(directory.resolve("darwin.txt").toString());
+            darwin.loadTasks(percent -> { });
+            ArrayList<String> seedCommands = new ArrayList<>();
+            for (int i = 0; i < SCRIPT_BENCHMARK_SEED_TASKS; i++) {
+                seedCommands.add("todo seed task " + i);
+            }
+            darwin.getResponse("do " + String.join(" ; ", seedCommands));
+
+            long startTime = System.nanoTime();
+            for (String input : inputs) {
+                darwin.getResponse(input);
+            }
+            long elapsedNanos = System.nanoTime() - startTime;
+
+            System.out.println(String.format("script, %s: %d commands in %d ms (%d commands/sec, %d tasks)",
+                    label, commandCount, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                    commandCount * TimeUnit.SECONDS.toNanos(1) / Math.max(elapsedNanos, 1),
+                    darwin.getTaskSnapshot().size()));
+            darwin.shutdown();
+        } catch (IOException e) {
+            System.err.println("Script benchmark failed: " + e.getMessage());
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    private static void printBest(String label, int taskCount, Runnable round) {
+        long bestNanos = Long.MAX_VALUE;
+        for (int i = 0; i < BENCHMARK_ROUNDS; i++) {
+            long startTime = System.nanoTime();
+            round.run();
+            bestNanos = Math.min(bestNanos, System.nanoTime() - startTime);
+        }
+        System.out.println(String.format("%s: %d tasks in %d ms (%d ns/task)", label, taskCount,
+                TimeUnit.NANOSECONDS.toMillis(bestNanos), bestNanos / taskCount));
+    }
+
+    /**
+     * The shape of a task before descriptions were pooled and dates kept as epoch days: a boolean
+     * status, and a deadline holding both its date string and the parsed LocalDate. Only used to
+     * measure what the compact representation saves.
+     */
+    private static class LegacyTask {
+        private final String description;
+        private boolean isDone;
+
+        private LegacyTask(String description) {
+            this.description = description;
+        }
+    }
+
+    private static class LegacyDeadline extends LegacyTask {
+        private final String by;
+        private final LocalDate date;
+
+        private LegacyDeadline(String description, String by) {
+            super(description);
+            this.by = by;
+            this.date = LocalDate.parse(by);
+        }
+    }
+
+    private static class LegacyEvent extends LegacyTask {
+        private final LocalDate fromDate;
+        private final LocalDate toDate;
+
+        private LegacyEvent(String description, String from, String to) {
+            super(description);
+            this.fromDate = LocalDate.parse(from);
+            this.toDate = LocalDate.parse(to);
+        }
+    }
+
+    /**
+     * Saves 100,000 todos, deadlines and events sharing 50 descriptions, loads them back through
+     * Storage, and prints the heap the loaded list retains per task. For comparison it builds the
+     * same tasks in their earlier shape, each with its own copy of its description, as the loader
+     * used to, and measures those too. A list's size is the heap freed by a full collection once it
+     * is dropped, so the figures are approximate; run with a fixed heap (e.g. -Xms1g -Xmx1g) for
+     * steadier numbers.
+     */
+    private static void benchmarkMemory() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < MEMORY_BENCHMARK_TASKS; i++) {
+            String description = "task number " + (i % MEMORY_BENCHMARK_DESCRIPTIONS);
+            String date = DATE_BENCHMARK_START.plusDays(i % DATE_BENCHMARK_DAYS).toString();
+            switch (i % 3) {
+                case 0:
+                    tasks.add(new ToDo(description));
+                    break;
+                case 1:
+                    tasks.add(new Deadline(description, date));
+                    break;
+                default:
+                    tasks.add(new Event(description, date, date));
+                    break;
+            }
+        }
+
+        Path directory = null;
+        try {
+            directory = Files.createTempDirectory("darwin-benchmark");
+            Storage storage = new Storage(directory.resolve("darwin.txt").toString());
+            storage.saveTasks(tasks);
+            tasks = null;
+
+            ArrayList<Task> loadedTasks = storage.loadTasks();
+            ArrayList<LegacyTask> legacyTasks = new ArrayList<>();
+            for (Task task : loadedTasks) {
+                legacyTasks.add(toLegacyTask(task));
+            }
+            int taskCount = loadedTasks.size();
+
+            // Each list is measured by how much heap is freed once it is dropped; the fences keep a
+            // list reachable until then, as the JIT would otherwise drop it after its last use
+            long withBoth = measureUsedHeap();
+            Reference.reachabilityFence(legacyTasks);
+            legacyTasks = null;
+            long withCompact = measureUsedHeap();
+            Reference.reachabilityFence(loadedTasks);
+            loadedTasks = null;
+            long withNeither = measureUsedHeap();
+            printHeapPerTask("compact, loaded by Storage", withCompact - withNeither, taskCount);
+            printHeapPerTask("legacy shape, own descriptions", withBoth - withCompact, taskCount);
+        } catch (IOException e) {
+            System.err.println("Memory benchmark failed: " + e.getMessage());
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    private static LegacyTask toLegacyTask(Task task) {
+        String description = new String(task.getDescription()); // the loader split every line into new strings
+        LegacyTask legacyTask;
+        if (task instanceof Deadline) {
+            legacyTask = new LegacyDeadline(description, ((Deadline) task).getDate().toString());
+        } else if (task instanceof Event) {
+            legacyTask = new LegacyEvent(description, ((Event) task).getFromDate().toString(),
+                    ((Event) task).getToDate().toString());
+        } else {
+            legacyTask = new LegacyTask(description);
+        }
+        legacyTask.isDone = task.isDone();
+        return legacyTask;
+    }
+
+    /**
+     * Fills an off-heap columnar list to its cap of 5,000,000 tasks sharing 10,000 descriptions,
+     * one add at a time as an import would, and prints how long that took, the collections that ran meanwhile and the heap the
+     * full list retains per task. It then times adding a task to the full list and deleting it
+     * again. Run with a fixed heap (e.g. -Xms2g -Xmx2g) so the collection figures are comparable.
+     */
+    private static void benchmarkCapacity() {
+        long withoutList = measureUsedHeap();
+        long[] collectionsBefore = countCollections();
+        long startTime = System.nanoTime();
+        TaskList tasks = TaskList.createOffHeap(new ArrayList<>());
+        for (int i = 0; i < CAPACITY_BENCHMARK_TASKS; i++) {
+            String description = "task number " + (i % CAPACITY_BENCHMARK_DESCRIPTIONS);
+            tasks.addTask(i % 2 == 0 ? new ToDo(description)
+                    : new Deadline(description, DATE_BENCHMARK_START.plusDays(i % DATE_BENCHMARK_DAYS).toString()));
+        }
+        long fillNanos = System.nanoTime() - startTime;
+        long[] collectionsAfter = countCollections();
+        System.out.println(String.format("capacity, fill off-heap: %d tasks in %d ms (%d ns/task)",
+                CAPACITY_BENCHMARK_TASKS, TimeUnit.NANOSECONDS.toMillis(fillNanos),
+                fillNanos / CAPACITY_BENCHMARK_TASKS));
+        System.out.println(String.format("capacity, collections while filling: %d taking %d ms",
+                collectionsAfter[0] - collectionsBefore[0], collectionsAfter[1] - collectionsBefore[1]));
+        printHeapPerTask("off-heap, full", measureUsedHeap() - withoutList, tasks.getTaskCount());
+
+        try {
+            tasks.addTask(new ToDo("one task too many"));
+            System.err.println("Capacity benchmark: the full list took another task");
+        } catch (DarwinException e) {
+            tasks.deleteTask(tasks.getTaskCount()); // makes room for the timed edits
+        }
+        printBest("capacity, add and delete on a full list", CAPACITY_BENCHMARK_EDITS, () -> {
+            for (int i = 0; i < CAPACITY_BENCHMARK_EDITS; i++) {
+                tasks.addTask(new ToDo("benchmark task " + i));
+                tasks.deleteTask(tasks.getTaskCount());
+            }
+        });
+        tasks.close();
+    }
+
+    /** Returns the number of collections so far and the milliseconds they took, over all collectors. */
+    private static long[] countCollections() {
+        long[] collections = new long[2];
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            collections[0] += Math.max(collector.getCollectionCount(), 0);
+            collections[1] += Math.max(collector.getCollectionTime(), 0);
+        }
+        return collections;
+    }
+
+    private static long measureUsedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static void printHeapPerTask(String label, long bytes, int taskCount) {
+        System.out.println(String.format("memory, %s: %d tasks in %d KB (%d bytes/task)", label, taskCount,
+                bytes / 1024, bytes / Math.max(taskCount, 1)));
+    }
+
+    private static void deleteRecursively(Path directory) {
+        if (directory == null) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            System.err.println("Could not clean up " + directory + ": " + e.getMessage());
+        }
+    }
+}
@@ -3,10 +3,15 @@ package darwin;
 import javafx.application.Application;
 
 /**
- * Launcher for the Darwin GUI application.
+ * Launcher for the Darwin GUI application. The build also uses it to run Darwin without a window;
+ * see {@link HeadlessMode}.
  */
 public class Launcher {
     public static void main(String[] args) {
+        StartupTimer.mark("launcher started");
+        if (HeadlessMode.runIfRequested(args)) {
+            return;
+        }
         Application.launch(Main.class, args);
     }
 }
\ No newline at end of file
@@ -14,10 +14,12 @@ import javafx.stage.Stage;
 public class Main extends Application {
 
     private static final String DEFAULT_FILE_PATH = "./data/darwin.txt";
-    private Darwin darwin = new Darwin(DEFAULT_FILE_PATH);
+    private Darwin darwin; // created in start(), and its tasks loaded only after the window is up
 
     @Override
     public void start(Stage stage) {
+        StartupTimer.mark("JavaFX started");
+        darwin = new Darwin(DEFAULT_FILE_PATH);
         try {
             FXMLLoader fxmlLoader = new FXMLLoader(Main.class.getResource("/view/MainWindow.fxml"));
             AnchorPane ap = fxmlLoader.load();
@@ -26,12 +28,20 @@ public class Main extends Application {
             stage.setTitle("Professor Darwin's Task Manager");
             stage.setScene(scene);
             stage.setMinHeight(220);
-            stage.setMinWidth(500);
+            stage.setMinWidth(700);
 
-            fxmlLoader.<MainWindow>getController().setDarwin(darwin);  // inject the Darwin instance
+            MainWindow mainWindow = fxmlLoader.<MainWindow>getController();
+            mainWindow.setDarwin(darwin);  // inject the Darwin instance
             stage.show();
+            StartupTimer.mark("window and greeting shown");
+            mainWindow.loadTasksInBackground();
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
+
+    @Override
+    public void stop() {
+        darwin.shutdown();
+    }
 }
\ No newline at end of file
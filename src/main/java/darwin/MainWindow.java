@@ -1,9 +1,25 @@
 package darwin;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import darwin.parser.Autocompleter.Suggestion;
+import darwin.task.IncrementalFilter;
+import darwin.task.TaskSnapshot;
 import javafx.animation.PauseTransition;
 import javafx.application.Platform;
+import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
+import javafx.geometry.Side;
 import javafx.scene.control.Button;
+import javafx.scene.control.ContextMenu;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.MenuItem;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.control.TextField;
 import javafx.scene.image.Image;
@@ -20,8 +36,40 @@ public class MainWindow extends AnchorPane {
     private TextField userInput;
     @FXML
     private Button sendButton;
+    @FXML
+    private TextField filterInput;
+    @FXML
+    private ListView<Integer> filterResults; // positions in filteredSnapshot; rows are rendered by their cells
+
+    private static final String LOADING_PROMPT = "Unpacking your archive... ";
+    private static final Duration SUGGESTION_DELAY = Duration.millis(150);
+    private static final int MAX_SUGGESTIONS = 8;
 
     private Darwin darwin;
+    private final ArrayDeque<String> pendingInputs = new ArrayDeque<>(); // typed while the tasks load
+    private boolean isReady; // set on the FX thread once pendingInputs is drained; read only there
+
+    // Autocomplete: suggestions are computed on their own thread once typing pauses
+    private final ContextMenu suggestionMenu = new ContextMenu();
+    private final PauseTransition suggestionDelay = new PauseTransition(SUGGESTION_DELAY);
+    private final ExecutorService suggestionExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "darwin-autocomplete");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Future<?> pendingSuggestions;
+    private long suggestionRequestCount; // identifies the latest request; older results are dropped
+
+    // Live filter: the pane is refilled on its own thread after every keystroke and every change
+    private final IncrementalFilter liveFilter = new IncrementalFilter(); // used by the filter thread only
+    private final ExecutorService filterExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "darwin-filter");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Future<?> pendingFilter;
+    private long filterRequestCount;
+    private TaskSnapshot filteredSnapshot; // the tasks the pane shows; set and read on the FX thread only
 
     private Image userImage = new Image(this.getClass().getResourceAsStream("/images/DaUser.png"));
     private Image darwinImage = new Image(this.getClass().getResourceAsStream("/images/DaDarwin.png"));
@@ -31,6 +79,95 @@ public class MainWindow extends AnchorPane {
         dialogContainer.heightProperty().addListener((observable, oldValue, newValue) -> {
             scrollPane.setVvalue((Double) newValue);
         });
+        userInput.textProperty().addListener((observable, oldValue, newValue) -> scheduleSuggestions());
+        suggestionDelay.setOnFinished(event -> requestSuggestions());
+        filterInput.textProperty().addListener((observable, oldValue, newValue) -> refreshFilter());
+        filterResults.setCellFactory(listView -> new ListCell<>() {
+            @Override
+            protected void updateItem(Integer position, boolean isEmpty) {
+                super.updateItem(position, isEmpty);
+                setText(isEmpty || position == null ? null
+                        : (position + 1) + "." + filteredSnapshot.getDisplayStrings().get(position));
+            }
+        });
+    }
+
+    /**
+     * Refills the filter pane with the tasks matching the filter text, on the filter thread.
+     * A scan still running for an earlier text or an older list is cancelled. The pane holds only
+     * the positions of the matches; a row's text is built when its cell is shown.
+     */
+    private void refreshFilter() {
+        filterRequestCount++;
+        if (pendingFilter != null) {
+            pendingFilter.cancel(true);
+        }
+        if (darwin == null || !darwin.isLoaded()) {
+            return;
+        }
+
+        String keyword = filterInput.getText();
+        TaskSnapshot snapshot = darwin.getTaskSnapshot();
+        long requestNumber = filterRequestCount;
+        pendingFilter = filterExecutor.submit(() -> {
+            Thread filterThread = Thread.currentThread();
+            List<Integer> matches = liveFilter.filter(snapshot, keyword, filterThread::isInterrupted);
+            if (matches == null) {
+                return;
+            }
+            Platform.runLater(() -> {
+                if (requestNumber == filterRequestCount) {
+                    filteredSnapshot = snapshot;
+                    filterResults.setItems(FXCollections.unmodifiableObservableList(
+                            FXCollections.observableList(matches)));
+                }
+            });
+        });
+    }
+
+    /**
+     * Restarts the wait for typing to pause, and drops the suggestions for what was typed before.
+     */
+    private void scheduleSuggestions() {
+        suggestionRequestCount++;
+        if (pendingSuggestions != null) {
+            pendingSuggestions.cancel(true);
+        }
+        suggestionMenu.hide();
+        if (darwin != null && darwin.isLoaded() && !userInput.getText().isBlank()) {
+            suggestionDelay.playFromStart();
+        } else {
+            suggestionDelay.stop();
+        }
+    }
+
+    private void requestSuggestions() {
+        String input = userInput.getText();
+        long requestNumber = suggestionRequestCount;
+        pendingSuggestions = suggestionExecutor.submit(() -> {
+            ArrayList<Suggestion> suggestions = darwin.suggest(input, MAX_SUGGESTIONS);
+            if (Thread.currentThread().isInterrupted()) {
+                return; // cancelled by newer typing, so the suggestions may be partial
+            }
+            Platform.runLater(() -> showSuggestions(suggestions, requestNumber));
+        });
+    }
+
+    private void showSuggestions(ArrayList<Suggestion> suggestions, long requestNumber) {
+        if (requestNumber != suggestionRequestCount || suggestions.isEmpty()) {
+            return; // the input changed since, or there is nothing to offer
+        }
+
+        suggestionMenu.getItems().clear();
+        for (Suggestion suggestion : suggestions) {
+            MenuItem item = new MenuItem(suggestion.getLabel());
+            item.setOnAction(event -> {
+                userInput.setText(suggestion.getCompletedInput());
+                userInput.positionCaret(userInput.getText().length());
+            });
+            suggestionMenu.getItems().add(item);
+        }
+        suggestionMenu.show(userInput, Side.TOP, 0, 0);
     }
 
     private void showGreeting() {
@@ -45,30 +182,95 @@ public class MainWindow extends AnchorPane {
         this.darwin = d;
         // Show greeting when window opens, only possible after darwin has been initialised
         showGreeting();
+        darwin.setReminderListener(this::showReminder);
+    }
+
+    /**
+     * Loads the tasks on a background thread, showing the progress in the input field.
+     * Anything the user sends in the meantime is answered, in order, once loading completes.
+     */
+    public void loadTasksInBackground() {
+        userInput.setPromptText(LOADING_PROMPT + "0%");
+        Thread loader = new Thread(() -> {
+            darwin.loadTasks(percent -> Platform.runLater(() ->
+                    userInput.setPromptText(LOADING_PROMPT + percent + "%")));
+            Platform.runLater(this::finishLoading);
+        }, "darwin-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    private void finishLoading() {
+        userInput.setPromptText("");
+        String loadProblems = darwin.getLoadProblems();
+        if (loadProblems != null) {
+            dialogContainer.getChildren().add(DialogBox.getDarwinDialog(loadProblems, darwinImage));
+        }
+        while (!pendingInputs.isEmpty()) {
+            respondTo(pendingInputs.poll());
+        }
+        isReady = true;
+        darwin.startWatching(this::showExternalChanges);
+        refreshFilter();
+        StartupTimer.mark("ready for commands");
+    }
+
+    /** Takes in changes another Darwin made to the file, and says so if there were any. Runs on the watcher thread. */
+    private void showExternalChanges() {
+        darwin.submitReload().thenAccept(changes -> {
+            if (changes != null) {
+                Platform.runLater(() -> {
+                    dialogContainer.getChildren().add(DialogBox.getDarwinDialog(changes, darwinImage));
+                    refreshFilter();
+                });
+            }
+        });
+    }
+
+    /** Shows a reminder bubble. Reminders arrive on the reminder thread, so this hops to the FX thread. */
+    private void showReminder(String reminder) {
+        Platform.runLater(() -> dialogContainer.getChildren().add(
+                DialogBox.getDarwinDialog(reminder, darwinImage)));
     }
 
     /**
      * Creates two dialog boxes, one echoing user input and the other containing Darwin's reply and then appends them to
-     * the dialog container. Clears the user input after processing.
+     * the dialog container. Clears the user input after processing. Input sent while the tasks are still loading is
+     * echoed at once and answered when loading completes.
      */
     @FXML
     private void handleUserInput() {
         String input = userInput.getText();
-        String response = darwin.getResponse(input);
-        dialogContainer.getChildren().addAll(
-                DialogBox.getUserDialog(input, userImage),
-                DialogBox.getDarwinDialog(response, darwinImage)
-        );
+        dialogContainer.getChildren().add(DialogBox.getUserDialog(input, userImage));
         userInput.clear();
 
-        if (response.contains("Bye. Hope to see you again soon!")) {
-            handleExit();
+        // Not darwin.isLoaded(): it turns true on the loader thread before finishLoading has replayed
+        // the queued inputs, and answering now would put this input ahead of them
+        if (isReady) {
+            respondTo(input);
+        } else {
+            pendingInputs.add(input);
         }
 
         // autoscroll downwards after the new message bubbles have been added
         Platform.runLater(() -> scrollPane.setVvalue(1.0));
     }
 
+    /** Queues the input for the command engine; the reply is shown when it arrives, in input order. */
+    private void respondTo(String input) {
+        darwin.submit(input).thenAccept(response -> Platform.runLater(() -> showResponse(response)));
+    }
+
+    private void showResponse(String response) {
+        dialogContainer.getChildren().add(DialogBox.getDarwinDialog(response, darwinImage));
+        refreshFilter();
+        scrollPane.setVvalue(1.0);
+
+        if (darwin.isExitRequested()) {
+            handleExit();
+        }
+    }
+
     private void handleExit() {
         // Close the application after a short delay
         PauseTransition delay = new PauseTransition(Duration.seconds(1));
@@ -0,0 +1,46 @@
+package darwin;
+
+import java.time.Instant;
+
+/**
+ * Records how long each phase of startup takes, measured from the moment the JVM process started.
+ * Each phase is marked once it completes; with <code>-Ddarwin.startupTrace=true</code> every mark
+ * is printed to standard error as it happens, e.g.
+ * <code>[startup] window shown at 412 ms (+130 ms)</code>.
+ */
+public class StartupTimer {
+
+    private static final String TRACE_PROPERTY = "darwin.startupTrace";
+    private static final boolean IS_TRACING = Boolean.getBoolean(TRACE_PROPERTY);
+
+    private static final long processStartMillis = ProcessHandle.current().info().startInstant()
+            .map(Instant::toEpochMilli)
+            .orElse(System.currentTimeMillis());
+    private static final StringBuilder report = new StringBuilder();
+    private static long lastMarkMillis = processStartMillis;
+
+    /**
+     * Marks the end of a startup phase.
+     *
+     * @param phase A short name for what has just finished, e.g. "window shown".
+     */
+    public static synchronized void mark(String phase) {
+        long now = System.currentTimeMillis();
+        String line = "[startup] " + phase + " at " + (now - processStartMillis) + " ms (+"
+                + (now - lastMarkMillis) + " ms)";
+        lastMarkMillis = now;
+        report.append(line).append('\n');
+        if (IS_TRACING) {
+            System.err.println(line);
+        }
+    }
+
+    /**
+     * Returns every mark recorded so far, one per line.
+     *
+     * @return The startup report.
+     */
+    public static synchronized String getReport() {
+        return report.toString();
+    }
+}
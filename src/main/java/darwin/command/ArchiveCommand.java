@@ -0,0 +1,114 @@
+package darwin.command;
+
+import darwin.DarwinException;
+import darwin.storage.Storage;
+import darwin.task.Deadline;
+import darwin.task.Event;
+import darwin.task.Recurring;
+import darwin.task.Task;
+import darwin.task.TaskList;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents a command to move done tasks out of the list into the archive. Archived tasks are
+ * kept in a compressed file that is not loaded at startup, and can still be found with
+ * <code>find --all</code>. With a minimum age, only done tasks whose date is at least that many
+ * days ago are archived, and todos, which have no date, are kept.
+ */
+public class ArchiveCommand extends Command {
+
+    public static final int NO_AGE_LIMIT = -1;
+
+    private final int minimumAgeDays;
+
+    /**
+     * Constructs an ArchiveCommand that archives done tasks.
+     *
+     * @param minimumAgeDays How many days ago a task's date must be for it to be archived,
+     *         or {@link #NO_AGE_LIMIT} to archive every done task.
+     */
+    public ArchiveCommand(int minimumAgeDays) {
+        this.minimumAgeDays = minimumAgeDays;
+    }
+
+    @Override
+    public CommandResult execute(TaskList tasks, Storage storage) throws DarwinException {
+        if (tasks.isInTransaction()) {
+            throw new DarwinException(" Archiving cannot be undone, so it cannot run inside a transaction or "
+                    + "a pipeline.");
+        }
+
+        int archivedCount = archiveDoneTasks(tasks, storage, minimumAgeDays, LocalDate.now());
+        CommandResult archived = new CommandResult.Archived(archivedCount, tasks.getTaskCount());
+        if (storage.getConflictMessage() != null) {
+            CommandResult conflict = new CommandResult.Warning(storage.getConflictMessage());
+            return new CommandResult.Sequence(List.of(archived, conflict));
+        }
+        return archived;
+    }
+
+    /**
+     * Moves the done tasks old enough to be archived from the list to the archive. The archive is
+     * written first, so a failure leaves the list unchanged.
+     *
+     * @param tasks The TaskList to archive tasks from.
+     * @param storage The Storage that keeps the archive.
+     * @param minimumAgeDays The minimum age of a task's date in days, or {@link #NO_AGE_LIMIT}.
+     * @param today The date the age is measured from.
+     * @return The number of tasks archived.
+     * @throws DarwinException If the archive could not be written.
+     */
+    public static int archiveDoneTasks(TaskList tasks, Storage storage, int minimumAgeDays, LocalDate today)
+            throws DarwinException {
+        LocalDate cutOff = minimumAgeDays == NO_AGE_LIMIT ? null : today.minusDays(minimumAgeDays);
+        ArrayList<Task> archivedTasks = new ArrayList<>();
+        ArrayList<Task> remainingTasks = new ArrayList<>();
+        ArrayList<Integer> archivedNumbers = new ArrayList<>();
+        ArrayList<Task> allTasks = tasks.getTasks();
+        for (int i = 0; i < allTasks.size(); i++) {
+            Task task = allTasks.get(i);
+            if (isArchivable(task, cutOff)) {
+                archivedTasks.add(task);
+                archivedNumbers.add(i + 1);
+            } else {
+                remainingTasks.add(task);
+            }
+        }
+        if (archivedTasks.isEmpty()) {
+            return 0;
+        }
+
+        storage.archiveTasks(archivedTasks, remainingTasks);
+        for (int i = archivedNumbers.size() - 1; i >= 0; i--) {
+            tasks.deleteTask(archivedNumbers.get(i));
+        }
+        return archivedTasks.size();
+    }
+
+    // archiveDoneTasks helpers - START
+    private static boolean isArchivable(Task task, LocalDate cutOff) {
+        if (!task.isDone()) {
+            return false;
+        }
+        if (cutOff == null) {
+            return true;
+        }
+        LocalDate lastDate = getLastDate(task);
+        return lastDate != null && !lastDate.isAfter(cutOff);
+    }
+
+    private static LocalDate getLastDate(Task task) {
+        if (task instanceof Deadline) {
+            return ((Deadline) task).getDate();
+        } else if (task instanceof Event) {
+            return ((Event) task).getToDate();
+        } else if (task instanceof Recurring) {
+            return ((Recurring) task).getStartDate();
+        }
+        return null;
+    }
+    // archiveDoneTasks helpers - END
+}
@@ -2,13 +2,12 @@ package darwin.command;
 
 import darwin.storage.Storage;
 import darwin.task.TaskList;
-import darwin.ui.Ui;
 
 public class ByeCommand extends Command {
 
     @Override
-    public void execute(TaskList tasks, Ui ui, Storage storage) {
-        ui.printGoodbye();
+    public CommandResult execute(TaskList tasks, Storage storage) {
+        return new CommandResult.Exit(true);
     }
 
     @Override
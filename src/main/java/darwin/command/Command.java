@@ -3,12 +3,12 @@ package darwin.command;
 import darwin.DarwinException;
 import darwin.storage.Storage;
 import darwin.task.TaskList;
-import darwin.ui.Ui;
 
 /**
  * Represents an abstract command in the Darwin application. A <code>Command</code> object
  * encapsulates a user action that can be executed on the task list, with access to
- * the user interface and storage systems.
+ * the storage system. It returns what it did as a {@link CommandResult}, which the caller
+ * renders in whichever form it wants.
  */
 public abstract class Command {
 
@@ -17,12 +17,12 @@ public abstract class Command {
      * The exact behavior depends on the concrete command implementation.
      *
      * @param tasks The TaskList containing the current tasks to operate on.
-     * @param ui The Ui component for displaying output and interacting with the user.
      * @param storage The Storage component for persisting task changes to file.
+     * @return What the command did, to be rendered by the caller.
      * @throws DarwinException If an error occurs during command execution, such as
      *         invalid task numbers or missing parameters.
      */
-    public abstract void execute(TaskList tasks, Ui ui, Storage storage) throws DarwinException;
+    public abstract CommandResult execute(TaskList tasks, Storage storage) throws DarwinException;
 
     /**
      * Determines whether this command should terminate the application.
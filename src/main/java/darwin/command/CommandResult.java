@@ -0,0 +1,431 @@
+package darwin.command;
+
+import darwin.task.Occurrence;
+import darwin.task.Task;
+import darwin.transfer.TransferReport;
+import darwin.ui.ResultRenderer;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents what a command did, as data rather than text: the task it added, the tasks it found,
+ * the counts it changed. A <code>CommandResult</code> is only turned into text when it is rendered,
+ * by whichever {@link ResultRenderer} the caller chooses, so callers that only need the data never
+ * pay for formatting it.
+ *
+ * Results are values: they hold copies of the tasks as they were when the command ran, so a later
+ * command that changes the same task, e.g. in the same pipeline, does not change an earlier result,
+ * and a result can be rendered on any thread while the list changes.
+ */
+public abstract class CommandResult {
+
+    /**
+     * Copies the tasks as they are now, so that later changes to them do not reach the result.
+     */
+    private static ArrayList<Task> copyTasks(List<Task> tasks) {
+        ArrayList<Task> copies = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            copies.add(task.copy());
+        }
+        return copies;
+    }
+
+    /**
+     * Writes the result out through the renderer.
+     *
+     * @param renderer The renderer that formats the result.
+     */
+    public abstract void renderTo(ResultRenderer renderer);
+
+    /**
+     * Returns whether the application should close after this result.
+     */
+    public boolean isExit() {
+        return false;
+    }
+
+    /**
+     * A task was added to the list.
+     */
+    public static final class TaskAdded extends CommandResult {
+        private final Task task;
+        private final int taskCount;
+
+        TaskAdded(Task task, int taskCount) {
+            this.task = task.copy();
+            this.taskCount = taskCount;
+        }
+
+        public Task getTask() {
+            return task;
+        }
+
+        public int getTaskCount() {
+            return taskCount;
+        }
+
+        @Override
+        public void renderTo(ResultRenderer renderer) {
+            renderer.printTaskAdded(task, taskCount);
+        }
+    }
+
+    /**
+     * A task was deleted from the list.
+     */
+    public static final class TaskDeleted extends CommandResult {
+        private final Task task;
+        private final int taskCount;
+
+        TaskDeleted(Task task, int taskCount) {
+            this.task = task.copy();
+            this.taskCount = taskCount;
+        }
+
+        public Task getTask() {
+            return task;
+        }
+
+        public int getTaskCount() {
+            return taskCount;
+        }
+
+        @Override
+        public void renderTo(ResultRenderer renderer) {
+            renderer.showDeletedTask(task, taskCount);
+        }
+    }
+
+    /**
+     * A task was marked as done or not done.
+     */
+    public static final class TaskMarked extends CommandResult {
+        private final Task task;
+        private final boolean isDone;
+
+        TaskMarked(Task task, boolean isDone) {
+            this.task = task.copy();
+            this.isDone = isDone;
+        }
+
+        public Task getTask() {
+            return task;
+        }
+
+        public boolean isDone() {
+            return isDone;
+        }
+
+        @Override
+        public void renderTo(ResultRenderer renderer) {
+            renderer.printMarkedTask(task, isDone);
+        }
+    }
+
+    /**
+     * Every task, or one page of them in a sort order. The numbers are the tasks' places in the list.
+     */
+    public static final class TaskListing extends CommandResult {
+        private final ArrayList<Task> tasks;
+        private final ArrayList<Integer> taskNumbers;
+        private final String order;
+        private final int page;
+        private final int pageCount;
+
+        TaskListing(ArrayList<Task> tasks) {
+            this(tasks, null, null, 1, 1);
+        }
+
+        TaskListing(ArrayList<Task> tasks, ArrayList<Integer> taskNumbers, String order, int page, int pageCount) {
+            this.tasks = copyTasks(tasks);
+            this.taskNumbers = taskNumbers;
+            this.order = order;
+            this.page = page;
+            this.pageCount = pageCount;
+        }
+
+        public ArrayList<Task> getTasks() {
+            return tasks;
+        }
+
+        /**
+         * Returns the number of each task in the list, or null if the tasks are the whole list in order.
+         */
+        public ArrayList<Integer> getTaskNumbers() {
+            return taskNumbers;
+        }
+
+        @Override
+        public void renderTo(ResultRenderer renderer) {
+            if (order == null) {
+                renderer.printTaskList(tasks);
+            } else {
+                renderer.printSortedTasks(tasks, taskNumbers, order, page, pageCount);
+            }
+        }
+    }
+
+    /**
+     * The occurrences of tasks between two dates, day by day.
+     */
+    public static final class Agenda extends CommandResult {
+        private final ArrayList<Occurrence> occurrences;
+        private final LocalDate from;
+        private final LocalDate to;
+
+        Agenda(ArrayList<Occurrence> occurrences, LocalDate from, LocalDate to) {
+            this.occurrences = new ArrayList<>(occurrences.size());
+            for (Occurrence occurrence : occurrences) {
+                this.occurrences.add(new Occurrence(occurrence.getDate(), occurrence.getTask().copy()));
+            }
+            this.from = from;
+            this.to = to;
+        }
+
+        public ArrayList<Occurrence> getOccurrences() {
+            return occurrences;
+        }
+
+        @Override
+        public void renderTo(ResultRenderer renderer) {
+            renderer.printAgenda(occurrences, from, to);
+        }
+    }
+
+    /**
+     * The tasks matching a keyword or query, and the archived ones if the archive was searched too.
+     */
+    public static final class Matches extends CommandResult {
+        private final String query;
+        private final ArrayList<Task> tasks;
+        private final ArrayList<Task> archivedTasks;
+
+        Matches(String query, ArrayList<Task> tasks, ArrayList<Task> archivedTasks) {
+            this.query = query;
+            this.tasks = copyTasks(tasks);
+            this.archivedTasks = archivedTasks; // read from the archive for this result alone
+        }
+
+        public ArrayList<Task> getTasks() {
+            return tasks;
+        }
+
+        /**
+         * Returns the matching archived tasks, or null if the archive was not searched.
+         */
+        public ArrayList<Task> getArchivedTasks() {
+            return archivedTasks;
+        }
+
+        @Override
+        public void renderTo(ResultRenderer renderer) {
+            renderer.printFoundTasks(tasks, query);
+            if (archivedTasks != null) {
+                renderer.printArchivedMatches(archivedTasks);
+            }
+        }
+    }
+
+    /**
+     * The plan for a query, one line per step.
+     */
+    public static final class QueryExplanation extends CommandResult {
+        private final String query;
+        private final ArrayList<String> planLines;
+
+        QueryExplanation(String query, ArrayList<String> planLines) {
+            this.query = query;
+            this.planLines = planLines;
+        }
+
+        public ArrayList<String> getPlanLines() {
+            return planLines;
+        }
+
+        @Override
+        public void renderTo(ResultRenderer renderer) {
+            renderer.printQueryPlan(planLines, query);
+        }
+    }
+
+    /**
+     * Tasks were imported from, or exported to, a file.
+     */
+    public static final class Transfer extends CommandResult {
+        private final TransferReport report;
+        private final String fileName; // null for an import
+        private final int taskCount;
+
+        Transfer(TransferReport report, String fileName, int taskCount) {
+            this.report = report;
+            this.fileName = fileName;
+            this.taskCount = taskCount;
+        }
+
+        public TransferReport getReport() {
+            return report;
+        }
+
+        @Override
+        public void renderTo(ResultRenderer renderer) {
+            if (fileName == null) {
+                renderer.printImportReport(report.getTransferredCount(), report.getSkippedCount(),
+                        report.isListFull(), report.getRecordsPerSecond(), taskCount);
+            } else {
+                renderer.printExportReport(report.getTransferredCount(), fileName, report.getRecordsPerSecond());
+            }
+        }
+    }
+
+    /**
+     * A transaction was begun, committed or rolled back.
+     */
+    public static final class TransactionStep extends CommandResult {
+        private final TransactionCommand.Action action;
+        private final int changeCount;
+
+        TransactionStep(TransactionCommand.Action action, int changeCount) {
+            this.action = action;
+            this.changeCount = changeCount;
+        }
+
+        public TransactionCommand.Action getAction() {
+            return action;
+        }
+
+        public int getChangeCount() {
+            return changeCount;
+        }
+
+        @Override
+        public void renderTo(ResultRenderer renderer) {
+            switch (action) {
+                case BEGIN:
+                    renderer.printTransactionBegun();
+                    break;
+                case COMMIT:
+                    renderer.printTransactionCommitted(changeCount);
+                    break;
+                default:
+                    renderer.printTransactionRolledBack(changeCount);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Done tasks were moved to the archive.
+     */
+    public static final class Archived extends CommandResult {
+        private final int archivedCount;
+        private final int taskCount;
+
+        Archived(int archivedCount, int taskCount) {
+            this.archivedCount = archivedCount;
+            this.taskCount = taskCount;
+        }
+
+        public int getArchivedCount() {
+            return archivedCount;
+        }
+
+        @Override
+        public void renderTo(ResultRenderer renderer) {
+            renderer.printArchivedTasks(archivedCount, taskCount);
+        }
+    }
+
+    /**
+     * The list took in changes another Darwin made to the storage file.
+     */
+    public static final class ExternalChanges extends CommandResult {
+        private final int addedCount;
+        private final int removedCount;
+        private final int taskCount;
+
+        public ExternalChanges(int addedCount, int removedCount, int taskCount) {
+            this.addedCount = addedCount;
+            this.removedCount = removedCount;
+            this.taskCount = taskCount;
+        }
+
+        @Override
+        public void renderTo(ResultRenderer renderer) {
+            renderer.printExternalChanges(addedCount, removedCount, taskCount);
+        }
+    }
+
+    /**
+     * Something went wrong that did not stop the command, e.g. a save that had to keep another
+     * version of the file aside.
+     */
+    public static final class Warning extends CommandResult {
+        private final String message;
+
+        public Warning(String message) {
+            this.message = message;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public void renderTo(ResultRenderer renderer) {
+            renderer.printError(message);
+        }
+    }
+
+    /**
+     * The application is closing, with or without a farewell.
+     */
+    public static final class Exit extends CommandResult {
+        private final boolean isFarewellShown;
+
+        Exit(boolean isFarewellShown) {
+            this.isFarewellShown = isFarewellShown;
+        }
+
+        @Override
+        public boolean isExit() {
+            return true;
+        }
+
+        @Override
+        public void renderTo(ResultRenderer renderer) {
+            if (isFarewellShown) {
+                renderer.printGoodbye();
+            }
+            renderer.printClosing();
+        }
+    }
+
+    /**
+     * The results of several steps, in order, e.g. the commands of a pipeline.
+     */
+    public static final class Sequence extends CommandResult {
+        private final List<CommandResult> results;
+
+        public Sequence(List<CommandResult> results) {
+            this.results = results;
+        }
+
+        public List<CommandResult> getResults() {
+            return results;
+        }
+
+        @Override
+        public boolean isExit() {
+            return results.stream().anyMatch(CommandResult::isExit);
+        }
+
+        @Override
+        public void renderTo(ResultRenderer renderer) {
+            for (CommandResult result : results) {
+                result.renderTo(renderer);
+            }
+        }
+    }
+}
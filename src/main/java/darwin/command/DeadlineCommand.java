@@ -5,7 +5,6 @@ import darwin.storage.Storage;
 import darwin.task.Deadline;
 import darwin.task.Task;
 import darwin.task.TaskList;
-import darwin.ui.Ui;
 
 public class DeadlineCommand extends Command {
 
@@ -18,9 +17,9 @@ public class DeadlineCommand extends Command {
     }
 
     @Override
-    public void execute(TaskList tasks, Ui ui, Storage storage) throws DarwinException {
+    public CommandResult execute(TaskList tasks, Storage storage) throws DarwinException {
         Task task = new Deadline(description, by);
         tasks.addTask(task);
-        ui.printTaskAdded(task, tasks.getTaskCount());
+        return new CommandResult.TaskAdded(task, tasks.getTaskCount());
     }
 }
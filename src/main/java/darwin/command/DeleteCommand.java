@@ -3,7 +3,6 @@ package darwin.command;
 import darwin.DarwinException;
 import darwin.task.Task;
 import darwin.task.TaskList;
-import darwin.ui.Ui;
 import darwin.storage.Storage;
 
 public class DeleteCommand extends Command {
@@ -14,9 +13,10 @@ public class DeleteCommand extends Command {
         this.taskNumber = taskNumber;
     }
 
-    public void execute(TaskList tasks, Ui ui, Storage storage) throws DarwinException {
+    @Override
+    public CommandResult execute(TaskList tasks, Storage storage) throws DarwinException {
         Task removedTask = tasks.deleteTask(taskNumber);
-        ui.showDeletedTask(removedTask, tasks.getTaskCount());
+        return new CommandResult.TaskDeleted(removedTask, tasks.getTaskCount());
     }
 
 }
@@ -6,7 +6,6 @@ import darwin.storage.Storage;
 import darwin.task.Event;
 import darwin.task.Task;
 import darwin.task.TaskList;
-import darwin.ui.Ui;
 
 import java.time.LocalDate;
 
@@ -23,12 +22,12 @@ public class EventCommand extends Command {
     }
 
     @Override
-    public void execute(TaskList tasks, Ui ui, Storage storage) throws DarwinException {
+    public CommandResult execute(TaskList tasks, Storage storage) throws DarwinException {
         validateDates();
 
         Task task = new Event(description, from, to);
         tasks.addTask(task);
-        ui.printTaskAdded(task, tasks.getTaskCount());
+        return new CommandResult.TaskAdded(task, tasks.getTaskCount());
     }
 
     private void validateDates() throws DarwinException {
@@ -2,13 +2,12 @@ package darwin.command;
 
 import darwin.storage.Storage;
 import darwin.task.TaskList;
-import darwin.ui.Ui;
 
 public class ExitCommand extends Command {
 
     @Override
-    public void execute(TaskList tasks, Ui ui, Storage storage) {
-        // nothing to do for exit
+    public CommandResult execute(TaskList tasks, Storage storage) {
+        return new CommandResult.Exit(false); // closes without a farewell
     }
 
     @Override
@@ -4,17 +4,19 @@ import darwin.DarwinException;
 import darwin.storage.Storage;
 import darwin.task.Task;
 import darwin.task.TaskList;
-import darwin.ui.Ui;
 import java.util.ArrayList;
 
 /**
  * Represents a command to search for tasks containing a specific keyword.
  * A <code>FindCommand</code> object searches through all tasks and displays
- * those whose descriptions contain the given search term.
+ * those whose descriptions contain the given search term, or, in fuzzy mode,
+ * words close to it. It can also search the archived tasks, which are not in the list.
  */
 public class FindCommand extends Command {
 
     private final String keyword;
+    private final boolean isFuzzy;
+    private final boolean isIncludingArchive;
 
     /**
      * Constructs a FindCommand with the specified search keyword.
@@ -22,25 +24,48 @@ public class FindCommand extends Command {
      * @param keyword The search term to look for in task descriptions.
      */
     public FindCommand(String keyword) {
+        this(keyword, false);
+    }
+
+    /**
+     * Constructs a FindCommand with the specified search keyword and matching mode.
+     *
+     * @param keyword The search term to look for in task descriptions.
+     * @param isFuzzy true to tolerate typos and rank results by closeness, false for substring matching.
+     */
+    public FindCommand(String keyword, boolean isFuzzy) {
+        this(keyword, isFuzzy, false);
+    }
+
+    /**
+     * Constructs a FindCommand that may also search the archived tasks.
+     *
+     * @param keyword The search term to look for in task descriptions.
+     * @param isFuzzy true to tolerate typos and rank results by closeness, false for substring matching.
+     * @param isIncludingArchive true to also search the archived tasks, by substring.
+     */
+    public FindCommand(String keyword, boolean isFuzzy, boolean isIncludingArchive) {
         this.keyword = keyword;
+        this.isFuzzy = isFuzzy;
+        this.isIncludingArchive = isIncludingArchive;
     }
 
     /**
      * Executes the find command by searching for tasks containing the keyword
-     * and displaying the matching results.
+     * and returning the matching results.
      *
      * @param tasks The TaskList to search through.
-     * @param ui The Ui for displaying the search results.
-     * @param storage The Storage (not used in this command).
+     * @param storage The Storage holding the archived tasks, if they are searched.
      * @throws DarwinException If the keyword is empty.
      */
     @Override
-    public void execute(TaskList tasks, Ui ui, Storage storage) throws DarwinException {
+    public CommandResult execute(TaskList tasks, Storage storage) throws DarwinException {
         if (keyword.isEmpty()) {
             throw new DarwinException("Please provide a keyword to search for.");
         }
 
-        ArrayList<Task> matchingTasks = tasks.findTasks(keyword);
-        ui.printFoundTasks(matchingTasks, keyword);
+        ArrayList<Task> matchingTasks = isFuzzy ? tasks.findTasksFuzzy(keyword) : tasks.findTasks(keyword);
+        ArrayList<Task> archivedTasks = isIncludingArchive ? storage.findArchivedTasks(keyword) : null;
+        return new CommandResult.Matches(keyword, matchingTasks, archivedTasks);
     }
 }
@@ -1,13 +1,91 @@
 package darwin.command;
 
+import darwin.DarwinException;
+import darwin.DateParser;
 import darwin.storage.Storage;
+import darwin.task.SortOrder;
+import darwin.task.Task;
 import darwin.task.TaskList;
-import darwin.ui.Ui;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+
+/**
+ * Represents a command to list tasks. A <code>ListCommand</code> object either lists every task,
+ * or, when given a window of dates, lists what falls within it day by day, expanding recurring
+ * tasks into their individual occurrences, or, when given a sort order, lists one page of the
+ * tasks in that order.
+ */
 public class ListCommand extends Command {
 
+    private static final int PAGE_SIZE = 10;
+
+    private final String from;
+    private final String to;
+    private final SortOrder order;
+    private final int page;
+
+    /**
+     * Constructs a ListCommand that lists every task.
+     */
+    public ListCommand() {
+        this(null, null);
+    }
+
+    /**
+     * Constructs a ListCommand that lists the occurrences between two dates.
+     *
+     * @param from The first date of the window in yyyy-mm-dd format.
+     * @param to The last date of the window in yyyy-mm-dd format.
+     */
+    public ListCommand(String from, String to) {
+        this.from = from;
+        this.to = to;
+        this.order = null;
+        this.page = 0;
+    }
+
+    /**
+     * Constructs a ListCommand that lists one page of the tasks in the given order.
+     *
+     * @param order The order to list the tasks in.
+     * @param page The page to show (starting from 1).
+     */
+    public ListCommand(SortOrder order, int page) {
+        this.from = null;
+        this.to = null;
+        this.order = order;
+        this.page = page;
+    }
+
     @Override
-    public void execute(TaskList tasks, Ui ui, Storage storage) {
-        ui.printTaskList(tasks.getTasks());
+    public CommandResult execute(TaskList tasks, Storage storage) throws DarwinException {
+        if (order != null) {
+            return executeSorted(tasks);
+        }
+        if (from == null) {
+            return new CommandResult.TaskListing(tasks.getTasks());
+        }
+
+        LocalDate fromDate = DateParser.parseDate(from);
+        LocalDate toDate = DateParser.parseDate(to);
+        if (fromDate.isAfter(toDate)) {
+            throw new DarwinException(" The start of the window cannot be after its end.");
+        }
+        return new CommandResult.Agenda(tasks.getOccurrencesBetween(fromDate, toDate), fromDate, toDate);
+    }
+
+    private CommandResult executeSorted(TaskList tasks) throws DarwinException {
+        int pageCount = Math.max(1, (tasks.getTaskCount() + PAGE_SIZE - 1) / PAGE_SIZE);
+        if (page < 1 || page > pageCount) {
+            throw new DarwinException(" Please choose a page between 1 and " + pageCount + ".");
+        }
+
+        ArrayList<Integer> taskNumbers = tasks.getSortedTaskNumbers(order, (page - 1) * PAGE_SIZE, PAGE_SIZE);
+        ArrayList<Task> pageTasks = new ArrayList<>();
+        for (int taskNumber : taskNumbers) {
+            pageTasks.add(tasks.getTask(taskNumber));
+        }
+        return new CommandResult.TaskListing(pageTasks, taskNumbers, order.toString(), page, pageCount);
     }
 }
@@ -3,7 +3,6 @@ package darwin.command;
 import darwin.DarwinException;
 import darwin.storage.Storage;
 import darwin.task.TaskList;
-import darwin.ui.Ui;
 
 public class MarkCommand extends Command {
 
@@ -16,8 +15,8 @@ public class MarkCommand extends Command {
     }
 
     @Override
-    public void execute(TaskList tasks, Ui ui, Storage storage) throws DarwinException {
+    public CommandResult execute(TaskList tasks, Storage storage) throws DarwinException {
         tasks.markTask(taskNumber, isDone);
-        ui.printMarkedTask(tasks.getTask(taskNumber), isDone);
+        return new CommandResult.TaskMarked(tasks.getTask(taskNumber), isDone);
     }
 }
@@ -0,0 +1,64 @@
+package darwin.command;
+
+import darwin.DarwinException;
+import darwin.storage.Storage;
+import darwin.task.TaskList;
+
+import java.util.ArrayList;
+
+/**
+ * Represents several commands entered on one line after <code>do</code>, separated by
+ * <code>;</code>. A <code>PipelineCommand</code> runs them in order as a single unit: if one of them
+ * fails, for any reason, the changes made by the earlier ones are undone, so either the whole line
+ * takes effect or none of it.
+ */
+public class PipelineCommand extends Command {
+
+    private final ArrayList<Command> commands;
+
+    /**
+     * Constructs a PipelineCommand that runs the given commands in order.
+     *
+     * @param commands The commands of the pipeline.
+     */
+    public PipelineCommand(ArrayList<Command> commands) {
+        assert !commands.isEmpty() : "A pipeline needs at least one command";
+
+        this.commands = commands;
+    }
+
+    @Override
+    public CommandResult execute(TaskList tasks, Storage storage) throws DarwinException {
+        ArrayList<CommandResult> results = new ArrayList<>();
+        boolean isCommitted = false;
+        tasks.beginTransaction();
+        try {
+            for (int i = 0; i < commands.size(); i++) {
+                try {
+                    results.add(commands.get(i).execute(tasks, storage));
+                } catch (DarwinException e) {
+                    throw new DarwinException(e.getMessage().trim() + "\n(Command " + (i + 1) + " of "
+                            + commands.size() + " failed, so none of this line was applied.)");
+                }
+            }
+            tasks.commitTransaction();
+            isCommitted = true;
+        } finally {
+            // Also on unchecked failures: a transaction left open would stop every later save
+            if (!isCommitted) {
+                tasks.rollbackTransaction();
+            }
+        }
+        return new CommandResult.Sequence(results);
+    }
+
+    @Override
+    public boolean isExit() {
+        for (Command command : commands) {
+            if (command.isExit()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,41 @@
+package darwin.command;
+
+import darwin.DarwinException;
+import darwin.query.QueryParser;
+import darwin.query.QueryPlan;
+import darwin.storage.Storage;
+import darwin.task.TaskList;
+
+import java.time.LocalDate;
+
+/**
+ * Represents a command to search for tasks matching a query such as
+ * <code>type:D (done:no or due&lt;2026-06-01) text:report</code>. A <code>QueryCommand</code>
+ * compiles the query, plans it against the current tasks, and either runs the plan
+ * or, in explain mode, describes it.
+ */
+public class QueryCommand extends Command {
+
+    private final String query;
+    private final boolean isExplain;
+
+    /**
+     * Constructs a QueryCommand with the specified query and mode.
+     *
+     * @param query The query text.
+     * @param isExplain true to describe the plan instead of running it.
+     */
+    public QueryCommand(String query, boolean isExplain) {
+        this.query = query;
+        this.isExplain = isExplain;
+    }
+
+    @Override
+    public CommandResult execute(TaskList tasks, Storage storage) throws DarwinException {
+        QueryPlan plan = QueryPlan.create(QueryParser.parse(query, LocalDate.now()), tasks);
+        if (isExplain) {
+            return new CommandResult.QueryExplanation(query, plan.explain(tasks));
+        }
+        return new CommandResult.Matches(query, plan.execute(tasks), null);
+    }
+}
@@ -0,0 +1,39 @@
+package darwin.command;
+
+import darwin.DarwinException;
+import darwin.storage.Storage;
+import darwin.task.Recurrence;
+import darwin.task.Recurring;
+import darwin.task.Task;
+import darwin.task.TaskList;
+
+/**
+ * Represents a command to add a task that repeats at a fixed interval. A <code>RecurringCommand</code>
+ * object is created from a deadline command with an <code>/every</code> clause.
+ */
+public class RecurringCommand extends Command {
+
+    private final String description;
+    private final String start;
+    private final String interval;
+
+    /**
+     * Constructs a RecurringCommand with the specified description, first date and interval.
+     *
+     * @param description The text description of the task.
+     * @param start The first date in yyyy-mm-dd format.
+     * @param interval The repeat interval keyword, e.g. "week".
+     */
+    public RecurringCommand(String description, String start, String interval) {
+        this.description = description;
+        this.start = start;
+        this.interval = interval;
+    }
+
+    @Override
+    public CommandResult execute(TaskList tasks, Storage storage) throws DarwinException {
+        Task task = new Recurring(description, start, Recurrence.parse(interval));
+        tasks.addTask(task);
+        return new CommandResult.TaskAdded(task, tasks.getTaskCount());
+    }
+}
@@ -5,7 +5,6 @@ import darwin.storage.Storage;
 import darwin.task.Task;
 import darwin.task.TaskList;
 import darwin.task.ToDo;
-import darwin.ui.Ui;
 
 /**
  * Represents a command to add a new todo task. A <code>TodoCommand</code> object
@@ -26,18 +25,17 @@ public class TodoCommand extends Command {
 
     /**
      * Executes the todo command by creating a new ToDo task and adding it to the task list.
-     * Updates the user interface to confirm the task addition and shows the updated task count.
+     * Returns the added task with the updated task count, for the caller to confirm.
      *
      * @param tasks The TaskList to which the new todo task will be added.
-     * @param ui The Ui component for displaying the addition confirmation message.
      * @param storage The Storage component for saving the updated task list to file.
      * @throws DarwinException If the task cannot be added, for example when the task list
      *         has reached its maximum capacity.
      */
     @Override
-    public void execute(TaskList tasks, Ui ui, Storage storage) throws DarwinException {
+    public CommandResult execute(TaskList tasks, Storage storage) throws DarwinException {
         Task task = new ToDo(description);
         tasks.addTask(task);
-        ui.printTaskAdded(task, tasks.getTaskCount());
+        return new CommandResult.TaskAdded(task, tasks.getTaskCount());
     }
 }
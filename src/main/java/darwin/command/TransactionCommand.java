@@ -0,0 +1,54 @@
+package darwin.command;
+
+import darwin.DarwinException;
+import darwin.storage.Storage;
+import darwin.task.TaskList;
+
+/**
+ * Represents a command that begins, commits or rolls back a transaction. Between
+ * <code>begin</code> and <code>commit</code> the changes are only kept in memory; committing
+ * saves them with a single write, and rolling back undoes them.
+ */
+public class TransactionCommand extends Command {
+
+    /**
+     * The step of a transaction a TransactionCommand performs.
+     */
+    public enum Action {
+        BEGIN, COMMIT, ROLLBACK
+    }
+
+    private final Action action;
+
+    /**
+     * Constructs a TransactionCommand that performs the given step.
+     *
+     * @param action The step to perform.
+     */
+    public TransactionCommand(Action action) {
+        this.action = action;
+    }
+
+    @Override
+    public CommandResult execute(TaskList tasks, Storage storage) throws DarwinException {
+        if (action == Action.BEGIN) {
+            if (tasks.isInTransaction()) {
+                throw new DarwinException(" A transaction is already open. Please 'commit' or 'rollback' it first.");
+            }
+            tasks.beginTransaction();
+            return new CommandResult.TransactionStep(action, 0);
+        }
+
+        if (!tasks.isInTransaction()) {
+            throw new DarwinException(" There is no transaction to " + action.toString().toLowerCase()
+                    + ". Please 'begin' one first.");
+        }
+        int changeCount = tasks.getTransactionChangeCount();
+        if (action == Action.COMMIT) {
+            tasks.commitTransaction();
+        } else {
+            tasks.rollbackTransaction();
+        }
+        return new CommandResult.TransactionStep(action, changeCount);
+    }
+}
@@ -0,0 +1,39 @@
+package darwin.command;
+
+import darwin.DarwinException;
+import darwin.storage.Storage;
+import darwin.task.TaskList;
+import darwin.transfer.TaskTransfer;
+import darwin.transfer.TransferReport;
+
+/**
+ * Represents a command to import tasks from, or export tasks to, a CSV, JSON Lines or iCalendar
+ * file. A <code>TransferCommand</code> streams the file record by record and reports how many
+ * records it handled and how fast.
+ */
+public class TransferCommand extends Command {
+
+    private final String fileName;
+    private final boolean isImport;
+
+    /**
+     * Constructs a TransferCommand for the specified file and direction.
+     *
+     * @param fileName The file to read or write; its extension decides the format.
+     * @param isImport true to import tasks from the file, false to export them to it.
+     */
+    public TransferCommand(String fileName, boolean isImport) {
+        this.fileName = fileName;
+        this.isImport = isImport;
+    }
+
+    @Override
+    public CommandResult execute(TaskList tasks, Storage storage) throws DarwinException {
+        if (isImport) {
+            TransferReport report = TaskTransfer.importTasks(fileName, tasks);
+            return new CommandResult.Transfer(report, null, tasks.getTaskCount());
+        }
+        TransferReport report = TaskTransfer.exportTasks(fileName, tasks);
+        return new CommandResult.Transfer(report, fileName, tasks.getTaskCount());
+    }
+}
@@ -0,0 +1,131 @@
+package darwin.parser;
+
+import darwin.task.TaskList;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Suggests how to complete a command as it is typed: the command word, the flags the command
+ * takes (<code>/by</code>, <code>/from</code>, <code>/to</code>, ...), the number of a task for
+ * <code>mark</code>, <code>unmark</code> and <code>delete</code>, and words from the task
+ * descriptions for <code>todo</code>, <code>deadline</code>, <code>event</code> and <code>find</code>.
+ *
+ * Words come from the prefix trie the TaskList keeps, and task descriptions from a snapshot, so
+ * suggestions can be computed on a background thread while commands change the list. Interrupting
+ * that thread stops the lookup early, with whatever it has found so far.
+ */
+public class Autocompleter {
+
+    private static final String WORD_SEPARATOR = " ";
+    private static final String FLAG_PREFIXES = "/-";
+
+    /**
+     * One way to complete the input: the whole input once completed, and the text to show for it.
+     */
+    public static final class Suggestion {
+        private final String completedInput;
+        private final String label;
+
+        private Suggestion(String completedInput, String label) {
+            this.completedInput = completedInput;
+            this.label = label;
+        }
+
+        public String getCompletedInput() {
+            return completedInput;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    /**
+     * Returns the suggestions for the input typed so far, best first.
+     *
+     * @param input The text in the input field.
+     * @param tasks The TaskList whose words are suggested.
+     * @param taskDescriptions The descriptions of the tasks, in list order.
+     * @param limit The largest number of suggestions to return.
+     * @return The suggestions, possibly none.
+     */
+    public static ArrayList<Suggestion> suggest(String input, TaskList tasks, List<String> taskDescriptions,
+            int limit) {
+        ArrayList<Suggestion> suggestions = new ArrayList<>();
+        if (input.isBlank()) {
+            return suggestions;
+        }
+
+        int firstSpace = input.indexOf(WORD_SEPARATOR);
+        if (firstSpace < 0) {
+            suggestKeywords(input, suggestions, limit);
+            return suggestions;
+        }
+
+        String keyword = input.substring(0, firstSpace).toLowerCase();
+        String lastWord = input.substring(input.lastIndexOf(WORD_SEPARATOR) + 1);
+        String inputBeforeLastWord = input.substring(0, input.length() - lastWord.length());
+        if (Parser.TASK_NUMBER_KEYWORDS.contains(keyword)) {
+            suggestTaskNumbers(keyword, input.substring(firstSpace + 1).trim(), taskDescriptions, suggestions,
+                    limit);
+        } else if (!lastWord.isEmpty() && FLAG_PREFIXES.indexOf(lastWord.charAt(0)) >= 0) {
+            suggestFlags(keyword, lastWord, inputBeforeLastWord, suggestions, limit);
+        } else if (!lastWord.isEmpty() && Parser.DESCRIPTION_KEYWORDS.contains(keyword)) {
+            suggestWords(lastWord, inputBeforeLastWord, tasks, suggestions, limit);
+        }
+        return suggestions;
+    }
+
+    // suggest helpers - START
+    private static void suggestKeywords(String input, ArrayList<Suggestion> suggestions, int limit) {
+        String lowerInput = input.toLowerCase();
+        for (String keyword : Parser.COMMAND_KEYWORDS) {
+            if (suggestions.size() < limit && keyword.startsWith(lowerInput) && !keyword.equals(lowerInput)) {
+                boolean isStandalone = Parser.STANDALONE_KEYWORDS.contains(keyword);
+                suggestions.add(new Suggestion(isStandalone ? keyword : keyword + WORD_SEPARATOR, keyword));
+            }
+        }
+    }
+
+    private static void suggestTaskNumbers(String keyword, String numberPrefix, List<String> taskDescriptions,
+            ArrayList<Suggestion> suggestions, int limit) {
+        if (!numberPrefix.chars().allMatch(Character::isDigit)) {
+            return;
+        }
+        for (int i = 0; i < taskDescriptions.size() && suggestions.size() < limit
+                && !Thread.currentThread().isInterrupted(); i++) {
+            String taskNumber = String.valueOf(i + 1);
+            if (taskNumber.startsWith(numberPrefix)) {
+                suggestions.add(new Suggestion(keyword + WORD_SEPARATOR + taskNumber,
+                        taskNumber + ". " + taskDescriptions.get(i)));
+            }
+        }
+    }
+
+    private static void suggestFlags(String keyword, String lastWord, String inputBeforeLastWord,
+            ArrayList<Suggestion> suggestions, int limit) {
+        for (String flag : Parser.COMMAND_FLAGS.getOrDefault(keyword, List.of())) {
+            boolean isUsed = inputBeforeLastWord.contains(WORD_SEPARATOR + flag + WORD_SEPARATOR);
+            if (suggestions.size() < limit && flag.startsWith(lastWord) && !flag.equals(lastWord) && !isUsed) {
+                suggestions.add(new Suggestion(inputBeforeLastWord + flag + WORD_SEPARATOR, flag));
+            }
+        }
+    }
+
+    private static void suggestWords(String lastWord, String inputBeforeLastWord, TaskList tasks,
+            ArrayList<Suggestion> suggestions, int limit) {
+        String lowerLastWord = lastWord.toLowerCase();
+        for (String word : tasks.completeWord(lowerLastWord, limit + 1)) {
+            if (suggestions.size() < limit && !word.equals(lowerLastWord)) {
+                suggestions.add(new Suggestion(inputBeforeLastWord + word + WORD_SEPARATOR, word));
+            }
+        }
+    }
+    // suggest helpers - END
+}
@@ -1,6 +1,7 @@
 package darwin.parser;
 
 import darwin.DarwinException;
+import darwin.command.ArchiveCommand;
 import darwin.command.Command;
 import darwin.command.DeadlineCommand;
 import darwin.command.DeleteCommand;
@@ -9,7 +10,17 @@ import darwin.command.ExitCommand;
 import darwin.command.FindCommand;
 import darwin.command.ListCommand;
 import darwin.command.MarkCommand;
+import darwin.command.PipelineCommand;
+import darwin.command.QueryCommand;
+import darwin.command.RecurringCommand;
 import darwin.command.TodoCommand;
+import darwin.command.TransactionCommand;
+import darwin.command.TransferCommand;
+import darwin.task.SortOrder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Represents a parser for user input commands. A <code>Parser</code> object
@@ -22,24 +33,57 @@ public class Parser {
     private static final String COMMAND_BYE = "bye";
     private static final String COMMAND_LIST = "list";
     private static final String COMMAND_FIND = "find";
+    private static final String COMMAND_FIND_FUZZY = "find~";
+    private static final String COMMAND_EXPLAIN = "explain";
     private static final String COMMAND_MARK = "mark";
     private static final String COMMAND_UNMARK = "unmark";
     private static final String COMMAND_TODO = "todo";
     private static final String COMMAND_DEADLINE = "deadline";
     private static final String COMMAND_EVENT = "event";
     private static final String COMMAND_DELETE = "delete";
+    private static final String COMMAND_IMPORT = "import";
+    private static final String COMMAND_EXPORT = "export";
+    private static final String COMMAND_BEGIN = "begin";
+    private static final String COMMAND_COMMIT = "commit";
+    private static final String COMMAND_ROLLBACK = "rollback";
+    private static final String COMMAND_ARCHIVE = "archive";
+    private static final String COMMAND_PIPELINE = "do";
+
+    // ============ KEYWORDS OFFERED BY THE AUTOCOMPLETER ============
+    static final List<String> COMMAND_KEYWORDS = List.of(COMMAND_TODO, COMMAND_DEADLINE, COMMAND_EVENT,
+            COMMAND_LIST, COMMAND_MARK, COMMAND_UNMARK, COMMAND_DELETE, COMMAND_FIND, COMMAND_FIND_FUZZY,
+            COMMAND_EXPLAIN, COMMAND_IMPORT, COMMAND_EXPORT, COMMAND_BEGIN, COMMAND_COMMIT, COMMAND_ROLLBACK,
+            COMMAND_PIPELINE, COMMAND_ARCHIVE, COMMAND_BYE);
+    static final List<String> STANDALONE_KEYWORDS = List.of(COMMAND_LIST, COMMAND_BEGIN, COMMAND_COMMIT,
+            COMMAND_ROLLBACK, COMMAND_ARCHIVE, COMMAND_BYE);
+    static final List<String> TASK_NUMBER_KEYWORDS = List.of(COMMAND_MARK, COMMAND_UNMARK, COMMAND_DELETE);
+    static final List<String> DESCRIPTION_KEYWORDS = List.of(COMMAND_TODO, COMMAND_DEADLINE, COMMAND_EVENT,
+            COMMAND_FIND, COMMAND_FIND_FUZZY);
+    static final Map<String, List<String>> COMMAND_FLAGS = Map.of(
+            COMMAND_DEADLINE, List.of("/by", "/every"),
+            COMMAND_EVENT, List.of("/from", "/to"),
+            COMMAND_LIST, List.of("/from", "/to"),
+            COMMAND_FIND, List.of("--all"));
 
     // ============ COMMAND LENGTH CONSTANTS ============
     private static final int TODO_COMMAND_MIN_LENGTH = 5;
     private static final int DEADLINE_COMMAND_MIN_LENGTH = 9;
     private static final int EVENT_COMMAND_MIN_LENGTH = 6;
     private static final int FIND_COMMAND_MIN_LENGTH = 5;
+    private static final int LIST_COMMAND_LENGTH = 4;
 
     // ============ DELIMITERS ============
     private static final String WHITESPACE_DELIMITER = "\\s+";
+    private static final String PIPELINE_PREFIX = COMMAND_PIPELINE + " ";
+    private static final String PIPELINE_DELIMITER = " ; ";
     private static final String DEADLINE_DELIMITER = " /by ";
     private static final String EVENT_FROM_DELIMITER = " /from ";
     private static final String EVENT_TO_DELIMITER = " /to ";
+    private static final String RECURRENCE_DELIMITER = " /every ";
+    private static final String LIST_FROM_FLAG = "/from ";
+    private static final String LIST_BY_FLAG = "by ";
+    private static final String FIND_ALL_FLAG = "--all ";
+    private static final String QUERY_FLAG = "--where ";
     private static final int SPLIT_LIMIT_TWO = 2;
 
     // ============ INDEX CONSTANTS ============
@@ -53,6 +97,8 @@ public class Parser {
     /**
      * Parses a raw input string from the user and returns the corresponding Command object.
      * Validates the command format and extracts necessary parameters for command construction.
+     * A line starting with "do " is parsed into one pipeline of the commands separated by " ; ";
+     * anywhere else, " ; " is ordinary text, such as part of a description.
      *
      * @param input The user's input string to parse (e.g., "todo read book", "deadline assignment /by 2023-12-31").
      * @return A Command object corresponding to the parsed user input.
@@ -60,10 +106,29 @@ public class Parser {
      *         or has invalid format/missing parameters.
      */
     public static Command parse(String input) throws DarwinException {
+        if (input.startsWith(PIPELINE_PREFIX)) {
+            return parsePipelineCommand(input.substring(PIPELINE_PREFIX.length()));
+        }
+        return parseSingleCommand(input);
+    }
+
+    private static Command parseSingleCommand(String input) throws DarwinException {
         if (input.equalsIgnoreCase(COMMAND_BYE)) {
             return new ExitCommand();
+        } else if (input.equalsIgnoreCase(COMMAND_BEGIN)) {
+            return new TransactionCommand(TransactionCommand.Action.BEGIN);
+        } else if (input.equalsIgnoreCase(COMMAND_COMMIT)) {
+            return new TransactionCommand(TransactionCommand.Action.COMMIT);
+        } else if (input.equalsIgnoreCase(COMMAND_ROLLBACK)) {
+            return new TransactionCommand(TransactionCommand.Action.ROLLBACK);
         } else if (input.equalsIgnoreCase(COMMAND_LIST)) {
             return new ListCommand();
+        } else if (input.startsWith(COMMAND_LIST + " ")) {
+            return parseListCommand(input);
+        } else if (input.startsWith(COMMAND_EXPLAIN)) {
+            return parseExplainCommand(input);
+        } else if (input.startsWith(COMMAND_FIND_FUZZY)) {
+            return parseFuzzyFindCommand(input);
         } else if (input.startsWith(COMMAND_FIND)) {
             return parseFindCommand(input);
         } else if (input.startsWith(COMMAND_MARK)) {
@@ -78,9 +143,73 @@ public class Parser {
             return parseEventCommand(input);
         } else if (input.startsWith(COMMAND_DELETE)) {
             return parseDeleteCommand(input);
+        } else if (input.startsWith(COMMAND_IMPORT)) {
+            return parseTransferCommand(input, COMMAND_IMPORT, true);
+        } else if (input.startsWith(COMMAND_EXPORT)) {
+            return parseTransferCommand(input, COMMAND_EXPORT, false);
+        } else if (input.startsWith(COMMAND_ARCHIVE)) {
+            return parseArchiveCommand(input);
         } else {
             throw new DarwinException("Unknown command :( Please use: todo, deadline, event, list, " +
-                    "mark, unmark, delete, find or bye");
+                    "mark, unmark, delete, find, explain, import, export, begin, commit, rollback, do, archive or bye");
+        }
+    }
+
+    private static PipelineCommand parsePipelineCommand(String input) throws DarwinException {
+        ArrayList<Command> commands = new ArrayList<>();
+        for (String part : input.split(PIPELINE_DELIMITER)) {
+            String commandText = part.trim();
+            if (commandText.isEmpty()) {
+                continue;
+            }
+
+            Command command = parseSingleCommand(commandText);
+            if (command instanceof TransactionCommand) {
+                throw new DarwinException(" '" + commandText + "' cannot be part of a pipeline; "
+                        + "each line of commands already runs as one transaction.");
+            }
+            commands.add(command);
+        }
+
+        if (commands.isEmpty()) {
+            throw new DarwinException(" Please put at least one command after 'do', separated by ' ; '.");
+        }
+        return new PipelineCommand(commands);
+    }
+
+    private static Command parseListCommand(String input) throws DarwinException {
+        String window = input.substring(LIST_COMMAND_LENGTH).trim();
+        if (window.startsWith(LIST_BY_FLAG)) {
+            return parseSortedListCommand(window.substring(LIST_BY_FLAG.length()));
+        }
+        if (window.startsWith(QUERY_FLAG)) {
+            return new QueryCommand(window.substring(QUERY_FLAG.length()).trim(), false);
+        }
+        if (!window.startsWith(LIST_FROM_FLAG)) {
+            throw new DarwinException(" Please use 'list' or 'list /from yyyy-mm-dd /to yyyy-mm-dd'!");
+        }
+
+        String[] dates = window.substring(LIST_FROM_FLAG.length()).split(EVENT_TO_DELIMITER, SPLIT_LIMIT_TWO);
+        if (dates.length < SPLIT_LIMIT_TWO || dates[FROM_PART_INDEX].isBlank() || dates[TO_PART_INDEX].isBlank()) {
+            throw new DarwinException(" Please use 'list' or 'list /from yyyy-mm-dd /to yyyy-mm-dd'!");
+        }
+        return new ListCommand(dates[FROM_PART_INDEX].trim(), dates[TO_PART_INDEX].trim());
+    }
+
+    private static ListCommand parseSortedListCommand(String orderAndPage) throws DarwinException {
+        String[] parts = splitByWhitespace(orderAndPage.trim());
+        if (parts.length > SPLIT_LIMIT_TWO) {
+            throw new DarwinException(" Please use 'list by due|name|status [page]'!");
+        }
+
+        SortOrder order = SortOrder.parse(parts[0]);
+        if (parts.length < SPLIT_LIMIT_TWO) {
+            return new ListCommand(order, 1);
+        }
+        try {
+            return new ListCommand(order, Integer.parseInt(parts[1]));
+        } catch (NumberFormatException e) {
+            throw new DarwinException(" Please provide a valid page number after 'list by " + order + "'.");
         }
     }
 
@@ -90,9 +219,34 @@ public class Parser {
         validateFindCommandLength(input);
         String keyword = extractFindKeyword(input);
         validateFindKeyword(keyword);
+        if (keyword.startsWith(FIND_ALL_FLAG)) {
+            String archiveKeyword = keyword.substring(FIND_ALL_FLAG.length()).trim();
+            validateFindKeyword(archiveKeyword);
+            return new FindCommand(archiveKeyword, false, true);
+        }
+        if (keyword.startsWith(QUERY_FLAG)) {
+            return new QueryCommand(keyword.substring(QUERY_FLAG.length()).trim(), false);
+        }
         return new FindCommand(keyword);
     }
 
+    private static Command parseExplainCommand(String input) throws DarwinException {
+        String findCommand = input.substring(COMMAND_EXPLAIN.length()).trim();
+        String queryPrefix = COMMAND_FIND + " " + QUERY_FLAG;
+        if (!findCommand.startsWith(queryPrefix)) {
+            throw new DarwinException(" Please use this format 'explain find --where <query>'!");
+        }
+        return new QueryCommand(findCommand.substring(queryPrefix.length()).trim(), true);
+    }
+
+    private static Command parseFuzzyFindCommand(String input) throws DarwinException {
+        String keyword = input.substring(COMMAND_FIND_FUZZY.length()).trim();
+        if (keyword.isEmpty()) {
+            throw new DarwinException("Search keyword is empty! Please use this format 'find~ <keyword>'!");
+        }
+        return new FindCommand(keyword, true);
+    }
+
     // parseFindCommand helpers - START
     private static void validateFindCommandLength(String input) throws DarwinException {
         if (input.length() <= FIND_COMMAND_MIN_LENGTH) {
@@ -187,7 +341,7 @@ public class Parser {
     }
     // parseTodoCommand helpers - END
 
-    private static DeadlineCommand parseDeadlineCommand(String input) throws DarwinException {
+    private static Command parseDeadlineCommand(String input) throws DarwinException {
         validateDeadlineCommandLength(input);
 
         String remaining = extractDeadlineContent(input);
@@ -198,6 +352,10 @@ public class Parser {
         String by = extractDeadlineDate(parts);
         validateDeadlineComponents(description, by);
 
+        String[] recurrenceParts = by.split(RECURRENCE_DELIMITER, SPLIT_LIMIT_TWO);
+        if (recurrenceParts.length == SPLIT_LIMIT_TWO) {
+            return parseRecurringDeadline(description, recurrenceParts);
+        }
         return new DeadlineCommand(description, by);
     }
 
@@ -245,6 +403,16 @@ public class Parser {
                     "<description> /by yyyy-mm-dd'!");
         }
     }
+    private static RecurringCommand parseRecurringDeadline(String description, String[] recurrenceParts)
+            throws DarwinException {
+        String start = recurrenceParts[DESCRIPTION_PART_INDEX].trim();
+        String interval = recurrenceParts[DATE_PART_INDEX].trim();
+        if (start.isEmpty() || interval.isEmpty()) {
+            throw new DarwinException(" Please use this format 'deadline <description> /by yyyy-mm-dd "
+                    + "/every day|week|month'!");
+        }
+        return new RecurringCommand(description, start, interval);
+    }
     // parseDeadlineCommand helpers - END
 
     private static EventCommand parseEventCommand(String input) throws DarwinException {
@@ -328,4 +496,30 @@ public class Parser {
         int taskNumber = extractTaskNumber(input);
         return new DeleteCommand(taskNumber);
     }
+
+    private static ArchiveCommand parseArchiveCommand(String input) throws DarwinException {
+        String days = input.substring(COMMAND_ARCHIVE.length()).trim();
+        if (days.isEmpty()) {
+            return new ArchiveCommand(ArchiveCommand.NO_AGE_LIMIT);
+        }
+        try {
+            int minimumAgeDays = Integer.parseInt(days);
+            if (minimumAgeDays < 0) {
+                throw new DarwinException(" The number of days after 'archive' cannot be negative.");
+            }
+            return new ArchiveCommand(minimumAgeDays);
+        } catch (NumberFormatException e) {
+            throw new DarwinException(" Please use 'archive' or 'archive <days>' to archive done tasks older "
+                    + "than that!");
+        }
+    }
+
+    private static TransferCommand parseTransferCommand(String input, String commandWord, boolean isImport)
+            throws DarwinException {
+        String fileName = input.substring(commandWord.length()).trim();
+        if (fileName.isEmpty()) {
+            throw new DarwinException(" Please use this format '" + commandWord + " <file.csv|file.jsonl|file.ics>'!");
+        }
+        return new TransferCommand(fileName, isImport);
+    }
 }
@@ -0,0 +1,605 @@
+package darwin.query;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+import darwin.task.Deadline;
+import darwin.task.Event;
+import darwin.task.Recurring;
+import darwin.task.RowFilter;
+import darwin.task.Task;
+import darwin.task.TaskList;
+
+/**
+ * Represents a node of a query's predicate tree: one term, such as <code>type:D</code> or
+ * <code>due&lt;2026-06-01</code>, or an <code>and</code>, <code>or</code> or <code>not</code> of
+ * other conditions. A <code>Condition</code> tests a task and estimates, from the statistics a
+ * TaskList keeps, how many tasks it can match, so the planner can check the most selective terms
+ * first.
+ */
+public abstract class Condition {
+
+    private final String term;
+
+    private Condition(String term) {
+        this.term = term;
+    }
+
+    /**
+     * Checks whether the task satisfies the condition.
+     *
+     * @param task The task to check.
+     * @return true if the task matches.
+     */
+    public abstract boolean test(Task task);
+
+    /**
+     * Returns an upper bound on the number of tasks in the list that can match.
+     *
+     * @param tasks The TaskList the query runs against.
+     * @return The estimated number of matches.
+     */
+    public abstract int estimateMatches(TaskList tasks);
+
+    /**
+     * Returns the name of the index or column the estimate comes from, shown by <code>explain</code>.
+     *
+     * @return A short description of the access path.
+     */
+    public abstract String getAccessPath();
+
+    /**
+     * Returns whether the condition only reads the type and status of a task, so it can be
+     * checked before the task itself is built.
+     *
+     * @return true if the condition can be checked on the columns alone.
+     */
+    public boolean isColumnCondition() {
+        return false;
+    }
+
+    /**
+     * Checks the condition against the type and status of a task.
+     * Only meaningful when {@link #isColumnCondition()} is true.
+     *
+     * @param typeCode The type letter of the task.
+     * @param isDone Whether the task is done.
+     * @return true if the task can match.
+     */
+    public boolean testColumns(char typeCode, boolean isDone) {
+        return true;
+    }
+
+    /**
+     * Returns whether the index the estimate comes from can list the tasks that may match, so a
+     * query whose most selective term is this condition only reads those tasks.
+     *
+     * @param tasks The TaskList the query runs against.
+     * @return true if {@link #selectFromIndex} can be used.
+     */
+    boolean canSelectFromIndex(TaskList tasks) {
+        return false;
+    }
+
+    /**
+     * Returns the tasks that satisfy the condition and pass both filters, in list order, reading
+     * only the tasks the index lists. Only meaningful when {@link #canSelectFromIndex} is true.
+     *
+     * @param tasks The TaskList the query runs against.
+     * @param rowFilter The filter on type and status.
+     * @param taskFilter The filter on the whole task.
+     * @return An ArrayList of the matching tasks.
+     */
+    ArrayList<Task> selectFromIndex(TaskList tasks, RowFilter rowFilter, Predicate<Task> taskFilter) {
+        throw new UnsupportedOperationException(this + " has no index to select from");
+    }
+
+    /**
+     * Returns what the index is looked up by, shown by <code>explain</code>, e.g. the word of a
+     * <code>word:</code> term.
+     *
+     * @return The key of the index lookup.
+     */
+    String getIndexKey() {
+        return term;
+    }
+
+    /**
+     * Returns the conditions that must all hold for this one to hold: the children of an
+     * <code>and</code>, or the condition itself.
+     *
+     * @return The conjuncts of the condition.
+     */
+    public List<Condition> getConjuncts() {
+        return List.of(this);
+    }
+
+    /**
+     * Returns the same condition with the children of every <code>and</code> ordered most selective
+     * first, and those of every <code>or</code> most likely to match first, so both stop early.
+     *
+     * @param tasks The TaskList the query runs against.
+     * @return The ordered condition.
+     */
+    public Condition order(TaskList tasks) {
+        return this;
+    }
+
+    /**
+     * Adds the lines describing how the condition is checked to an explanation.
+     *
+     * @param tasks The TaskList the query runs against.
+     * @param label The number of the step, e.g. "2." or "2.1".
+     * @param lines The lines of the explanation.
+     */
+    void explain(TaskList tasks, String label, ArrayList<String> lines) {
+        lines.add(label + " " + term + " - " + getAccessPath()
+                + (isColumnCondition() ? ", checked before the task is read" : "")
+                + " (at most " + estimateMatches(tasks) + " of " + tasks.getTaskCount() + " tasks)");
+    }
+
+    @Override
+    public String toString() {
+        return term;
+    }
+
+    // ============ PREDICATE TREE ============
+    /**
+     * Matches tasks that satisfy every child, e.g. <code>type:D done:no</code>.
+     */
+    static final class AndCondition extends Condition {
+        private final List<Condition> children;
+
+        AndCondition(List<Condition> children) {
+            super(joinTerms(children, " "));
+            this.children = children;
+        }
+
+        @Override
+        public boolean test(Task task) {
+            for (Condition child : children) {
+                if (!child.test(task)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isColumnCondition() {
+            return children.stream().allMatch(Condition::isColumnCondition);
+        }
+
+        @Override
+        public boolean testColumns(char typeCode, boolean isDone) {
+            for (Condition child : children) {
+                if (!child.testColumns(typeCode, isDone)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int estimateMatches(TaskList tasks) {
+            int estimate = tasks.getTaskCount();
+            for (Condition child : children) {
+                estimate = Math.min(estimate, child.estimateMatches(tasks));
+            }
+            return estimate;
+        }
+
+        @Override
+        public String getAccessPath() {
+            return "all of";
+        }
+
+        @Override
+        public List<Condition> getConjuncts() {
+            return children;
+        }
+
+        @Override
+        public Condition order(TaskList tasks) {
+            return new AndCondition(orderChildren(children, tasks, Comparator.naturalOrder()));
+        }
+
+        @Override
+        void explain(TaskList tasks, String label, ArrayList<String> lines) {
+            explainChildren(this, children, tasks, label, lines);
+        }
+    }
+
+    /**
+     * Matches tasks that satisfy at least one child, e.g. <code>(done:no or due&gt;2026-06-01)</code>.
+     */
+    static final class OrCondition extends Condition {
+        private final List<Condition> children;
+
+        OrCondition(List<Condition> children) {
+            super("(" + joinTerms(children, " or ") + ")");
+            this.children = children;
+        }
+
+        @Override
+        public boolean test(Task task) {
+            for (Condition child : children) {
+                if (child.test(task)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public boolean isColumnCondition() {
+            return children.stream().allMatch(Condition::isColumnCondition);
+        }
+
+        @Override
+        public boolean testColumns(char typeCode, boolean isDone) {
+            for (Condition child : children) {
+                if (child.testColumns(typeCode, isDone)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public int estimateMatches(TaskList tasks) {
+            long estimate = 0;
+            for (Condition child : children) {
+                estimate += child.estimateMatches(tasks);
+            }
+            return (int) Math.min(estimate, tasks.getTaskCount());
+        }
+
+        @Override
+        public String getAccessPath() {
+            return "any of";
+        }
+
+        @Override
+        public Condition order(TaskList tasks) {
+            return new OrCondition(orderChildren(children, tasks, Comparator.reverseOrder()));
+        }
+
+        @Override
+        void explain(TaskList tasks, String label, ArrayList<String> lines) {
+            explainChildren(this, children, tasks, label, lines);
+        }
+    }
+
+    /**
+     * Matches tasks that do not satisfy the child, e.g. <code>not word:draft</code>.
+     */
+    static final class NotCondition extends Condition {
+        private final Condition child;
+
+        NotCondition(Condition child) {
+            super("not " + child);
+            this.child = child;
+        }
+
+        @Override
+        public boolean test(Task task) {
+            return !child.test(task);
+        }
+
+        @Override
+        public boolean isColumnCondition() {
+            return child.isColumnCondition();
+        }
+
+        @Override
+        public boolean testColumns(char typeCode, boolean isDone) {
+            return !child.testColumns(typeCode, isDone);
+        }
+
+        @Override
+        public int estimateMatches(TaskList tasks) {
+            return tasks.getTaskCount(); // the child's estimate is only an upper bound
+        }
+
+        @Override
+        public String getAccessPath() {
+            return "negation";
+        }
+
+        @Override
+        public Condition order(TaskList tasks) {
+            return new NotCondition(child.order(tasks));
+        }
+    }
+
+    // Predicate tree helpers - START
+    private static String joinTerms(List<Condition> children, String separator) {
+        StringBuilder terms = new StringBuilder();
+        for (Condition child : children) {
+            terms.append(terms.length() == 0 ? "" : separator).append(child);
+        }
+        return terms.toString();
+    }
+
+    private static List<Condition> orderChildren(List<Condition> children, TaskList tasks,
+            Comparator<Integer> byEstimate) {
+        ArrayList<Condition> ordered = new ArrayList<>();
+        for (Condition child : children) {
+            ordered.add(child.order(tasks));
+        }
+        ordered.sort(Comparator.comparing(child -> child.estimateMatches(tasks), byEstimate)); // stable
+        return ordered;
+    }
+
+    private static void explainChildren(Condition parent, List<Condition> children, TaskList tasks, String label,
+            ArrayList<String> lines) {
+        lines.add(label + " " + parent.getAccessPath() + " (at most " + parent.estimateMatches(tasks) + " of "
+                + tasks.getTaskCount() + " tasks):");
+        for (int i = 0; i < children.size(); i++) {
+            children.get(i).explain(tasks, "   " + label + (i + 1) + ".", lines);
+        }
+    }
+    // Predicate tree helpers - END
+
+    /**
+     * Matches tasks of one type, e.g. <code>type:D</code>.
+     */
+    static final class TypeCondition extends Condition {
+        private final char typeCode;
+
+        TypeCondition(String term, char typeCode) {
+            super(term);
+            this.typeCode = typeCode;
+        }
+
+        @Override
+        public boolean test(Task task) {
+            return task.getTypeCode() == typeCode;
+        }
+
+        @Override
+        public boolean isColumnCondition() {
+            return true;
+        }
+
+        @Override
+        public boolean testColumns(char typeCode, boolean isDone) {
+            return typeCode == this.typeCode;
+        }
+
+        @Override
+        public int estimateMatches(TaskList tasks) {
+            return tasks.countTasksOfType(typeCode);
+        }
+
+        @Override
+        public String getAccessPath() {
+            return "type column";
+        }
+    }
+
+    /**
+     * Matches tasks by status, e.g. <code>done:no</code>.
+     */
+    static final class DoneCondition extends Condition {
+        private final boolean isDone;
+
+        DoneCondition(String term, boolean isDone) {
+            super(term);
+            this.isDone = isDone;
+        }
+
+        @Override
+        public boolean test(Task task) {
+            return task.isDone() == isDone;
+        }
+
+        @Override
+        public boolean isColumnCondition() {
+            return true;
+        }
+
+        @Override
+        public boolean testColumns(char typeCode, boolean isDone) {
+            return isDone == this.isDone;
+        }
+
+        @Override
+        public int estimateMatches(TaskList tasks) {
+            int doneCount = tasks.countDoneTasks();
+            return isDone ? doneCount : tasks.getTaskCount() - doneCount;
+        }
+
+        @Override
+        public String getAccessPath() {
+            return "status bits";
+        }
+    }
+
+    /**
+     * Compares the due date of a task with a fixed date, e.g. <code>due&lt;2026-06-01</code>.
+     * The due date is the deadline of a Deadline, the start of an Event, and the next occurrence
+     * of a Recurring task from today. ToDos have no due date and never match.
+     *
+     * The TaskList's due view sorts a Recurring task by its first occurrence, which is never after
+     * its next one, so the view's range up to the date holds every task a <code>&lt;</code> or
+     * <code>&lt;=</code> can match. A lower bound can also be met by a Recurring task that started
+     * before it, so those are only looked up in the view while the list has no Recurring tasks.
+     */
+    static final class DueCondition extends Condition {
+        private final String operator;
+        private final LocalDate date;
+        private final LocalDate today;
+
+        DueCondition(String term, String operator, LocalDate date, LocalDate today) {
+            super(term);
+            this.operator = operator;
+            this.date = date;
+            this.today = today;
+        }
+
+        @Override
+        public boolean test(Task task) {
+            LocalDate dueDate = getDueDate(task);
+            if (dueDate == null) {
+                return false;
+            }
+
+            int comparison = dueDate.compareTo(date);
+            switch (operator) {
+                case "<":
+                    return comparison < 0;
+                case "<=":
+                    return comparison <= 0;
+                case ">":
+                    return comparison > 0;
+                case ">=":
+                    return comparison >= 0;
+                default:
+                    return comparison == 0;
+            }
+        }
+
+        private LocalDate getDueDate(Task task) {
+            if (task instanceof Deadline) {
+                return ((Deadline) task).getDate();
+            } else if (task instanceof Event) {
+                return ((Event) task).getFromDate();
+            } else if (task instanceof Recurring) {
+                return ((Recurring) task).getNextOccurrence(today);
+            }
+            return null;
+        }
+
+        @Override
+        public int estimateMatches(TaskList tasks) {
+            int estimate = tasks.countTasksDueBetween(getFirstDay(), getLastDay());
+            if (isRangeCoveringRecurring()) {
+                return estimate;
+            }
+            int datedCount = tasks.countTasksOfType('D') + tasks.countTasksOfType('E') + tasks.countTasksOfType('R');
+            return Math.min(estimate + tasks.countTasksOfType('R'), datedCount);
+        }
+
+        @Override
+        public String getAccessPath() {
+            return "due view";
+        }
+
+        @Override
+        boolean canSelectFromIndex(TaskList tasks) {
+            return isRangeCoveringRecurring() || tasks.countTasksOfType('R') == 0;
+        }
+
+        @Override
+        ArrayList<Task> selectFromIndex(TaskList tasks, RowFilter rowFilter, Predicate<Task> taskFilter) {
+            // The view sorts a Recurring task by its first occurrence, so its next one is checked here
+            return tasks.selectTasksDueBetween(getFirstDay(), getLastDay(), rowFilter,
+                    task -> test(task) && taskFilter.test(task));
+        }
+
+        private boolean isRangeCoveringRecurring() {
+            return operator.startsWith("<");
+        }
+
+        private long getFirstDay() {
+            switch (operator) {
+                case "<":
+                case "<=":
+                    return Long.MIN_VALUE;
+                case ">":
+                    return date.toEpochDay() + 1;
+                default:
+                    return date.toEpochDay();
+            }
+        }
+
+        private long getLastDay() {
+            switch (operator) {
+                case "<":
+                    return date.toEpochDay() - 1;
+                case ">":
+                case ">=":
+                    return Long.MAX_VALUE;
+                default:
+                    return date.toEpochDay();
+            }
+        }
+    }
+
+    /**
+     * Matches tasks whose description contains a phrase, e.g. <code>text:report</code>,
+     * the same way as a plain <code>find</code>.
+     */
+    static final class TextCondition extends Condition {
+        private final String lowerPhrase;
+
+        TextCondition(String term, String phrase) {
+            super(term);
+            this.lowerPhrase = phrase.toLowerCase();
+        }
+
+        @Override
+        public boolean test(Task task) {
+            return task.getDescription().toLowerCase().contains(lowerPhrase);
+        }
+
+        @Override
+        public int estimateMatches(TaskList tasks) {
+            return tasks.getTaskCount();
+        }
+
+        @Override
+        public String getAccessPath() {
+            return "description scan";
+        }
+    }
+
+    /**
+     * Matches tasks whose description contains a whole word, e.g. <code>word:report</code>.
+     * The word index gives the exact number of matches.
+     */
+    static final class WordCondition extends Condition {
+        private final String word;
+
+        WordCondition(String term, String word) {
+            super(term);
+            this.word = word;
+        }
+
+        @Override
+        String getIndexKey() {
+            return word;
+        }
+
+        @Override
+        boolean canSelectFromIndex(TaskList tasks) {
+            return true;
+        }
+
+        @Override
+        ArrayList<Task> selectFromIndex(TaskList tasks, RowFilter rowFilter, Predicate<Task> taskFilter) {
+            // The index only lists tasks that contain the word, so it is not checked again
+            return tasks.selectTasksWithWord(word, rowFilter, taskFilter);
+        }
+
+        @Override
+        public boolean test(Task task) {
+            return TaskList.containsWord(task, word);
+        }
+
+        @Override
+        public int estimateMatches(TaskList tasks) {
+            return tasks.countTasksWithWord(word);
+        }
+
+        @Override
+        public String getAccessPath() {
+            return "word index";
+        }
+    }
+}
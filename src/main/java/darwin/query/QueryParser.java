@@ -0,0 +1,233 @@
+package darwin.query;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+
+import darwin.DarwinException;
+import darwin.DateParser;
+
+/**
+ * Compiles the text of a query into a predicate tree of conditions. A query is made of terms:
+ * <ul>
+ *     <li><code>type:T|D|E|R</code> - the type of the task</li>
+ *     <li><code>done:yes|no</code> - the status of the task</li>
+ *     <li><code>due&lt;date</code>, <code>due&lt;=date</code>, <code>due&gt;date</code>,
+ *     <code>due&gt;=date</code>, <code>due:date</code> - the due date of the task</li>
+ *     <li><code>text:phrase</code> - a phrase in the description</li>
+ *     <li><code>word:word</code> - a whole word in the description</li>
+ * </ul>
+ * Terms next to each other must all hold; <code>or</code> between them means either may hold,
+ * <code>not</code> before a term negates it, and parentheses group terms, e.g.
+ * <code>type:D (done:no or due&gt;2026-06-01) not word:draft</code>. <code>and</code> may be
+ * written but is not needed; <code>not</code> binds tightest and <code>or</code> loosest. Any
+ * other words next to each other are joined into one phrase the description must contain, as in
+ * a plain find.
+ */
+public class QueryParser {
+
+    private static final String WHITESPACE_DELIMITER = "\\s+";
+    private static final String TYPE_PREFIX = "type:";
+    private static final String DONE_PREFIX = "done:";
+    private static final String DUE_PREFIX = "due";
+    private static final String TEXT_PREFIX = "text:";
+    private static final String WORD_PREFIX = "word:";
+    private static final String TYPE_CODES = "TDER";
+    private static final String[] DUE_OPERATORS = {"<=", ">=", "<", ">", ":", "="};
+
+    // ============ OPERATORS ============
+    private static final String AND = "and";
+    private static final String OR = "or";
+    private static final String NOT = "not";
+    private static final String OPEN = "(";
+    private static final String CLOSE = ")";
+
+    private final ArrayList<String> tokens;
+    private final LocalDate today;
+    private int position;
+
+    private QueryParser(ArrayList<String> tokens, LocalDate today) {
+        this.tokens = tokens;
+        this.today = today;
+    }
+
+    /**
+     * Compiles a query into its predicate tree.
+     *
+     * @param text The query text.
+     * @param today The date relative to which recurring tasks are due.
+     * @return The root of the tree, with the terms in the order they were written.
+     * @throws DarwinException If the query is empty, a term is malformed or the brackets do not match.
+     */
+    public static Condition parse(String text, LocalDate today) throws DarwinException {
+        ArrayList<String> tokens = tokenize(text);
+        if (tokens.isEmpty()) {
+            throw new DarwinException(" Your query is empty! Try something like 'find --where type:D done:no'.");
+        }
+
+        QueryParser parser = new QueryParser(tokens, today);
+        Condition root = parser.parseOr();
+        if (parser.position < tokens.size()) {
+            throw new DarwinException(" Your query has a ')' without a matching '('.");
+        }
+        return root;
+    }
+
+    /**
+     * Splits the text at spaces, and splits brackets off the words they are written against.
+     */
+    private static ArrayList<String> tokenize(String text) {
+        ArrayList<String> tokens = new ArrayList<>();
+        for (String word : text.trim().split(WHITESPACE_DELIMITER)) {
+            int start = 0;
+            int end = word.length();
+            while (start < end && word.startsWith(OPEN, start)) {
+                tokens.add(OPEN);
+                start++;
+            }
+            int closeCount = 0;
+            while (end > start && word.startsWith(CLOSE, end - 1)) {
+                closeCount++;
+                end--;
+            }
+            if (start < end) {
+                tokens.add(word.substring(start, end));
+            }
+            for (int i = 0; i < closeCount; i++) {
+                tokens.add(CLOSE);
+            }
+        }
+        return tokens;
+    }
+
+    // ============ GRAMMAR ============
+    private Condition parseOr() throws DarwinException {
+        ArrayList<Condition> alternatives = new ArrayList<>();
+        alternatives.add(parseAnd());
+        while (isNext(OR)) {
+            position++;
+            alternatives.add(parseAnd());
+        }
+        return alternatives.size() == 1 ? alternatives.get(0) : new Condition.OrCondition(alternatives);
+    }
+
+    /**
+     * Parses terms up to the next <code>or</code>, closing bracket or the end, joining plain words
+     * next to each other into one phrase.
+     */
+    private Condition parseAnd() throws DarwinException {
+        ArrayList<Condition> conjuncts = new ArrayList<>();
+        StringBuilder phrase = new StringBuilder();
+        while (position < tokens.size() && !isNext(OR) && !isNext(CLOSE)) {
+            if (isNext(AND)) {
+                position++;
+                continue;
+            }
+            String token = tokens.get(position);
+            if (!isNext(NOT) && !isNext(OPEN) && parseTerm(token, today) == null) {
+                phrase.append(phrase.length() == 0 ? "" : " ").append(token);
+                position++;
+                continue;
+            }
+            addPhrase(phrase, conjuncts);
+            conjuncts.add(parseUnary());
+        }
+        addPhrase(phrase, conjuncts);
+
+        if (conjuncts.isEmpty()) {
+            String found = position < tokens.size() ? "'" + tokens.get(position) + "'" : "the end";
+            throw new DarwinException(" Your query is missing a term before " + found + ".");
+        }
+        return conjuncts.size() == 1 ? conjuncts.get(0) : new Condition.AndCondition(conjuncts);
+    }
+
+    private Condition parseUnary() throws DarwinException {
+        if (position >= tokens.size()) {
+            throw new DarwinException(" Your query is missing a term at the end.");
+        }
+        if (isNext(NOT)) {
+            position++;
+            return new Condition.NotCondition(parseUnary());
+        }
+        if (isNext(OPEN)) {
+            position++;
+            Condition group = parseOr();
+            if (!isNext(CLOSE)) {
+                throw new DarwinException(" Your query has a '(' without a matching ')'.");
+            }
+            position++;
+            return group;
+        }
+
+        String token = tokens.get(position++);
+        Condition term = parseTerm(token, today);
+        return term != null ? term : new Condition.TextCondition(token, token);
+    }
+
+    private boolean isNext(String operator) {
+        return position < tokens.size() && tokens.get(position).equalsIgnoreCase(operator);
+    }
+
+    private static void addPhrase(StringBuilder phrase, ArrayList<Condition> conjuncts) {
+        if (phrase.length() > 0) {
+            conjuncts.add(new Condition.TextCondition(phrase.toString(), phrase.toString()));
+            phrase.setLength(0);
+        }
+    }
+
+    private static Condition parseTerm(String word, LocalDate today) throws DarwinException {
+        String lowerWord = word.toLowerCase();
+        if (lowerWord.startsWith(TYPE_PREFIX)) {
+            return parseTypeTerm(word, lowerWord.substring(TYPE_PREFIX.length()));
+        } else if (lowerWord.startsWith(DONE_PREFIX)) {
+            return parseDoneTerm(word, lowerWord.substring(DONE_PREFIX.length()));
+        } else if (lowerWord.startsWith(TEXT_PREFIX)) {
+            return new Condition.TextCondition(word, requireValue(word, word.substring(TEXT_PREFIX.length())));
+        } else if (lowerWord.startsWith(WORD_PREFIX)) {
+            return new Condition.WordCondition(word, requireValue(word, lowerWord.substring(WORD_PREFIX.length())));
+        }
+
+        String operator = findDueOperator(lowerWord);
+        if (operator != null) {
+            String date = word.substring(DUE_PREFIX.length() + operator.length());
+            return new Condition.DueCondition(word, operator, DateParser.parseDate(requireValue(word, date)), today);
+        }
+        return null;
+    }
+
+    // parseTerm helpers - START
+    private static Condition parseTypeTerm(String word, String value) throws DarwinException {
+        if (value.length() != 1 || TYPE_CODES.indexOf(Character.toUpperCase(value.charAt(0))) < 0) {
+            throw new DarwinException(" Unknown type in '" + word + "'. Please use T, D, E or R.");
+        }
+        return new Condition.TypeCondition(word, Character.toUpperCase(value.charAt(0)));
+    }
+
+    private static Condition parseDoneTerm(String word, String value) throws DarwinException {
+        if (value.equals("yes")) {
+            return new Condition.DoneCondition(word, true);
+        } else if (value.equals("no")) {
+            return new Condition.DoneCondition(word, false);
+        }
+        throw new DarwinException(" Unknown status in '" + word + "'. Please use done:yes or done:no.");
+    }
+
+    private static String requireValue(String word, String value) throws DarwinException {
+        if (value.isEmpty()) {
+            throw new DarwinException(" The term '" + word + "' needs a value.");
+        }
+        return value;
+    }
+
+    private static String findDueOperator(String lowerWord) {
+        if (!lowerWord.startsWith(DUE_PREFIX)) {
+            return null;
+        }
+        for (String operator : DUE_OPERATORS) {
+            if (lowerWord.startsWith(operator, DUE_PREFIX.length())) {
+                return operator;
+            }
+        }
+        return null;
+    }
+    // parseTerm helpers - END
+}
@@ -0,0 +1,110 @@
+package darwin.query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import darwin.task.RowFilter;
+import darwin.task.Task;
+import darwin.task.TaskList;
+
+/**
+ * Represents the way a query is run against a TaskList. A <code>QueryPlan</code> orders the
+ * predicate tree by how many tasks each condition can match, using the counts the TaskList keeps:
+ * the terms that must all hold are checked most selective first, and the alternatives of an
+ * <code>or</code> most likely first.
+ *
+ * The terms that must all hold decide how the tasks are visited. If the most selective one has an
+ * index to select from, such as a whole word or a due date range, only the tasks that index lists
+ * for it are read; otherwise the list is scanned once. Either way, conditions on type and status are checked against the columns before a task is
+ * built, and the rest are checked together on the tasks that remain. If any index shows that a
+ * term cannot match at all, the plan answers without reading a task.
+ */
+public class QueryPlan {
+
+    private final List<Condition> conjuncts;
+    private final Condition indexCondition;
+    private final boolean isEmpty;
+
+    private QueryPlan(Condition root, TaskList tasks) {
+        this.conjuncts = root.getConjuncts();
+        Condition mostSelective = conjuncts.get(0);
+        this.indexCondition = mostSelective.canSelectFromIndex(tasks) ? mostSelective : null;
+        this.isEmpty = mostSelective.estimateMatches(tasks) == 0;
+    }
+
+    /**
+     * Plans a query against the current contents of a TaskList.
+     *
+     * @param root The predicate tree of the query.
+     * @param tasks The TaskList to run the query against.
+     * @return The plan.
+     */
+    public static QueryPlan create(Condition root, TaskList tasks) {
+        return new QueryPlan(root.order(tasks), tasks);
+    }
+
+    /**
+     * Runs the plan and returns the matching tasks in list order.
+     *
+     * @param tasks The TaskList the plan was created for.
+     * @return An ArrayList of the matching tasks.
+     */
+    public ArrayList<Task> execute(TaskList tasks) {
+        if (isEmpty) {
+            return new ArrayList<>();
+        }
+
+        ArrayList<Condition> columnConditions = new ArrayList<>();
+        ArrayList<Condition> taskConditions = new ArrayList<>();
+        for (Condition condition : conjuncts) {
+            if (condition != indexCondition) { // checked by the index selection itself
+                (condition.isColumnCondition() ? columnConditions : taskConditions).add(condition);
+            }
+        }
+
+        RowFilter rowFilter = (typeCode, isDone) -> {
+            for (Condition condition : columnConditions) {
+                if (!condition.testColumns(typeCode, isDone)) {
+                    return false;
+                }
+            }
+            return true;
+        };
+        Predicate<Task> taskFilter = task -> {
+            for (Condition condition : taskConditions) {
+                if (!condition.test(task)) {
+                    return false;
+                }
+            }
+            return true;
+        };
+        return indexCondition != null
+                ? indexCondition.selectFromIndex(tasks, rowFilter, taskFilter)
+                : tasks.selectTasks(rowFilter, taskFilter);
+    }
+
+    /**
+     * Describes the plan: the order in which the conditions are checked, where each estimate
+     * comes from, and how the tasks are visited.
+     *
+     * @param tasks The TaskList the plan was created for.
+     * @return The lines of the explanation.
+     */
+    public ArrayList<String> explain(TaskList tasks) {
+        ArrayList<String> lines = new ArrayList<>();
+        for (int i = 0; i < conjuncts.size(); i++) {
+            conjuncts.get(i).explain(tasks, (i + 1) + ".", lines);
+        }
+
+        if (isEmpty) {
+            lines.add("No task can match '" + conjuncts.get(0) + "', so nothing is scanned.");
+        } else if (indexCondition != null) {
+            lines.add("Only the tasks the " + indexCondition.getAccessPath() + " lists for '"
+                    + indexCondition.getIndexKey() + "' are read; the other conditions are checked on each of them.");
+        } else {
+            lines.add("All conditions are checked in a single pass over the list.");
+        }
+        return lines;
+    }
+}
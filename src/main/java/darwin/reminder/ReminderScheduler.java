@@ -0,0 +1,231 @@
+package darwin.reminder;
+
+import darwin.DateParser;
+import darwin.task.Deadline;
+import darwin.task.Event;
+import darwin.task.Recurring;
+import darwin.task.Task;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Schedules reminders for upcoming deadlines and event starts. A <code>ReminderScheduler</code>
+ * keeps every pending reminder in one priority queue ordered by due time and uses a single timer
+ * thread that only ever waits for the earliest one, so the number of scheduled tasks does not
+ * affect the number of threads or timers.
+ *
+ * A reminder is due at the start of the day of the deadline or the event start. Scheduling and
+ * cancelling cost O(log n) and O(1) respectively; cancelled reminders are dropped lazily.
+ * A recurring task has one reminder at a time, which moves on to the next occurrence once it fires.
+ */
+public class ReminderScheduler {
+
+    private static final String THREAD_NAME = "darwin-reminders";
+
+    /**
+     * A handle to a scheduled reminder, used to cancel it.
+     */
+    public static final class Reminder {
+        private final Task task;
+        private LocalDate date;
+        private long dueMillis;
+        private boolean isCancelled;
+
+        private Reminder(Task task, LocalDate date, long dueMillis) {
+            this.task = task;
+            this.date = date;
+            this.dueMillis = dueMillis;
+        }
+    }
+
+    private final Clock clock;
+    private final PriorityQueue<Reminder> queue = new PriorityQueue<>(
+            (first, second) -> Long.compare(first.dueMillis, second.dueMillis));
+    private final ScheduledExecutorService timer;
+
+    private Consumer<String> listener;
+    private ScheduledFuture<?> wakeUp;
+    private long wakeUpMillis = Long.MAX_VALUE;
+    private int cancelledCount;
+
+    /**
+     * Constructs a ReminderScheduler using the system clock and time zone.
+     */
+    public ReminderScheduler() {
+        this(Clock.systemDefaultZone());
+    }
+
+    /**
+     * Constructs a ReminderScheduler using the given clock.
+     *
+     * @param clock The clock that decides when reminders are due.
+     */
+    public ReminderScheduler(Clock clock) {
+        this.clock = clock;
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Sets the listener that receives reminder messages. The listener is called on the timer
+     * thread, so GUI listeners must hand the message over to their own thread.
+     *
+     * @param listener The listener, or null to drop reminders.
+     */
+    public synchronized void setListener(Consumer<String> listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Schedules a reminder for the task if it is an undone deadline or event whose date is today
+     * or later, or an undone recurring task (for its next occurrence).
+     *
+     * @param task The task to remind about.
+     * @return A handle for cancelling the reminder, or null if no reminder was scheduled.
+     */
+    public synchronized Reminder schedule(Task task) {
+        if (task.isDone()) {
+            return null;
+        }
+
+        LocalDate today = LocalDate.now(clock);
+        LocalDate date;
+        if (task instanceof Deadline) {
+            date = ((Deadline) task).getDate();
+        } else if (task instanceof Event) {
+            date = ((Event) task).getFromDate();
+        } else if (task instanceof Recurring) {
+            date = ((Recurring) task).getNextOccurrence(today);
+        } else {
+            return null;
+        }
+
+        if (date.isBefore(today)) {
+            return null;
+        }
+
+        Reminder reminder = new Reminder(task, date, toMillis(date));
+        enqueue(reminder);
+        return reminder;
+    }
+
+    /**
+     * Cancels a scheduled reminder. Does nothing if the handle is null or already fired.
+     *
+     * @param reminder The handle returned by {@link #schedule(Task)}, or null.
+     */
+    public synchronized void cancel(Reminder reminder) {
+        if (reminder == null || reminder.isCancelled) {
+            return;
+        }
+        reminder.isCancelled = true;
+        cancelledCount++;
+
+        if (cancelledCount > queue.size() / 2) {
+            purgeCancelled();
+        }
+    }
+
+    /**
+     * Returns the number of reminders still waiting to fire.
+     *
+     * @return The number of pending reminders.
+     */
+    public synchronized int getPendingCount() {
+        return queue.size() - cancelledCount;
+    }
+
+    /**
+     * Stops the timer thread. No reminders fire afterwards.
+     */
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    private long toMillis(LocalDate date) {
+        return date.atStartOfDay(clock.getZone()).toInstant().toEpochMilli();
+    }
+
+    private void enqueue(Reminder reminder) {
+        queue.add(reminder);
+        if (reminder.dueMillis < wakeUpMillis) {
+            armTimer(reminder.dueMillis);
+        }
+    }
+
+    private String describe(Reminder reminder) {
+        String when = reminder.task instanceof Event ? "\" starts today (" : "\" is due today (";
+        return "Reminder: \"" + reminder.task.getDescription() + when
+                + DateParser.formatDateForDisplay(reminder.date) + ").";
+    }
+
+    /**
+     * Moves the reminder of a recurring task on to its next occurrence, keeping the same handle so
+     * that it can still be cancelled. Occurrences missed while the application was not running are skipped.
+     */
+    private void rescheduleRecurring(Reminder reminder) {
+        LocalDate dayAfter = reminder.date.plusDays(1);
+        LocalDate today = LocalDate.now(clock);
+        LocalDate earliest = dayAfter.isAfter(today) ? dayAfter : today;
+        reminder.date = ((Recurring) reminder.task).getNextOccurrence(earliest);
+        reminder.dueMillis = toMillis(reminder.date);
+        queue.add(reminder);
+    }
+
+    private void purgeCancelled() {
+        queue.removeIf(reminder -> reminder.isCancelled);
+        cancelledCount = 0;
+    }
+
+    private void armTimer(long dueMillis) {
+        if (wakeUp != null) {
+            wakeUp.cancel(false);
+        }
+        wakeUpMillis = dueMillis;
+        long delay = Math.max(0, dueMillis - clock.millis());
+        wakeUp = timer.schedule(this::fireDueReminders, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void fireDueReminders() {
+        Consumer<String> currentListener;
+        StringBuilder messages = new StringBuilder();
+
+        synchronized (this) {
+            long now = clock.millis();
+            while (!queue.isEmpty() && queue.peek().dueMillis <= now) {
+                Reminder reminder = queue.poll();
+                if (reminder.isCancelled) {
+                    cancelledCount--;
+                    continue;
+                }
+                messages.append(describe(reminder)).append("\n");
+                if (reminder.task instanceof Recurring) {
+                    rescheduleRecurring(reminder);
+                } else {
+                    reminder.isCancelled = true; // a fired reminder can no longer be cancelled
+                }
+            }
+
+            wakeUp = null;
+            wakeUpMillis = Long.MAX_VALUE;
+            if (!queue.isEmpty()) {
+                armTimer(queue.peek().dueMillis);
+            }
+            currentListener = listener;
+        }
+
+        if (currentListener != null && messages.length() > 0) {
+            currentListener.accept(messages.toString().trim());
+        }
+    }
+}
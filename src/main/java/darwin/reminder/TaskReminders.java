@@ -0,0 +1,54 @@
+package darwin.reminder;
+
+import darwin.reminder.ReminderScheduler.Reminder;
+import darwin.task.Task;
+import darwin.task.TaskChange;
+import darwin.task.TaskList;
+import darwin.task.TaskListListener;
+
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Keeps the reminders of a TaskList's tasks in step with the list. A <code>TaskReminders</code>
+ * holds the reminder handles of the tasks that have one, by task key, and follows the list's
+ * change batches: added tasks are scheduled, removed ones cancelled, and a task marked done or
+ * not done is cancelled or scheduled again. Each change costs O(1) whatever its position, and
+ * tasks without a reminder take no space.
+ */
+public class TaskReminders implements TaskListListener {
+
+    private final ReminderScheduler scheduler;
+    private final HashMap<Object, Reminder> reminders = new HashMap<>();
+
+    /**
+     * Schedules reminders for the tasks already in the list. Register the object as a listener of
+     * the same list to keep them up to date.
+     *
+     * @param scheduler The scheduler that fires the reminders.
+     * @param tasks The list whose tasks to remind about.
+     */
+    public TaskReminders(ReminderScheduler scheduler, TaskList tasks) {
+        this.scheduler = scheduler;
+        for (int taskNumber = 1; taskNumber <= tasks.getTaskCount(); taskNumber++) {
+            schedule(tasks.getTaskKey(taskNumber), tasks.getTask(taskNumber));
+        }
+    }
+
+    @Override
+    public void onTasksChanged(List<TaskChange> changes) {
+        for (TaskChange change : changes) {
+            scheduler.cancel(reminders.remove(change.getTaskKey()));
+            if (change.getKind() != TaskChange.Kind.REMOVED) {
+                schedule(change.getTaskKey(), change.getTask());
+            }
+        }
+    }
+
+    private void schedule(Object taskKey, Task task) {
+        Reminder reminder = scheduler.schedule(task);
+        if (reminder != null) {
+            reminders.put(taskKey, reminder);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package darwin.storage;
+
+import java.util.HashMap;
+
+/**
+ * Deduplicates task descriptions read from the storage file. Recurring tasks such as
+ * "read book" then share a single String instead of each holding their own copy.
+ */
+final class DescriptionPool {
+
+    private final HashMap<String, String> descriptions = new HashMap<>();
+
+    /**
+     * Returns the pooled instance equal to the given description, adding it if it is new.
+     */
+    String intern(String description) {
+        String pooled = descriptions.putIfAbsent(description, description);
+        return pooled == null ? description : pooled;
+    }
+
+    /**
+     * Forgets every pooled description. Tasks keep the strings they were given.
+     */
+    void clear() {
+        descriptions.clear();
+    }
+}
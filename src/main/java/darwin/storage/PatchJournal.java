@@ -0,0 +1,145 @@
+package darwin.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.zip.CRC32C;
+
+/**
+ * Makes the positioned writes of an incremental save safe against a crash. The writes are first
+ * recorded in a journal next to the storage file and forced to disk, and only then made to the
+ * file; the journal is deleted once the file has been forced as well. A journal that is still
+ * there when the file is next locked belongs to a save that may have been cut short, so its
+ * writes are made again by {@link #replay(String)}; writing the same bytes twice changes nothing.
+ * A journal that was itself cut short fails its checksum and is dropped, as the file was not
+ * touched yet.
+ */
+final class PatchJournal {
+
+    static final String JOURNAL_FILE_SUFFIX = ".journal";
+
+    private final Path file;
+    private final Path journalFile;
+    private final ArrayList<Long> offsets = new ArrayList<>();
+    private final ArrayList<byte[]> writes = new ArrayList<>();
+
+    PatchJournal(String filePath) {
+        this.file = Paths.get(filePath);
+        this.journalFile = Paths.get(filePath + JOURNAL_FILE_SUFFIX);
+    }
+
+    /**
+     * Adds a write of the bytes at the given position of the file. Writes are made in the order
+     * they were added.
+     */
+    void add(long offset, byte[] bytes) {
+        offsets.add(offset);
+        writes.add(bytes);
+    }
+
+    /**
+     * Records the writes in the journal, makes them to the file and deletes the journal.
+     */
+    void commit() throws IOException {
+        writeJournal();
+        apply(file, offsets, writes);
+        Files.delete(journalFile);
+    }
+
+    /**
+     * Records the writes in the journal and forces it to disk, without touching the file.
+     */
+    void writeJournal() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(writes.size());
+        for (int i = 0; i < writes.size(); i++) {
+            out.writeLong(offsets.get(i));
+            out.writeInt(writes.get(i).length);
+            out.write(writes.get(i));
+        }
+        CRC32C checksum = new CRC32C();
+        checksum.update(bytes.toByteArray());
+        out.writeLong(checksum.getValue());
+
+        try (FileChannel channel = FileChannel.open(journalFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap(bytes.toByteArray()));
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Drops the journal of a save whose writes could not be made, before the file is replaced as
+     * a whole, so that they are not made to the new file.
+     */
+    static void discard(String filePath) throws IOException {
+        Files.deleteIfExists(Paths.get(filePath + JOURNAL_FILE_SUFFIX));
+    }
+
+    /**
+     * Makes the writes of a journal left behind by an interrupted save, then deletes it.
+     *
+     * @param filePath The storage file the journal belongs to.
+     * @return true if a complete journal was found and replayed.
+     * @throws IOException If the journal or the file cannot be read or written.
+     */
+    static boolean replay(String filePath) throws IOException {
+        Path journalFile = Paths.get(filePath + JOURNAL_FILE_SUFFIX);
+        if (!Files.exists(journalFile)) {
+            return false;
+        }
+
+        byte[] content = Files.readAllBytes(journalFile);
+        ArrayList<Long> offsets = new ArrayList<>();
+        ArrayList<byte[]> writes = new ArrayList<>();
+        boolean isComplete = read(content, offsets, writes) && Files.exists(Paths.get(filePath));
+        if (isComplete) {
+            apply(Paths.get(filePath), offsets, writes);
+        }
+        Files.delete(journalFile);
+        return isComplete;
+    }
+
+    private static boolean read(byte[] content, ArrayList<Long> offsets, ArrayList<byte[]> writes) {
+        if (content.length < Long.BYTES) {
+            return false;
+        }
+        CRC32C checksum = new CRC32C();
+        checksum.update(content, 0, content.length - Long.BYTES);
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(content))) {
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                offsets.add(in.readLong());
+                int length = in.readInt();
+                if (length < 0 || length > in.available()) {
+                    return false; // cut short or damaged, so the lengths cannot be trusted
+                }
+                byte[] bytes = new byte[length];
+                in.readFully(bytes);
+                writes.add(bytes);
+            }
+            return in.readLong() == checksum.getValue() && in.available() == 0;
+        } catch (IOException e) {
+            return false; // ended before its checksum
+        }
+    }
+
+    private static void apply(Path file, ArrayList<Long> offsets, ArrayList<byte[]> writes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            for (int i = 0; i < writes.size(); i++) {
+                channel.write(ByteBuffer.wrap(writes.get(i)), offsets.get(i));
+            }
+            channel.force(false);
+        }
+    }
+}
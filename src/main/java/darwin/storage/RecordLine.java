@@ -0,0 +1,97 @@
+package darwin.storage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32C;
+
+/**
+ * Encodes and verifies single lines of the storage file. Every task record is followed by a
+ * CRC32C checksum of its UTF-8 bytes (e.g. <code>T | 0 | read book # 1c291ca3</code>), and the
+ * file ends with a footer line holding the number of records (e.g. <code># count=3</code>).
+ * Files written before checksums were introduced contain bare records and no footer.
+ */
+final class RecordLine {
+
+    static final String CHECKSUM_SEPARATOR = " # ";
+    static final String FOOTER_PREFIX = "# count=";
+
+    private static final int CHECKSUM_HEX_LENGTH = 8;
+    private static final int CHECKSUM_SUFFIX_LENGTH = CHECKSUM_SEPARATOR.length() + CHECKSUM_HEX_LENGTH;
+    private static final int HEX_RADIX = 16;
+
+    private RecordLine() {
+    }
+
+    /**
+     * Returns the line to write for the given record, with its checksum appended.
+     */
+    static String encode(String record) {
+        return record + CHECKSUM_SEPARATOR + checksumOf(record);
+    }
+
+    /**
+     * Returns the footer line for a file holding the given number of records.
+     */
+    static String footer(int recordCount) {
+        return FOOTER_PREFIX + recordCount;
+    }
+
+    static boolean isFooter(String line) {
+        return line.startsWith(FOOTER_PREFIX);
+    }
+
+    /**
+     * Returns the record count stored in a footer line, or -1 if the footer is malformed.
+     */
+    static int parseFooterCount(String line) {
+        try {
+            return Integer.parseInt(line.substring(FOOTER_PREFIX.length()).trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Checks whether the line carries a checksum suffix, without verifying it.
+     */
+    static boolean hasChecksum(String line) {
+        int separatorIndex = line.length() - CHECKSUM_SUFFIX_LENGTH;
+        if (separatorIndex < 0 || !line.startsWith(CHECKSUM_SEPARATOR, separatorIndex)) {
+            return false;
+        }
+        for (int i = line.length() - CHECKSUM_HEX_LENGTH; i < line.length(); i++) {
+            if (Character.digit(line.charAt(i), HEX_RADIX) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the record part of a checksummed line without verifying the checksum.
+     */
+    static String stripChecksum(String line) {
+        assert hasChecksum(line) : "Line should carry a checksum: " + line;
+
+        return line.substring(0, line.length() - CHECKSUM_SUFFIX_LENGTH);
+    }
+
+    /**
+     * Returns the record part of a checksummed line if its checksum matches, or null if it does not.
+     */
+    static String extractVerifiedRecord(String line) {
+        assert hasChecksum(line) : "Line should carry a checksum: " + line;
+
+        int separatorIndex = line.length() - CHECKSUM_SUFFIX_LENGTH;
+        String record = line.substring(0, separatorIndex);
+        String checksum = line.substring(line.length() - CHECKSUM_HEX_LENGTH);
+        return checksum.equals(checksumOf(record)) ? record : null;
+    }
+
+    private static String checksumOf(String record) {
+        CRC32C crc = new CRC32C();
+        crc.update(record.getBytes(StandardCharsets.UTF_8));
+
+        String hex = Long.toHexString(crc.getValue());
+        return "0".repeat(CHECKSUM_HEX_LENGTH - hex.length()) + hex;
+    }
+}
@@ -0,0 +1,846 @@
+package darwin.storage;
+
+import darwin.task.Deadline;
+import darwin.task.Event;
+import darwin.task.Recurring;
+import darwin.task.Task;
+import darwin.task.TaskChange;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Keeps the records of a storage file as a series of small segment files, listed in order by a
+ * manifest. Each segment holds at most {@link #SEGMENT_CAPACITY} records in the usual checksummed
+ * format, and the manifest holds, for each segment, its file name, its number of records and the
+ * range of dates its tasks fall on:
+ * <pre>
+ * # segments
+ * segment-4.txt | 512 | 2026-01-05..2026-03-01 # 5d1f0a2c
+ * segment-9.txt | 3 | 2026-02-01.. # 0b7e44d1
+ * cold-2.z | 41 | 2025-09-01..2025-12-19 | AAQAAgAB... # 9ac30e17
+ * # count=3
+ * </pre>
+ * Segments are never changed in place. A save writes the segments that changed as new files,
+ * then atomically replaces the manifest, which is what makes the save take effect, and only then
+ * deletes the files it replaced. Segments are read and written in parallel. Given the changes made
+ * to the list, {@link #saveChanges(List)} finds the segments to rewrite without looking at the
+ * others, so a save costs the size of the dirty segments plus one manifest line per segment.
+ *
+ * Archived tasks go to cold segments, listed after the others. A cold segment is compressed, is
+ * never loaded or rewritten, and is only read, a line at a time, by {@link #findArchived(String)}.
+ * Its entry ends with a {@link TrigramFilter} of its descriptions, so a search skips the cold
+ * segments that cannot hold the keyword without opening them.
+ */
+final class SegmentedArchive {
+
+    static final String MANIFEST_HEADER = "# segments";
+    static final int SEGMENT_CAPACITY = 512; // keeps the manifest small next to the records it lists
+
+    private static final String SEGMENT_DIRECTORY_SUFFIX = ".segments";
+    private static final String SEGMENT_FILE_PREFIX = "segment-";
+    private static final String SEGMENT_FILE_SUFFIX = ".txt";
+    private static final String COLD_FILE_PREFIX = "cold-";
+    private static final String COLD_FILE_SUFFIX = ".z";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+    private static final String FIELD_SEPARATOR = " | ";
+    private static final String FIELD_DELIMITER = " \\| ";
+    private static final String DATE_RANGE_SEPARATOR = "..";
+    private static final String NO_DATES = "-";
+    private static final int MANIFEST_FIELD_COUNT = 3;
+    private static final int FILTERED_MANIFEST_FIELD_COUNT = 4;
+    private static final int PROGRESS_STEP = 10; // percent
+    private static final int PROGRESS_COMPLETE = 100;
+
+    private final Path manifestPath;
+    private final Path segmentDirectory;
+
+    // The segments the manifest on disk lists, in order, with their records
+    private final ArrayList<Segment> segments = new ArrayList<>();
+    private final ArrayList<Segment> coldSegments = new ArrayList<>();
+    private final HashSet<Segment> dirtySegments = new HashSet<>(); // changed in memory, not yet written
+    private long nextSegmentId = 1;
+    private boolean isRewriteNeeded = true; // until the segments on disk are known to match
+    private String recoveryMessage;
+    private int reportedProgress;
+
+    SegmentedArchive(Path manifestPath) {
+        this.manifestPath = manifestPath;
+        this.segmentDirectory = Paths.get(manifestPath + SEGMENT_DIRECTORY_SUFFIX);
+    }
+
+    /**
+     * Checks whether a file is a manifest, as opposed to a storage file holding the records itself.
+     */
+    static boolean isManifest(Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return MANIFEST_HEADER.equals(reader.readLine());
+        }
+    }
+
+    /**
+     * Returns a description of the damage found by the last {@link #load(IntConsumer)}, or null.
+     */
+    String getRecoveryMessage() {
+        return recoveryMessage;
+    }
+
+    /**
+     * Forgets what is on disk, so that the next save writes every segment and a new manifest.
+     * Segment files the new manifest does not list are then deleted.
+     */
+    void forgetSegments() {
+        segments.clear();
+        dirtySegments.clear();
+        isRewriteNeeded = true;
+    }
+
+    // ============ LOADING ============
+
+    /**
+     * Reads the manifest and then every segment it lists, in parallel. A damaged segment is read
+     * up to the damage, and the whole archive is rewritten on the next save.
+     *
+     * @param progressListener Receives the percentage of segments read so far, below 100.
+     * @return The tasks of all segments, in order.
+     */
+    ArrayList<Task> load(IntConsumer progressListener) throws IOException {
+        forgetSegments();
+        recoveryMessage = null;
+        reportedProgress = 0;
+
+        ArrayList<Segment> manifestEntries = readManifest();
+        if (manifestEntries == null) {
+            recoveryMessage = "The list of segments in " + manifestPath + " is damaged, so no tasks could be "
+                    + "recovered.";
+            return new ArrayList<>();
+        }
+        ArrayList<Segment> entries = select(manifestEntries, false);
+        coldSegments.clear();
+        coldSegments.addAll(select(manifestEntries, true));
+        for (Segment coldSegment : coldSegments) {
+            nextSegmentId = Math.max(nextSegmentId, coldSegment.id + 1);
+        }
+
+        AtomicInteger readCount = new AtomicInteger();
+        List<ArrayList<Task>> segmentTasks = IntStream.range(0, entries.size()).parallel()
+                .mapToObj(i -> {
+                    ArrayList<Task> tasks = readSegment(entries.get(i), new RecordParser());
+                    reportProgress(readCount.incrementAndGet(), entries.size(), progressListener);
+                    return tasks;
+                })
+                .collect(Collectors.toList());
+
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i++) {
+            Segment segment = entries.get(i);
+            tasks.addAll(segmentTasks.get(i));
+            segments.add(segment);
+            nextSegmentId = Math.max(nextSegmentId, segment.id + 1);
+            if (segment.damage != null && recoveryMessage == null) {
+                recoveryMessage = segment.damage;
+            }
+        }
+        isRewriteNeeded = recoveryMessage != null;
+        return tasks;
+    }
+
+    /**
+     * Reads the segment's records into it, and returns its tasks. Each thread uses its own parser.
+     */
+    private ArrayList<Task> readSegment(Segment segment, RecordParser parser) {
+        ArrayList<Task> tasks = new ArrayList<>();
+        readSegmentRecords(segment);
+        for (int i = 0; i < segment.records.size(); i++) {
+            Task task = parser.parseLine(segment.records.get(i));
+            if (task == null) {
+                segment.damage = "Record " + (i + 1) + " of " + segment.fileName + " is damaged. Recovered the "
+                        + "tasks before it and in the other segments.";
+                segment.records.subList(i, segment.records.size()).clear();
+                segment.count = i;
+                break;
+            }
+            tasks.add(task);
+        }
+        parser.clear();
+        return tasks;
+    }
+
+    private synchronized void reportProgress(int readCount, int segmentCount, IntConsumer progressListener) {
+        int progress = readCount * PROGRESS_COMPLETE / segmentCount;
+        if (progress >= reportedProgress + PROGRESS_STEP && progress < PROGRESS_COMPLETE) {
+            progressListener.accept(progress);
+            reportedProgress = progress;
+        }
+    }
+
+    // ============ SAVING ============
+
+    /**
+     * Writes the records to disk, rewriting only the segments that hold records that changed.
+     * The changed records are found by comparing the start and the end of the list with what was
+     * last read or written; the segments covering the part in between are replaced by new ones.
+     *
+     * @param records The records of all tasks, in order.
+     * @param tasks The tasks the records belong to, used to find the dates of each segment.
+     */
+    void save(ArrayList<String> records, ArrayList<Task> tasks) throws IOException {
+        ArrayList<String> savedRecords = getRecords(segments);
+        int firstSegment = 0;
+        int lastSegment = segments.size() - 1;
+        if (isRewriteNeeded) {
+            readColdSegmentsOnDisk();
+        } else {
+            int prefixLength = StorageChange.commonPrefixLength(savedRecords, records);
+            if (prefixLength == savedRecords.size() && prefixLength == records.size()) {
+                return;
+            }
+            int suffixLength = StorageChange.commonSuffixLength(savedRecords, records, prefixLength);
+            firstSegment = findFirstDirtySegment(prefixLength, savedRecords.size());
+            int changedEnd = savedRecords.size() - suffixLength;
+            lastSegment = changedEnd > prefixLength ? findSegmentAt(changedEnd - 1) : firstSegment;
+            lastSegment = Math.min(lastSegment, segments.size() - 1);
+        }
+
+        int spanStart = firstSegment < segments.size() ? getStart(firstSegment) : savedRecords.size();
+        int spanEnd = lastSegment >= firstSegment ? getStart(lastSegment) + segments.get(lastSegment).count
+                : spanStart;
+        int newSpanEnd = spanEnd + records.size() - savedRecords.size();
+        ArrayList<Segment> written = writeSegments(records, tasks, spanStart, newSpanEnd);
+
+        ArrayList<Segment> updated = new ArrayList<>(segments.subList(0, firstSegment));
+        updated.addAll(written);
+        updated.addAll(segments.subList(lastSegment + 1, segments.size()));
+        writeManifest(updated);
+
+        List<Segment> replaced = new ArrayList<>(segments.subList(firstSegment, lastSegment + 1));
+        segments.clear();
+        segments.addAll(updated);
+        if (isRewriteNeeded) {
+            deleteUnlistedSegmentFiles();
+        } else {
+            for (Segment segment : replaced) {
+                Files.deleteIfExists(segmentDirectory.resolve(segment.fileName));
+            }
+        }
+        isRewriteNeeded = false;
+    }
+
+    /**
+     * Returns the first segment to rewrite for a change starting at the given record. Records
+     * added at the end go into the last segment while it has room, and into a new one after that.
+     */
+    private int findFirstDirtySegment(int changeStart, int recordCount) {
+        if (changeStart < recordCount) {
+            return findSegmentAt(changeStart);
+        }
+        boolean hasRoom = !segments.isEmpty() && segments.get(segments.size() - 1).count < SEGMENT_CAPACITY;
+        return hasRoom ? segments.size() - 1 : segments.size();
+    }
+
+    private int findSegmentAt(int recordIndex) {
+        int start = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            start += segments.get(i).count;
+            if (recordIndex < start) {
+                return i;
+            }
+        }
+        return segments.size() - 1;
+    }
+
+    private int getStart(int segmentIndex) {
+        int start = 0;
+        for (int i = 0; i < segmentIndex; i++) {
+            start += segments.get(i).count;
+        }
+        return start;
+    }
+
+    /**
+     * Splits the records from start to end into as few segments as fit them, of nearly equal
+     * size, and writes each one to a new file, in parallel.
+     */
+    private ArrayList<Segment> writeSegments(ArrayList<String> records, ArrayList<Task> tasks, int start, int end)
+            throws IOException {
+        ArrayList<Segment> written = createSegments(records.subList(start, end), tasks.subList(start, end));
+        writeSegmentFiles(written);
+        return written;
+    }
+
+    /**
+     * Splits records into new segments of at most {@link #SEGMENT_CAPACITY} records each. Their
+     * day ranges are taken from the tasks, or left empty if there are none.
+     */
+    private ArrayList<Segment> createSegments(List<String> records, List<Task> tasks) {
+        ArrayList<Segment> created = new ArrayList<>();
+        int recordCount = records.size();
+        int segmentCount = (recordCount + SEGMENT_CAPACITY - 1) / SEGMENT_CAPACITY;
+        int from = 0;
+        for (int i = 0; i < segmentCount; i++) {
+            int size = recordCount / segmentCount + (i < recordCount % segmentCount ? 1 : 0);
+            Segment segment = new Segment(nextSegmentId++, false, new ArrayList<>(records.subList(from, from + size)));
+            if (tasks != null) {
+                segment.setDates(tasks.subList(from, from + size));
+            }
+            created.add(segment);
+            from += size;
+        }
+        return created;
+    }
+
+    private void writeSegmentFiles(List<Segment> written) throws IOException {
+        Files.createDirectories(segmentDirectory);
+        List<IOException> failures = written.parallelStream()
+                .map(this::writeSegmentFile)
+                .filter(failure -> failure != null)
+                .collect(Collectors.toList());
+        if (!failures.isEmpty()) {
+            throw failures.get(0);
+        }
+    }
+
+    /**
+     * Writes the changes made to the list since the segments on disk were last read or written,
+     * rewriting only the segments the changes fall in. A segment that grows past
+     * {@link #SEGMENT_CAPACITY} is split, and one left empty is dropped. The records are not parsed:
+     * a rewritten segment keeps its day range, widened by the tasks added to it, so the range
+     * may be wider than its tasks but never narrower.
+     *
+     * @param changes The changes, in the order they were made.
+     * @return false if what is on disk is not known, or the changes do not fit it; nothing is
+     *         written then, and the whole list has to be saved instead.
+     */
+    boolean saveChanges(List<TaskChange> changes) throws IOException {
+        if (isRewriteNeeded || !applyChanges(changes)) {
+            return false;
+        }
+        if (dirtySegments.isEmpty()) {
+            return true;
+        }
+
+        ArrayList<Segment> updated = new ArrayList<>();
+        ArrayList<Segment> written = new ArrayList<>();
+        for (Segment segment : segments) {
+            if (!dirtySegments.contains(segment)) {
+                updated.add(segment);
+                continue;
+            }
+            ArrayList<Segment> parts = createSegments(segment.records, null);
+            for (Segment part : parts) {
+                part.includeDays(segment.firstDay, segment.lastDay);
+            }
+            written.addAll(parts);
+            updated.addAll(parts);
+        }
+        writeSegmentFiles(written);
+        writeManifest(updated);
+
+        segments.clear();
+        segments.addAll(updated);
+        for (Segment segment : dirtySegments) {
+            Files.deleteIfExists(segmentDirectory.resolve(segment.fileName));
+        }
+        dirtySegments.clear();
+        return true;
+    }
+
+    /**
+     * Applies the changes to the records of the segments in memory, marking the segments they
+     * fall in as dirty. If a removed record is not the one expected, the segments in memory no
+     * longer match the disk and are forgotten.
+     */
+    private boolean applyChanges(List<TaskChange> changes) {
+        int recordCount = 0;
+        for (Segment segment : segments) {
+            recordCount += segment.count;
+        }
+        for (TaskChange change : changes) {
+            boolean isAdded = change.getKind() == TaskChange.Kind.ADDED;
+            if (change.getIndex() < 0 || change.getIndex() > (isAdded ? recordCount : recordCount - 1)) {
+                return false;
+            }
+            recordCount += isAdded ? 1 : change.getKind() == TaskChange.Kind.REMOVED ? -1 : 0;
+        }
+
+        for (TaskChange change : changes) {
+            if (segments.isEmpty()) {
+                segments.add(new Segment(nextSegmentId++, false, new ArrayList<>())); // only ever in memory
+            }
+            int segmentIndex = findSegmentAt(change.getIndex());
+            Segment segment = segments.get(segmentIndex);
+            int offset = change.getIndex() - getStart(segmentIndex);
+            String record = change.getTask().getFileFormat();
+            switch (change.getKind()) {
+                case ADDED:
+                    segment.records.add(offset, record);
+                    segment.count++;
+                    segment.includeTask(change.getTask());
+                    break;
+                case REMOVED:
+                    if (!segment.records.get(offset).equals(record)) {
+                        forgetSegments();
+                        return false;
+                    }
+                    segment.records.remove(offset);
+                    segment.count--;
+                    break;
+                default:
+                    segment.records.set(offset, record);
+                    break;
+            }
+            dirtySegments.add(segment);
+        }
+        return true;
+    }
+
+    private IOException writeSegmentFile(Segment segment) {
+        StringBuilder content = new StringBuilder();
+        for (String record : segment.records) {
+            content.append(RecordLine.encode(record)).append('\n');
+        }
+        content.append(RecordLine.footer(segment.records.size())).append('\n');
+
+        try (FileChannel channel = FileChannel.open(segmentDirectory.resolve(segment.fileName),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            byte[] bytes = content.toString().getBytes(StandardCharsets.UTF_8);
+            if (segment.isCold) {
+                Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+                try {
+                    DeflaterOutputStream compressed = new DeflaterOutputStream(Channels.newOutputStream(channel),
+                            deflater);
+                    compressed.write(bytes);
+                    compressed.finish();
+                } finally {
+                    deflater.end(); // a Deflater passed in is not ended by the stream, and holds native memory
+                }
+            } else {
+                channel.write(ByteBuffer.wrap(bytes));
+            }
+            channel.force(true);
+            return null;
+        } catch (IOException e) {
+            return e;
+        }
+    }
+
+    private void writeManifest(ArrayList<Segment> manifestSegments) throws IOException {
+        StringBuilder content = new StringBuilder(MANIFEST_HEADER).append('\n');
+        for (Segment segment : manifestSegments) {
+            content.append(RecordLine.encode(segment.toManifestRecord())).append('\n');
+        }
+        for (Segment segment : coldSegments) {
+            content.append(RecordLine.encode(segment.toManifestRecord())).append('\n');
+        }
+        content.append(RecordLine.footer(manifestSegments.size() + coldSegments.size())).append('\n');
+
+        Path temp = Paths.get(manifestPath + TEMP_FILE_SUFFIX);
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap(content.toString().getBytes(StandardCharsets.UTF_8)));
+            channel.force(true);
+        }
+        Storage.moveAtomically(temp, manifestPath);
+    }
+
+    /**
+     * Adds the cold segments the manifest on disk lists to those already known, before the
+     * manifest is replaced by a full rewrite, so that archives written by others are kept.
+     */
+    private void readColdSegmentsOnDisk() throws IOException {
+        if (!Files.exists(manifestPath) || !isManifest(manifestPath)) {
+            return;
+        }
+        ArrayList<Segment> entries = readManifest();
+        if (entries == null) {
+            return;
+        }
+        for (Segment entry : select(entries, true)) {
+            if (coldSegments.stream().noneMatch(coldSegment -> coldSegment.id == entry.id)) {
+                coldSegments.add(entry);
+                nextSegmentId = Math.max(nextSegmentId, entry.id + 1);
+            }
+        }
+        coldSegments.sort(Comparator.comparingLong(coldSegment -> coldSegment.id));
+    }
+
+    /**
+     * Deletes the segment files left behind by saves that were interrupted or overruled. Cold
+     * segments are never deleted.
+     */
+    private void deleteUnlistedSegmentFiles() throws IOException {
+        HashSet<String> listed = new HashSet<>();
+        for (Segment segment : segments) {
+            listed.add(segment.fileName);
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(segmentDirectory,
+                SEGMENT_FILE_PREFIX + "*" + SEGMENT_FILE_SUFFIX)) {
+            for (Path file : files) {
+                if (!listed.contains(file.getFileName().toString())) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    // ============ CHANGES BY OTHERS ============
+
+    /**
+     * Compares the archive on disk with what was last read or written, reading only the segments
+     * whose files are new. Returns null if nothing changed or the archive cannot be read as a whole.
+     */
+    StorageChange readChanges() throws IOException {
+        if (isRewriteNeeded) {
+            return null; // what is on disk is not known, so there is nothing to compare with
+        }
+        ArrayList<Segment> manifestEntries = readManifest();
+        if (manifestEntries == null) {
+            return null;
+        }
+        ArrayList<Segment> entries = select(manifestEntries, false);
+
+        HashMap<String, Segment> knownSegments = new HashMap<>();
+        for (Segment segment : segments) {
+            knownSegments.put(segment.fileName, segment);
+        }
+        ArrayList<Segment> current = new ArrayList<>();
+        for (Segment entry : entries) {
+            Segment known = knownSegments.get(entry.fileName);
+            if (known == null) {
+                readSegmentRecords(entry);
+                if (entry.damage != null) {
+                    return null;
+                }
+            }
+            current.add(known == null ? entry : known);
+        }
+
+        ArrayList<String> savedRecords = getRecords(segments);
+        ArrayList<String> records = getRecords(current);
+        int prefixLength = StorageChange.commonPrefixLength(savedRecords, records);
+        int suffixLength = StorageChange.commonSuffixLength(savedRecords, records, prefixLength);
+        RecordParser parser = new RecordParser();
+        ArrayList<Task> addedTasks = new ArrayList<>();
+        for (String record : records.subList(prefixLength, records.size() - suffixLength)) {
+            Task task = parser.parseLine(record);
+            if (task == null) {
+                return null;
+            }
+            addedTasks.add(task);
+        }
+        parser.clear();
+
+        segments.clear();
+        segments.addAll(current);
+        coldSegments.clear();
+        coldSegments.addAll(select(manifestEntries, true));
+        for (Segment segment : manifestEntries) {
+            nextSegmentId = Math.max(nextSegmentId, segment.id + 1);
+        }
+
+        int removedCount = savedRecords.size() - prefixLength - suffixLength;
+        if (removedCount == 0 && addedTasks.isEmpty()) {
+            return null;
+        }
+        return new StorageChange(prefixLength, removedCount, addedTasks);
+    }
+
+    /**
+     * Writes the archive on disk, as it is now, to a single storage file.
+     *
+     * @return true if the archive could be read as a whole and was written.
+     */
+    boolean copyAsSingleFile(Path target) throws IOException {
+        ArrayList<Segment> manifestEntries = readManifest();
+        if (manifestEntries == null) {
+            return false;
+        }
+        ArrayList<Segment> entries = select(manifestEntries, false); // cold segments are kept anyway
+
+        StringBuilder content = new StringBuilder();
+        int recordCount = 0;
+        for (Segment entry : entries) {
+            readSegmentRecords(entry);
+            for (String record : entry.records) {
+                content.append(RecordLine.encode(record)).append('\n');
+            }
+            recordCount += entry.records.size();
+        }
+        content.append(RecordLine.footer(recordCount)).append('\n');
+        Files.write(target, content.toString().getBytes(StandardCharsets.UTF_8));
+        return true;
+    }
+
+    // ============ COLD SEGMENTS ============
+
+    /**
+     * Moves tasks to a new cold segment and saves the remaining tasks, in one change of the manifest.
+     *
+     * @param archivedRecords The records of the tasks to archive.
+     * @param archivedTasks The tasks to archive.
+     * @param records The records of the tasks that remain, in order.
+     * @param tasks The tasks that remain.
+     */
+    void archive(ArrayList<String> archivedRecords, ArrayList<Task> archivedTasks, ArrayList<String> records,
+            ArrayList<Task> tasks) throws IOException {
+        assert !archivedRecords.isEmpty() : "There should be tasks to archive";
+
+        Segment coldSegment = new Segment(nextSegmentId++, true, new ArrayList<>(archivedRecords));
+        coldSegment.setDates(archivedTasks);
+        coldSegment.filter = TrigramFilter.create(archivedTasks);
+        Files.createDirectories(segmentDirectory);
+        IOException failure = writeSegmentFile(coldSegment);
+        if (failure != null) {
+            throw failure;
+        }
+
+        coldSegments.add(coldSegment);
+        try {
+            save(records, tasks);
+        } catch (IOException e) {
+            coldSegments.remove(coldSegment);
+            Files.deleteIfExists(segmentDirectory.resolve(coldSegment.fileName));
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of tasks in cold segments.
+     */
+    int getArchivedCount() {
+        int count = 0;
+        for (Segment coldSegment : coldSegments) {
+            count += coldSegment.count;
+        }
+        return count;
+    }
+
+    /**
+     * Searches the cold segments for tasks whose description contains the keyword, decompressing
+     * them a line at a time. Segments whose filter rules the keyword out are not opened, and only
+     * lines that contain the keyword somewhere are verified and parsed.
+     *
+     * @param lowerKeyword The keyword, in lower case.
+     * @return The matching archived tasks, oldest archive first.
+     */
+    ArrayList<Task> findArchived(String lowerKeyword) throws IOException {
+        ArrayList<Task> matchingTasks = new ArrayList<>();
+        RecordParser parser = new RecordParser();
+        for (Segment coldSegment : coldSegments) {
+            if (coldSegment.filter != null && !coldSegment.filter.mayContain(lowerKeyword)) {
+                continue;
+            }
+            Path file = segmentDirectory.resolve(coldSegment.fileName);
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new InflaterInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null && !RecordLine.isFooter(line)) {
+                    if (!line.toLowerCase().contains(lowerKeyword) || !RecordLine.hasChecksum(line)) {
+                        continue;
+                    }
+                    String record = RecordLine.extractVerifiedRecord(line);
+                    Task task = record == null ? null : parser.parseLine(record);
+                    if (task != null && task.getDescription().toLowerCase().contains(lowerKeyword)) {
+                        matchingTasks.add(task);
+                    }
+                }
+            }
+        }
+        parser.clear();
+        return matchingTasks;
+    }
+
+    // ============ HELPERS ============
+
+    private static ArrayList<Segment> select(ArrayList<Segment> entries, boolean isCold) {
+        ArrayList<Segment> selected = new ArrayList<>();
+        for (Segment entry : entries) {
+            if (entry.isCold == isCold) {
+                selected.add(entry);
+            }
+        }
+        return selected;
+    }
+
+    private static ArrayList<String> getRecords(List<Segment> segmentList) {
+        ArrayList<String> records = new ArrayList<>();
+        for (Segment segment : segmentList) {
+            records.addAll(segment.records);
+        }
+        return records;
+    }
+
+    /**
+     * Returns the segments the manifest lists, without their records, or null if the manifest is damaged.
+     */
+    private ArrayList<Segment> readManifest() throws IOException {
+        List<String> lines = Files.readAllLines(manifestPath, StandardCharsets.UTF_8);
+        if (lines.isEmpty() || !MANIFEST_HEADER.equals(lines.get(0))) {
+            return null;
+        }
+
+        ArrayList<Segment> entries = new ArrayList<>();
+        for (String line : lines.subList(1, lines.size())) {
+            if (RecordLine.isFooter(line)) {
+                return RecordLine.parseFooterCount(line) == entries.size() ? entries : null;
+            }
+            Segment entry = RecordLine.hasChecksum(line) ? Segment.parse(RecordLine.extractVerifiedRecord(line))
+                    : null;
+            if (entry == null) {
+                return null;
+            }
+            entries.add(entry);
+        }
+        return null; // no footer
+    }
+
+    /**
+     * Reads and verifies the records of a segment file. Reading stops at the first damaged line;
+     * the damage is noted on the segment.
+     */
+    private void readSegmentRecords(Segment segment) {
+        segment.records = new ArrayList<>();
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(segmentDirectory.resolve(segment.fileName), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            segment.damage = "Segment " + segment.fileName + " could not be read: " + e.getMessage();
+            segment.count = 0;
+            return;
+        }
+
+        for (String line : lines) {
+            if (RecordLine.isFooter(line)) {
+                break;
+            }
+            String record = RecordLine.hasChecksum(line) ? RecordLine.extractVerifiedRecord(line) : null;
+            if (record == null) {
+                break;
+            }
+            segment.records.add(record);
+        }
+        if (segment.records.size() != segment.count) {
+            segment.damage = "Segment " + segment.fileName + " is damaged. Recovered " + segment.records.size()
+                    + " of its " + segment.count + " tasks.";
+            segment.count = segment.records.size();
+        }
+    }
+
+    /**
+     * One segment file: its name, its records once read, and a range of days covering those its
+     * tasks fall on, as epoch days. A segment with no dated tasks has an empty range; a recurring task makes the
+     * range open-ended. The records of a cold segment are never read into it; instead it has a
+     * filter of its descriptions, unless it was archived before filters were written.
+     */
+    private static final class Segment {
+        private final long id;
+        private final boolean isCold;
+        private final String fileName;
+        private int count;
+        private ArrayList<String> records;
+        private long firstDay = Long.MAX_VALUE;
+        private long lastDay = Long.MIN_VALUE;
+        private String damage;
+        private TrigramFilter filter;
+
+        private Segment(long id, boolean isCold, ArrayList<String> records) {
+            this.id = id;
+            this.isCold = isCold;
+            this.fileName = isCold ? COLD_FILE_PREFIX + id + COLD_FILE_SUFFIX
+                    : SEGMENT_FILE_PREFIX + id + SEGMENT_FILE_SUFFIX;
+            this.records = records;
+            this.count = records == null ? 0 : records.size();
+        }
+
+        private static Segment parse(String record) {
+            if (record == null) {
+                return null;
+            }
+            String[] fields = record.split(FIELD_DELIMITER);
+            if (fields.length != MANIFEST_FIELD_COUNT && fields.length != FILTERED_MANIFEST_FIELD_COUNT) {
+                return null;
+            }
+            boolean isCold = fields[0].startsWith(COLD_FILE_PREFIX) && fields[0].endsWith(COLD_FILE_SUFFIX);
+            boolean isHot = fields[0].startsWith(SEGMENT_FILE_PREFIX) && fields[0].endsWith(SEGMENT_FILE_SUFFIX);
+            if (!isCold && !isHot) {
+                return null;
+            }
+
+            try {
+                String prefix = isCold ? COLD_FILE_PREFIX : SEGMENT_FILE_PREFIX;
+                String suffix = isCold ? COLD_FILE_SUFFIX : SEGMENT_FILE_SUFFIX;
+                Segment segment = new Segment(Long.parseLong(fields[0].substring(prefix.length(),
+                        fields[0].length() - suffix.length())), isCold, null);
+                segment.count = Integer.parseInt(fields[1]);
+                if (!fields[2].equals(NO_DATES)) {
+                    String[] days = fields[2].split("\\.\\.", -1);
+                    segment.firstDay = LocalDate.parse(days[0]).toEpochDay();
+                    segment.lastDay = days[1].isEmpty() ? Long.MAX_VALUE : LocalDate.parse(days[1]).toEpochDay();
+                }
+                if (fields.length == FILTERED_MANIFEST_FIELD_COUNT) {
+                    segment.filter = TrigramFilter.parse(fields[3]);
+                    if (segment.filter == null) {
+                        return null;
+                    }
+                }
+                return segment;
+            } catch (RuntimeException e) {
+                return null;
+            }
+        }
+
+        private String toManifestRecord() {
+            String dates = NO_DATES;
+            if (firstDay <= lastDay) {
+                dates = LocalDate.ofEpochDay(firstDay) + DATE_RANGE_SEPARATOR
+                        + (lastDay == Long.MAX_VALUE ? "" : LocalDate.ofEpochDay(lastDay).toString());
+            }
+            return fileName + FIELD_SEPARATOR + count + FIELD_SEPARATOR + dates
+                    + (filter == null ? "" : FIELD_SEPARATOR + filter.toField());
+        }
+
+        private void setDates(List<Task> tasks) {
+            for (Task task : tasks) {
+                includeTask(task);
+            }
+        }
+
+        private void includeTask(Task task) {
+            if (task instanceof Deadline) {
+                includeDays(((Deadline) task).getDate().toEpochDay(), ((Deadline) task).getDate().toEpochDay());
+            } else if (task instanceof Event) {
+                includeDays(((Event) task).getFromDate().toEpochDay(), ((Event) task).getToDate().toEpochDay());
+            } else if (task instanceof Recurring) {
+                includeDays(((Recurring) task).getStartDate().toEpochDay(), Long.MAX_VALUE);
+            }
+        }
+
+        private void includeDays(long first, long last) {
+            firstDay = Math.min(firstDay, first);
+            lastDay = Math.max(lastDay, last);
+        }
+    }
+}
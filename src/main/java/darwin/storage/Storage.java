@@ -1,50 +1,103 @@
 package darwin.storage;
 
 import darwin.DarwinException;
-import darwin.task.Deadline;
-import darwin.task.Event;
 import darwin.task.Task;
-import darwin.task.ToDo;
+import darwin.task.TaskChange;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
-import java.util.Scanner;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
 
 /**
  * Represents a storage handler for task persistence. A <code>Storage</code> object
  * manages the loading of tasks from a file on disk and the saving of tasks back to the file,
  * ensuring data persistence across application sessions.
+ *
+ * Full saves are written to a temporary file, forced to disk and atomically moved over the
+ * storage file, so a crash never leaves a half-written archive behind. Saves that patch the file
+ * in place go through a {@link PatchJournal} first, which is replayed when the file is next locked
+ * if the save was cut short. Each record carries a checksum (see {@link RecordLine}) so that
+ * damage is detected while loading.
+ *
+ * Several Darwins may share one file. Every read and write holds an exclusive lock on a lock file
+ * next to it, and {@link #startWatching(Runnable)} reports when someone else has changed it, so
+ * that {@link #readChanges()} can bring the in-memory list up to date by reading only the records
+ * that differ. A save that would overwrite changes not read yet keeps them in a separate file.
+ *
+ * Given the changes made to the list, {@link #saveChanges(List, Supplier)} formats only the
+ * changed tasks: status flips are patched in place and new tasks appended, without formatting or
+ * comparing the other records.
+ *
+ * A Storage created with {@link #createSegmented(String)} keeps the records in small segment files
+ * instead, and the file itself lists them (see {@link SegmentedArchive}). Segments are loaded in
+ * parallel, and a save only writes the segments that changed, which saveChanges finds the same
+ * way. A file written by a plain Storage is read as usual and turned into segments by the first
+ * save.
+ * {@link #archiveTasks(ArrayList, ArrayList)} moves tasks out of the list into compressed cold
+ * segments, which are never loaded again but can still be searched.
  */
 public class Storage {
 
     // ============ FILE FORMAT CONSTANTS ============
-    private static final String DELIMITER = "\\|";
     private static final String DATA_DIRECTORY = "data";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+    private static final String BACKUP_FILE_SUFFIX = ".bak";
+    private static final String LOCK_FILE_SUFFIX = ".lock";
+    private static final String CONFLICT_FILE_SUFFIX = ".conflict";
+    private static final String MISSING_FILE_STAMP = "missing";
 
-    // ============ TASK TYPE CONSTANTS ============
-    private static final String TASK_TYPE_TODO = "T";
-    private static final String TASK_TYPE_DEADLINE = "D";
-    private static final String TASK_TYPE_EVENT = "E";
-    private static final String STATUS_DONE = "1";
+    // ============ INCREMENTAL SAVE CONSTANTS ============
+    private static final int STATUS_CHAR_OFFSET = 4; // "T | 0 | ..." - status is always the 5th character
+    private static final byte LINE_SEPARATOR = '\n';
+    private static final int INITIAL_OFFSET_CAPACITY = 16;
+    private static final int PROGRESS_STEP = 10; // percent
+    private static final int PROGRESS_COMPLETE = 100;
 
-    // ============ INDEX CONSTANTS ============
-    private static final int INDEX_TYPE = 0;
-    private static final int INDEX_STATUS = 1;
-    private static final int INDEX_DESCRIPTION = 2;
-    private static final int INDEX_DEADLINE_DATE = 3;
-    private static final int INDEX_EVENT_FROM = 3;
-    private static final int INDEX_EVENT_TO = 4;
 
-    // ============ VALID PART LENGTHS ============
-    private static final int SHORTEST_POSIBLE_TASK_LENGTH = 3;
-    private static final int TODO_PARTS_LENGTH = 3;
-    private static final int DEADLINE_PARTS_LENGTH = 4;
-    private static final int EVENT_PARTS_LENGTH = 5;
+    private final String filePath;
+    private final RecordParser recordParser = new RecordParser();
+    private final SegmentedArchive segmentedArchive; // null when the records are in the file itself
 
+    // Snapshot of what is currently on disk, used to turn a save into the smallest possible write
+    private final ArrayList<String> savedRecords = new ArrayList<>();
+    private long[] lineOffsets = new long[INITIAL_OFFSET_CAPACITY];
+    private long footerOffset;
+    private boolean isLayoutKnown;
+    private String knownFileStamp; // size and modification time of the file the snapshot matches
 
-    private final String filePath;
+    // Guards the file against other Darwins; held across nested calls, released by the outermost
+    private FileChannel lockChannel;
+    private FileLock fileLock;
+    private int lockDepth;
+
+    private WatchService watchService;
+
+    private String recoveryMessage;
+    private String conflictMessage;
+    private boolean isSavedAsWhole; // since the last saveChanges, so its changes may already be on disk
 
     /**
      * Constructs a Storage object with the specified file path for task storage.
@@ -53,25 +106,87 @@ public class Storage {
      *                 The file is created if it doesn't exist.
      */
     public Storage(String filePath) {
+        this(filePath, false);
+    }
+
+    private Storage(String filePath, boolean isSegmented) {
         assert filePath != null : "File path cannot be null";
         assert !filePath.trim().isEmpty() : "File path cannot be empty";
 
         this.filePath = filePath;
+        this.segmentedArchive = isSegmented ? new SegmentedArchive(Paths.get(filePath)) : null;
+    }
+
+    /**
+     * Creates a Storage that keeps the records in segment files, listed by the file at the given path.
+     *
+     * @param filePath The file path of the list of segments. The segments are kept in a directory
+     *                 next to it.
+     * @return A Storage backed by segment files.
+     */
+    public static Storage createSegmented(String filePath) {
+        return new Storage(filePath, true);
     }
 
     /**
      * Loads tasks from the storage file. If the file doesn't exist, returns an empty list.
-     * Parses each line of the file into Task objects, handling any parsing errors gracefully.
+     * Parses each line of the file into Task objects, verifying record checksums on the way.
+     * Loading stops at the first damaged record; the damaged file is kept as a backup and
+     * a description of the damage is available from {@link #getRecoveryMessage()}.
      *
      * @return An ArrayList containing all tasks successfully loaded from the file.
      *         Returns an empty list if the file doesn't exist or contains no valid tasks.
      */
     public ArrayList<Task> loadTasks() {
-        if (!isFileExists()) {
-            return new ArrayList<>();
+        return loadTasks(percent -> { });
+    }
+
+    /**
+     * Loads tasks from the storage file like {@link #loadTasks()}, reporting progress along the way.
+     *
+     * @param progressListener Receives the percentage of the file read so far, in steps of
+     *        at least 10%, ending with 100.
+     * @return An ArrayList containing all tasks successfully loaded from the file.
+     */
+    public ArrayList<Task> loadTasks(IntConsumer progressListener) {
+        lock();
+        try {
+            knownFileStamp = readFileStamp();
+            isSavedAsWhole = false;
+            if (!isFileExists()) {
+                clearSnapshot();
+                isLayoutKnown = true; // an empty file, as far as changes by others are concerned
+                progressListener.accept(PROGRESS_COMPLETE);
+                return new ArrayList<>();
+            }
+
+            ArrayList<Task> tasks = isSegmentedOnDisk() ? readSegments(progressListener)
+                    : readTasksFromFile(progressListener);
+            progressListener.accept(PROGRESS_COMPLETE);
+            return tasks;
+        } finally {
+            unlock();
         }
+    }
 
-        return readTasksFromFile();
+    /**
+     * Returns a description of the damage found by the last {@link #loadTasks()}, or null if the
+     * file was intact.
+     *
+     * @return The recovery message, or null.
+     */
+    public String getRecoveryMessage() {
+        return recoveryMessage;
+    }
+
+    /**
+     * Returns a description of the changes by another Darwin that the last save had to set aside,
+     * or null if there were none.
+     *
+     * @return The conflict message, or null.
+     */
+    public String getConflictMessage() {
+        return conflictMessage;
     }
 
     //loadTasks helper - START
@@ -80,23 +195,144 @@ public class Storage {
         return file.exists();
     }
 
-    private ArrayList<Task> readTasksFromFile() {
+    private boolean isSegmentedOnDisk() {
+        try {
+            return segmentedArchive != null && SegmentedArchive.isManifest(Paths.get(filePath));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private ArrayList<Task> readSegments(IntConsumer progressListener) {
+        recoveryMessage = null;
+        try {
+            ArrayList<Task> tasks = segmentedArchive.load(progressListener);
+            recoveryMessage = segmentedArchive.getRecoveryMessage();
+            return tasks;
+        } catch (IOException e) {
+            System.out.println("Error reading segments: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    private ArrayList<Task> readTasksFromFile(IntConsumer progressListener) {
         ArrayList<Task> tasks = new ArrayList<>();
+        clearSnapshot();
+        recoveryMessage = null;
 
-        try (Scanner scanner = new Scanner(new File(filePath))) {
-            while (scanner.hasNextLine()) {
-                String line = scanner.nextLine();
-                addTaskIfValid(line, tasks);
-            }
+        try {
+            byte[] content = Files.readAllBytes(Paths.get(filePath));
+            readLines(content, tasks, progressListener);
         } catch (IOException e) {
             System.out.println("Error reading file: " + e.getMessage());
         }
 
+        recordParser.clear(); // only needed while loading
+        if (recoveryMessage != null) {
+            backUpDamagedFile();
+        }
         return tasks;
     }
 
+    /**
+     * Reads every line in a single pass. Checksums and the footer are verified as the lines
+     * are parsed, so an intact file costs no more to load than an unchecked one.
+     */
+    private void readLines(byte[] content, ArrayList<Task> tasks, IntConsumer progressListener) {
+        boolean isChecksummed = false;
+        int nextProgress = PROGRESS_STEP;
+        int footerCount = -1;
+        int lineNumber = 0;
+        int lineStart = 0;
+
+        while (lineStart < content.length) {
+            int lineEnd = findLineEnd(content, lineStart);
+            String line = new String(content, lineStart, lineEnd - lineStart, StandardCharsets.UTF_8);
+            lineNumber++;
+
+            if (lineNumber == 1) {
+                isChecksummed = RecordLine.hasChecksum(line) || RecordLine.isFooter(line);
+            }
+
+            if (!isChecksummed) {
+                addTaskIfValid(line, tasks);
+            } else if (footerCount >= 0) {
+                recoveryMessage = "Unexpected data after the end of the file at line " + lineNumber + ".";
+                break;
+            } else if (RecordLine.isFooter(line)) {
+                footerCount = RecordLine.parseFooterCount(line);
+                footerOffset = lineStart;
+            } else if (!addChecksummedLine(line, lineStart, tasks)) {
+                recoveryMessage = "Record at line " + lineNumber + " is damaged. Recovered the "
+                        + tasks.size() + " tasks before it.";
+                break;
+            }
+
+            lineStart = lineEnd + 1;
+            int progress = (int) ((long) lineStart * PROGRESS_COMPLETE / content.length);
+            if (progress >= nextProgress && progress < PROGRESS_COMPLETE) {
+                progressListener.accept(progress);
+                nextProgress = progress - progress % PROGRESS_STEP + PROGRESS_STEP;
+            }
+        }
+
+        if (isChecksummed && recoveryMessage == null) {
+            checkFooter(footerCount, tasks.size());
+        }
+
+        // Only an intact checksummed file is safe to patch in place; legacy files are migrated by a full rewrite
+        isLayoutKnown = isChecksummed && recoveryMessage == null;
+    }
+
+    private boolean addChecksummedLine(String line, long offset, ArrayList<Task> tasks) {
+        if (!RecordLine.hasChecksum(line)) {
+            return false;
+        }
+
+        String record = RecordLine.extractVerifiedRecord(line);
+        if (record == null) {
+            return false;
+        }
+
+        int previousSize = tasks.size();
+        addTaskIfValid(record, tasks);
+        if (tasks.size() == previousSize) {
+            return false;
+        }
+
+        recordLine(record, offset);
+        return true;
+    }
+
+    private void checkFooter(int footerCount, int recordCount) {
+        if (footerCount < 0) {
+            recoveryMessage = "The end of the file is missing, so it may be incomplete. Recovered "
+                    + recordCount + " tasks.";
+        } else if (footerCount != recordCount) {
+            recoveryMessage = "Expected " + footerCount + " tasks but found " + recordCount + ".";
+        }
+    }
+
+    private int findLineEnd(byte[] content, int from) {
+        int index = from;
+        while (index < content.length && content[index] != LINE_SEPARATOR) {
+            index++;
+        }
+        return index;
+    }
+
+    private void backUpDamagedFile() {
+        try {
+            Files.copy(Paths.get(filePath), Paths.get(filePath + BACKUP_FILE_SUFFIX),
+                    StandardCopyOption.REPLACE_EXISTING);
+            recoveryMessage += " The damaged file was kept as " + filePath + BACKUP_FILE_SUFFIX + ".";
+        } catch (IOException e) {
+            System.out.println("Error backing up damaged file: " + e.getMessage());
+        }
+    }
+
     private void addTaskIfValid(String line, ArrayList<Task> tasks) {
-        Task task = parseLine(line);
+        Task task = recordParser.parseLine(line);
         if (isTaskValid(task)) {
             tasks.add(task);
         }
@@ -109,7 +345,9 @@ public class Storage {
 
     /**
      * Saves the current list of tasks to the storage file. Creates the data directory
-     * if it doesn't exist, and overwrites the existing file with the current task data.
+     * if it doesn't exist. Only the parts of the file that changed since the last save are written:
+     * status flips are patched in place and new tasks are appended, while deletions and other
+     * edits fall back to atomically replacing the whole file.
      *
      * @param tasks The ArrayList of tasks to be saved to the file.
      */
@@ -118,7 +356,54 @@ public class Storage {
             return;
         }
 
-        writeTasksToFile(tasks);
+        lock();
+        try {
+            conflictMessage = null;
+            isSavedAsWhole = true;
+            if (isChangedOnDisk()) {
+                keepConflictingFile();
+            }
+
+            ArrayList<String> records = toRecords(tasks);
+            if (segmentedArchive != null) {
+                writeSegments(records, tasks);
+            } else if (!isLayoutKnown || !isFileExists() || !writeChangesToFile(records)) {
+                writeTasksToFile(records);
+            }
+            knownFileStamp = readFileStamp();
+        } finally {
+            unlock();
+        }
+    }
+
+    /**
+     * Saves the changes made to the list since it was last loaded or saved through this method.
+     * Only the changed tasks are formatted: a segmented Storage rewrites only the segments the
+     * changes fall in, and a single file gets its status flips patched in place and its new tasks
+     * appended, so a save costs what changed rather than the size of the list. The whole list is
+     * saved instead, as by {@link #saveTasks(ArrayList)}, when a task was removed from or put
+     * before the end of a single file, when someone else has changed the file, or when the list
+     * has been saved as a whole since, e.g. by an archive, as some of the changes may then be on
+     * disk already.
+     *
+     * @param changes The changes, in the order they were made.
+     * @param tasks Supplies the whole list, if it has to be saved as a whole.
+     */
+    public void saveChanges(List<TaskChange> changes, Supplier<ArrayList<Task>> tasks) {
+        lock();
+        try {
+            boolean isSaved = !isSavedAsWhole && createDataDirectoryIfNotExists() && !isChangedOnDisk()
+                    && (segmentedArchive != null ? writeChangedSegments(changes) : writeChangedRecords(changes));
+            if (isSaved) {
+                conflictMessage = null;
+                knownFileStamp = readFileStamp();
+            } else {
+                saveTasks(tasks.get());
+            }
+            isSavedAsWhole = false;
+        } finally {
+            unlock();
+        }
     }
 
     // saveTasks helpers - START
@@ -130,172 +415,550 @@ public class Storage {
         return true;
     }
 
-    private void writeTasksToFile(ArrayList<Task> tasks) {
-        try (FileWriter writer = new FileWriter(filePath)) {
-            for (Task task : tasks) {
-                writeTaskToFile(writer, task);
+    /**
+     * Copies a file that someone else changed since it was last read aside before it is
+     * overwritten, and forgets its layout so that it is rewritten in full.
+     */
+    private void keepConflictingFile() {
+        isLayoutKnown = false;
+        if (!isFileExists()) {
+            return;
+        }
+        try {
+            Path conflictFile = Paths.get(filePath + CONFLICT_FILE_SUFFIX);
+            if (isSegmentedOnDisk()) {
+                // The other version's segments are deleted by this save, so its records are copied out
+                segmentedArchive.forgetSegments();
+                if (!segmentedArchive.copyAsSingleFile(conflictFile)) {
+                    return;
+                }
+            } else {
+                Files.copy(Paths.get(filePath), conflictFile, StandardCopyOption.REPLACE_EXISTING);
             }
+            conflictMessage = "Another Darwin changed the file before your changes were saved. Its version was "
+                    + "kept as " + filePath + CONFLICT_FILE_SUFFIX + ".";
         } catch (IOException e) {
-            System.out.println("Error saving tasks: " + e.getMessage());
+            System.out.println("Error keeping conflicting file: " + e.getMessage());
         }
     }
 
-    private void writeTaskToFile(FileWriter writer, Task task) throws IOException {
-        String fileFormat = task.toFileFormat();
-        writer.write(fileFormat + "\n");
+    private boolean writeChangedSegments(List<TaskChange> changes) {
+        try {
+            return segmentedArchive.saveChanges(changes);
+        } catch (IOException e) {
+            System.out.println("Error saving segments, saving all tasks: " + e.getMessage());
+            segmentedArchive.forgetSegments();
+            return false;
+        }
+    }
+
+    private void writeSegments(ArrayList<String> records, ArrayList<Task> tasks) {
+        try {
+            segmentedArchive.save(records, tasks);
+        } catch (IOException e) {
+            System.out.println("Error saving segments: " + e.getMessage());
+            segmentedArchive.forgetSegments();
+        }
+    }
+
+    private ArrayList<String> toRecords(ArrayList<Task> tasks) {
+        ArrayList<String> records = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            records.add(task.getFileFormat());
+        }
+        return records;
     }
-    // saveTasks helpers - END
 
     /**
-     * Parses a single line from the storage file into a Task object.
-     * Handles different task types (Todo, Deadline, Event) and their specific formats.
-     *
-     * @param line A single line from the storage file to parse.
-     * @return A Task object parsed from the line, or null if the line is invalid.
+     * Writes only the difference between the records on disk and the given records.
+     * Returns false without touching the file if the change cannot be expressed as
+     * in-place status patches plus appends.
      */
-    private Task parseLine(String line) {
-        if (!isLineValid(line)) {
-            return null;
+    private boolean writeChangesToFile(ArrayList<String> records) {
+        if (records.size() < savedRecords.size()) {
+            return false; // a deletion shifts every following line
         }
 
-        try {
-            String[] parts = splitLineIntoParts(line);
+        TreeMap<Integer, String> statusRecords = new TreeMap<>();
+        for (int i = 0; i < savedRecords.size(); i++) {
+            String savedRecord = savedRecords.get(i);
+            String record = records.get(i);
+            if (savedRecord.equals(record)) {
+                continue;
+            }
+            if (!isStatusOnlyChange(savedRecord, record)) {
+                return false;
+            }
+            statusRecords.put(i, record);
+        }
+        return writePatches(statusRecords, records.subList(savedRecords.size(), records.size()));
+    }
 
-            if (!hasMinimumRequiredParts(parts)) {
-                return null;
+    /**
+     * Writes changes to the file as in-place status patches and appends like
+     * {@link #writeChangesToFile(ArrayList)}, but formats only the tasks the changes name. Returns
+     * false without touching the file if a task was removed or put before the end.
+     */
+    private boolean writeChangedRecords(List<TaskChange> changes) {
+        if (!isLayoutKnown || !isFileExists()) {
+            return false;
+        }
+
+        // The last change of each position holds its task as it is now
+        int savedCount = savedRecords.size();
+        int count = savedCount;
+        TreeMap<Integer, Task> changedTasks = new TreeMap<>();
+        for (TaskChange change : changes) {
+            if (change.getKind() == TaskChange.Kind.REMOVED) {
+                return false; // a deletion shifts every following line
+            }
+            if (change.getKind() == TaskChange.Kind.ADDED && change.getIndex() != count++) {
+                return false;
+            }
+            changedTasks.put(change.getIndex(), change.getTask());
+        }
+
+        TreeMap<Integer, String> statusRecords = new TreeMap<>();
+        ArrayList<String> appendedRecords = new ArrayList<>();
+        for (Map.Entry<Integer, Task> changedTask : changedTasks.entrySet()) {
+            int index = changedTask.getKey();
+            String record = changedTask.getValue().getFileFormat();
+            if (index >= savedCount) {
+                appendedRecords.add(record);
+            } else if (!record.equals(savedRecords.get(index))) {
+                if (!isStatusOnlyChange(savedRecords.get(index), record)) {
+                    return false;
+                }
+                statusRecords.put(index, record);
             }
+        }
+        return writePatches(statusRecords, appendedRecords);
+    }
 
-            return createTaskFromParts(parts);
+    /**
+     * Patches the status of the given records and appends the new ones, through a journal.
+     * If this fails, the snapshot is dropped so that the next save rewrites the whole file.
+     */
+    private boolean writePatches(TreeMap<Integer, String> statusRecords, List<String> appendedRecords) {
+        if (statusRecords.isEmpty() && appendedRecords.isEmpty()) {
+            return true;
+        }
 
-        } catch (DarwinException e) {
-            System.out.println("Warning: Skipping task - " + e.getMessage());
-            return null;
-        } catch (RuntimeException e) {
-            System.out.println("Warning: Skipping invalid line");
-            return null;
+        PatchJournal journal = new PatchJournal(filePath);
+        patchStatuses(journal, statusRecords);
+        appendRecords(journal, appendedRecords);
+        try {
+            journal.commit();
+        } catch (IOException e) {
+            System.out.println("Error patching tasks, rewriting file: " + e.getMessage());
+            clearSnapshot();
+            return false;
         }
+        return true;
     }
 
-    // parseLine helper - START
-    private boolean isLineValid(String line) {
-        return line != null && !line.trim().isEmpty();
+    private boolean isStatusOnlyChange(String savedRecord, String record) {
+        return savedRecord.length() == record.length()
+                && savedRecord.length() > STATUS_CHAR_OFFSET
+                && savedRecord.regionMatches(0, record, 0, STATUS_CHAR_OFFSET)
+                && savedRecord.regionMatches(STATUS_CHAR_OFFSET + 1, record, STATUS_CHAR_OFFSET + 1,
+                        record.length() - STATUS_CHAR_OFFSET - 1);
     }
 
-    private String[] splitLineIntoParts(String line) {
-        return line.split(DELIMITER);
+    /**
+     * Rewrites the status character and the checksum of each changed line in one positioned write.
+     * The checksum has a fixed width, so the line keeps its length.
+     */
+    private void patchStatuses(PatchJournal journal, TreeMap<Integer, String> statusRecords) {
+        for (Map.Entry<Integer, String> statusRecord : statusRecords.entrySet()) {
+            int index = statusRecord.getKey();
+            String record = statusRecord.getValue();
+            String tail = RecordLine.encode(record).substring(STATUS_CHAR_OFFSET);
+            journal.add(lineOffsets[index] + STATUS_CHAR_OFFSET, tail.getBytes(StandardCharsets.UTF_8));
+            savedRecords.set(index, record);
+        }
     }
 
-    private boolean hasMinimumRequiredParts(String[] parts) {
-        if (parts.length < SHORTEST_POSIBLE_TASK_LENGTH) {
-            System.out.println("Warning: Skipping invalid line: " + String.join("|", parts));
-            return false;
+    /**
+     * Writes new records over the old footer and ends the file with a new footer.
+     */
+    private void appendRecords(PatchJournal journal, List<String> appendedRecords) {
+        if (appendedRecords.isEmpty()) {
+            return;
         }
-        return true;
+
+        StringBuilder appended = new StringBuilder();
+        long offset = footerOffset;
+        for (String record : appendedRecords) {
+            String line = RecordLine.encode(record) + "\n";
+            appended.append(line);
+
+            recordLine(record, offset);
+            offset += line.getBytes(StandardCharsets.UTF_8).length;
+        }
+        appended.append(RecordLine.footer(savedRecords.size())).append("\n");
+
+        journal.add(footerOffset, appended.toString().getBytes(StandardCharsets.UTF_8));
+        footerOffset = offset;
     }
 
-    private Task createTaskFromParts(String[] parts) throws DarwinException {
-        String type = extractTaskType(parts);
-        boolean isDone = extractTaskStatus(parts);
-        String description = extractDescription(parts);
+    /**
+     * Replaces the whole file: the records are written to a temporary file, forced to disk,
+     * then atomically moved over the storage file.
+     */
+    private void writeTasksToFile(ArrayList<String> records) {
+        clearSnapshot();
+
+        Path target = Paths.get(filePath);
+        Path temp = Paths.get(filePath + TEMP_FILE_SUFFIX);
+        StringBuilder content = new StringBuilder();
+        long offset = 0;
+        for (String record : records) {
+            String line = RecordLine.encode(record) + "\n";
+            content.append(line);
+
+            recordLine(record, offset);
+            offset += line.getBytes(StandardCharsets.UTF_8).length;
+        }
+        content.append(RecordLine.footer(records.size())).append("\n");
 
-        assert type != null;
-        assert description != null;
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                channel.write(ByteBuffer.wrap(content.toString().getBytes(StandardCharsets.UTF_8)));
+                channel.force(true);
+            }
+            PatchJournal.discard(filePath); // left by an in-place save that failed, and not for this file
+            moveAtomically(temp, target);
 
-        Task task = parseTaskByType(type, parts, description);
+            footerOffset = offset;
+            isLayoutKnown = true;
+        } catch (IOException e) {
+            System.out.println("Error saving tasks: " + e.getMessage());
+            clearSnapshot();
+        }
+    }
 
-        markTaskStatusIfDone(task, isDone);
+    static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
 
-        return task;
+    private void recordLine(String record, long offset) {
+        int index = savedRecords.size();
+        if (index == lineOffsets.length) {
+            lineOffsets = Arrays.copyOf(lineOffsets, lineOffsets.length * 2);
+        }
+        lineOffsets[index] = offset;
+        savedRecords.add(record);
     }
 
-    private String extractTaskType(String[] parts) {
-        return parts[INDEX_TYPE].trim();
+    private void clearSnapshot() {
+        savedRecords.clear();
+        footerOffset = 0;
+        isLayoutKnown = false;
     }
+    // saveTasks helpers - END
 
-    private boolean extractTaskStatus(String[] parts) {
-        return parts[INDEX_STATUS].trim().equals(STATUS_DONE);
+    /**
+     * Reads what someone else has changed in the file since it was last loaded or saved. Only the
+     * run of records between the unchanged beginning and the unchanged end of the file is parsed.
+     * Returns null if nothing changed, including when the only change is this Storage's own
+     * last save, or if the file cannot be read as a whole right now (e.g. it is damaged); in that
+     * case the next save keeps the other version aside.
+     *
+     * @return The change, or null.
+     */
+    public StorageChange readChanges() {
+        lock();
+        try {
+            String fileStamp = readFileStamp();
+            if (fileStamp.equals(knownFileStamp) || !isFileExists()) {
+                return null;
+            }
+            if (segmentedArchive != null) {
+                StorageChange change = isSegmentedOnDisk() ? segmentedArchive.readChanges() : null;
+                knownFileStamp = change != null ? fileStamp : knownFileStamp;
+                return change;
+            }
+            if (!isLayoutKnown) {
+                return null;
+            }
+
+            StorageChange change = diffRecords(Files.readAllBytes(Paths.get(filePath)));
+            if (change != null) {
+                knownFileStamp = fileStamp;
+            }
+            return change;
+        } catch (IOException e) {
+            System.out.println("Error reading changed file: " + e.getMessage());
+            return null;
+        } finally {
+            unlock();
+        }
     }
 
-    private String extractDescription(String[] parts) {
-        return parts[INDEX_DESCRIPTION].trim();
+    // readChanges helpers - START
+    /**
+     * Compares the records in the file with the snapshot. The records are only checksummed and
+     * parsed in the part that differs; the snapshot is then brought up to date with the file.
+     */
+    private StorageChange diffRecords(byte[] content) {
+        ArrayList<String> records = new ArrayList<>();
+        ArrayList<Long> offsets = new ArrayList<>();
+        int footerCount = -1;
+        int footerStart = 0;
+        int lineStart = 0;
+        while (lineStart < content.length) {
+            int lineEnd = findLineEnd(content, lineStart);
+            String line = new String(content, lineStart, lineEnd - lineStart, StandardCharsets.UTF_8);
+            if (footerCount >= 0 || !(RecordLine.isFooter(line) || RecordLine.hasChecksum(line))) {
+                return null;
+            }
+            if (RecordLine.isFooter(line)) {
+                footerCount = RecordLine.parseFooterCount(line);
+                footerStart = lineStart;
+            } else {
+                records.add(RecordLine.stripChecksum(line));
+                offsets.add((long) lineStart);
+            }
+            lineStart = lineEnd + 1;
+        }
+        if (footerCount != records.size()) {
+            return null; // still being written, or damaged
+        }
+
+        int prefixLength = StorageChange.commonPrefixLength(savedRecords, records);
+        int suffixLength = StorageChange.commonSuffixLength(savedRecords, records, prefixLength);
+
+        ArrayList<Task> addedTasks = parseChangedLines(content, offsets, prefixLength,
+                records.size() - suffixLength);
+        if (addedTasks == null) {
+            return null;
+        }
+
+        int removedCount = savedRecords.size() - prefixLength - suffixLength;
+        clearSnapshot();
+        for (int i = 0; i < records.size(); i++) {
+            recordLine(records.get(i), offsets.get(i));
+        }
+        footerOffset = footerStart;
+        isLayoutKnown = true;
+
+        if (removedCount == 0 && addedTasks.isEmpty()) {
+            return null;
+        }
+        return new StorageChange(prefixLength, removedCount, addedTasks);
     }
 
-    private void markTaskStatusIfDone(Task task, boolean isDone) {
-        if (task != null && isDone) {
-            task.markAsDone();
+    private ArrayList<Task> parseChangedLines(byte[] content, ArrayList<Long> offsets, int from, int to) {
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            int lineStart = (int) (long) offsets.get(i);
+            int lineEnd = findLineEnd(content, lineStart);
+            String line = new String(content, lineStart, lineEnd - lineStart, StandardCharsets.UTF_8);
+            if (!addChecksummedTask(line, tasks)) {
+                recordParser.clear();
+                return null;
+            }
+        }
+        recordParser.clear();
+        return tasks;
+    }
+
+    private boolean addChecksummedTask(String line, ArrayList<Task> tasks) {
+        String record = RecordLine.extractVerifiedRecord(line);
+        if (record == null) {
+            return false;
         }
+        int previousSize = tasks.size();
+        addTaskIfValid(record, tasks);
+        return tasks.size() > previousSize;
     }
-    // parseLine helper - END
 
     /**
-     * Routes parsing to the appropriate task type parser based on the type code.
-     *
-     * @param type The task type code ("T" for Todo, "D" for Deadline, "E" for Event).
-     * @param parts The split parts of the file line.
-     * @param description The task description extracted from the line.
-     * @return A Task object of the appropriate type.
-     * @throws DarwinException If the task type is unknown or the line format is invalid.
+     * Returns the size, modification time and identity of the file, which change whenever anyone
+     * writes it. The identity (e.g. the inode) tells apart files that replaced each other within
+     * the resolution of the clock, as every full save and every segmented save does.
      */
-    private Task parseTaskByType(String type, String[] parts, String description) throws DarwinException {
-        switch (type) {
-            case TASK_TYPE_TODO:
-                return parseTodoLine(parts, description);
-            case TASK_TYPE_DEADLINE:
-                return parseDeadlineLine(parts, description);
-            case TASK_TYPE_EVENT:
-                return parseEventLine(parts, description);
-            default:
-                throw new DarwinException("Unknown task type in file: " + type);
+    private String readFileStamp() {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(Paths.get(filePath), BasicFileAttributes.class);
+            return attributes.size() + "@" + attributes.lastModifiedTime() + "#" + attributes.fileKey();
+        } catch (IOException e) {
+            return MISSING_FILE_STAMP;
         }
     }
 
+    private boolean isChangedOnDisk() {
+        return knownFileStamp != null && !knownFileStamp.equals(readFileStamp());
+    }
+    // readChanges helpers - END
+
     /**
-     * Parses a todo task line from the storage file.
+     * Moves tasks into a new cold segment and saves the tasks that remain, in one step: either
+     * both are on disk afterwards or neither is.
      *
-     * @param parts The split parts of the file line.
-     * @param description The task description.
-     * @return A Todo task object.
-     * @throws DarwinException If the line doesn't have exactly 3 parts.
+     * @param archivedTasks The tasks to archive, no longer part of the list.
+     * @param remainingTasks The tasks that stay in the list.
+     * @throws DarwinException If the storage is not segmented, or the archive could not be written.
      */
-    private Task parseTodoLine(String[] parts, String description) throws DarwinException {
-        if (parts.length != TODO_PARTS_LENGTH) {
-            throw new DarwinException("Invalid todo format in file");
+    public void archiveTasks(ArrayList<Task> archivedTasks, ArrayList<Task> remainingTasks) throws DarwinException {
+        if (segmentedArchive == null) {
+            throw new DarwinException(" Archiving needs the task file to be kept in segments.");
+        }
+        if (!createDataDirectoryIfNotExists()) {
+            throw new DarwinException(" The data directory could not be created, so nothing was archived.");
+        }
+
+        lock();
+        try {
+            conflictMessage = null;
+            isSavedAsWhole = true;
+            if (isChangedOnDisk()) {
+                keepConflictingFile();
+            }
+            segmentedArchive.archive(toRecords(archivedTasks), archivedTasks, toRecords(remainingTasks),
+                    remainingTasks);
+            knownFileStamp = readFileStamp();
+        } catch (IOException e) {
+            segmentedArchive.forgetSegments();
+            throw new DarwinException(" The archive could not be written, so nothing was archived: "
+                    + e.getMessage());
+        } finally {
+            unlock();
         }
-        return new ToDo(description);
     }
 
     /**
-     * Parses a deadline task line from the storage file.
+     * Searches the archived tasks for a keyword, reading the cold segments a line at a time
+     * without loading them. A Storage that is not segmented has no archived tasks.
      *
-     * @param parts The split parts of the file line.
-     * @param description The task description.
-     * @return A Deadline task object.
-     * @throws DarwinException If the line doesn't have exactly 4 parts or the date is invalid.
+     * @param keyword The search term to look for in task descriptions.
+     * @return The matching archived tasks, oldest archive first.
      */
-    private Task parseDeadlineLine(String[] parts, String description) throws DarwinException {
-        if (parts.length != DEADLINE_PARTS_LENGTH) {
-            throw new DarwinException("Invalid deadline format in file");
+    public ArrayList<Task> findArchivedTasks(String keyword) {
+        if (segmentedArchive == null) {
+            return new ArrayList<>();
         }
 
-        String dateString = parts[INDEX_DEADLINE_DATE].trim();
-        return new Deadline(description, dateString);
+        lock();
+        try {
+            return segmentedArchive.findArchived(keyword.toLowerCase());
+        } catch (IOException e) {
+            System.out.println("Error reading archived tasks: " + e.getMessage());
+            return new ArrayList<>();
+        } finally {
+            unlock();
+        }
     }
 
     /**
-     * Parses an event task line from the storage file.
+     * Starts watching the file for changes on a background thread. The listener is called on
+     * that thread, possibly several times for one change and also after this Storage's own
+     * saves, so it should hand over to {@link #readChanges()}, which ignores those.
      *
-     * @param parts The split parts of the file line.
-     * @param description The task description.
-     * @return An Event task object.
-     * @throws DarwinException If the line doesn't have exactly 5 parts or the dates are invalid.
+     * @param listener Called when the file may have changed.
+     */
+    public void startWatching(Runnable listener) {
+        assert watchService == null : "The file is already being watched";
+
+        Path file = Paths.get(filePath).toAbsolutePath();
+        Path directory = file.getParent();
+        try {
+            Files.createDirectories(directory);
+            watchService = directory.getFileSystem().newWatchService();
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            System.out.println("Error watching file, changes by others will not be shown: " + e.getMessage());
+            return;
+        }
+
+        Thread watcher = new Thread(() -> watchFile(file.getFileName(), listener), "darwin-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    /**
+     * Stops watching the file. Does nothing if it is not being watched.
      */
-    private Task parseEventLine(String[] parts, String description) throws DarwinException {
-        if (parts.length != EVENT_PARTS_LENGTH) {
-            throw new DarwinException("Invalid event format in file");
+    public void stopWatching() {
+        if (watchService == null) {
+            return;
         }
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            System.out.println("Error closing file watcher: " + e.getMessage());
+        }
+    }
 
-        String from = parts[INDEX_EVENT_FROM].trim();
-        String to = parts[INDEX_EVENT_TO].trim();
-        return new Event(description, from, to);
+    private void watchFile(Path fileName, Runnable listener) {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean isFileChanged = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    isFileChanged |= event.kind() == StandardWatchEventKinds.OVERFLOW
+                            || fileName.equals(event.context());
+                }
+                if (isFileChanged) {
+                    listener.run();
+                }
+                if (!key.reset()) {
+                    return; // the directory is gone
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // stopped
+        }
+    }
+
+    /**
+     * Takes the lock that keeps other Darwins from reading or writing the file at the same time,
+     * waiting for it if needed. Calls may be nested; the lock is released by the matching
+     * outermost {@link #unlock()}. If the lock cannot be taken, the file is used without it.
+     * A save cut short while patching the file is finished here, before anyone reads it.
+     */
+    public void lock() {
+        if (lockDepth++ > 0) {
+            return;
+        }
+        try {
+            if (lockChannel == null) {
+                Path lockFile = Paths.get(filePath + LOCK_FILE_SUFFIX).toAbsolutePath();
+                Files.createDirectories(lockFile.getParent());
+                lockChannel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            }
+            fileLock = lockChannel.lock();
+        } catch (IOException | OverlappingFileLockException e) {
+            System.out.println("Error locking file: " + e.getMessage());
+        }
+        try {
+            PatchJournal.replay(filePath);
+        } catch (IOException e) {
+            System.out.println("Error finishing an interrupted save: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Releases the lock taken by the matching {@link #lock()}.
+     */
+    public void unlock() {
+        assert lockDepth > 0 : "The file is not locked";
+
+        if (--lockDepth > 0 || fileLock == null) {
+            return;
+        }
+        try {
+            fileLock.release();
+        } catch (IOException e) {
+            System.out.println("Error unlocking file: " + e.getMessage());
+        }
+        fileLock = null;
     }
 }
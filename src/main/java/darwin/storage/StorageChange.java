@@ -0,0 +1,72 @@
+package darwin.storage;
+
+import darwin.task.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Describes how the storage file differs from what was last loaded or saved, as a single run of
+ * records that was replaced. Records before and after the run are unchanged, so only the tasks in
+ * the run need to be read and updated. An edit to one task is a run of one removed and one added
+ * task.
+ */
+public class StorageChange {
+
+    private final int firstIndex;
+    private final int removedCount;
+    private final ArrayList<Task> addedTasks;
+
+    StorageChange(int firstIndex, int removedCount, ArrayList<Task> addedTasks) {
+        this.firstIndex = firstIndex;
+        this.removedCount = removedCount;
+        this.addedTasks = addedTasks;
+    }
+
+    /**
+     * Returns the position (starting from 0) of the first record that changed.
+     */
+    public int getFirstIndex() {
+        return firstIndex;
+    }
+
+    /**
+     * Returns the number of records, starting at the first index, that are no longer in the file.
+     */
+    public int getRemovedCount() {
+        return removedCount;
+    }
+
+    /**
+     * Returns the tasks that take the place of the removed records, in file order.
+     */
+    public ArrayList<Task> getAddedTasks() {
+        return addedTasks;
+    }
+
+    /**
+     * Returns the number of records at the start of both lists that are equal.
+     */
+    static int commonPrefixLength(List<String> oldRecords, List<String> newRecords) {
+        int maxLength = Math.min(oldRecords.size(), newRecords.size());
+        int prefixLength = 0;
+        while (prefixLength < maxLength && oldRecords.get(prefixLength).equals(newRecords.get(prefixLength))) {
+            prefixLength++;
+        }
+        return prefixLength;
+    }
+
+    /**
+     * Returns the number of records at the end of both lists that are equal, not counting any
+     * of the given common prefix.
+     */
+    static int commonSuffixLength(List<String> oldRecords, List<String> newRecords, int prefixLength) {
+        int maxLength = Math.min(oldRecords.size(), newRecords.size()) - prefixLength;
+        int suffixLength = 0;
+        while (suffixLength < maxLength && oldRecords.get(oldRecords.size() - 1 - suffixLength)
+                .equals(newRecords.get(newRecords.size() - 1 - suffixLength))) {
+            suffixLength++;
+        }
+        return suffixLength;
+    }
+}
@@ -0,0 +1,140 @@
+package darwin.storage;
+
+import darwin.task.Task;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * A Bloom filter over the three-letter runs (trigrams) of the descriptions in one segment, in
+ * lower case. <code>find</code> matches any substring of a description, and every trigram of a
+ * keyword is a trigram of each description containing it, so a keyword with a trigram the filter
+ * has never seen cannot match anything in the segment and the segment need not be read.
+ * Keywords shorter than three letters always may match.
+ *
+ * The filter is written into the manifest entry of its segment, so checking it reads no file.
+ */
+final class TrigramFilter {
+
+    private static final int TRIGRAM_LENGTH = 3;
+    private static final int BITS_PER_TRIGRAM = 10; // about 1% false positives
+    private static final int HASH_COUNT = 7;
+    private static final int MIN_WORD_COUNT = 1;
+
+    private final long[] words;
+
+    private TrigramFilter(long[] words) {
+        this.words = words;
+    }
+
+    /**
+     * Builds the filter for the descriptions of the given tasks.
+     */
+    static TrigramFilter create(List<Task> tasks) {
+        HashSet<Long> trigrams = new HashSet<>();
+        for (Task task : tasks) {
+            String description = task.getDescription().toLowerCase();
+            for (int i = 0; i + TRIGRAM_LENGTH <= description.length(); i++) {
+                trigrams.add(pack(description, i));
+            }
+        }
+
+        int wordCount = Math.max(MIN_WORD_COUNT, (trigrams.size() * BITS_PER_TRIGRAM + Long.SIZE - 1) / Long.SIZE);
+        TrigramFilter filter = new TrigramFilter(new long[wordCount]);
+        for (long trigram : trigrams) {
+            filter.add(trigram);
+        }
+        return filter;
+    }
+
+    /**
+     * Reads a filter written by {@link #toField()}.
+     *
+     * @return The filter, or null if the field is malformed.
+     */
+    static TrigramFilter parse(String field) {
+        try {
+            ByteBuffer bytes = ByteBuffer.wrap(Base64.getDecoder().decode(field));
+            if (bytes.remaining() == 0 || bytes.remaining() % Long.BYTES != 0) {
+                return null;
+            }
+            long[] words = new long[bytes.remaining() / Long.BYTES];
+            bytes.asLongBuffer().get(words);
+            return new TrigramFilter(words);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the filter as text that holds no spaces or field separators.
+     */
+    String toField() {
+        ByteBuffer bytes = ByteBuffer.allocate(words.length * Long.BYTES);
+        bytes.asLongBuffer().put(words);
+        return Base64.getEncoder().encodeToString(bytes.array());
+    }
+
+    /**
+     * Checks whether a description in the segment may contain the keyword. A false answer is
+     * certain; a true answer may be wrong.
+     *
+     * @param lowerKeyword The keyword, in lower case.
+     */
+    boolean mayContain(String lowerKeyword) {
+        for (int i = 0; i + TRIGRAM_LENGTH <= lowerKeyword.length(); i++) {
+            if (!contains(pack(lowerKeyword, i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ============ HASHING ============
+
+    private void add(long trigram) {
+        long hash = mix(trigram);
+        for (int i = 0; i < HASH_COUNT; i++) {
+            long bit = getBit(hash, i);
+            words[(int) (bit / Long.SIZE)] |= 1L << bit;
+        }
+    }
+
+    private boolean contains(long trigram) {
+        long hash = mix(trigram);
+        for (int i = 0; i < HASH_COUNT; i++) {
+            long bit = getBit(hash, i);
+            if ((words[(int) (bit / Long.SIZE)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the i-th bit of the hash, by double hashing with the two halves of the hash.
+     */
+    private long getBit(long hash, int i) {
+        int first = (int) hash;
+        int second = (int) (hash >>> Integer.SIZE);
+        return Integer.toUnsignedLong(first + i * second) % ((long) words.length * Long.SIZE);
+    }
+
+    private static long pack(String text, int from) {
+        return ((long) text.charAt(from) << (2 * Character.SIZE)) | ((long) text.charAt(from + 1) << Character.SIZE)
+                | text.charAt(from + 2);
+    }
+
+    /**
+     * Spreads the bits of a packed trigram over the whole long (the SplitMix64 finalizer), so its
+     * halves can serve as two independent hashes.
+     */
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,405 @@
+package darwin.task;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Stores tasks column by column instead of as Task objects: one array per field, with all
+ * descriptions packed into a single UTF-8 byte arena. Scans such as {@link #findByDescription}
+ * run as linear loops over these arrays. Task objects are only created when a task is read out,
+ * so the tasks returned by this store are fresh copies rather than the objects that were added.
+ *
+ * When created off-heap, the description arena and the int columns live in direct buffers, so a
+ * large archive adds almost nothing for the garbage collector to trace. Closing the store does
+ * not free that memory right away: Java 17 has no supported way to free a direct buffer (the
+ * <code>Arena</code> API that has one is final only from Java 22), so the memory is returned when
+ * the garbage collector finds the dropped buffers unreachable. The JVM counts direct memory
+ * against <code>-XX:MaxDirectMemorySize</code> and collects when it runs short, so closed stores
+ * cannot make it run out.
+ */
+class ColumnarTaskStore implements TaskStore {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int INITIAL_ARENA_CAPACITY = 256;
+    private static final int BITS_PER_WORD = 64;
+    private static final int LOWER_CASE_OFFSET = 'a' - 'A';
+
+    private final boolean isOffHeap;
+    private boolean isClosed;
+
+    private int size;
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    private long[] doneBits = new long[1];
+    private long[] nonAsciiBits = new long[1];
+    private IntBuffer firstDates; // deadline due date, event start or recurring start
+    private IntBuffer secondDates; // event end or recurrence ordinal
+
+    private IntBuffer descriptionStarts;
+    private IntBuffer descriptionLengths;
+    private ByteBuffer arena;
+    private int arenaEnd;
+    private int arenaGarbage;
+
+    ColumnarTaskStore(ArrayList<Task> tasks, boolean isOffHeap) {
+        this.isOffHeap = isOffHeap;
+        firstDates = allocateInts(INITIAL_CAPACITY);
+        secondDates = allocateInts(INITIAL_CAPACITY);
+        descriptionStarts = allocateInts(INITIAL_CAPACITY);
+        descriptionLengths = allocateInts(INITIAL_CAPACITY);
+        arena = allocateBytes(INITIAL_ARENA_CAPACITY);
+
+        for (Task task : tasks) {
+            add(task);
+        }
+    }
+
+    @Override
+    public void add(Task task) {
+        checkOpen();
+        ensureCapacity(size + 1);
+
+        int index = size;
+        types[index] = (byte) task.getType();
+        setBit(doneBits, index, task.isDone());
+        storeDates(index, task);
+        storeDescription(index, task.getDescription());
+        size++;
+    }
+
+    private void storeDates(int index, Task task) {
+        switch (task.getType()) {
+            case Task.TYPE_DEADLINE:
+                firstDates.put(index, ((Deadline) task).getByEpochDay());
+                break;
+            case Task.TYPE_EVENT:
+                firstDates.put(index, ((Event) task).getFromEpochDay());
+                secondDates.put(index, ((Event) task).getToEpochDay());
+                break;
+            case Task.TYPE_RECURRING:
+                firstDates.put(index, ((Recurring) task).getStartEpochDay());
+                secondDates.put(index, ((Recurring) task).getRecurrence().ordinal());
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void storeDescription(int index, String description) {
+        byte[] bytes = description.getBytes(StandardCharsets.UTF_8);
+        if (arenaEnd + bytes.length > arena.capacity()) {
+            ByteBuffer grown = allocateBytes(Math.max(arena.capacity() * 2, arenaEnd + bytes.length));
+            grown.put(arena.duplicate().position(0).limit(arenaEnd));
+            arena = grown;
+        }
+        arena.put(arenaEnd, bytes);
+
+        descriptionStarts.put(index, arenaEnd);
+        descriptionLengths.put(index, bytes.length);
+        setBit(nonAsciiBits, index, bytes.length != description.length());
+        arenaEnd += bytes.length;
+    }
+
+    @Override
+    public void insert(int index, Task task) {
+        add(task);
+        moveLastTo(index);
+    }
+
+    /**
+     * Moves the last task to the given position, shifting the tasks from there on up by one.
+     */
+    private void moveLastTo(int index) {
+        int last = size - 1;
+        byte type = types[last];
+        System.arraycopy(types, index, types, index + 1, last - index);
+        types[index] = type;
+        insertInt(firstDates, index, firstDates.get(last));
+        insertInt(secondDates, index, secondDates.get(last));
+        insertInt(descriptionStarts, index, descriptionStarts.get(last));
+        insertInt(descriptionLengths, index, descriptionLengths.get(last));
+        insertBit(doneBits, index, getBit(doneBits, last));
+        insertBit(nonAsciiBits, index, getBit(nonAsciiBits, last));
+    }
+
+    @Override
+    public Task remove(int index) {
+        Task removedTask = get(index);
+
+        arenaGarbage += descriptionLengths.get(index);
+        System.arraycopy(types, index + 1, types, index, size - index - 1);
+        removeInt(firstDates, index);
+        removeInt(secondDates, index);
+        removeInt(descriptionStarts, index);
+        removeInt(descriptionLengths, index);
+        removeBit(doneBits, index);
+        removeBit(nonAsciiBits, index);
+        size--;
+
+        if (arenaGarbage > arenaEnd / 2) {
+            compactArena();
+        }
+        return removedTask;
+    }
+
+    private void compactArena() {
+        ByteBuffer compacted = allocateBytes(Math.max(INITIAL_ARENA_CAPACITY, arenaEnd - arenaGarbage));
+        int end = 0;
+        for (int i = 0; i < size; i++) {
+            int start = descriptionStarts.get(i);
+            int length = descriptionLengths.get(i);
+            compacted.put(end, arena, start, length);
+            descriptionStarts.put(i, end);
+            end += length;
+        }
+        arena = compacted;
+        arenaEnd = end;
+        arenaGarbage = 0;
+    }
+
+    @Override
+    public Task get(int index) {
+        checkOpen();
+        String description = decodeDescription(index);
+
+        Task task;
+        switch (types[index]) {
+            case Task.TYPE_TODO:
+                task = new ToDo(description);
+                break;
+            case Task.TYPE_DEADLINE:
+                task = new Deadline(description, firstDates.get(index));
+                break;
+            case Task.TYPE_EVENT:
+                task = new Event(description, firstDates.get(index), secondDates.get(index));
+                break;
+            case Task.TYPE_RECURRING:
+                task = new Recurring(description, firstDates.get(index),
+                        Recurrence.values()[secondDates.get(index)]);
+                break;
+            default:
+                task = new Task(description);
+                break;
+        }
+
+        if (isDone(index)) {
+            task.markAsDone();
+        }
+        return task;
+    }
+
+    @Override
+    public String getDescription(int index) {
+        checkOpen();
+        return decodeDescription(index);
+    }
+
+    /**
+     * Compares two ASCII descriptions byte by byte in the arena, folding case, which orders them as
+     * String.CASE_INSENSITIVE_ORDER does. Others are decoded and compared as strings.
+     */
+    @Override
+    public int compareDescriptions(int firstIndex, int secondIndex) {
+        checkOpen();
+        if (getBit(nonAsciiBits, firstIndex) || getBit(nonAsciiBits, secondIndex)) {
+            return String.CASE_INSENSITIVE_ORDER.compare(decodeDescription(firstIndex), decodeDescription(secondIndex));
+        }
+        int firstStart = descriptionStarts.get(firstIndex);
+        int secondStart = descriptionStarts.get(secondIndex);
+        int firstLength = descriptionLengths.get(firstIndex);
+        int secondLength = descriptionLengths.get(secondIndex);
+        for (int i = 0; i < Math.min(firstLength, secondLength); i++) {
+            int difference = toLowerAscii(arena.get(firstStart + i)) - toLowerAscii(arena.get(secondStart + i));
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return firstLength - secondLength;
+    }
+
+    @Override
+    public void setDone(int index, boolean isDone) {
+        setBit(doneBits, index, isDone);
+    }
+
+    @Override
+    public boolean isDone(int index) {
+        return getBit(doneBits, index);
+    }
+
+    @Override
+    public int getType(int index) {
+        return types[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Scans the description arena for the term. ASCII descriptions are compared byte by byte with
+     * case folding; the rare non-ASCII description falls back to String.toLowerCase.
+     */
+    @Override
+    public ArrayList<Task> findByDescription(String lowerCaseTerm) {
+        checkOpen();
+        ArrayList<Task> matchingTasks = new ArrayList<>();
+        byte[] term = lowerCaseTerm.getBytes(StandardCharsets.UTF_8);
+        boolean isAsciiTerm = term.length == lowerCaseTerm.length();
+
+        for (int i = 0; i < size; i++) {
+            boolean isMatch = isAsciiTerm && !getBit(nonAsciiBits, i)
+                    ? containsIgnoreAsciiCase(descriptionStarts.get(i), descriptionLengths.get(i), term)
+                    : decodeDescription(i).toLowerCase().contains(lowerCaseTerm);
+            if (isMatch) {
+                matchingTasks.add(get(i));
+            }
+        }
+        return matchingTasks;
+    }
+
+    private boolean containsIgnoreAsciiCase(int start, int length, byte[] term) {
+        int lastStart = start + length - term.length;
+        for (int from = start; from <= lastStart; from++) {
+            int matched = 0;
+            while (matched < term.length && toLowerAscii(arena.get(from + matched)) == term[matched]) {
+                matched++;
+            }
+            if (matched == term.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte toLowerAscii(byte b) {
+        return b >= 'A' && b <= 'Z' ? (byte) (b + LOWER_CASE_OFFSET) : b;
+    }
+
+    private String decodeDescription(int index) {
+        byte[] bytes = new byte[descriptionLengths.get(index)];
+        arena.get(descriptionStarts.get(index), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public ArrayList<Task> toList() {
+        checkOpen();
+        ArrayList<Task> tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            tasks.add(get(i));
+        }
+        return tasks;
+    }
+
+    /**
+     * Drops every column. The store cannot be used afterwards. Off-heap memory is not freed here
+     * but when the garbage collector next finds the dropped buffers unreachable.
+     */
+    @Override
+    public void close() {
+        isClosed = true;
+        size = 0;
+        types = null;
+        firstDates = null;
+        secondDates = null;
+        descriptionStarts = null;
+        descriptionLengths = null;
+        arena = null;
+    }
+
+    private void checkOpen() {
+        if (isClosed) {
+            throw new IllegalStateException("Task store has been closed");
+        }
+    }
+
+    // column helpers - START
+    private ByteBuffer allocateBytes(int capacity) {
+        return isOffHeap ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+
+    private IntBuffer allocateInts(int capacity) {
+        if (!isOffHeap) {
+            return IntBuffer.allocate(capacity);
+        }
+        return ByteBuffer.allocateDirect(capacity * Integer.BYTES).order(ByteOrder.nativeOrder()).asIntBuffer();
+    }
+
+    private IntBuffer growInts(IntBuffer ints, int capacity) {
+        IntBuffer grown = allocateInts(capacity);
+        grown.put(ints.duplicate().position(0).limit(size));
+        return grown;
+    }
+
+    private void removeInt(IntBuffer ints, int index) {
+        for (int i = index; i < size - 1; i++) {
+            ints.put(i, ints.get(i + 1));
+        }
+    }
+
+    /**
+     * Shifts the values from index to the last one up by one position, overwriting the last,
+     * and stores the value at index.
+     */
+    private void insertInt(IntBuffer ints, int index, int value) {
+        for (int i = size - 1; i > index; i--) {
+            ints.put(i, ints.get(i - 1));
+        }
+        ints.put(index, value);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > types.length) {
+            int newCapacity = types.length * 2;
+            types = Arrays.copyOf(types, newCapacity);
+            firstDates = growInts(firstDates, newCapacity);
+            secondDates = growInts(secondDates, newCapacity);
+            descriptionStarts = growInts(descriptionStarts, newCapacity);
+            descriptionLengths = growInts(descriptionLengths, newCapacity);
+        }
+        int words = (capacity + BITS_PER_WORD - 1) / BITS_PER_WORD;
+        if (words > doneBits.length) {
+            doneBits = Arrays.copyOf(doneBits, words * 2);
+            nonAsciiBits = Arrays.copyOf(nonAsciiBits, words * 2);
+        }
+    }
+
+    private static boolean getBit(long[] bits, int index) {
+        return (bits[index / BITS_PER_WORD] & (1L << index)) != 0;
+    }
+
+    private static void setBit(long[] bits, int index, boolean value) {
+        if (value) {
+            bits[index / BITS_PER_WORD] |= 1L << index;
+        } else {
+            bits[index / BITS_PER_WORD] &= ~(1L << index);
+        }
+    }
+
+    /**
+     * Removes the bit at index, shifting every later bit down by one position.
+     */
+    private void removeBit(long[] bits, int index) {
+        for (int i = index; i < size - 1; i++) {
+            setBit(bits, i, getBit(bits, i + 1));
+        }
+        setBit(bits, size - 1, false);
+    }
+
+    /**
+     * Shifts the bits from index to the last one up by one position, overwriting the last,
+     * and stores the value at index.
+     */
+    private void insertBit(long[] bits, int index, boolean value) {
+        for (int i = size - 1; i > index; i--) {
+            setBit(bits, i, getBit(bits, i - 1));
+        }
+        setBit(bits, index, value);
+    }
+    // column helpers - END
+}
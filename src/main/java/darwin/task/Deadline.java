@@ -7,24 +7,52 @@ import darwin.DateParser;
 /**
  * Represents a task with a specific deadline. A <code>Deadline</code> object
  * extends the base Task with an additional due date that must be completed by.
+ * The due date is kept as an epoch day rather than a LocalDate to keep the object small.
  */
 public class Deadline extends Task {
 
-    private String by;
-    private LocalDate date;
+    private final int byEpochDay;
 
     /**
      * Constructs a new Deadline task with the specified description and due date.
-     * The due date string is parsed into a LocalDate object.
+     * The due date string is parsed and stored as an epoch day.
      *
      * @param description The text description of the deadline task.
      * @param by The due date string in yyyy-mm-dd format (e.g., "2023-12-31").
      * @throws DarwinException If the date string cannot be parsed into a valid date.
      */
     public Deadline(String description, String by) throws DarwinException {
-        super(description);
-        this.by = by;
-        this.date = DateParser.parseDate(by);
+        super(description, TYPE_DEADLINE);
+        this.byEpochDay = DateParser.parseEpochDay(by);
+    }
+
+    /**
+     * Constructs a new Deadline task from an already parsed due date.
+     *
+     * @param description The text description of the deadline task.
+     * @param byEpochDay The due date as an epoch day.
+     */
+    Deadline(String description, int byEpochDay) {
+        super(description, TYPE_DEADLINE);
+        this.byEpochDay = byEpochDay;
+    }
+
+    int getByEpochDay() {
+        return byEpochDay;
+    }
+
+    /**
+     * Returns the due date of the deadline task.
+     *
+     * @return The due date.
+     */
+    public LocalDate getDate() {
+        return LocalDate.ofEpochDay(byEpochDay);
+    }
+
+    @Override
+    Task createCopy() {
+        return new Deadline(getDescription(), byEpochDay);
     }
 
     /**
@@ -35,7 +63,7 @@ public class Deadline extends Task {
      */
     @Override
     public String toString() {
-        String displayDate = DateParser.formatDateForDisplay(date);
+        String displayDate = DateParser.formatEpochDayForDisplay(byEpochDay);
         // Print in MMM dd yyyy format
         return "[D]" + super.toString() + " (by: " + displayDate + ")";
     }
@@ -49,6 +77,6 @@ public class Deadline extends Task {
     @Override
     public String toFileFormat() {
         // Save in yyyy-mm-dd format
-        return "D | " + (isDone() ? "1" : "0") + " | " + getDescription() + " | " + date.toString();
+        return "D | " + (isDone() ? "1" : "0") + " | " + getDescription() + " | " + getDate();
     }
-}
\ No newline at end of file
+}
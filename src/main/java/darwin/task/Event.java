@@ -8,15 +8,16 @@ import java.time.LocalDate;
 /**
  * Represents a task that occurs during a specific time period. An <code>Event</code> object
  * extends the base Task with both start and end dates defining the event duration.
+ * Both dates are kept as epoch days rather than LocalDates to keep the object small.
  */
 public class Event extends Task {
 
-    private LocalDate fromDate;
-    private LocalDate toDate;
+    private final int fromEpochDay;
+    private final int toEpochDay;
 
     /**
      * Constructs a new Event task with the specified description, start date, and end date.
-     * Both date strings are parsed into LocalDate objects.
+     * Both date strings are parsed and stored as epoch days.
      *
      * @param description The text description of the event.
      * @param from The start date string in yyyy-mm-dd format (e.g., "2023-12-01").
@@ -24,20 +25,32 @@ public class Event extends Task {
      * @throws DarwinException If either date string cannot be parsed into a valid date.
      */
     public Event(String description, String from, String to) throws DarwinException {
-        super(description);
-        this.fromDate = DateParser.parseDate(from);
-        this.toDate = DateParser.parseDate(to);
+        super(description, TYPE_EVENT);
+        this.fromEpochDay = DateParser.parseEpochDay(from);
+        this.toEpochDay = DateParser.parseEpochDay(to);
 
         validateDates();
     }
 
-    private void validateDates() throws DarwinException {
-        assert fromDate != null : "From date should not be null";
-        assert toDate != null : "To date should not be null";
+    /**
+     * Constructs a new Event task from already parsed and validated dates.
+     *
+     * @param description The text description of the event.
+     * @param fromEpochDay The start date as an epoch day.
+     * @param toEpochDay The end date as an epoch day.
+     */
+    Event(String description, int fromEpochDay, int toEpochDay) {
+        super(description, TYPE_EVENT);
+        this.fromEpochDay = fromEpochDay;
+        this.toEpochDay = toEpochDay;
+
+        assert fromEpochDay <= toEpochDay : "Start date should not be after end date";
+    }
 
-        if (fromDate.isAfter(toDate)) {
-            String fromDisplay = DateParser.formatDateForDisplay(fromDate);
-            String toDisplay = DateParser.formatDateForDisplay(toDate);
+    private void validateDates() throws DarwinException {
+        if (fromEpochDay > toEpochDay) {
+            String fromDisplay = DateParser.formatEpochDayForDisplay(fromEpochDay);
+            String toDisplay = DateParser.formatEpochDayForDisplay(toEpochDay);
             throw new DarwinException(
                     " Invalid event dates: Start date (" + fromDisplay +
                             ") cannot be after end date (" + toDisplay + ")."
@@ -45,6 +58,37 @@ public class Event extends Task {
         }
     }
 
+    int getFromEpochDay() {
+        return fromEpochDay;
+    }
+
+    int getToEpochDay() {
+        return toEpochDay;
+    }
+
+    /**
+     * Returns the start date of the event.
+     *
+     * @return The start date.
+     */
+    public LocalDate getFromDate() {
+        return LocalDate.ofEpochDay(fromEpochDay);
+    }
+
+    /**
+     * Returns the end date of the event.
+     *
+     * @return The end date.
+     */
+    public LocalDate getToDate() {
+        return LocalDate.ofEpochDay(toEpochDay);
+    }
+
+    @Override
+    Task createCopy() {
+        return new Event(getDescription(), fromEpochDay, toEpochDay);
+    }
+
     /**
      * Returns a string representation of the event task, including its type indicator [E],
      * status, description, and formatted start and end dates.
@@ -53,8 +97,8 @@ public class Event extends Task {
      */
     @Override
     public String toString() {
-        String fromDisplay = DateParser.formatDateForDisplay(fromDate);
-        String toDisplay = DateParser.formatDateForDisplay(toDate);
+        String fromDisplay = DateParser.formatEpochDayForDisplay(fromEpochDay);
+        String toDisplay = DateParser.formatEpochDayForDisplay(toEpochDay);
         return "[E]" + super.toString() + " (from: " + fromDisplay + " to: " + toDisplay + ")";
     }
 
@@ -66,7 +110,7 @@ public class Event extends Task {
      */
     @Override
     public String toFileFormat() {
-        return "E | " + (isDone() ? "1" : "0") + " | " + getDescription() + " | " + fromDate.toString() + " | "
-                + toDate.toString();
+        return "E | " + (isDone() ? "1" : "0") + " | " + getDescription() + " | " + getFromDate() + " | "
+                + getToDate();
     }
-}
\ No newline at end of file
+}
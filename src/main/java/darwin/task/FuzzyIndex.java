@@ -0,0 +1,190 @@
+package darwin.task;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Indexes the words of task descriptions for typo-tolerant search. A <code>FuzzyIndex</code> keeps
+ * the distinct words in a BK-tree keyed by Levenshtein distance, so finding every word within a
+ * small distance of a query word only visits a fraction of the dictionary instead of computing the
+ * distance to every word of every description.
+ *
+ * Next to the tree, every word keeps the postings of the tasks whose descriptions contain it, so the
+ * tasks matching a query are found from the words the tree returns, without reading any other
+ * description. Tasks are identified by a handle of type <code>T</code> chosen by the caller, which
+ * must keep its identity while the task is in the list.
+ *
+ * A word whose postings become empty is skipped by queries; the tree is rebuilt once such dead
+ * words outnumber the live ones.
+ */
+class FuzzyIndex<T> {
+
+    private static final String WORD_SEPARATOR = "[^\\p{L}\\p{N}]+";
+
+    private static final class Node {
+        private final String word;
+        private final HashMap<Integer, Node> children = new HashMap<>();
+
+        private Node(String word) {
+            this.word = word;
+        }
+    }
+
+    private final HashMap<String, HashSet<T>> postings = new HashMap<>();
+    private Node root;
+    private int treeSize;
+
+    /**
+     * Splits a description into its distinct lower-case words.
+     */
+    static LinkedHashSet<String> tokenize(String text) {
+        LinkedHashSet<String> words = new LinkedHashSet<>();
+        for (String word : text.toLowerCase().split(WORD_SEPARATOR)) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Returns the largest edit distance tolerated for a query word: none for very short words,
+     * one typo for short words and two for longer ones.
+     */
+    static int maxDistanceFor(String word) {
+        if (word.length() <= 2) {
+            return 0;
+        }
+        return word.length() <= 5 ? 1 : 2;
+    }
+
+    void add(String description, T task) {
+        for (String word : tokenize(description)) {
+            HashSet<T> tasks = postings.computeIfAbsent(word, key -> new HashSet<>());
+            tasks.add(task);
+            if (tasks.size() == 1 && !isInTree(word)) {
+                insert(word);
+            }
+        }
+    }
+
+    void remove(String description, T task) {
+        for (String word : tokenize(description)) {
+            HashSet<T> tasks = postings.get(word);
+            if (tasks != null && tasks.remove(task) && tasks.isEmpty()) {
+                postings.remove(word);
+            }
+        }
+        if (treeSize > 2 * postings.size()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Returns the number of tasks whose description contains the word.
+     */
+    int countTasksWithWord(String word) {
+        HashSet<T> tasks = postings.get(word);
+        return tasks == null ? 0 : tasks.size();
+    }
+
+    /**
+     * Returns the tasks whose description contains the word. The set must not be changed.
+     */
+    Set<T> getTasksWithWord(String word) {
+        HashSet<T> tasks = postings.get(word);
+        return tasks == null ? Collections.emptySet() : Collections.unmodifiableSet(tasks);
+    }
+
+    /**
+     * Returns every indexed word within the given edit distance of the query word, with its distance.
+     */
+    HashMap<String, Integer> search(String word, int maxDistance) {
+        HashMap<String, Integer> matches = new HashMap<>();
+        if (root == null) {
+            return matches;
+        }
+
+        ArrayDeque<Node> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            int distance = levenshtein(word, node.word);
+            if (distance <= maxDistance && postings.containsKey(node.word)) {
+                matches.put(node.word, distance);
+            }
+
+            // Triangle inequality: only children at distance d from this node can be within range
+            for (Map.Entry<Integer, Node> child : node.children.entrySet()) {
+                if (Math.abs(child.getKey() - distance) <= maxDistance) {
+                    pending.push(child.getValue());
+                }
+            }
+        }
+        return matches;
+    }
+
+    private boolean isInTree(String word) {
+        Node node = root;
+        while (node != null) {
+            int distance = levenshtein(word, node.word);
+            if (distance == 0) {
+                return true;
+            }
+            node = node.children.get(distance);
+        }
+        return false;
+    }
+
+    private void insert(String word) {
+        treeSize++;
+        if (root == null) {
+            root = new Node(word);
+            return;
+        }
+
+        Node node = root;
+        while (true) {
+            int distance = levenshtein(word, node.word);
+            Node child = node.children.get(distance);
+            if (child == null) {
+                node.children.put(distance, new Node(word));
+                return;
+            }
+            node = child;
+        }
+    }
+
+    private void rebuild() {
+        root = null;
+        treeSize = 0;
+        for (String word : postings.keySet()) {
+            insert(word);
+        }
+    }
+
+    static int levenshtein(String first, String second) {
+        int[] previous = new int[second.length() + 1];
+        int[] current = new int[second.length() + 1];
+        for (int j = 0; j <= second.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= first.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= second.length(); j++) {
+                int substitution = previous[j - 1] + (first.charAt(i - 1) == second.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[second.length()];
+    }
+}
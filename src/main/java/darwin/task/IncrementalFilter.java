@@ -0,0 +1,78 @@
+package darwin.task;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Filters a {@link TaskSnapshot} by a keyword as it is typed, the same way as <code>find</code>.
+ * When the keyword is refined, i.e. the new keyword contains the previous one, only the previous
+ * matches are checked again, since no other task can match. A filter keeps the result of its last
+ * call for this and must only be used from one thread at a time. An empty keyword matches every
+ * task without scanning, so an unfiltered pane costs nothing per task.
+ */
+public class IncrementalFilter {
+
+    private static final int CANCELLATION_CHECK_INTERVAL = 64;
+
+    private TaskSnapshot lastSnapshot;
+    private String lastLowerKeyword;
+    private List<Integer> lastMatches;
+
+    /**
+     * Returns the positions of the tasks whose description contains the keyword (case-insensitive).
+     * An empty keyword matches every task.
+     *
+     * @param snapshot The tasks to filter.
+     * @param keyword The keyword typed so far.
+     * @param isCancelled Checked as the tasks are scanned; once it returns true the scan stops.
+     * @return The positions (starting from 0) of the matching tasks in list order, or null if the
+     *         scan was cancelled. The list cannot be changed.
+     */
+    public List<Integer> filter(TaskSnapshot snapshot, String keyword, BooleanSupplier isCancelled) {
+        String lowerKeyword = keyword.toLowerCase();
+        if (lowerKeyword.isEmpty()) {
+            lastSnapshot = snapshot;
+            lastLowerKeyword = lowerKeyword;
+            lastMatches = allPositions(snapshot.size());
+            return lastMatches;
+        }
+        boolean isRefinement = snapshot == lastSnapshot && lowerKeyword.contains(lastLowerKeyword);
+        List<String> descriptions = snapshot.getDescriptions();
+
+        ArrayList<Integer> matches = new ArrayList<>();
+        int candidateCount = isRefinement ? lastMatches.size() : descriptions.size();
+        for (int i = 0; i < candidateCount; i++) {
+            if (i % CANCELLATION_CHECK_INTERVAL == 0 && isCancelled.getAsBoolean()) {
+                return null;
+            }
+            int position = isRefinement ? lastMatches.get(i) : i;
+            if (descriptions.get(position).toLowerCase().contains(lowerKeyword)) {
+                matches.add(position);
+            }
+        }
+
+        lastSnapshot = snapshot;
+        lastLowerKeyword = lowerKeyword;
+        lastMatches = matches;
+        return matches;
+    }
+
+    private static List<Integer> allPositions(int size) {
+        return new AbstractList<>() {
+            @Override
+            public Integer get(int position) {
+                if (position < 0 || position >= size) {
+                    throw new IndexOutOfBoundsException("Index " + position + " out of bounds for length " + size);
+                }
+                return position;
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+}
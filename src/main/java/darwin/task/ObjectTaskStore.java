@@ -0,0 +1,81 @@
+package darwin.task;
+
+import java.util.ArrayList;
+
+/**
+ * Stores tasks as an ArrayList of Task objects. This is the default store.
+ */
+class ObjectTaskStore implements TaskStore {
+
+    private final ArrayList<Task> tasks;
+
+    ObjectTaskStore(ArrayList<Task> tasks) {
+        this.tasks = tasks;
+    }
+
+    @Override
+    public void add(Task task) {
+        tasks.add(task);
+    }
+
+    @Override
+    public void insert(int index, Task task) {
+        tasks.add(index, task);
+    }
+
+    @Override
+    public Task remove(int index) {
+        return tasks.remove(index);
+    }
+
+    @Override
+    public Task get(int index) {
+        return tasks.get(index);
+    }
+
+    @Override
+    public String getDescription(int index) {
+        return tasks.get(index).getDescription();
+    }
+
+    @Override
+    public void setDone(int index, boolean isDone) {
+        Task task = tasks.get(index);
+        if (isDone) {
+            task.markAsDone();
+        } else {
+            task.markAsNotDone();
+        }
+    }
+
+    @Override
+    public boolean isDone(int index) {
+        return tasks.get(index).isDone();
+    }
+
+    @Override
+    public int getType(int index) {
+        return tasks.get(index).getType();
+    }
+
+    @Override
+    public int size() {
+        return tasks.size();
+    }
+
+    @Override
+    public ArrayList<Task> findByDescription(String lowerCaseTerm) {
+        ArrayList<Task> matchingTasks = new ArrayList<>();
+        for (Task task : tasks) {
+            if (task.getDescription().toLowerCase().contains(lowerCaseTerm)) { // works for partial string matching
+                matchingTasks.add(task);
+            }
+        }
+        return matchingTasks;
+    }
+
+    @Override
+    public ArrayList<Task> toList() {
+        return new ArrayList<>(tasks); // later changes to the list must not show through
+    }
+}
@@ -0,0 +1,32 @@
+package darwin.task;
+
+import java.time.LocalDate;
+
+/**
+ * Represents one dated appearance of a task in a window of dates: the due date of a deadline,
+ * the start of an event, or one repetition of a recurring task.
+ */
+public class Occurrence {
+
+    private final LocalDate date;
+    private final Task task;
+
+    /**
+     * Constructs an Occurrence of the task on the given date.
+     *
+     * @param date The date of the occurrence.
+     * @param task The task that occurs.
+     */
+    public Occurrence(LocalDate date, Task task) {
+        this.date = date;
+        this.task = task;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+}
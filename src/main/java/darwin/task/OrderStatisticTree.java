@@ -0,0 +1,172 @@
+package darwin.task;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Random;
+
+/**
+ * Keeps elements sorted and answers "the elements at ranks i to j" without walking the whole
+ * collection. An <code>OrderStatisticTree</code> is a treap whose nodes know the size of their
+ * subtree, so inserting, removing and finding a rank all take O(log n) expected time, and reading a
+ * page of k elements takes O(log n + k).
+ *
+ * Elements that compare as equal are treated as the same element, so the comparator must break
+ * every tie.
+ */
+class OrderStatisticTree<E> {
+
+    private static final long PRIORITY_SEED = 0x5EED;
+
+    private static final class Node<E> {
+        private final E element;
+        private final int priority;
+        private Node<E> left;
+        private Node<E> right;
+        private int size = 1;
+
+        private Node(E element, int priority) {
+            this.element = element;
+            this.priority = priority;
+        }
+    }
+
+    private final Comparator<? super E> comparator;
+    private final Random random = new Random(PRIORITY_SEED);
+    private Node<E> root;
+
+    OrderStatisticTree(Comparator<? super E> comparator) {
+        this.comparator = comparator;
+    }
+
+    void add(E element) {
+        root = insert(root, element);
+    }
+
+    void remove(E element) {
+        root = delete(root, element);
+    }
+
+    int size() {
+        return sizeOf(root);
+    }
+
+    /**
+     * Returns the number of elements that come before the given one, which need not be in the
+     * tree, i.e. the rank it would have.
+     */
+    int countBefore(E element) {
+        int count = 0;
+        Node<E> node = root;
+        while (node != null) {
+            if (comparator.compare(element, node.element) > 0) {
+                count += sizeOf(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the elements at ranks <code>from</code> (inclusive) to <code>from + count</code>
+     * (exclusive), in order. Ranks past the end are ignored.
+     */
+    ArrayList<E> getRange(int from, int count) {
+        ArrayList<E> elements = new ArrayList<>();
+        collect(root, 0, from, from + count, elements);
+        return elements;
+    }
+
+    // Tree helpers - START
+    private Node<E> insert(Node<E> node, E element) {
+        if (node == null) {
+            return new Node<>(element, random.nextInt());
+        }
+
+        int comparison = comparator.compare(element, node.element);
+        assert comparison != 0 : "Element is already in the tree";
+        if (comparison < 0) {
+            node.left = insert(node.left, element);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, element);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        updateSize(node);
+        return node;
+    }
+
+    private Node<E> delete(Node<E> node, E element) {
+        if (node == null) {
+            return null;
+        }
+
+        int comparison = comparator.compare(element, node.element);
+        if (comparison < 0) {
+            node.left = delete(node.left, element);
+        } else if (comparison > 0) {
+            node.right = delete(node.right, element);
+        } else if (node.left == null) {
+            return node.right;
+        } else if (node.right == null) {
+            return node.left;
+        } else if (node.left.priority > node.right.priority) {
+            node = rotateRight(node);
+            node.right = delete(node.right, element);
+        } else {
+            node = rotateLeft(node);
+            node.left = delete(node.left, element);
+        }
+        updateSize(node);
+        return node;
+    }
+
+    private void collect(Node<E> node, int firstRank, int from, int to, ArrayList<E> elements) {
+        if (node == null) {
+            return;
+        }
+
+        int rank = firstRank + sizeOf(node.left);
+        if (from < rank) {
+            collect(node.left, firstRank, from, to, elements);
+        }
+        if (from <= rank && rank < to) {
+            elements.add(node.element);
+        }
+        if (rank + 1 < to) {
+            collect(node.right, rank + 1, from, to, elements);
+        }
+    }
+
+    private Node<E> rotateRight(Node<E> node) {
+        Node<E> left = node.left;
+        node.left = left.right;
+        left.right = node;
+        updateSize(node);
+        updateSize(left);
+        return left;
+    }
+
+    private Node<E> rotateLeft(Node<E> node) {
+        Node<E> right = node.right;
+        node.right = right.left;
+        right.left = node;
+        updateSize(node);
+        updateSize(right);
+        return right;
+    }
+
+    private void updateSize(Node<E> node) {
+        node.size = 1 + sizeOf(node.left) + sizeOf(node.right);
+    }
+
+    private int sizeOf(Node<E> node) {
+        return node == null ? 0 : node.size;
+    }
+    // Tree helpers - END
+}
@@ -0,0 +1,88 @@
+package darwin.task;
+
+import darwin.DarwinException;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Represents how often a {@link Recurring} task repeats.
+ */
+public enum Recurrence {
+    DAY("day", "daily"),
+    WEEK("week", "weekly"),
+    MONTH("month", "monthly");
+
+    private final String keyword;
+    private final String adverb;
+
+    Recurrence(String keyword, String adverb) {
+        this.keyword = keyword;
+        this.adverb = adverb;
+    }
+
+    /**
+     * Parses a recurrence keyword such as "week" or "weekly".
+     *
+     * @param text The keyword typed by the user or read from the storage file.
+     * @return The matching Recurrence.
+     * @throws DarwinException If the keyword is not recognised.
+     */
+    public static Recurrence parse(String text) throws DarwinException {
+        String keyword = text.trim().toLowerCase();
+        for (Recurrence recurrence : values()) {
+            if (keyword.equals(recurrence.keyword) || keyword.equals(recurrence.adverb)) {
+                return recurrence;
+            }
+        }
+        throw new DarwinException(" Unknown repeat interval '" + text.trim() + "'. Please use day, week or month.");
+    }
+
+    /**
+     * Returns the n-th occurrence counted from the start date, where the start date is occurrence 0.
+     * Monthly occurrences are always counted from the start date, so a rule starting on the 31st
+     * comes back to the 31st after a shorter month.
+     */
+    LocalDate occurrence(LocalDate start, long n) {
+        switch (this) {
+            case DAY:
+                return start.plusDays(n);
+            case WEEK:
+                return start.plusWeeks(n);
+            default:
+                return start.plusMonths(n);
+        }
+    }
+
+    /**
+     * Returns the index of the first occurrence on or after the given date, which is at least 0.
+     */
+    long firstIndexOnOrAfter(LocalDate start, LocalDate date) {
+        if (!date.isAfter(start)) {
+            return 0;
+        }
+
+        long n;
+        switch (this) {
+            case DAY:
+                n = ChronoUnit.DAYS.between(start, date);
+                break;
+            case WEEK:
+                n = ChronoUnit.WEEKS.between(start, date);
+                break;
+            default:
+                n = ChronoUnit.MONTHS.between(start, date);
+                break;
+        }
+
+        while (occurrence(start, n).isBefore(date)) {
+            n++;
+        }
+        return n;
+    }
+
+    @Override
+    public String toString() {
+        return keyword;
+    }
+}
@@ -0,0 +1,141 @@
+package darwin.task;
+
+import darwin.DarwinException;
+import darwin.DateParser;
+
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Represents a task that repeats at a fixed interval, such as a weekly chore. A <code>Recurring</code>
+ * object stores only its rule (start date and interval); individual occurrences are generated
+ * lazily when a window of dates is asked for, so a rule costs the same however long it runs.
+ */
+public class Recurring extends Task {
+
+    private final int startEpochDay;
+    private final Recurrence recurrence;
+
+    /**
+     * Constructs a new Recurring task with the specified description, first date and interval.
+     *
+     * @param description The text description of the task.
+     * @param start The first date string in yyyy-mm-dd format (e.g., "2023-12-01").
+     * @param recurrence How often the task repeats.
+     * @throws DarwinException If the date string cannot be parsed into a valid date.
+     */
+    public Recurring(String description, String start, Recurrence recurrence) throws DarwinException {
+        this(description, DateParser.parseEpochDay(start), recurrence);
+    }
+
+    /**
+     * Constructs a new Recurring task from an already parsed start date.
+     *
+     * @param description The text description of the task.
+     * @param startEpochDay The first date as an epoch day.
+     * @param recurrence How often the task repeats.
+     */
+    Recurring(String description, int startEpochDay, Recurrence recurrence) {
+        super(description, TYPE_RECURRING);
+        assert recurrence != null : "Recurrence cannot be null";
+
+        this.startEpochDay = startEpochDay;
+        this.recurrence = recurrence;
+    }
+
+    int getStartEpochDay() {
+        return startEpochDay;
+    }
+
+    /**
+     * Returns the date of the first occurrence.
+     *
+     * @return The start date.
+     */
+    public LocalDate getStartDate() {
+        return LocalDate.ofEpochDay(startEpochDay);
+    }
+
+    /**
+     * Returns how often the task repeats.
+     *
+     * @return The recurrence interval.
+     */
+    public Recurrence getRecurrence() {
+        return recurrence;
+    }
+
+    /**
+     * Returns the first occurrence on or after the given date.
+     *
+     * @param date The earliest date to consider.
+     * @return The next occurrence.
+     */
+    public LocalDate getNextOccurrence(LocalDate date) {
+        LocalDate start = getStartDate();
+        return recurrence.occurrence(start, recurrence.firstIndexOnOrAfter(start, date));
+    }
+
+    /**
+     * Returns the occurrences between two dates (both inclusive), generated one at a time.
+     *
+     * @param from The first date of the window.
+     * @param to The last date of the window.
+     * @return An iterator over the occurrence dates in the window, in order.
+     */
+    public Iterator<LocalDate> occurrencesBetween(LocalDate from, LocalDate to) {
+        LocalDate start = getStartDate();
+        long firstIndex = recurrence.firstIndexOnOrAfter(start, from);
+
+        return new Iterator<>() {
+            private long index = firstIndex;
+            private LocalDate next = recurrence.occurrence(start, firstIndex);
+
+            @Override
+            public boolean hasNext() {
+                return !next.isAfter(to);
+            }
+
+            @Override
+            public LocalDate next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                LocalDate current = next;
+                index++;
+                next = recurrence.occurrence(start, index);
+                return current;
+            }
+        };
+    }
+
+    @Override
+    Task createCopy() {
+        return new Recurring(getDescription(), startEpochDay, recurrence);
+    }
+
+    /**
+     * Returns a string representation of the recurring task, including its type indicator [R],
+     * status, description, interval and first date.
+     *
+     * @return A string in the format "[R][status] description (every week from: MMM dd yyyy)".
+     */
+    @Override
+    public String toString() {
+        return "[R]" + super.toString() + " (every " + recurrence + " from: "
+                + DateParser.formatEpochDayForDisplay(startEpochDay) + ")";
+    }
+
+    /**
+     * Returns a string representation of the recurring task suitable for file storage.
+     * The format is: "R | status | description | yyyy-mm-dd | interval"
+     *
+     * @return A string in file format with pipe-separated values.
+     */
+    @Override
+    public String toFileFormat() {
+        return "R | " + (isDone() ? "1" : "0") + " | " + getDescription() + " | " + getStartDate() + " | "
+                + recurrence;
+    }
+}
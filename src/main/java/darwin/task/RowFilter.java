@@ -0,0 +1,18 @@
+package darwin.task;
+
+/**
+ * Represents a condition on the fields a {@link TaskList} can check without building a Task object:
+ * the type letter and the done status.
+ */
+@FunctionalInterface
+public interface RowFilter {
+
+    /**
+     * Checks whether a task with the given type and status can match.
+     *
+     * @param typeCode The type letter of the task ('T', 'D', 'E' or 'R').
+     * @param isDone Whether the task is done.
+     * @return true if the task passes the filter.
+     */
+    boolean test(char typeCode, boolean isDone);
+}
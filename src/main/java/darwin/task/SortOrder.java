@@ -0,0 +1,40 @@
+package darwin.task;
+
+import darwin.DarwinException;
+
+/**
+ * Represents an order in which a {@link TaskList} can show its tasks.
+ */
+public enum SortOrder {
+    DUE("due"),
+    NAME("name"),
+    STATUS("status");
+
+    private final String keyword;
+
+    SortOrder(String keyword) {
+        this.keyword = keyword;
+    }
+
+    /**
+     * Parses a sort keyword such as "due".
+     *
+     * @param text The keyword typed by the user.
+     * @return The matching SortOrder.
+     * @throws DarwinException If the keyword is not recognised.
+     */
+    public static SortOrder parse(String text) throws DarwinException {
+        String keyword = text.trim().toLowerCase();
+        for (SortOrder order : values()) {
+            if (keyword.equals(order.keyword)) {
+                return order;
+            }
+        }
+        throw new DarwinException(" Unknown order '" + text.trim() + "'. Please use due, name or status.");
+    }
+
+    @Override
+    public String toString() {
+        return keyword;
+    }
+}
@@ -3,12 +3,29 @@ package darwin.task;
 /**
  * Represents a generic task in the Darwin application. A <code>Task</code> object
  * contains a description and a completion status. This is the base class for all
- * specific task types (ToDo, Deadline, Event).
+ * specific task types (ToDo, Deadline, Event, Recurring).
  */
 public class Task {
 
-    private String description;
-    private boolean isDone;
+    // ============ TYPE CODES ============
+    static final int TYPE_TASK = 0;
+    static final int TYPE_TODO = 1;
+    static final int TYPE_DEADLINE = 2;
+    static final int TYPE_EVENT = 3;
+    static final int TYPE_RECURRING = 4;
+
+    private static final String TYPE_CODES = "?TDER"; // indexed by type code
+
+    // ============ FLAG LAYOUT ============
+    private static final int DONE_FLAG = 1;
+    private static final int TYPE_SHIFT = 1;
+
+    private final String description;
+    private byte flags; // bit 0: done, bits 1 and up: type code
+
+    // Rendered forms, built on first use and dropped whenever the task changes
+    private String displayString;
+    private String fileFormatString;
 
     /**
      * Constructs a new Task with the specified description.
@@ -17,12 +34,23 @@ public class Task {
      * @param description The text description of the task.
      */
     public Task(String description) {
+        this(description, TYPE_TASK);
+    }
+
+    /**
+     * Constructs a new Task of the given type code. Used by subclasses so that the type is kept
+     * in the same byte as the done status.
+     *
+     * @param description The text description of the task.
+     * @param type The type code of the task.
+     */
+    Task(String description, int type) {
         assert description != null : "Task description cannot be null";
 
         this.description = description;
-        this.isDone = false;
+        this.flags = (byte) (type << TYPE_SHIFT);
 
-        assert !this.isDone : "New task should not be marked as done";
+        assert !isDone() : "New task should not be marked as done";
     }
 
     /**
@@ -41,18 +69,19 @@ public class Task {
      * @return A string containing the status icon ("X" or " ").
      */
     public String getStatusIcon() {
-        return (isDone ? "X" : " "); // mark done darwin.task with X
+        return (isDone() ? "X" : " "); // mark done darwin.task with X
     }
 
     /**
      * Marks this task as completed by setting its done status to true.
      */
     public void markAsDone() {
-        boolean wasDone = this.isDone;
-        this.isDone = true;
+        boolean wasDone = isDone();
+        flags |= DONE_FLAG;
+        invalidateRenderings();
 
-        assert this.isDone : "Task should be marked as done after markAsDone()";
-        assert this.isDone != wasDone :
+        assert isDone() : "Task should be marked as done after markAsDone()";
+        assert isDone() != wasDone :
             "Task status should change from false to true, was: " + wasDone;
     }
 
@@ -60,11 +89,12 @@ public class Task {
      * Marks this task as not completed by setting its done status to false.
      */
     public void markAsNotDone() {
-        boolean wasDone = this.isDone;
-        this.isDone = false;
+        boolean wasDone = isDone();
+        flags &= ~DONE_FLAG;
+        invalidateRenderings();
 
-        assert !this.isDone : "Task should be marked as not done after markAsNotDone()";
-        assert this.isDone != wasDone :
+        assert !isDone() : "Task should be marked as not done after markAsNotDone()";
+        assert isDone() != wasDone :
                 "Task status should change from true to false, was: " + wasDone;
     }
 
@@ -74,7 +104,30 @@ public class Task {
      * @return true if the task is done, false otherwise.
      */
     public boolean isDone() {
-        return this.isDone;
+        return (flags & DONE_FLAG) != 0;
+    }
+
+    /**
+     * Returns the letter identifying the type of the task, as used in the storage file
+     * ('T', 'D', 'E' or 'R').
+     *
+     * @return The type letter.
+     */
+    public char getTypeCode() {
+        return toTypeCode(getType());
+    }
+
+    static char toTypeCode(int type) {
+        return TYPE_CODES.charAt(type);
+    }
+
+    /**
+     * Returns the type code of the task, one of the <code>TYPE_</code> constants.
+     *
+     * @return The type code.
+     */
+    int getType() {
+        return flags >>> TYPE_SHIFT;
     }
 
     /**
@@ -88,6 +141,59 @@ public class Task {
         return "[" + getStatusIcon() + "] " + description;
     }
 
+    /**
+     * Returns the display form of the task, as given by {@link #toString()}. The string is built
+     * once and reused until the task is marked or unmarked.
+     *
+     * @return The cached display string.
+     */
+    public final String getDisplayString() {
+        if (displayString == null) {
+            displayString = toString();
+        }
+        return displayString;
+    }
+
+    /**
+     * Returns the file format of the task, as given by {@link #toFileFormat()}. The string is built
+     * once and reused until the task is marked or unmarked.
+     *
+     * @return The cached file format string.
+     */
+    public final String getFileFormat() {
+        if (fileFormatString == null) {
+            fileFormatString = toFileFormat();
+        }
+        return fileFormatString;
+    }
+
+    /**
+     * Returns a copy of the task as it is now. Later changes to this task, such as marking it as
+     * done, do not affect the copy.
+     *
+     * @return The copy.
+     */
+    public final Task copy() {
+        Task copy = createCopy();
+        copy.flags = flags;
+        copy.displayString = displayString;
+        copy.fileFormatString = fileFormatString;
+        return copy;
+    }
+
+    /**
+     * Returns a new task with the same description and dates, not yet done. Overridden by every
+     * subclass, so that the copy has the same type.
+     */
+    Task createCopy() {
+        return new Task(description);
+    }
+
+    private void invalidateRenderings() {
+        displayString = null;
+        fileFormatString = null;
+    }
+
     /**
      * Returns a string representation of the task suitable for file storage.
      * This method is intended to be overridden by subclasses.
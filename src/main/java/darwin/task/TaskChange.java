@@ -0,0 +1,59 @@
+package darwin.task;
+
+/**
+ * Represents one change to a {@link TaskList}: a task added or removed at a position, or a task
+ * whose done status was flipped. The position is the task's place (starting from 0) at the moment
+ * of the change, so the changes of a batch must be applied in order.
+ */
+public final class TaskChange {
+
+    /**
+     * The kinds of change a TaskList reports.
+     */
+    public enum Kind {
+        ADDED,
+        REMOVED,
+        STATUS_CHANGED
+    }
+
+    private final Kind kind;
+    private final int index;
+    private final Task task;
+    private final Object taskKey;
+
+    TaskChange(Kind kind, int index, Task task, Object taskKey) {
+        this.kind = kind;
+        this.index = index;
+        this.task = task;
+        this.taskKey = taskKey;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Returns the task added, removed, or as it is after its status changed.
+     */
+    public Task getTask() {
+        return task;
+    }
+
+    /**
+     * Returns the key of the task, as {@link TaskList#getTaskKey(int)} does. Every change to the
+     * same task while it is in the list has the same key, even when the store hands out a copy
+     * of the task each time.
+     */
+    public Object getTaskKey() {
+        return taskKey;
+    }
+
+    @Override
+    public String toString() {
+        return kind + " " + index + ": " + task;
+    }
+}
@@ -1,23 +1,81 @@
 package darwin.task;
 
+import java.time.LocalDate;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
 import darwin.DarwinException;
 
 /**
  * Represents a collection of tasks with management operations. A <code>TaskList</code> object
- * stores tasks in an ArrayList and provides methods for adding, deleting, marking,
+ * stores tasks in a {@link TaskStore} and provides methods for adding, deleting, marking,
  * and retrieving tasks, with bounds checking and error handling.
+ *
+ * By default the tasks are kept as an ArrayList of Task objects. A list created with
+ * {@link #createColumnar(ArrayList)} keeps them column by column instead, which makes scans
+ * cheaper but means the Task objects it hands out are copies. {@link #createOffHeap(ArrayList)}
+ * does the same with its descriptions and dates outside the Java heap; such a list must be
+ * {@link #close() closed} when it is no longer needed. As they take far less heap per task, both
+ * columnar lists hold up to 5,000,000 tasks rather than 1,000,000.
+ *
+ * Whatever the store, the list keeps one sorted view per {@link SortOrder}, updated on every
+ * change, so a page of tasks in sorted order can be read without sorting the whole list.
+ *
+ * Changes can be grouped into transactions. While a transaction is open, every change records how
+ * to undo itself, so that {@link #rollbackTransaction()} restores the list exactly; transactions
+ * may be nested, and rolling back only undoes the innermost one.
+ *
+ * Every change is reported to the registered {@link TaskListListener}s as a {@link TaskChange}.
+ * Changes are published in batches: those made between {@link #beginBatch()} and
+ * {@link #endBatch()}, e.g. by one command, go out together, and those made in a transaction only
+ * once the outermost transaction is committed. Changes that are rolled back are never published.
  */
 public class TaskList {
 
-    private static final int MAX_TASKS = 100;
-    private final ArrayList<Task> tasks;
+    // Bound the memory a runaway import or script can take; a columnar store takes far less heap per task
+    private static final int MAX_TASKS = 1_000_000;
+    private static final int MAX_COLUMNAR_TASKS = 5_000_000;
+    private final TaskStore tasks;
+    private final int maxTasks;
+    private final FuzzyIndex<SortEntry> fuzzyIndex = new FuzzyIndex<>();
+    private final WordTrie wordTrie = new WordTrie();
+
+    // Statistics kept up to date on every change, used to plan queries
+    private final int[] typeCounts = new int[Task.TYPE_RECURRING + 1];
+    private int doneCount;
+
+    // Sorted views, kept up to date on every change, over entries held in list order
+    private final ArrayList<SortEntry> sortEntries = new ArrayList<>();
+    private final EnumMap<SortOrder, OrderStatisticTree<SortEntry>> sortedViews = new EnumMap<>(SortOrder.class);
+    private long nextSequenceNumber;
+    private boolean areSortedViewsCleared; // while entries are put before the end of the list
+
+    // Undo actions for the open transactions, newest first, and the log size when each one began
+    private final ArrayDeque<Runnable> undoLog = new ArrayDeque<>();
+    private final ArrayDeque<Integer> savepoints = new ArrayDeque<>();
+
+    // Listeners, and the changes not yet published to them with the count when each transaction began
+    private final ArrayList<TaskListListener> listeners = new ArrayList<>();
+    private ArrayList<TaskChange> pendingChanges = new ArrayList<>();
+    private final ArrayDeque<Integer> changeSavepoints = new ArrayDeque<>();
+    private int batchDepth;
+    private boolean isUndoing;
 
     /**
      * Constructs an empty TaskList with no initial tasks.
      */
     public TaskList() {
-        this.tasks = new ArrayList<>();
+        this(new ArrayList<>());
     }
 
     /**
@@ -26,25 +84,91 @@ public class TaskList {
      * @param tasks An ArrayList of Task objects to initialize the list with.
      */
     public TaskList(ArrayList<Task> tasks) {
+        this(new ObjectTaskStore(tasks), MAX_TASKS);
+    }
+
+    private TaskList(TaskStore tasks, int maxTasks) {
         this.tasks = tasks;
+        this.maxTasks = maxTasks;
+        clearSortedViews();
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            SortEntry sortEntry = newSortEntry(task);
+            fuzzyIndex.add(task.getDescription(), sortEntry);
+            wordTrie.add(task.getDescription());
+            countTask(task, 1);
+            insertSortEntry(i, sortEntry);
+        }
+        rebuildSortedViews();
+    }
+
+    /**
+     * Creates a TaskList that stores the provided tasks column by column.
+     *
+     * @param tasks An ArrayList of Task objects to initialize the list with. The list is copied.
+     * @return A TaskList backed by a columnar store.
+     */
+    public static TaskList createColumnar(ArrayList<Task> tasks) {
+        return new TaskList(new ColumnarTaskStore(tasks, false), MAX_COLUMNAR_TASKS);
+    }
+
+    /**
+     * Creates a TaskList that stores the provided tasks column by column, with descriptions and
+     * dates kept in off-heap memory.
+     *
+     * @param tasks An ArrayList of Task objects to initialize the list with. The list is copied.
+     * @return A TaskList backed by an off-heap columnar store.
+     */
+    public static TaskList createOffHeap(ArrayList<Task> tasks) {
+        return new TaskList(new ColumnarTaskStore(tasks, true), MAX_COLUMNAR_TASKS);
+    }
+
+    /**
+     * Registers a listener for the changes made from now on. It is not told about the tasks
+     * already in the list.
+     *
+     * @param listener The listener to call with each batch of changes.
+     */
+    public void addListener(TaskListListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Opens a batch. Changes made until the matching {@link #endBatch()} are published together.
+     * Batches may be nested; only the outermost one publishes.
+     */
+    public void beginBatch() {
+        batchDepth++;
+    }
+
+    /**
+     * Closes a batch, publishing its changes if it is the outermost one and no transaction is open.
+     */
+    public void endBatch() {
+        assert batchDepth > 0 : "No batch is open";
+
+        batchDepth--;
+        publishChanges();
     }
 
     /**
      * Adds a new task to the task list, if the list is not at maximum capacity.
      *
      * @param task The Task object to add to the list.
-     * @throws DarwinException If the task list has reached its maximum capacity (100 tasks).
+     * @throws DarwinException If the task list has reached its maximum capacity (1,000,000 tasks,
+     *         or 5,000,000 for a columnar list).
      */
     public void addTask(Task task) throws DarwinException {
         assert task != null : "Task to add cannot be null";
         assert tasks != null : "Tasks list must be initialized";
 
-        if (tasks.size() >= MAX_TASKS) {
+        if (tasks.size() >= maxTasks) {
             throw new DarwinException(" Task list is full! Cannot add more tasks.");
         }
-        tasks.add(task);
+        insertAt(tasks.size(), task, newSortEntry(task));
+        logUndo(() -> removeAt(tasks.size() - 1));
+        publishChanges();
 
-        assert tasks.contains(task) : "Task should be present after adding";
         assert tasks.size() > 0 : "Task list should not be empty after adding";
     }
 
@@ -66,7 +190,11 @@ public class TaskList {
         }
 
         int previousSize = tasks.size();
-        Task removedTask = tasks.remove(taskNumber - 1);
+        int index = taskNumber - 1;
+        SortEntry removedEntry = sortEntries.get(index);
+        Task removedTask = removeAt(index);
+        logUndo(() -> insertAt(index, removedTask, removedEntry));
+        publishChanges();
 
         assert removedTask != null : "Removed task should not be null";
         assert tasks.size() == previousSize - 1 :
@@ -75,6 +203,185 @@ public class TaskList {
         return removedTask;
     }
 
+    /**
+     * Replaces a run of tasks with others, e.g. to take in changes that another Darwin made to
+     * the file. Tasks before and after the run keep their places. This is not a user's change, so
+     * it cannot happen while a transaction is open.
+     *
+     * @param firstIndex The position (starting from 0) of the first task to replace.
+     * @param removedCount The number of tasks to remove from that position.
+     * @param newTasks The tasks to put in their place, in order.
+     */
+    public void replaceTasks(int firstIndex, int removedCount, ArrayList<Task> newTasks) {
+        assert !isInTransaction() : "Tasks cannot be replaced while a transaction is open";
+        assert firstIndex >= 0 && firstIndex + removedCount <= tasks.size() : "Run is outside the list";
+
+        for (int i = 0; i < removedCount; i++) {
+            removeAt(firstIndex);
+        }
+        // New entries before the end break the order of sequence numbers the views rely on
+        boolean isBeforeEnd = firstIndex < tasks.size() && !newTasks.isEmpty();
+        if (isBeforeEnd) {
+            clearSortedViews();
+        }
+        for (int i = 0; i < newTasks.size(); i++) {
+            insertAt(firstIndex + i, newTasks.get(i), newSortEntry(newTasks.get(i)));
+        }
+        if (isBeforeEnd) {
+            rebuildSortedViews();
+        }
+        publishChanges();
+    }
+
+    // Change helpers - START
+    private void insertAt(int index, Task task, SortEntry sortEntry) {
+        if (index == tasks.size()) {
+            tasks.add(task);
+        } else {
+            tasks.insert(index, task);
+        }
+        fuzzyIndex.add(task.getDescription(), sortEntry);
+        wordTrie.add(task.getDescription());
+        countTask(task, 1);
+        insertSortEntry(index, sortEntry);
+        if (isRecordingChanges()) {
+            pendingChanges.add(new TaskChange(TaskChange.Kind.ADDED, index, task, sortEntry));
+        }
+    }
+
+    private Task removeAt(int index) {
+        SortEntry removedEntry = sortEntries.get(index);
+        for (OrderStatisticTree<SortEntry> view : sortedViews.values()) {
+            view.remove(removedEntry); // compared through its row, so before the row is gone
+        }
+        Task removedTask = tasks.remove(index);
+        sortEntries.remove(index);
+        fuzzyIndex.remove(removedTask.getDescription(), removedEntry);
+        wordTrie.remove(removedTask.getDescription());
+        countTask(removedTask, -1);
+        if (isRecordingChanges()) {
+            pendingChanges.add(new TaskChange(TaskChange.Kind.REMOVED, index, removedTask, removedEntry));
+        }
+        return removedTask;
+    }
+
+    private void setDoneAt(int index, boolean isDone) {
+        boolean previousStatus = tasks.isDone(index);
+        tasks.setDone(index, isDone);
+        doneCount += (isDone ? 1 : 0) - (previousStatus ? 1 : 0);
+        updateSortEntryStatus(sortEntries.get(index), isDone);
+        if (isRecordingChanges() && isDone != previousStatus) {
+            pendingChanges.add(new TaskChange(TaskChange.Kind.STATUS_CHANGED, index, tasks.get(index),
+                    sortEntries.get(index)));
+        }
+    }
+
+    private void logUndo(Runnable undoAction) {
+        if (!savepoints.isEmpty()) {
+            undoLog.push(undoAction);
+        }
+    }
+
+    private boolean isRecordingChanges() {
+        return !listeners.isEmpty() && !isUndoing;
+    }
+
+    private void publishChanges() {
+        if (batchDepth > 0 || isInTransaction() || pendingChanges.isEmpty()) {
+            return;
+        }
+        List<TaskChange> batch = Collections.unmodifiableList(pendingChanges);
+        pendingChanges = new ArrayList<>();
+        for (TaskListListener listener : listeners) {
+            listener.onTasksChanged(batch);
+        }
+    }
+    // Change helpers - END
+
+    /**
+     * Opens a transaction. Changes made from now on can be undone together by
+     * {@link #rollbackTransaction()}, or kept by {@link #commitTransaction()}.
+     */
+    public void beginTransaction() {
+        savepoints.push(undoLog.size());
+        changeSavepoints.push(pendingChanges.size());
+    }
+
+    /**
+     * Closes the innermost transaction, keeping its changes. They can still be undone by
+     * rolling back an enclosing transaction.
+     */
+    public void commitTransaction() {
+        assert !savepoints.isEmpty() : "No transaction is open";
+
+        savepoints.pop();
+        changeSavepoints.pop();
+        if (savepoints.isEmpty()) {
+            undoLog.clear();
+        }
+        publishChanges();
+    }
+
+    /**
+     * Closes the innermost transaction, undoing its changes in reverse order. Its changes are
+     * dropped from the pending batch rather than published with their undoing.
+     */
+    public void rollbackTransaction() {
+        assert !savepoints.isEmpty() : "No transaction is open";
+
+        int savepoint = savepoints.pop();
+        isUndoing = true;
+        try {
+            while (undoLog.size() > savepoint) {
+                undoLog.pop().run();
+            }
+        } finally {
+            isUndoing = false;
+        }
+        int changeSavepoint = changeSavepoints.pop();
+        pendingChanges.subList(changeSavepoint, pendingChanges.size()).clear();
+        publishChanges();
+    }
+
+    /**
+     * Returns whether a transaction is open.
+     *
+     * @return true if changes are currently being recorded for rollback.
+     */
+    public boolean isInTransaction() {
+        return !savepoints.isEmpty();
+    }
+
+    /**
+     * Returns the number of changes made in the innermost transaction.
+     *
+     * @return The number of changes a rollback would undo.
+     */
+    public int getTransactionChangeCount() {
+        return savepoints.isEmpty() ? 0 : undoLog.size() - savepoints.peek();
+    }
+
+    /**
+     * Returns the words of task descriptions that start with a prefix, the most common first.
+     * Unlike the other methods, this may be called from any thread while the list changes.
+     *
+     * @param prefix The start of the word (case-insensitive).
+     * @param limit The largest number of words to return.
+     * @return The matching words, in lower case.
+     */
+    public ArrayList<String> completeWord(String prefix, int limit) {
+        return wordTrie.complete(prefix.toLowerCase(), limit);
+    }
+
+    /**
+     * Returns the tasks as they are now, as text that other threads may read.
+     *
+     * @return A snapshot of the tasks.
+     */
+    public TaskSnapshot snapshot() {
+        return new TaskSnapshot(tasks.toList());
+    }
+
     /**
      * Finds all tasks whose description contains the given keyword (case-insensitive).
      *
@@ -84,23 +391,258 @@ public class TaskList {
     public ArrayList<Task> findTasks(String keyword) {
         assert keyword != null : "Search keyword cannot be null";
 
+        return tasks.findByDescription(keyword.toLowerCase());
+    }
+
+    private void countTask(Task task, int change) {
+        typeCounts[task.getType()] += change;
+        if (task.isDone()) {
+            doneCount += change;
+        }
+    }
+
+    /**
+     * Returns the tasks that pass both filters, in list order. The row filter is checked first,
+     * against the type and status columns, so tasks it rejects are never built as Task objects
+     * by a columnar store.
+     *
+     * @param rowFilter The filter on type and status.
+     * @param taskFilter The filter on the whole task.
+     * @return An ArrayList of the matching tasks.
+     */
+    public ArrayList<Task> selectTasks(RowFilter rowFilter, Predicate<Task> taskFilter) {
         ArrayList<Task> matchingTasks = new ArrayList<>();
-        String searchTerm = keyword.toLowerCase();
+        for (int i = 0; i < tasks.size(); i++) {
+            if (!rowFilter.test(Task.toTypeCode(tasks.getType(i)), tasks.isDone(i))) {
+                continue;
+            }
+            Task task = tasks.get(i);
+            if (taskFilter.test(task)) {
+                matchingTasks.add(task);
+            }
+        }
+        return matchingTasks;
+    }
+
+    /**
+     * Returns the tasks whose description contains a whole word and that pass both filters, in
+     * list order. Only the tasks the word index lists for the word are visited.
+     *
+     * @param word The word the descriptions must contain (in lower case).
+     * @param rowFilter The filter on type and status.
+     * @param taskFilter The filter on the whole task.
+     * @return An ArrayList of the matching tasks.
+     */
+    public ArrayList<Task> selectTasksWithWord(String word, RowFilter rowFilter, Predicate<Task> taskFilter) {
+        return selectEntries(fuzzyIndex.getTasksWithWord(word), rowFilter, taskFilter);
+    }
+
+    /**
+     * Returns the tasks due between two days, inclusive, that pass both filters, in list order. A
+     * task is due by its deadline, the start of an event or the first occurrence of a recurring
+     * task, as in the due view. Only the tasks the due view holds in the range are visited.
+     *
+     * @param fromEpochDay The first day of the range, or Long.MIN_VALUE for no lower bound.
+     * @param toEpochDay The last day of the range, or Long.MAX_VALUE for no upper bound.
+     * @param rowFilter The filter on type and status.
+     * @param taskFilter The filter on the whole task.
+     * @return An ArrayList of the matching tasks.
+     */
+    public ArrayList<Task> selectTasksDueBetween(long fromEpochDay, long toEpochDay, RowFilter rowFilter,
+            Predicate<Task> taskFilter) {
+        int firstRank = countDueBefore(fromEpochDay);
+        int count = Math.max(countDueBefore(dayAfter(toEpochDay)) - firstRank, 0);
+        return selectEntries(sortedViews.get(SortOrder.DUE).getRange(firstRank, count), rowFilter, taskFilter);
+    }
+
+    /**
+     * Returns the number of tasks due between two days, inclusive, counted in the due view
+     * without visiting them. Tasks are due as for {@link #selectTasksDueBetween}.
+     *
+     * @param fromEpochDay The first day of the range, or Long.MIN_VALUE for no lower bound.
+     * @param toEpochDay The last day of the range, or Long.MAX_VALUE for no upper bound.
+     * @return The number of tasks due in the range.
+     */
+    public int countTasksDueBetween(long fromEpochDay, long toEpochDay) {
+        return Math.max(countDueBefore(dayAfter(toEpochDay)) - countDueBefore(fromEpochDay), 0);
+    }
 
-        for (Task task : tasks) {
-            boolean isMatch = taskContainsKeyword(task, searchTerm);
-            if (isMatch) {
+    private ArrayList<Task> selectEntries(Collection<SortEntry> entries, RowFilter rowFilter,
+            Predicate<Task> taskFilter) {
+        ArrayList<Integer> indexes = new ArrayList<>();
+        for (SortEntry entry : entries) {
+            indexes.add(indexOf(entry));
+        }
+        Collections.sort(indexes);
+
+        ArrayList<Task> matchingTasks = new ArrayList<>();
+        for (int i : indexes) {
+            if (!rowFilter.test(Task.toTypeCode(tasks.getType(i)), tasks.isDone(i))) {
+                continue;
+            }
+            Task task = tasks.get(i);
+            if (taskFilter.test(task)) {
                 matchingTasks.add(task);
             }
         }
+        return matchingTasks;
+    }
+
+    /**
+     * Returns the number of tasks of the given type.
+     *
+     * @param typeCode The type letter ('T', 'D', 'E' or 'R').
+     * @return The number of tasks of that type.
+     */
+    public int countTasksOfType(char typeCode) {
+        int total = 0;
+        for (int type = 0; type < typeCounts.length; type++) {
+            if (Task.toTypeCode(type) == typeCode) {
+                total += typeCounts[type];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Returns the number of tasks marked as done.
+     *
+     * @return The number of done tasks.
+     */
+    public int countDoneTasks() {
+        return doneCount;
+    }
+
+    /**
+     * Returns the number of tasks whose description contains the given whole word (case-insensitive).
+     *
+     * @param word The word to count.
+     * @return The number of tasks containing the word.
+     */
+    public int countTasksWithWord(String word) {
+        return fuzzyIndex.countTasksWithWord(word.toLowerCase());
+    }
+
+    /**
+     * Checks whether the task's description contains the given whole word (case-insensitive).
+     *
+     * @param task The task to check.
+     * @param word The word to look for.
+     * @return true if the description contains the word.
+     */
+    public static boolean containsWord(Task task, String word) {
+        return FuzzyIndex.tokenize(task.getDescription()).contains(word.toLowerCase());
+    }
+
+    /**
+     * Finds the tasks whose descriptions contain words close to every word of the keyword, allowing
+     * for typos (e.g. "reprot" finds "report"). Results are ranked by total edit distance, then by
+     * list position. Only the tasks holding a close word are visited, through the index's postings.
+     *
+     * @param keyword The search terms, possibly misspelt.
+     * @return An ArrayList of matching tasks, closest matches first.
+     */
+    public ArrayList<Task> findTasksFuzzy(String keyword) {
+        assert keyword != null : "Search keyword cannot be null";
 
+        Set<String> queryWords = FuzzyIndex.tokenize(keyword);
+        if (queryWords.isEmpty()) {
+            return new ArrayList<>();
+        }
+        ArrayList<HashMap<SortEntry, Integer>> distancesPerWord = new ArrayList<>();
+        for (String queryWord : queryWords) {
+            distancesPerWord.add(closestDistances(queryWord));
+        }
+
+        // Only tasks close to the rarest query word can be close to all of them
+        HashMap<SortEntry, Integer> rarest = Collections.min(distancesPerWord, Comparator.comparingInt(HashMap::size));
+        ArrayList<SortEntry> matchingEntries = new ArrayList<>();
+        HashMap<SortEntry, Integer> totalDistances = new HashMap<>();
+        for (SortEntry entry : rarest.keySet()) {
+            int total = totalDistance(entry, distancesPerWord);
+            if (total >= 0) {
+                matchingEntries.add(entry);
+                totalDistances.put(entry, total);
+            }
+        }
+
+        matchingEntries.sort(Comparator.<SortEntry>comparingInt(totalDistances::get)
+                .thenComparingLong(entry -> entry.sequenceNumber)); // sequence numbers follow list order
+        ArrayList<Task> matchingTasks = new ArrayList<>();
+        for (SortEntry entry : matchingEntries) {
+            matchingTasks.add(tasks.get(indexOf(entry)));
+        }
         return matchingTasks;
     }
 
-    private boolean taskContainsKeyword(Task task, String searchTerm) {
-        String taskDescription = task.getDescription().toLowerCase();
-        boolean partialTaskDescription = taskDescription.contains(searchTerm); // works for partial string matching
-        return partialTaskDescription;
+    /**
+     * Returns, for every task holding a word close to the query word, the distance of its closest word.
+     */
+    private HashMap<SortEntry, Integer> closestDistances(String queryWord) {
+        HashMap<SortEntry, Integer> distances = new HashMap<>();
+        HashMap<String, Integer> closeWords = fuzzyIndex.search(queryWord, FuzzyIndex.maxDistanceFor(queryWord));
+        for (Map.Entry<String, Integer> closeWord : closeWords.entrySet()) {
+            for (SortEntry entry : fuzzyIndex.getTasksWithWord(closeWord.getKey())) {
+                distances.merge(entry, closeWord.getValue(), Math::min);
+            }
+        }
+        return distances;
+    }
+
+    /**
+     * Returns the sum over query words of the task's closest word, or -1 if some query word has no
+     * close word in the task's description.
+     */
+    private static int totalDistance(SortEntry entry, ArrayList<HashMap<SortEntry, Integer>> distancesPerWord) {
+        int total = 0;
+        for (HashMap<SortEntry, Integer> distances : distancesPerWord) {
+            Integer distance = distances.get(entry);
+            if (distance == null) {
+                return -1;
+            }
+            total += distance;
+        }
+        return total;
+    }
+
+    /**
+     * Returns every occurrence of a dated task between two dates (both inclusive), ordered by date.
+     * Deadlines occur on their due date, events on the first day of the window they overlap,
+     * and recurring tasks on each repetition, which are generated only for the window.
+     *
+     * @param from The first date of the window.
+     * @param to The last date of the window.
+     * @return The occurrences in the window, ordered by date and then by list position.
+     */
+    public ArrayList<Occurrence> getOccurrencesBetween(LocalDate from, LocalDate to) {
+        assert !from.isAfter(to) : "Window start should not be after its end";
+
+        ArrayList<Occurrence> occurrences = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            addOccurrences(tasks.get(i), from, to, occurrences);
+        }
+        occurrences.sort(Comparator.comparing(Occurrence::getDate)); // stable, so list order breaks ties
+        return occurrences;
+    }
+
+    private void addOccurrences(Task task, LocalDate from, LocalDate to, ArrayList<Occurrence> occurrences) {
+        if (task instanceof Deadline) {
+            LocalDate date = ((Deadline) task).getDate();
+            if (!date.isBefore(from) && !date.isAfter(to)) {
+                occurrences.add(new Occurrence(date, task));
+            }
+        } else if (task instanceof Event) {
+            Event event = (Event) task;
+            if (!event.getFromDate().isAfter(to) && !event.getToDate().isBefore(from)) {
+                LocalDate date = event.getFromDate().isBefore(from) ? from : event.getFromDate();
+                occurrences.add(new Occurrence(date, task));
+            }
+        } else if (task instanceof Recurring) {
+            Iterator<LocalDate> dates = ((Recurring) task).occurrencesBetween(from, to);
+            while (dates.hasNext()) {
+                occurrences.add(new Occurrence(dates.next(), task));
+            }
+        }
     }
 
     /**
@@ -118,30 +660,197 @@ public class TaskList {
             throw new DarwinException("Invalid task number.");
         }
 
-        Task task = tasks.get(taskNumber - 1);
-        assert task != null : "Task at position " + taskNumber + " should not be null";
+        int index = taskNumber - 1;
+        boolean previousStatus = tasks.isDone(index);
+        setDoneAt(index, isDone);
+        logUndo(() -> setDoneAt(index, previousStatus));
+        publishChanges();
 
-        boolean previousStatus = task.isDone();
-        if (isDone) {
-            task.markAsDone();
-            assert task.isDone() : "Task should be marked as done after calling markAsDone()";
-        } else {
-            task.markAsNotDone();
-            assert !task.isDone() : "Task should be marked as not done after calling markAsNotDone()";
+        assert tasks.isDone(index) == isDone : "Task status should match the requested status after marking";
+        assert tasks.isDone(index) != previousStatus || isDone == previousStatus :
+          "Task status should change when marking differently";
+    }
+
+    /**
+     * Returns the numbers of the tasks at the given positions of a sorted view, e.g. positions
+     * 0 to 9 for the first page. Ties keep list order. Only the requested page is visited.
+     *
+     * @param order The order of the view.
+     * @param offset The position in the view of the first task to return.
+     * @param count The largest number of tasks to return.
+     * @return The task numbers (starting from 1), in sorted order.
+     */
+    public ArrayList<Integer> getSortedTaskNumbers(SortOrder order, int offset, int count) {
+        ArrayList<Integer> taskNumbers = new ArrayList<>();
+        for (SortEntry entry : sortedViews.get(order).getRange(offset, count)) {
+            taskNumbers.add(indexOf(entry) + 1);
         }
+        return taskNumbers;
+    }
 
-        assert task.isDone() != previousStatus || isDone == previousStatus :
-          "Task status should change when marking differently";
+    // Sorted view helpers - START
+    /**
+     * The entry of one task, in the sorted views and in the word index, and the task's key for
+     * listeners (see {@link #getTaskKey(int)}). An entry stays the same object while its task is
+     * in the list, even when it is given a new sequence number. It keeps no copy of the
+     * description: the name view compares descriptions in the store, through the rows of the
+     * entries.
+     */
+    private static final class SortEntry {
+        private long sequenceNumber;
+        private final int dueEpochDay;
+        private boolean isDone;
+        private int lastIndex; // where indexOf last found it; may be stale
+
+        private SortEntry(long sequenceNumber, int dueEpochDay, boolean isDone) {
+            this.sequenceNumber = sequenceNumber;
+            this.dueEpochDay = dueEpochDay;
+            this.isDone = isDone;
+        }
+    }
+
+    private Comparator<SortEntry> comparatorFor(SortOrder order) {
+        Comparator<SortEntry> byKey;
+        switch (order) {
+            case DUE:
+                byKey = Comparator.comparingInt(entry -> entry.dueEpochDay);
+                break;
+            case NAME:
+                byKey = (first, second) -> tasks.compareDescriptions(indexOf(first), indexOf(second));
+                break;
+            default:
+                byKey = Comparator.comparing(entry -> entry.isDone);
+                break;
+        }
+        return byKey.thenComparingLong(entry -> entry.sequenceNumber);
     }
 
     /**
-     * Returns the internal ArrayList of tasks. Note: This returns the actual list,
-     * not a copy, so modifications will affect the original.
+     * Returns the date a task sorts by: the deadline, the start of an event, or the first
+     * occurrence of a recurring task. Tasks without a date sort last.
+     */
+    private static int dueEpochDayOf(Task task) {
+        switch (task.getType()) {
+            case Task.TYPE_DEADLINE:
+                return ((Deadline) task).getByEpochDay();
+            case Task.TYPE_EVENT:
+                return ((Event) task).getFromEpochDay();
+            case Task.TYPE_RECURRING:
+                return ((Recurring) task).getStartEpochDay();
+            default:
+                return Integer.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Returns the number of dated tasks due before the given day, i.e. the rank in the due view of
+     * the first task due on it. Tasks without a date sort after every day.
+     */
+    private int countDueBefore(long epochDay) {
+        int day = (int) Math.max(Math.min(epochDay, Integer.MAX_VALUE), Integer.MIN_VALUE);
+        // Sorts before every entry due on the day, as sequence numbers are never negative
+        SortEntry probe = new SortEntry(Long.MIN_VALUE, day, false);
+        return sortedViews.get(SortOrder.DUE).countBefore(probe);
+    }
+
+    private static long dayAfter(long epochDay) {
+        return epochDay == Long.MAX_VALUE ? epochDay : epochDay + 1;
+    }
+
+    private SortEntry newSortEntry(Task task) {
+        return new SortEntry(nextSequenceNumber++, dueEpochDayOf(task), task.isDone());
+    }
+
+    /**
+     * Adds an entry at a position of the list. Sequence numbers must keep increasing along the
+     * list, so only a new entry at the end or a removed entry going back to its place qualifies.
+     */
+    private void insertSortEntry(int index, SortEntry entry) {
+        entry.lastIndex = index;
+        sortEntries.add(index, entry);
+        if (areSortedViewsCleared) {
+            return; // added when the views are rebuilt
+        }
+        for (OrderStatisticTree<SortEntry> view : sortedViews.values()) {
+            view.add(entry);
+        }
+    }
+
+    /**
+     * Returns the position of an entry in the list. The name view looks up both entries of every
+     * comparison, so the position an entry was last found at is tried first; it only goes stale
+     * when tasks before it are added or deleted. Otherwise the entry is found by its sequence
+     * number, which increases along sortEntries.
+     */
+    private int indexOf(SortEntry entry) {
+        int index = entry.lastIndex;
+        if (index < sortEntries.size() && sortEntries.get(index) == entry) {
+            return index;
+        }
+        int low = 0;
+        int high = sortEntries.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long sequenceNumber = sortEntries.get(middle).sequenceNumber;
+            if (sequenceNumber < entry.sequenceNumber) {
+                low = middle + 1;
+            } else if (sequenceNumber > entry.sequenceNumber) {
+                high = middle - 1;
+            } else {
+                entry.lastIndex = middle;
+                return middle;
+            }
+        }
+        assert false : "Entry is no longer in the list";
+        return -1;
+    }
+
+    /**
+     * Empties the sorted views until {@link #rebuildSortedViews()}, so entries can be put anywhere
+     * in the list without the views comparing entries whose rows cannot be found.
+     */
+    private void clearSortedViews() {
+        for (SortOrder order : SortOrder.values()) {
+            sortedViews.put(order, new OrderStatisticTree<>(comparatorFor(order)));
+        }
+        areSortedViewsCleared = true;
+    }
+
+    /**
+     * Gives every entry a new sequence number in list order, after entries were inserted before
+     * the end of the list, and fills the cleared views again. Entries are renumbered in place, so
+     * the word index keeps pointing at them.
+     */
+    private void rebuildSortedViews() {
+        for (int i = 0; i < sortEntries.size(); i++) {
+            sortEntries.get(i).sequenceNumber = nextSequenceNumber++;
+            sortEntries.get(i).lastIndex = i;
+        }
+        areSortedViewsCleared = false;
+        for (SortEntry entry : sortEntries) {
+            for (OrderStatisticTree<SortEntry> view : sortedViews.values()) {
+                view.add(entry);
+            }
+        }
+    }
+
+    private void updateSortEntryStatus(SortEntry entry, boolean isDone) {
+        // Only the status view compares on the status, so only it has to be re-sorted
+        OrderStatisticTree<SortEntry> statusView = sortedViews.get(SortOrder.STATUS);
+        statusView.remove(entry);
+        entry.isDone = isDone;
+        statusView.add(entry);
+    }
+    // Sorted view helpers - END
+
+    /**
+     * Returns the tasks as an ArrayList. The list is a copy, so later changes to the TaskList do not
+     * show in it; for the default store the tasks in it are still the list's own objects.
      *
      * @return The ArrayList containing all tasks.
      */
     public ArrayList<Task> getTasks() {
-        return tasks;
+        return tasks.toList();
     }
 
     /**
@@ -153,6 +862,21 @@ public class TaskList {
         return tasks.size();
     }
 
+    /**
+     * Returns an object that identifies the task at a position for as long as it stays in the
+     * list, whatever moves around it. The changes published about the task carry the same key
+     * (see {@link TaskChange#getTaskKey()}), so listeners can keep their own state per task
+     * without following positions.
+     *
+     * @param taskNumber The position of the task (starting from 1).
+     * @return The key, to be compared by identity.
+     */
+    public Object getTaskKey(int taskNumber) {
+        assert isValidTaskNumber(taskNumber) : "Invalid task number: " + taskNumber;
+
+        return sortEntries.get(taskNumber - 1);
+    }
+
     /**
      * Retrieves a task at the specified position without removing it (1-based indexing).
      *
@@ -167,6 +891,14 @@ public class TaskList {
         return tasks.get(taskNumber - 1);
     }
 
+    /**
+     * Drops the memory held by the list outside the Java heap, if any, so that the garbage
+     * collector can return it. The list must not be used afterwards.
+     */
+    public void close() {
+        tasks.close();
+    }
+
     /**
      * Checks if the specified task number is valid for the current list.
      * A valid task number is between 1 and the current list size (inclusive).
@@ -0,0 +1,18 @@
+package darwin.task;
+
+import java.util.List;
+
+/**
+ * Receives the changes made to a {@link TaskList}, a batch at a time: every change made by one
+ * command, or by one transaction once it is committed. A rolled back transaction publishes nothing.
+ */
+@FunctionalInterface
+public interface TaskListListener {
+
+    /**
+     * Called on the thread that changed the list, after the batch is complete.
+     *
+     * @param changes The changes, in the order they were made; never empty.
+     */
+    void onTasksChanged(List<TaskChange> changes);
+}
@@ -0,0 +1,185 @@
+package darwin.task;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Represents the tasks of a TaskList at one moment, as text that cannot change. A
+ * <code>TaskSnapshot</code> can be read on any thread while the list itself changes on the thread
+ * that runs commands, e.g. to suggest completions or to filter tasks as the user types.
+ *
+ * The text is kept in chunks of at most {@link #CHUNK_CAPACITY} tasks. {@link #apply} copies only
+ * the chunks a batch of changes touches and shares the others with the snapshot it started from,
+ * so keeping a snapshot up to date costs about the size of the changes rather than of the list.
+ */
+public final class TaskSnapshot {
+
+    static final int CHUNK_CAPACITY = 256;
+
+    private static final class Chunk {
+        private final ArrayList<String> descriptions;
+        private final ArrayList<String> displayStrings;
+
+        private Chunk(ArrayList<String> descriptions, ArrayList<String> displayStrings) {
+            this.descriptions = descriptions;
+            this.displayStrings = displayStrings;
+        }
+
+        private Chunk copy() {
+            return new Chunk(new ArrayList<>(descriptions), new ArrayList<>(displayStrings));
+        }
+
+        private Chunk subChunk(int from, int to) {
+            return new Chunk(new ArrayList<>(descriptions.subList(from, to)),
+                    new ArrayList<>(displayStrings.subList(from, to)));
+        }
+
+        private int size() {
+            return descriptions.size();
+        }
+    }
+
+    // Never changed once the snapshot is built; chunks are shared between snapshots
+    private final Chunk[] chunks;
+    private final int[] chunkStarts; // position of the first task of each chunk
+    private final int size;
+
+    TaskSnapshot(ArrayList<Task> tasks) {
+        ArrayList<Chunk> chunks = new ArrayList<>();
+        for (int from = 0; from < tasks.size(); from += CHUNK_CAPACITY) {
+            Chunk chunk = new Chunk(new ArrayList<>(), new ArrayList<>());
+            for (Task task : tasks.subList(from, Math.min(from + CHUNK_CAPACITY, tasks.size()))) {
+                chunk.descriptions.add(task.getDescription());
+                chunk.displayStrings.add(task.getDisplayString());
+            }
+            chunks.add(chunk);
+        }
+        this.chunks = chunks.toArray(new Chunk[0]);
+        this.chunkStarts = findChunkStarts(this.chunks);
+        this.size = tasks.size();
+    }
+
+    private TaskSnapshot(Chunk[] chunks) {
+        this.chunks = chunks;
+        this.chunkStarts = findChunkStarts(chunks);
+        this.size = chunks.length == 0 ? 0 : chunkStarts[chunks.length - 1] + chunks[chunks.length - 1].size();
+    }
+
+    private static int[] findChunkStarts(Chunk[] chunks) {
+        int[] starts = new int[chunks.length];
+        for (int i = 1; i < chunks.length; i++) {
+            starts[i] = starts[i - 1] + chunks[i - 1].size();
+        }
+        return starts;
+    }
+
+    /**
+     * Returns the snapshot with a batch of changes applied, as reported to a {@link TaskListListener}.
+     * This snapshot is left as it is.
+     *
+     * @param changes The changes made to the list since this snapshot was taken, in order.
+     * @return The snapshot of the list after the changes.
+     */
+    public TaskSnapshot apply(List<TaskChange> changes) {
+        if (changes.isEmpty()) {
+            return this;
+        }
+        ArrayList<Chunk> working = new ArrayList<>(Arrays.asList(chunks));
+        HashSet<Chunk> copiedChunks = new HashSet<>(); // only these may be changed
+        for (TaskChange change : changes) {
+            int chunkIndex = 0;
+            int offset = change.getIndex();
+            while (chunkIndex < working.size() && offset >= working.get(chunkIndex).size()
+                    && !(change.getKind() == TaskChange.Kind.ADDED && chunkIndex == working.size() - 1)) {
+                offset -= working.get(chunkIndex).size();
+                chunkIndex++;
+            }
+            if (chunkIndex == working.size()) {
+                assert change.getKind() == TaskChange.Kind.ADDED && offset == 0 : "Change outside the list: " + change;
+                working.add(new Chunk(new ArrayList<>(), new ArrayList<>()));
+            }
+
+            Chunk chunk = working.get(chunkIndex);
+            if (!copiedChunks.contains(chunk)) {
+                chunk = chunk.copy();
+                copiedChunks.add(chunk);
+                working.set(chunkIndex, chunk);
+            }
+            Task task = change.getTask();
+            switch (change.getKind()) {
+                case ADDED:
+                    chunk.descriptions.add(offset, task.getDescription());
+                    chunk.displayStrings.add(offset, task.getDisplayString());
+                    break;
+                case REMOVED:
+                    chunk.descriptions.remove(offset);
+                    chunk.displayStrings.remove(offset);
+                    break;
+                default:
+                    chunk.displayStrings.set(offset, task.getDisplayString());
+                    break;
+            }
+        }
+
+        ArrayList<Chunk> balanced = new ArrayList<>(working.size());
+        for (Chunk chunk : working) {
+            if (chunk.size() <= CHUNK_CAPACITY) {
+                if (chunk.size() > 0) {
+                    balanced.add(chunk);
+                }
+                continue;
+            }
+            for (int from = 0; from < chunk.size(); from += CHUNK_CAPACITY) {
+                balanced.add(chunk.subChunk(from, Math.min(from + CHUNK_CAPACITY, chunk.size())));
+            }
+        }
+        return new TaskSnapshot(balanced.toArray(new Chunk[0]));
+    }
+
+    private int findChunk(int position) {
+        int index = Arrays.binarySearch(chunkStarts, position);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    private List<String> view(boolean isDescription) {
+        return new AbstractList<>() {
+            @Override
+            public String get(int position) {
+                if (position < 0 || position >= size) {
+                    throw new IndexOutOfBoundsException("Index " + position + " out of bounds for length " + size);
+                }
+                int chunkIndex = findChunk(position);
+                Chunk chunk = chunks[chunkIndex];
+                int offset = position - chunkStarts[chunkIndex];
+                return isDescription ? chunk.descriptions.get(offset) : chunk.displayStrings.get(offset);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Returns the descriptions of the tasks, in list order. The list cannot be changed.
+     */
+    public List<String> getDescriptions() {
+        return view(true);
+    }
+
+    /**
+     * Returns the tasks as the list shows them (e.g. <code>[T][X] read book</code>), in list order.
+     * The list cannot be changed.
+     */
+    public List<String> getDisplayStrings() {
+        return view(false);
+    }
+
+    public int size() {
+        return size;
+    }
+}
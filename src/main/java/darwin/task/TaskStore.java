@@ -0,0 +1,59 @@
+package darwin.task;
+
+import java.util.ArrayList;
+
+/**
+ * Holds the tasks of a {@link TaskList}. Positions are 0-based; bounds are checked by TaskList.
+ * A <code>TaskStore</code> may keep Task objects or decompose them into another layout,
+ * as long as the tasks it returns render and save the same way as the ones it was given.
+ */
+interface TaskStore {
+
+    void add(Task task);
+
+    /**
+     * Inserts a task at the given position, shifting the later tasks up by one.
+     */
+    void insert(int index, Task task);
+
+    Task remove(int index);
+
+    Task get(int index);
+
+    String getDescription(int index);
+
+    /**
+     * Compares the descriptions of two tasks as {@link String#CASE_INSENSITIVE_ORDER} does.
+     */
+    default int compareDescriptions(int firstIndex, int secondIndex) {
+        return String.CASE_INSENSITIVE_ORDER.compare(getDescription(firstIndex), getDescription(secondIndex));
+    }
+
+    void setDone(int index, boolean isDone);
+
+    boolean isDone(int index);
+
+    /**
+     * Returns the type code of the task, one of the <code>Task.TYPE_</code> constants.
+     */
+    int getType(int index);
+
+    int size();
+
+    /**
+     * Returns the tasks whose description contains the given lower-case term, in list order.
+     */
+    ArrayList<Task> findByDescription(String lowerCaseTerm);
+
+    /**
+     * Returns the tasks in list order, as a new list that later changes to the store do not affect.
+     */
+    ArrayList<Task> toList();
+
+    /**
+     * Drops any resources held outside the Java heap, for the garbage collector to return. The store
+     * must not be used afterwards.
+     */
+    default void close() {
+    }
+}
@@ -12,7 +12,12 @@ public class ToDo extends Task {
      * @param description The text description of the todo task.
      */
     public ToDo(String description) {
-        super(description);
+        super(description, TYPE_TODO);
+    }
+
+    @Override
+    Task createCopy() {
+        return new ToDo(getDescription());
     }
 
     /**
@@ -0,0 +1,140 @@
+package darwin.task;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Indexes the words of task descriptions by prefix, for completing a word as it is typed. A
+ * <code>WordTrie</code> counts each word once per task that contains it and drops the path of a
+ * word whose count falls to zero.
+ *
+ * Every node also keeps the largest count of any word at or below it, so completing a short
+ * prefix visits the branches that can hold the best words first and stops once it has enough,
+ * instead of collecting and sorting every word under the prefix.
+ *
+ * The list changes on the thread that runs commands while completions are looked up on another,
+ * so every method holds the trie's lock; each call is short. A lookup whose thread is interrupted
+ * stops early.
+ */
+class WordTrie {
+
+    private static final class Node {
+        private final TreeMap<Character, Node> children = new TreeMap<>();
+        private int taskCount; // tasks containing the word that ends here
+        private int maxTaskCount; // largest taskCount at or below this node
+
+        private void updateMaxTaskCount() {
+            maxTaskCount = taskCount;
+            for (Node child : children.values()) {
+                maxTaskCount = Math.max(maxTaskCount, child.maxTaskCount);
+            }
+        }
+    }
+
+    /**
+     * A word, or a branch whose words all start with the key, waiting to be visited. A branch is
+     * ranked by the best count it can hold, so no word in it can come before the branch.
+     */
+    private static final class Candidate {
+        private final String key;
+        private final Node node;
+        private final boolean isWord;
+        private final int rank;
+
+        private Candidate(String key, Node node, boolean isWord) {
+            this.key = key;
+            this.node = node;
+            this.isWord = isWord;
+            this.rank = isWord ? node.taskCount : node.maxTaskCount;
+        }
+    }
+
+    // Most tasks first, then alphabetical; a word before the branch below it
+    private static final Comparator<Candidate> CANDIDATE_ORDER = Comparator
+            .comparingInt((Candidate candidate) -> -candidate.rank)
+            .thenComparing(candidate -> candidate.key)
+            .thenComparing(candidate -> !candidate.isWord);
+
+    private final Node root = new Node();
+
+    synchronized void add(String description) {
+        for (String word : FuzzyIndex.tokenize(description)) {
+            ArrayList<Node> path = new ArrayList<>();
+            Node node = root;
+            path.add(node);
+            for (int i = 0; i < word.length(); i++) {
+                node = node.children.computeIfAbsent(word.charAt(i), key -> new Node());
+                path.add(node);
+            }
+            node.taskCount++;
+            for (Node onPath : path) {
+                onPath.maxTaskCount = Math.max(onPath.maxTaskCount, node.taskCount);
+            }
+        }
+    }
+
+    synchronized void remove(String description) {
+        for (String word : FuzzyIndex.tokenize(description)) {
+            removeWord(root, word, 0);
+        }
+    }
+
+    /**
+     * Decrements the count of a word, and returns whether the node can be dropped because no word
+     * ends at or below it any more.
+     */
+    private boolean removeWord(Node node, String word, int depth) {
+        if (depth == word.length()) {
+            assert node.taskCount > 0 : "Word should have been added: " + word;
+            node.taskCount--;
+        } else {
+            Node child = node.children.get(word.charAt(depth));
+            assert child != null : "Word should have been added: " + word;
+            if (removeWord(child, word, depth + 1)) {
+                node.children.remove(word.charAt(depth));
+            }
+        }
+        node.updateMaxTaskCount();
+        return node.taskCount == 0 && node.children.isEmpty();
+    }
+
+    /**
+     * Returns the words starting with the prefix, those in the most tasks first and otherwise in
+     * alphabetical order. The prefix itself is included if it is a word. Only the branches that
+     * can hold one of the first <code>limit</code> words are visited.
+     *
+     * @param lowerPrefix The prefix, in lower case.
+     * @param limit The largest number of words to return.
+     * @return The words, or those found so far if the calling thread is interrupted.
+     */
+    synchronized ArrayList<String> complete(String lowerPrefix, int limit) {
+        Node node = root;
+        for (int i = 0; i < lowerPrefix.length() && node != null; i++) {
+            node = node.children.get(lowerPrefix.charAt(i));
+        }
+        ArrayList<String> words = new ArrayList<>();
+        if (node == null) {
+            return words;
+        }
+
+        PriorityQueue<Candidate> pending = new PriorityQueue<>(CANDIDATE_ORDER);
+        pending.add(new Candidate(lowerPrefix, node, false));
+        while (!pending.isEmpty() && words.size() < limit && !Thread.currentThread().isInterrupted()) {
+            Candidate candidate = pending.poll();
+            if (candidate.isWord) {
+                words.add(candidate.key);
+                continue;
+            }
+            if (candidate.node.taskCount > 0) {
+                pending.add(new Candidate(candidate.key, candidate.node, true));
+            }
+            for (Map.Entry<Character, Node> child : candidate.node.children.entrySet()) {
+                pending.add(new Candidate(candidate.key + child.getKey(), child.getValue(), false));
+            }
+        }
+        return words;
+    }
+}
@@ -0,0 +1,126 @@
+package darwin.transfer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+
+import darwin.DarwinException;
+import darwin.task.Deadline;
+import darwin.task.Event;
+import darwin.task.Recurring;
+import darwin.task.Task;
+
+/**
+ * Reads and writes tasks as comma-separated values, one task per line, under the header
+ * <code>type,done,description,date,end,repeat</code>. Fields containing commas or quotes are
+ * quoted, with quotes doubled.
+ */
+class CsvFormat extends TaskFormat {
+
+    private static final String HEADER = "type,done,description,date,end,repeat";
+    private static final int MIN_FIELD_COUNT = 3;
+
+    // ============ FIELD INDEXES ============
+    private static final int INDEX_TYPE = 0;
+    private static final int INDEX_DONE = 1;
+    private static final int INDEX_DESCRIPTION = 2;
+    private static final int INDEX_DATE = 3;
+    private static final int INDEX_END = 4;
+    private static final int INDEX_REPEAT = 5;
+
+    @Override
+    Task decode(LineSource lines) throws IOException, DarwinException {
+        String line;
+        do {
+            line = lines.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank() || (lines.getLineNumber() == 1 && line.equalsIgnoreCase(HEADER)));
+
+        ArrayList<String> fields = splitFields(line, lines.getLineNumber());
+        if (fields.size() < MIN_FIELD_COUNT) {
+            throw new DarwinException(" Line " + lines.getLineNumber() + " has too few fields.");
+        }
+        return createTask(fields.get(INDEX_TYPE), isDone(fields.get(INDEX_DONE)), fields.get(INDEX_DESCRIPTION),
+                getField(fields, INDEX_DATE), getField(fields, INDEX_END), getField(fields, INDEX_REPEAT));
+    }
+
+    @Override
+    void writeStart(StringBuilder out) {
+        out.append(HEADER).append('\n');
+    }
+
+    @Override
+    void encode(Task task, StringBuilder out) {
+        out.append(task.getTypeCode()).append(',').append(task.isDone() ? '1' : '0').append(',');
+        appendQuoted(task.getDescription(), out);
+        switch (task.getTypeCode()) {
+            case 'D':
+                out.append(',').append(((Deadline) task).getDate()).append(",,");
+                break;
+            case 'E':
+                Event event = (Event) task;
+                out.append(',').append(event.getFromDate()).append(',').append(event.getToDate()).append(',');
+                break;
+            case 'R':
+                Recurring recurring = (Recurring) task;
+                out.append(',').append(recurring.getStartDate()).append(",,").append(recurring.getRecurrence());
+                break;
+            default:
+                out.append(",,,");
+                break;
+        }
+        out.append('\n');
+    }
+
+    // CSV helpers - START
+    private static ArrayList<String> splitFields(String line, int lineNumber) throws DarwinException {
+        ArrayList<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean isQuoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (isQuoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    isQuoted = false;
+                }
+            } else if (c == '"') {
+                isQuoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+
+        if (isQuoted) {
+            throw new DarwinException(" Line " + lineNumber + " has an unterminated quote.");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String getField(ArrayList<String> fields, int index) {
+        return index < fields.size() ? fields.get(index) : null;
+    }
+
+    private static boolean isDone(String field) {
+        String value = field.trim().toLowerCase();
+        return value.equals("1") || value.equals("true") || value.equals("yes") || value.equals("x");
+    }
+
+    private static void appendQuoted(String text, StringBuilder out) {
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0) {
+            out.append(text);
+            return;
+        }
+        out.append('"').append(text.replace("\"", "\"\"")).append('"');
+    }
+    // CSV helpers - END
+}
@@ -0,0 +1,254 @@
+package darwin.transfer;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Locale;
+
+import darwin.DarwinException;
+import darwin.task.Deadline;
+import darwin.task.Event;
+import darwin.task.Recurring;
+import darwin.task.Task;
+
+/**
+ * Reads and writes tasks as an iCalendar (RFC 5545) file. Deadlines and recurring tasks become
+ * VTODO components with a due date, events become all-day VEVENTs, and todos become VTODOs without
+ * a date. On import, VTODOs with an RRULE become recurring tasks; times of day and other components
+ * are ignored.
+ */
+class ICalendarFormat extends TaskFormat {
+
+    private static final DateTimeFormatter BASIC_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+    private static final int MAX_LINE_LENGTH = 75;
+    private static final int BASIC_DATE_LENGTH = 8;
+
+    private final String timestamp = TIMESTAMP.format(ZonedDateTime.now(ZoneOffset.UTC));
+    private String pendingLine; // the line read past the end of a folded line
+    private int nextUid = 1;
+
+    @Override
+    Task decode(LineSource lines) throws IOException, DarwinException {
+        String line;
+        do {
+            line = readUnfoldedLine(lines);
+            if (line == null) {
+                return null;
+            }
+        } while (!line.equalsIgnoreCase("BEGIN:VTODO") && !line.equalsIgnoreCase("BEGIN:VEVENT"));
+
+        String component = line.substring("BEGIN:".length()).toUpperCase(Locale.ROOT);
+        HashMap<String, String> properties = readComponent(lines, component);
+        return toTask(component, properties);
+    }
+
+    @Override
+    void writeStart(StringBuilder out) {
+        out.append("BEGIN:VCALENDAR\r\nVERSION:2.0\r\nPRODID:-//Darwin//Task Export//EN\r\n");
+    }
+
+    @Override
+    void encode(Task task, StringBuilder out) {
+        String component = task.getTypeCode() == 'E' ? "VEVENT" : "VTODO";
+        out.append("BEGIN:").append(component).append("\r\n");
+        out.append("UID:darwin-").append(timestamp).append('-').append(nextUid++).append("@darwin\r\n");
+        out.append("DTSTAMP:").append(timestamp).append("\r\n");
+        appendFolded("SUMMARY:" + escapeText(task.getDescription()), out);
+        switch (task.getTypeCode()) {
+            case 'D':
+                appendDate("DUE", ((Deadline) task).getDate(), out);
+                break;
+            case 'E':
+                Event event = (Event) task;
+                appendDate("DTSTART", event.getFromDate(), out);
+                appendDate("DTEND", event.getToDate().plusDays(1), out); // the end of an all-day event is exclusive
+                break;
+            case 'R':
+                Recurring recurring = (Recurring) task;
+                appendDate("DTSTART", recurring.getStartDate(), out);
+                appendDate("DUE", recurring.getStartDate(), out);
+                out.append("RRULE:FREQ=").append(toFrequency(recurring)).append("\r\n");
+                break;
+            default:
+                break;
+        }
+        if (task.isDone()) {
+            out.append("STATUS:COMPLETED\r\n");
+        }
+        out.append("END:").append(component).append("\r\n");
+    }
+
+    @Override
+    void writeEnd(StringBuilder out) {
+        out.append("END:VCALENDAR\r\n");
+    }
+
+    // decode helpers - START
+    private HashMap<String, String> readComponent(LineSource lines, String component)
+            throws IOException, DarwinException {
+        HashMap<String, String> properties = new HashMap<>();
+        String nestedComponent = null; // e.g. a VALARM, whose properties are skipped
+        String line;
+        while ((line = readUnfoldedLine(lines)) != null) {
+            String upperLine = line.toUpperCase(Locale.ROOT);
+            if (nestedComponent != null) {
+                if (upperLine.equals("END:" + nestedComponent)) {
+                    nestedComponent = null;
+                }
+            } else if (upperLine.equals("END:" + component)) {
+                return properties;
+            } else if (upperLine.startsWith("BEGIN:")) {
+                nestedComponent = upperLine.substring("BEGIN:".length());
+            } else {
+                addProperty(line, properties);
+            }
+        }
+        throw new DarwinException(" The file ends in the middle of a " + component + ".");
+    }
+
+    private static void addProperty(String line, HashMap<String, String> properties) {
+        int colon = line.indexOf(':');
+        if (colon < 0) {
+            return;
+        }
+        int semicolon = line.indexOf(';');
+        int nameEnd = semicolon >= 0 && semicolon < colon ? semicolon : colon;
+        properties.putIfAbsent(line.substring(0, nameEnd).toUpperCase(Locale.ROOT), line.substring(colon + 1));
+    }
+
+    private static Task toTask(String component, HashMap<String, String> properties) throws DarwinException {
+        String summary = unescapeText(properties.get("SUMMARY"));
+        boolean isDone = "COMPLETED".equalsIgnoreCase(properties.get("STATUS"));
+        if (component.equals("VEVENT")) {
+            String start = toIsoDate(properties.get("DTSTART"));
+            String end = properties.containsKey("DTEND")
+                    ? toInclusiveEnd(properties.get("DTEND"), properties.get("DTSTART")) : start;
+            return createTask("E", isDone, summary, start, end, null);
+        }
+
+        String rule = properties.get("RRULE");
+        if (rule != null) {
+            String start = toIsoDate(properties.containsKey("DTSTART") ? properties.get("DTSTART") : properties.get("DUE"));
+            return createTask("R", isDone, summary, start, null, toRecurrence(rule));
+        }
+        if (properties.containsKey("DUE")) {
+            return createTask("D", isDone, summary, toIsoDate(properties.get("DUE")), null, null);
+        }
+        return createTask("T", isDone, summary, null, null, null);
+    }
+
+    private static String toIsoDate(String value) throws DarwinException {
+        if (value == null || value.length() < BASIC_DATE_LENGTH) {
+            throw new DarwinException(" A date is missing or too short.");
+        }
+        try {
+            return LocalDate.parse(value.substring(0, BASIC_DATE_LENGTH), BASIC_DATE).toString();
+        } catch (DateTimeParseException e) {
+            throw new DarwinException(" '" + value + "' is not a valid date.");
+        }
+    }
+
+    /**
+     * Converts the exclusive end of an all-day event to the inclusive end Darwin uses.
+     * Ends with a time of day are already inclusive of their date.
+     */
+    private static String toInclusiveEnd(String end, String start) throws DarwinException {
+        LocalDate endDate = LocalDate.parse(toIsoDate(end));
+        boolean isAllDay = end.length() == BASIC_DATE_LENGTH;
+        if (isAllDay && endDate.isAfter(LocalDate.parse(toIsoDate(start)))) {
+            endDate = endDate.minusDays(1);
+        }
+        return endDate.toString();
+    }
+
+    private static String toRecurrence(String rule) throws DarwinException {
+        for (String part : rule.split(";")) {
+            if (part.toUpperCase(Locale.ROOT).startsWith("FREQ=")) {
+                return part.substring("FREQ=".length()).toLowerCase(Locale.ROOT); // e.g. weekly
+            }
+        }
+        throw new DarwinException(" The RRULE '" + rule + "' has no FREQ.");
+    }
+
+    private static String unescapeText(String text) {
+        if (text == null) {
+            return null;
+        }
+        StringBuilder unescaped = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\' && i + 1 < text.length()) {
+                char next = text.charAt(++i);
+                unescaped.append(next == 'n' || next == 'N' ? ' ' : next);
+            } else {
+                unescaped.append(c);
+            }
+        }
+        return unescaped.toString();
+    }
+
+    /**
+     * Returns the next content line with any folded continuation lines joined back on.
+     */
+    private String readUnfoldedLine(LineSource lines) throws IOException {
+        String line = pendingLine != null ? pendingLine : lines.readLine();
+        pendingLine = null;
+        if (line == null) {
+            return null;
+        }
+
+        StringBuilder unfolded = new StringBuilder(line);
+        String next;
+        while ((next = lines.readLine()) != null && !next.isEmpty()
+                && (next.charAt(0) == ' ' || next.charAt(0) == '\t')) {
+            unfolded.append(next, 1, next.length());
+        }
+        pendingLine = next;
+        return unfolded.toString().trim();
+    }
+    // decode helpers - END
+
+    // encode helpers - START
+    private static void appendDate(String name, LocalDate date, StringBuilder out) {
+        out.append(name).append(";VALUE=DATE:").append(BASIC_DATE.format(date)).append("\r\n");
+    }
+
+    private static String toFrequency(Recurring recurring) {
+        switch (recurring.getRecurrence()) {
+            case DAY:
+                return "DAILY";
+            case WEEK:
+                return "WEEKLY";
+            default:
+                return "MONTHLY";
+        }
+    }
+
+    private static String escapeText(String text) {
+        return text.replace("\\", "\\\\").replace(";", "\\;").replace(",", "\\,");
+    }
+
+    /**
+     * Appends a content line, folding it onto continuation lines that start with a space
+     * so that no line is longer than 75 characters.
+     */
+    private static void appendFolded(String line, StringBuilder out) {
+        int start = 0;
+        int limit = MAX_LINE_LENGTH;
+        while (line.length() - start > limit) {
+            if (Character.isHighSurrogate(line.charAt(start + limit - 1))) {
+                limit--; // keep surrogate pairs on one line
+            }
+            out.append(line, start, start + limit).append("\r\n ");
+            start += limit;
+            limit = MAX_LINE_LENGTH - 1;
+        }
+        out.append(line, start, line.length()).append("\r\n");
+    }
+    // encode helpers - END
+}
@@ -0,0 +1,205 @@
+package darwin.transfer;
+
+import java.io.IOException;
+import java.util.HashMap;
+
+import darwin.DarwinException;
+import darwin.task.Deadline;
+import darwin.task.Event;
+import darwin.task.Recurring;
+import darwin.task.Task;
+
+/**
+ * Reads and writes tasks as JSON Lines: one flat JSON object per line, e.g.
+ * <code>{"type":"D","done":false,"description":"return book","by":"2026-03-01"}</code>.
+ * Events use <code>from</code> and <code>to</code>, and recurring tasks <code>start</code> and
+ * <code>every</code>. Unknown keys are ignored.
+ */
+class JsonLinesFormat extends TaskFormat {
+
+    @Override
+    Task decode(LineSource lines) throws IOException, DarwinException {
+        String line;
+        do {
+            line = lines.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+
+        HashMap<String, String> fields = new ObjectParser(line, lines.getLineNumber()).parse();
+        String date = fields.containsKey("by") ? fields.get("by")
+                : fields.containsKey("from") ? fields.get("from") : fields.get("start");
+        return createTask(fields.get("type"), "true".equals(fields.get("done")), fields.get("description"),
+                date, fields.get("to"), fields.get("every"));
+    }
+
+    @Override
+    void encode(Task task, StringBuilder out) {
+        appendObject(task, out);
+        out.append('\n');
+    }
+
+    /**
+     * Appends the task as one JSON object, without a line break.
+     */
+    static void appendObject(Task task, StringBuilder out) {
+        out.append("{\"type\":\"").append(task.getTypeCode()).append("\",\"done\":").append(task.isDone())
+                .append(",\"description\":");
+        appendString(task.getDescription(), out);
+        switch (task.getTypeCode()) {
+            case 'D':
+                out.append(",\"by\":\"").append(((Deadline) task).getDate()).append('"');
+                break;
+            case 'E':
+                Event event = (Event) task;
+                out.append(",\"from\":\"").append(event.getFromDate())
+                        .append("\",\"to\":\"").append(event.getToDate()).append('"');
+                break;
+            case 'R':
+                Recurring recurring = (Recurring) task;
+                out.append(",\"start\":\"").append(recurring.getStartDate())
+                        .append("\",\"every\":\"").append(recurring.getRecurrence()).append('"');
+                break;
+            default:
+                break;
+        }
+        out.append('}');
+    }
+
+    static void appendString(String text, StringBuilder out) {
+        out.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < ' ') {
+                out.append(String.format("\\u%04x", (int) c));
+            } else {
+                out.append(c);
+            }
+        }
+        out.append('"');
+    }
+
+    /**
+     * Parses one flat JSON object into its keys and values. Strings are unescaped; other values
+     * (numbers, true, false, null) are kept as written. Nested objects and arrays are rejected.
+     */
+    private static final class ObjectParser {
+        private final String text;
+        private final int lineNumber;
+        private int position;
+
+        private ObjectParser(String text, int lineNumber) {
+            this.text = text;
+            this.lineNumber = lineNumber;
+        }
+
+        private HashMap<String, String> parse() throws DarwinException {
+            HashMap<String, String> fields = new HashMap<>();
+            expect('{');
+            if (peek() == '}') {
+                position++;
+                return fields;
+            }
+
+            do {
+                expect('"');
+                String key = readString();
+                expect(':');
+                fields.put(key, readValue());
+            } while (acceptComma());
+            expect('}');
+            return fields;
+        }
+
+        private String readValue() throws DarwinException {
+            char c = peek();
+            if (c == '"') {
+                position++;
+                return readString();
+            } else if (c == '{' || c == '[') {
+                throw error("nested values are not supported");
+            }
+
+            int start = position;
+            while (position < text.length() && ",} \t".indexOf(text.charAt(position)) < 0) {
+                position++;
+            }
+            if (start == position) {
+                throw error("a value is missing");
+            }
+            return text.substring(start, position);
+        }
+
+        private String readString() throws DarwinException {
+            StringBuilder value = new StringBuilder();
+            while (position < text.length()) {
+                char c = text.charAt(position++);
+                if (c == '"') {
+                    return value.toString();
+                } else if (c != '\\') {
+                    value.append(c);
+                } else if (position < text.length()) {
+                    value.append(readEscape(text.charAt(position++)));
+                }
+            }
+            throw error("a string is not terminated");
+        }
+
+        private char readEscape(char c) throws DarwinException {
+            switch (c) {
+                case 'b':
+                    return '\b';
+                case 'f':
+                    return '\f';
+                case 'n':
+                    return '\n';
+                case 'r':
+                    return '\r';
+                case 't':
+                    return '\t';
+                case 'u':
+                    if (position + 4 > text.length()) {
+                        throw error("a \\u escape is cut short");
+                    }
+                    try {
+                        char decoded = (char) Integer.parseInt(text.substring(position, position + 4), 16);
+                        position += 4;
+                        return decoded;
+                    } catch (NumberFormatException e) {
+                        throw error("a \\u escape is invalid");
+                    }
+                default:
+                    return c; // covers \" \\ and \/
+            }
+        }
+
+        private boolean acceptComma() {
+            if (peek() == ',') {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char expected) throws DarwinException {
+            if (peek() != expected) {
+                throw error("'" + expected + "' was expected");
+            }
+            position++;
+        }
+
+        private char peek() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+            return position < text.length() ? text.charAt(position) : '\0';
+        }
+
+        private DarwinException error(String problem) {
+            return new DarwinException(" Line " + lineNumber + " is not valid JSON: " + problem + ".");
+        }
+    }
+}
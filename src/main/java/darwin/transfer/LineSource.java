@@ -0,0 +1,104 @@
+package darwin.transfer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a UTF-8 text file one line at a time through fixed-size buffers, so that memory use does
+ * not grow with the size of the file. Both "\n" and "\r\n" line endings are accepted, and a
+ * leading byte order mark is dropped.
+ */
+class LineSource implements Closeable {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private final FileChannel channel;
+    private final ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+    private final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final StringBuilder line = new StringBuilder();
+    private boolean isEndOfInput;
+    private int lineNumber;
+
+    LineSource(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        chars.flip(); // start empty, in read mode
+    }
+
+    /**
+     * Returns the next line without its line ending, or null at the end of the file.
+     */
+    String readLine() throws IOException {
+        line.setLength(0);
+        while (true) {
+            while (chars.hasRemaining()) {
+                char c = chars.get();
+                if (c == '\n') {
+                    return finishLine();
+                }
+                line.append(c);
+            }
+            if (!fill()) {
+                return line.length() == 0 ? null : finishLine();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of the line last returned by {@link #readLine()}, starting from 1.
+     */
+    int getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // readLine helpers - START
+    private String finishLine() {
+        lineNumber++;
+        int length = line.length();
+        if (length > 0 && line.charAt(length - 1) == '\r') {
+            line.setLength(length - 1);
+        }
+        if (lineNumber == 1 && line.length() > 0 && line.charAt(0) == BYTE_ORDER_MARK) {
+            line.deleteCharAt(0);
+        }
+        return line.toString();
+    }
+
+    /**
+     * Decodes the next block of the file into the character buffer.
+     * Returns false once the whole file has been decoded.
+     */
+    private boolean fill() throws IOException {
+        if (isEndOfInput) {
+            return false;
+        }
+
+        chars.clear();
+        isEndOfInput = channel.read(bytes) < 0;
+        bytes.flip();
+        decoder.decode(bytes, chars, isEndOfInput);
+        if (isEndOfInput) {
+            decoder.flush(chars);
+        }
+        bytes.compact();
+        chars.flip();
+        return chars.hasRemaining() || !isEndOfInput;
+    }
+    // readLine helpers - END
+}
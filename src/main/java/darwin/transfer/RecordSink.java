@@ -0,0 +1,55 @@
+package darwin.transfer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes text to a file through a fixed-size buffer, flushing it to the channel whenever the next
+ * piece of text would not fit, so that memory use does not grow with the size of the export.
+ */
+class RecordSink implements Closeable {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    RecordSink(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    void write(CharSequence text) throws IOException {
+        byte[] encoded = text.toString().getBytes(StandardCharsets.UTF_8);
+        if (encoded.length > buffer.remaining()) {
+            flush();
+        }
+        if (encoded.length > buffer.capacity()) {
+            channel.write(ByteBuffer.wrap(encoded));
+        } else {
+            buffer.put(encoded);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
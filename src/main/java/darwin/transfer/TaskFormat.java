@@ -0,0 +1,136 @@
+package darwin.transfer;
+
+import java.io.IOException;
+import java.util.Locale;
+
+import darwin.DarwinException;
+import darwin.task.Deadline;
+import darwin.task.Event;
+import darwin.task.Recurrence;
+import darwin.task.Recurring;
+import darwin.task.Task;
+import darwin.task.ToDo;
+
+/**
+ * Represents a file format tasks can be imported from and exported to. A <code>TaskFormat</code>
+ * converts one record at a time, so files of any size can be streamed through it. Formats keep
+ * state between records and are not shared between transfers.
+ */
+abstract class TaskFormat {
+
+    /**
+     * Returns a new format for the file, chosen by its extension:
+     * <code>.csv</code>, <code>.jsonl</code> or <code>.ics</code>.
+     *
+     * @param fileName The name of the file to read or write.
+     * @return The format.
+     * @throws DarwinException If the extension is not recognised.
+     */
+    static TaskFormat forFile(String fileName) throws DarwinException {
+        String lowerFileName = fileName.toLowerCase(Locale.ROOT);
+        if (lowerFileName.endsWith(".csv")) {
+            return new CsvFormat();
+        } else if (lowerFileName.endsWith(".jsonl") || lowerFileName.endsWith(".ndjson")) {
+            return new JsonLinesFormat();
+        } else if (lowerFileName.endsWith(".ics")) {
+            return new ICalendarFormat();
+        }
+        throw new DarwinException(" Unknown file type '" + fileName + "'. Please use a .csv, .jsonl or .ics file.");
+    }
+
+    /**
+     * Reads the next task from the file.
+     *
+     * @param lines The lines of the file.
+     * @return The next task, or null at the end of the file.
+     * @throws IOException If the file cannot be read.
+     * @throws DarwinException If the next record is malformed. The record has been consumed,
+     *         so reading can carry on with the one after it.
+     */
+    abstract Task decode(LineSource lines) throws IOException, DarwinException;
+
+    /**
+     * Appends the text that comes before the first record, if any.
+     */
+    void writeStart(StringBuilder out) {
+    }
+
+    /**
+     * Appends one task as a record, including its line ending.
+     */
+    abstract void encode(Task task, StringBuilder out);
+
+    /**
+     * Appends the text that comes after the last record, if any.
+     */
+    void writeEnd(StringBuilder out) {
+    }
+
+    /**
+     * Builds a task from the fields every format shares. Line breaks and other control characters
+     * in the description become spaces, since a stored record has to stay on one line.
+     *
+     * @param type The type letter: T, D, E or R.
+     * @param isDone Whether the task is done.
+     * @param description The description.
+     * @param date The deadline, start of the event or first occurrence, in yyyy-mm-dd format.
+     * @param endDate The end of the event, in yyyy-mm-dd format.
+     * @param recurrence The repeat interval of a recurring task, e.g. "week".
+     * @return The task.
+     * @throws DarwinException If a field the type needs is missing or invalid.
+     */
+    static Task createTask(String type, boolean isDone, String description, String date, String endDate,
+            String recurrence) throws DarwinException {
+        description = description == null ? null : replaceControlCharacters(description);
+        if (description == null || description.isBlank()) {
+            throw new DarwinException(" The record has no description.");
+        }
+        if (description.indexOf('|') >= 0) {
+            throw new DarwinException(" Descriptions cannot contain '|'.");
+        }
+
+        Task task;
+        switch (type == null ? "" : type.trim().toUpperCase(Locale.ROOT)) {
+            case "T":
+                task = new ToDo(description.trim());
+                break;
+            case "D":
+                task = new Deadline(description.trim(), require(date, "date"));
+                break;
+            case "E":
+                task = new Event(description.trim(), require(date, "start date"), require(endDate, "end date"));
+                break;
+            case "R":
+                task = new Recurring(description.trim(), require(date, "start date"),
+                        Recurrence.parse(require(recurrence, "repeat interval")));
+                break;
+            default:
+                throw new DarwinException(" Unknown task type '" + type + "'.");
+        }
+
+        if (isDone) {
+            task.markAsDone();
+        }
+        return task;
+    }
+
+    private static String replaceControlCharacters(String text) {
+        StringBuilder replaced = null;
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.isISOControl(text.charAt(i))) {
+                if (replaced == null) {
+                    replaced = new StringBuilder(text);
+                }
+                replaced.setCharAt(i, ' ');
+            }
+        }
+        return replaced == null ? text : replaced.toString();
+    }
+
+    private static String require(String field, String name) throws DarwinException {
+        if (field == null || field.isBlank()) {
+            throw new DarwinException(" The record has no " + name + ".");
+        }
+        return field.trim();
+    }
+}
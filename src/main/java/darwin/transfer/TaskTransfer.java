@@ -0,0 +1,121 @@
+package darwin.transfer;
+
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+
+import darwin.DarwinException;
+import darwin.task.Task;
+import darwin.task.TaskList;
+
+/**
+ * Moves tasks between a TaskList and CSV, JSON Lines or iCalendar files. Records are streamed one
+ * at a time through fixed-size buffers, so neither the file nor its tasks are ever held in memory
+ * as a whole. Importing does not save: the imported tasks reach the listeners of the TaskList as
+ * one batch of changes, so the command engine saves them together with the rest of its drain,
+ * writing only the new records. If reading fails halfway, the tasks imported so far stay in the
+ * list and are saved the same way.
+ */
+public class TaskTransfer {
+
+    /**
+     * Adds the tasks in a file to the end of the list. Malformed records are skipped and counted.
+     * Importing stops early if the list becomes full.
+     *
+     * @param fileName The file to read; its extension decides the format.
+     * @param tasks The TaskList to add the tasks to.
+     * @return The report of the import.
+     * @throws DarwinException If the file type is unknown or the file cannot be read.
+     */
+    public static TransferReport importTasks(String fileName, TaskList tasks) throws DarwinException {
+        TaskFormat format = TaskFormat.forFile(fileName);
+        long startTime = System.nanoTime();
+        int importedCount = 0;
+        int skippedCount = 0;
+        boolean isListFull = false;
+
+        try (LineSource lines = new LineSource(toPath(fileName))) {
+            while (true) {
+                Task task;
+                try {
+                    task = format.decode(lines);
+                } catch (DarwinException e) {
+                    skippedCount++;
+                    continue;
+                }
+                if (task == null) {
+                    break;
+                }
+
+                try {
+                    tasks.addTask(task);
+                } catch (DarwinException e) {
+                    isListFull = true;
+                    break;
+                }
+                importedCount++;
+            }
+        } catch (IOException e) {
+            throw new DarwinException(" Could not read '" + fileName + "' after importing " + importedCount
+                    + " tasks: " + e.getMessage());
+        }
+        return new TransferReport(importedCount, skippedCount, isListFull, System.nanoTime() - startTime);
+    }
+
+    /**
+     * Writes every task in the list to a file, replacing the file if it exists.
+     *
+     * @param fileName The file to write; its extension decides the format.
+     * @param tasks The TaskList to export.
+     * @return The report of the export.
+     * @throws DarwinException If the file type is unknown or the file cannot be written.
+     */
+    public static TransferReport exportTasks(String fileName, TaskList tasks) throws DarwinException {
+        TaskFormat format = TaskFormat.forFile(fileName);
+        long startTime = System.nanoTime();
+        StringBuilder record = new StringBuilder();
+
+        try (RecordSink sink = new RecordSink(toPath(fileName))) {
+            format.writeStart(record);
+            for (int taskNumber = 1; taskNumber <= tasks.getTaskCount(); taskNumber++) {
+                format.encode(tasks.getTask(taskNumber), record);
+                sink.write(record);
+                record.setLength(0);
+            }
+            format.writeEnd(record);
+            sink.write(record);
+        } catch (IOException e) {
+            throw new DarwinException(" Could not write '" + fileName + "': " + e.getMessage());
+        }
+        return new TransferReport(tasks.getTaskCount(), 0, false, System.nanoTime() - startTime);
+    }
+
+    /**
+     * Appends the task as one JSON object, in the same form <code>export</code> writes to a
+     * <code>.jsonl</code> file.
+     *
+     * @param task The task to write.
+     * @param out The builder to append to.
+     */
+    public static void appendJson(Task task, StringBuilder out) {
+        JsonLinesFormat.appendObject(task, out);
+    }
+
+    /**
+     * Appends the text as a quoted and escaped JSON string.
+     *
+     * @param text The text to write.
+     * @param out The builder to append to.
+     */
+    public static void appendJsonString(String text, StringBuilder out) {
+        JsonLinesFormat.appendString(text, out);
+    }
+
+    private static Path toPath(String fileName) throws DarwinException {
+        try {
+            return Path.of(fileName);
+        } catch (InvalidPathException e) {
+            throw new DarwinException(" '" + fileName + "' is not a valid file name.");
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package darwin.transfer;
+
+/**
+ * Represents the outcome of an import or export: how many tasks were transferred, how many
+ * records were skipped, and how fast it went.
+ */
+public class TransferReport {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final int transferredCount;
+    private final int skippedCount;
+    private final boolean isListFull;
+    private final long elapsedNanos;
+
+    TransferReport(int transferredCount, int skippedCount, boolean isListFull, long elapsedNanos) {
+        this.transferredCount = transferredCount;
+        this.skippedCount = skippedCount;
+        this.isListFull = isListFull;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public int getTransferredCount() {
+        return transferredCount;
+    }
+
+    public int getSkippedCount() {
+        return skippedCount;
+    }
+
+    /**
+     * Returns whether an import stopped early because the task list was full.
+     */
+    public boolean isListFull() {
+        return isListFull;
+    }
+
+    /**
+     * Returns the number of records transferred per second, counting skipped records too.
+     */
+    public long getRecordsPerSecond() {
+        long records = transferredCount + skippedCount;
+        return elapsedNanos == 0 ? records : records * NANOS_PER_SECOND / elapsedNanos;
+    }
+}
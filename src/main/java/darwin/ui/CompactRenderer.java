@@ -0,0 +1,167 @@
+package darwin.ui;
+
+import darwin.task.Occurrence;
+import darwin.task.Task;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+
+/**
+ * Renders results as terse lines for a terminal or a script: one line per task or count, with no
+ * prose around it, e.g. <code>added: [T][ ] read book (3 tasks)</code>. Dates are written as
+ * <code>yyyy-MM-dd</code>.
+ */
+public class CompactRenderer implements ResultRenderer {
+
+    private final StringBuilder responseBuilder = new StringBuilder();
+
+    @Override
+    public void clearResponse() {
+        responseBuilder.setLength(0);
+    }
+
+    @Override
+    public String getResponse() {
+        return responseBuilder.toString().trim();
+    }
+
+    @Override
+    public void printTaskAdded(Task task, int taskCount) {
+        output("added: " + task.getDisplayString() + " (" + taskCount + " tasks)");
+    }
+
+    @Override
+    public void showDeletedTask(Task task, int taskCount) {
+        output("deleted: " + task.getDisplayString() + " (" + taskCount + " tasks)");
+    }
+
+    @Override
+    public void printMarkedTask(Task task, boolean isDone) {
+        output((isDone ? "done: " : "not done: ") + task.getDisplayString());
+    }
+
+    @Override
+    public void printTaskList(ArrayList<Task> tasks) {
+        if (tasks.isEmpty()) {
+            output("no tasks");
+            return;
+        }
+        for (int i = 0; i < tasks.size(); i++) {
+            outputTask((i + 1) + ".", tasks.get(i));
+        }
+    }
+
+    @Override
+    public void printSortedTasks(ArrayList<Task> tasks, ArrayList<Integer> taskNumbers, String order, int page,
+            int pageCount) {
+        if (tasks.isEmpty()) {
+            output("no tasks");
+            return;
+        }
+        output("by " + order + ", page " + page + "/" + pageCount);
+        for (int i = 0; i < tasks.size(); i++) {
+            outputTask(taskNumbers.get(i) + ".", tasks.get(i));
+        }
+    }
+
+    @Override
+    public void printAgenda(ArrayList<Occurrence> occurrences, LocalDate from, LocalDate to) {
+        if (occurrences.isEmpty()) {
+            output("nothing between " + from + " and " + to);
+            return;
+        }
+        for (Occurrence occurrence : occurrences) {
+            outputTask(occurrence.getDate() + ":", occurrence.getTask());
+        }
+    }
+
+    @Override
+    public void printFoundTasks(ArrayList<Task> foundTasks, String keyword) {
+        if (foundTasks.isEmpty()) {
+            output("no matches for \"" + keyword + "\"");
+            return;
+        }
+        for (int i = 0; i < foundTasks.size(); i++) {
+            outputTask((i + 1) + ".", foundTasks.get(i));
+        }
+    }
+
+    @Override
+    public void printArchivedMatches(ArrayList<Task> archivedTasks) {
+        for (Task task : archivedTasks) {
+            outputTask("archived:", task);
+        }
+    }
+
+    @Override
+    public void printQueryPlan(ArrayList<String> planLines, String query) {
+        for (String line : planLines) {
+            output(line);
+        }
+    }
+
+    @Override
+    public void printImportReport(int importedCount, int skippedCount, boolean isListFull, long recordsPerSecond,
+            int taskCount) {
+        output("imported: " + importedCount + ", skipped: " + skippedCount + (isListFull ? ", list full" : "")
+                + " (" + taskCount + " tasks)");
+    }
+
+    @Override
+    public void printExportReport(int exportedCount, String fileName, long recordsPerSecond) {
+        output("exported: " + exportedCount + " to " + fileName);
+    }
+
+    @Override
+    public void printTransactionBegun() {
+        output("transaction begun");
+    }
+
+    @Override
+    public void printTransactionCommitted(int changeCount) {
+        output("committed: " + changeCount + " changes");
+    }
+
+    @Override
+    public void printTransactionRolledBack(int changeCount) {
+        output("rolled back: " + changeCount + " changes");
+    }
+
+    @Override
+    public void printArchivedTasks(int archivedCount, int taskCount) {
+        output("archived: " + archivedCount + " (" + taskCount + " tasks)");
+    }
+
+    @Override
+    public void printExternalChanges(int addedCount, int removedCount, int taskCount) {
+        output("synced: +" + addedCount + " -" + removedCount + " (" + taskCount + " tasks)");
+    }
+
+    @Override
+    public void printGoodbye() {
+        // the closing line is enough
+    }
+
+    @Override
+    public void printClosing() {
+        output("bye");
+    }
+
+    @Override
+    public void printError(String errorMessage) {
+        output("error: " + errorMessage.trim());
+    }
+
+    @Override
+    public void printCommandFailed(String errorMessage) {
+        output("error: " + errorMessage.trim());
+    }
+
+    private void outputTask(String label, Task task) {
+        responseBuilder.append(label).append(' ').append(task.getDisplayString()).append('\n');
+    }
+
+    private void output(String text) {
+        responseBuilder.append(text).append('\n');
+    }
+}
@@ -0,0 +1,214 @@
+package darwin.ui;
+
+import darwin.task.Occurrence;
+import darwin.task.Task;
+import darwin.transfer.TaskTransfer;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+
+/**
+ * Renders results as JSON for other programs: one object per line, each with a <code>result</code>
+ * key naming what happened, e.g. <code>{"result":"added","taskCount":3,"task":{...}}</code>.
+ * Tasks are written in the same form as <code>export</code> writes to a <code>.jsonl</code> file.
+ */
+public class JsonRenderer implements ResultRenderer {
+
+    private final StringBuilder responseBuilder = new StringBuilder();
+
+    @Override
+    public void clearResponse() {
+        responseBuilder.setLength(0);
+    }
+
+    @Override
+    public String getResponse() {
+        return responseBuilder.toString().trim();
+    }
+
+    @Override
+    public void printTaskAdded(Task task, int taskCount) {
+        start("added").count("taskCount", taskCount);
+        appendTask("task", task);
+        end();
+    }
+
+    @Override
+    public void showDeletedTask(Task task, int taskCount) {
+        start("deleted").count("taskCount", taskCount);
+        appendTask("task", task);
+        end();
+    }
+
+    @Override
+    public void printMarkedTask(Task task, boolean isDone) {
+        start("marked");
+        responseBuilder.append(",\"done\":").append(isDone);
+        appendTask("task", task);
+        end();
+    }
+
+    @Override
+    public void printTaskList(ArrayList<Task> tasks) {
+        start("list");
+        appendTasks(tasks);
+        end();
+    }
+
+    @Override
+    public void printSortedTasks(ArrayList<Task> tasks, ArrayList<Integer> taskNumbers, String order, int page,
+            int pageCount) {
+        start("list").text("order", order).count("page", page).count("pageCount", pageCount);
+        responseBuilder.append(",\"numbers\":").append(taskNumbers.toString().replace(" ", ""));
+        appendTasks(tasks);
+        end();
+    }
+
+    @Override
+    public void printAgenda(ArrayList<Occurrence> occurrences, LocalDate from, LocalDate to) {
+        start("agenda").text("from", from.toString()).text("to", to.toString());
+        responseBuilder.append(",\"occurrences\":[");
+        for (int i = 0; i < occurrences.size(); i++) {
+            responseBuilder.append(i == 0 ? "" : ",").append("{\"date\":\"")
+                    .append(occurrences.get(i).getDate()).append("\",\"task\":");
+            TaskTransfer.appendJson(occurrences.get(i).getTask(), responseBuilder);
+            responseBuilder.append('}');
+        }
+        responseBuilder.append(']');
+        end();
+    }
+
+    @Override
+    public void printFoundTasks(ArrayList<Task> foundTasks, String keyword) {
+        start("matches").text("query", keyword);
+        appendTasks(foundTasks);
+        end();
+    }
+
+    @Override
+    public void printArchivedMatches(ArrayList<Task> archivedTasks) {
+        start("archivedMatches");
+        appendTasks(archivedTasks);
+        end();
+    }
+
+    @Override
+    public void printQueryPlan(ArrayList<String> planLines, String query) {
+        start("plan").text("query", query);
+        responseBuilder.append(",\"steps\":[");
+        for (int i = 0; i < planLines.size(); i++) {
+            responseBuilder.append(i == 0 ? "" : ",");
+            TaskTransfer.appendJsonString(planLines.get(i), responseBuilder);
+        }
+        responseBuilder.append(']');
+        end();
+    }
+
+    @Override
+    public void printImportReport(int importedCount, int skippedCount, boolean isListFull, long recordsPerSecond,
+            int taskCount) {
+        start("imported").count("imported", importedCount).count("skipped", skippedCount);
+        responseBuilder.append(",\"listFull\":").append(isListFull);
+        count("recordsPerSecond", recordsPerSecond).count("taskCount", taskCount);
+        end();
+    }
+
+    @Override
+    public void printExportReport(int exportedCount, String fileName, long recordsPerSecond) {
+        start("exported").count("exported", exportedCount).text("file", fileName)
+                .count("recordsPerSecond", recordsPerSecond);
+        end();
+    }
+
+    @Override
+    public void printTransactionBegun() {
+        start("transactionBegun");
+        end();
+    }
+
+    @Override
+    public void printTransactionCommitted(int changeCount) {
+        start("transactionCommitted").count("changeCount", changeCount);
+        end();
+    }
+
+    @Override
+    public void printTransactionRolledBack(int changeCount) {
+        start("transactionRolledBack").count("changeCount", changeCount);
+        end();
+    }
+
+    @Override
+    public void printArchivedTasks(int archivedCount, int taskCount) {
+        start("archived").count("archivedCount", archivedCount).count("taskCount", taskCount);
+        end();
+    }
+
+    @Override
+    public void printExternalChanges(int addedCount, int removedCount, int taskCount) {
+        start("externalChanges").count("added", addedCount).count("removed", removedCount)
+                .count("taskCount", taskCount);
+        end();
+    }
+
+    @Override
+    public void printGoodbye() {
+        // the exit object is enough
+    }
+
+    @Override
+    public void printClosing() {
+        start("exit");
+        end();
+    }
+
+    @Override
+    public void printError(String errorMessage) {
+        start("warning").text("message", errorMessage.trim());
+        end();
+    }
+
+    @Override
+    public void printCommandFailed(String errorMessage) {
+        start("error").text("message", errorMessage.trim());
+        end();
+    }
+
+    // JSON writing helpers - START
+    private JsonRenderer start(String result) {
+        responseBuilder.append("{\"result\":\"").append(result).append('"');
+        return this;
+    }
+
+    private JsonRenderer count(String key, long value) {
+        responseBuilder.append(",\"").append(key).append("\":").append(value);
+        return this;
+    }
+
+    private JsonRenderer text(String key, String value) {
+        responseBuilder.append(",\"").append(key).append("\":");
+        TaskTransfer.appendJsonString(value, responseBuilder);
+        return this;
+    }
+
+    private void appendTask(String key, Task task) {
+        responseBuilder.append(",\"").append(key).append("\":");
+        TaskTransfer.appendJson(task, responseBuilder);
+    }
+
+    private void appendTasks(ArrayList<Task> tasks) {
+        responseBuilder.append(",\"tasks\":[");
+        for (int i = 0; i < tasks.size(); i++) {
+            if (i > 0) {
+                responseBuilder.append(',');
+            }
+            TaskTransfer.appendJson(tasks.get(i), responseBuilder);
+        }
+        responseBuilder.append(']');
+    }
+
+    private void end() {
+        responseBuilder.append("}\n");
+    }
+    // JSON writing helpers - END
+}
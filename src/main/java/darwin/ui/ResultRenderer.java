@@ -0,0 +1,74 @@
+package darwin.ui;
+
+import darwin.task.Occurrence;
+import darwin.task.Task;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+
+/**
+ * Turns the results of commands into text. Commands return structured results, which call the
+ * method for their kind on whichever renderer the response is wanted in: {@link Ui} writes
+ * Professor Darwin's prose, {@link CompactRenderer} one terse line per item, and
+ * {@link JsonRenderer} one JSON object per result. Nothing is formatted unless a result is rendered.
+ */
+public interface ResultRenderer {
+
+    /**
+     * Forgets what was rendered so far.
+     */
+    void clearResponse();
+
+    /**
+     * Returns what was rendered since the last {@link #clearResponse()}.
+     */
+    String getResponse();
+
+    void printTaskAdded(Task task, int taskCount);
+
+    void showDeletedTask(Task task, int taskCount);
+
+    void printMarkedTask(Task task, boolean isDone);
+
+    void printTaskList(ArrayList<Task> tasks);
+
+    void printSortedTasks(ArrayList<Task> tasks, ArrayList<Integer> taskNumbers, String order, int page,
+            int pageCount);
+
+    void printAgenda(ArrayList<Occurrence> occurrences, LocalDate from, LocalDate to);
+
+    void printFoundTasks(ArrayList<Task> foundTasks, String keyword);
+
+    void printArchivedMatches(ArrayList<Task> archivedTasks);
+
+    void printQueryPlan(ArrayList<String> planLines, String query);
+
+    void printImportReport(int importedCount, int skippedCount, boolean isListFull, long recordsPerSecond,
+            int taskCount);
+
+    void printExportReport(int exportedCount, String fileName, long recordsPerSecond);
+
+    void printTransactionBegun();
+
+    void printTransactionCommitted(int changeCount);
+
+    void printTransactionRolledBack(int changeCount);
+
+    void printArchivedTasks(int archivedCount, int taskCount);
+
+    void printExternalChanges(int addedCount, int removedCount, int taskCount);
+
+    void printGoodbye();
+
+    /**
+     * Announces that the application is about to close; always the last thing rendered.
+     */
+    void printClosing();
+
+    void printError(String errorMessage);
+
+    /**
+     * Reports why a command could not be run at all, e.g. a task number out of range.
+     */
+    void printCommandFailed(String errorMessage);
+}
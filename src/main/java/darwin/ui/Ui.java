@@ -1,10 +1,13 @@
 package darwin.ui;
 
+import darwin.DateParser;
+import darwin.task.Occurrence;
 import darwin.task.Task;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
 
-public class Ui {
+public class Ui implements ResultRenderer {
 
     private StringBuilder responseBuilder; // for GUI mode
 
@@ -20,6 +23,12 @@ public class Ui {
         return responseBuilder;
     }
 
+    @Override
+    public String getResponse() {
+        return responseBuilder == null ? "" : responseBuilder.toString().trim();
+    }
+
+    @Override
     public void clearResponse() {
         if (responseBuilder != null) {
             responseBuilder.setLength(0);
@@ -33,59 +42,186 @@ public class Ui {
         output(greeting);
     }
 
+    @Override
     public void printGoodbye() {
         String byeMessage = "Farewell, my scholarly friend! Until our next intellectual discourse.\n" +
                 "Remember: knowledge is a journey, not a destination!";
         output(byeMessage);
     }
 
+    @Override
+    public void printClosing() {
+        output("Bye. Hope to see you again soon!\n[Darwin will now close...]");
+    }
+
+    @Override
     public void printError(String errorMessage) {
         output("Hmm, that doesn't quite right... " + errorMessage);
     }
 
+    @Override
+    public void printCommandFailed(String errorMessage) {
+        output(errorMessage);
+    }
+
+    @Override
     public void printTaskAdded(Task task, int taskCount) {
-        String taskAddedMessage = "Excellent observation! I've documented this task:\n" +
-                " " + task + "\n" +
-                "Your scholarly collection now holds " + taskCount + " fascinating tasks.";
-        output(taskAddedMessage);
+        output("Excellent observation! I've documented this task:");
+        outputTask(" ", task);
+        output("Your scholarly collection now holds " + taskCount + " fascinating tasks.");
     }
 
+    @Override
     public void printTaskList(ArrayList<Task> tasks) {
         if (tasks.isEmpty()) {
             output("Your research archive appears to be empty. How peculiar!");
         } else {
             output("Behold! The complete catalog of your academic endeavors:");
-            for (int i = 0; i < tasks.size(); i++) {
-                output(" " + (i + 1) + "." + tasks.get(i));
-            }
+            outputNumberedTasks(tasks);
+        }
+    }
+
+    @Override
+    public void printSortedTasks(ArrayList<Task> tasks, ArrayList<Integer> taskNumbers, String order,
+            int page, int pageCount) {
+        if (tasks.isEmpty()) {
+            output("Your research archive appears to be empty. How peculiar!");
+            return;
+        }
+
+        output("Your endeavors by " + order + " (page " + page + " of " + pageCount + "):");
+        for (int i = 0; i < tasks.size(); i++) {
+            outputTask(" " + taskNumbers.get(i) + ".", tasks.get(i));
         }
     }
 
+    @Override
+    public void printAgenda(ArrayList<Occurrence> occurrences, LocalDate from, LocalDate to) {
+        String window = DateParser.formatDateForDisplay(from) + " and " + DateParser.formatDateForDisplay(to);
+        if (occurrences.isEmpty()) {
+            output("A quiet stretch! Nothing is scheduled between " + window + ".");
+            return;
+        }
+
+        output("Here is your itinerary between " + window + ":");
+        for (Occurrence occurrence : occurrences) {
+            outputTask(" " + DateParser.formatDateForDisplay(occurrence.getDate()) + ": ", occurrence.getTask());
+        }
+    }
+
+    @Override
     public void printMarkedTask(Task task, boolean isDone) {
         if (isDone) {
             output("Splendid! Another achievement unlocked:");
         } else {
             output("Very well, this task shall remain on the research agenda:");
         }
-        output("  " + task);
+        outputTask("  ", task);
     }
 
+    @Override
     public void printFoundTasks(ArrayList<Task> foundTasks, String keyword) {
         if (foundTasks.isEmpty()) {
             output("My extensive search yields no results for: \"" + keyword + "\"");
         } else {
             output("Eureka! I've discovered these relevant findings:");
-            for (int i = 0; i < foundTasks.size(); i++) {
-                output(" " + (i + 1) + "." + foundTasks.get(i));
-            }
+            outputNumberedTasks(foundTasks);
+        }
+    }
+
+    @Override
+    public void printQueryPlan(ArrayList<String> planLines, String query) {
+        output("Behold my strategy for \"" + query + "\":");
+        for (String line : planLines) {
+            output(" " + line);
+        }
+    }
+
+    @Override
+    public void printImportReport(int importedCount, int skippedCount, boolean isListFull, long recordsPerSecond,
+            int taskCount) {
+        output("A fine acquisition! I've catalogued " + importedCount + " imported tasks ("
+                + recordsPerSecond + " records/sec).");
+        if (skippedCount > 0) {
+            output("Alas, " + skippedCount + " records were illegible and have been set aside.");
+        }
+        if (isListFull) {
+            output("The archive is full, so the rest of the file was left unread.");
         }
+        output("Your scholarly collection now holds " + taskCount + " fascinating tasks.");
     }
 
+    @Override
+    public void printExportReport(int exportedCount, String fileName, long recordsPerSecond) {
+        output("Your findings are published! " + exportedCount + " tasks written to " + fileName
+                + " (" + recordsPerSecond + " records/sec).");
+    }
+
+    @Override
+    public void printTransactionBegun() {
+        output("Very well, I shall keep these notes in pencil until you 'commit' or 'rollback'.");
+    }
+
+    @Override
+    public void printTransactionCommitted(int changeCount) {
+        output("Inked into the archives! " + changeCount + " changes have been committed.");
+    }
+
+    @Override
+    public void printTransactionRolledBack(int changeCount) {
+        output("Erased without a trace! " + changeCount + " changes have been rolled back.");
+    }
+
+    @Override
+    public void printExternalChanges(int addedCount, int removedCount, int taskCount) {
+        output("Another scribe has been at your archive! I've taken in " + addedCount + " new or changed tasks"
+                + " and set aside " + removedCount + " old ones.");
+        output("Your scholarly collection now holds " + taskCount + " fascinating tasks.");
+    }
+
+    @Override
+    public void printArchivedTasks(int archivedCount, int taskCount) {
+        if (archivedCount == 0) {
+            output("Nothing is ready for the vaults yet; no done task is old enough to archive.");
+            return;
+        }
+        output("Sealed away in the vaults! I've archived " + archivedCount + " done tasks.");
+        output("Your scholarly collection now holds " + taskCount + " fascinating tasks.");
+    }
+
+    @Override
+    public void printArchivedMatches(ArrayList<Task> archivedTasks) {
+        if (archivedTasks.isEmpty()) {
+            output("The vaults hold nothing more on the matter.");
+            return;
+        }
+        output("From the vaults, these archived findings:");
+        for (Task task : archivedTasks) {
+            outputTask(" - ", task);
+        }
+    }
+
+    @Override
     public void showDeletedTask(Task task, int taskCount) {
-        String taskDeletedMessage = "A task removed from the archives:\n" +
-                " " + task + "\n" +
-                "Your collection now contains " + taskCount + " remaining artifacts.";
-        output(taskDeletedMessage);
+        output("A task removed from the archives:");
+        outputTask(" ", task);
+        output("Your collection now contains " + taskCount + " remaining artifacts.");
+    }
+
+    private void outputNumberedTasks(ArrayList<Task> tasks) {
+        if (responseBuilder == null) {
+            return;
+        }
+        for (int i = 0; i < tasks.size(); i++) {
+            responseBuilder.append(' ').append(i + 1).append('.')
+                    .append(tasks.get(i).getDisplayString()).append('\n');
+        }
+    }
+
+    private void outputTask(String indent, Task task) {
+        if (responseBuilder != null) {
+            responseBuilder.append(indent).append(task.getDisplayString()).append('\n');
+        }
     }
 
     private void output(String text) {
@@ -0,0 +1,4 @@
+@echo off
+rem Starts Darwin with its class data sharing archive, which shortens startup.
+rem The archive only matches the JDK it was built with; on any other JDK, Java ignores it and starts normally.
+java -XX:SharedArchiveFile="%~dp0darwin.jsa" -Xshare:auto -jar "%~dp0darwin.jar" %*
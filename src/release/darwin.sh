@@ -0,0 +1,5 @@
+#!/bin/sh
+# Starts Darwin with its class data sharing archive, which shortens startup.
+# The archive only matches the JDK it was built with; on any other JDK, Java ignores it and starts normally.
+DIR="$(cd "$(dirname "$0")" && pwd)"
+exec java -XX:SharedArchiveFile="$DIR/darwin.jsa" -Xshare:auto -jar "$DIR/darwin.jar" "$@"
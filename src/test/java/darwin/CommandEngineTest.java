@@ -0,0 +1,84 @@
+package darwin;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+public class CommandEngineTest {
+
+    @Test
+    public void testSubmit_manyProducers_runInOrderPerProducer() throws Exception {
+        Path directory = Files.createTempDirectory("darwin-engine-test");
+        Darwin darwin = new Darwin(directory.resolve("darwin.txt").toString());
+        darwin.loadTasks(percent -> { });
+
+        ArrayList<ArrayList<CompletableFuture<String>>> responses = new ArrayList<>();
+        ArrayList<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < 4; p++) {
+            ArrayList<CompletableFuture<String>> ownResponses = new ArrayList<>();
+            responses.add(ownResponses);
+            String description = "task " + p;
+            producers.add(new Thread(() -> {
+                for (int i = 0; i < 10; i++) {
+                    ownResponses.add(darwin.submit("todo " + description + " " + i));
+                }
+                ownResponses.add(darwin.submit("nonsense"));
+            }));
+        }
+        for (Thread producer : producers) {
+            producer.start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        for (ArrayList<CompletableFuture<String>> ownResponses : responses) {
+            for (CompletableFuture<String> response : ownResponses) {
+                assertTrue(!response.join().isEmpty());
+            }
+        }
+        String list = darwin.getResponse("list");
+        assertEquals(41, list.split("\n").length);
+        for (int p = 0; p < 4; p++) {
+            assertTrue(list.indexOf("task " + p + " 0") < list.indexOf("task " + p + " 9"));
+        }
+
+        darwin.shutdown();
+        deleteRecursively(directory);
+    }
+
+    @Test
+    public void testSubmit_listThenDelete_listingShowsListBeforeDelete() throws Exception {
+        Path directory = Files.createTempDirectory("darwin-engine-test");
+        Darwin darwin = new Darwin(directory.resolve("darwin.txt").toString());
+        darwin.loadTasks(percent -> { });
+        darwin.getResponse("todo read book");
+        darwin.getResponse("todo buy pens");
+
+        // Usually run by the same drain, so the listing is rendered after the delete has been saved
+        CompletableFuture<String> listing = darwin.submit("list");
+        CompletableFuture<String> deletion = darwin.submit("delete 1");
+        String list = listing.join();
+        assertTrue(deletion.join().contains("read book"));
+        assertTrue(list.contains("1.[T][ ] read book"));
+        assertTrue(list.contains("2.[T][ ] buy pens"));
+        assertEquals(1, darwin.getTaskSnapshot().size());
+
+        darwin.shutdown();
+        deleteRecursively(directory);
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
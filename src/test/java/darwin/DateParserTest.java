@@ -0,0 +1,44 @@
+package darwin;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+
+public class DateParserTest {
+    @Test
+    public void testParseDate() {
+        // Fixed-width dates take the fast path
+        assertEquals(LocalDate.of(2024, 3, 15), DateParser.parseDate("2024-03-15"));
+        assertEquals(LocalDate.of(2024, 2, 29), DateParser.parseDate(" 2024-02-29 "));
+
+        // Invalid digits, days and layouts are all rejected
+        assertThrows(DarwinException.class, () -> DateParser.parseDate("2024-0a-15"));
+        assertThrows(DarwinException.class, () -> DateParser.parseDate("2023-02-29"));
+        assertThrows(DarwinException.class, () -> DateParser.parseDate("15-03-2024"));
+        assertThrows(DarwinException.class, () -> DateParser.parseDate("2024-3-15"));
+    }
+
+    @Test
+    public void testParseEpochDay() {
+        assertEquals(0, DateParser.parseEpochDay("1970-01-01"));
+        assertEquals(19797, DateParser.parseEpochDay("2024-03-15"));
+
+        // Years whose epoch day does not fit in an int are rejected rather than wrapped
+        assertEquals(LocalDate.of(9999999, 1, 1), DateParser.parseDate("+9999999-01-01"));
+        assertThrows(DarwinException.class, () -> DateParser.parseEpochDay("+9999999-01-01"));
+        assertThrows(DarwinException.class, () -> DateParser.parseEpochDay("-9999999-01-01"));
+    }
+
+    @Test
+    public void testFormatDateForDisplay() {
+        LocalDate date = LocalDate.of(2019, 12, 2);
+        assertEquals("Dec 02 2019", DateParser.formatDateForDisplay(date));
+
+        // Served from the cache the second time, and a colliding slot is replaced correctly
+        assertEquals("Dec 02 2019", DateParser.formatDateForDisplay(date));
+        assertEquals("Sep 21 2022", DateParser.formatDateForDisplay(date.plusDays(1024)));
+        assertEquals("Dec 02 2019", DateParser.formatDateForDisplay(date));
+    }
+}
@@ -0,0 +1,94 @@
+package darwin.command;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import darwin.parser.Parser;
+import darwin.storage.Storage;
+import darwin.task.TaskList;
+import darwin.task.ToDo;
+import darwin.ui.CompactRenderer;
+import darwin.ui.JsonRenderer;
+import darwin.ui.ResultRenderer;
+import darwin.ui.Ui;
+
+public class CommandResultTest {
+
+    private static String render(CommandResult result, ResultRenderer renderer) {
+        renderer.clearResponse();
+        result.renderTo(renderer);
+        return renderer.getResponse();
+    }
+
+    @Test
+    public void testTaskAdded_renderedByEachRenderer() {
+        TaskList tasks = new TaskList();
+        CommandResult result = new TodoCommand("read \"book\"").execute(tasks, null);
+
+        assertFalse(result.isExit());
+        assertEquals(1, ((CommandResult.TaskAdded) result).getTaskCount());
+        assertTrue(render(result, new Ui()).contains("read \"book\""));
+        assertEquals("added: [T][ ] read \"book\" (1 tasks)", render(result, new CompactRenderer()));
+        assertEquals("{\"result\":\"added\",\"taskCount\":1,\"task\":{\"type\":\"T\",\"done\":false,"
+                + "\"description\":\"read \\\"book\\\"\"}}", render(result, new JsonRenderer()));
+    }
+
+    @Test
+    public void testPipeline_resultsRenderedInOrder() {
+        TaskList tasks = new TaskList();
+        ArrayList<Command> commands = new ArrayList<>(List.of(new TodoCommand("read book"),
+                new MarkCommand(1, true)));
+        CommandResult result = new PipelineCommand(commands).execute(tasks, null);
+
+        assertEquals(2, ((CommandResult.Sequence) result).getResults().size());
+        assertEquals("added: [T][ ] read book (1 tasks)\ndone: [T][X] read book",
+                render(result, new CompactRenderer()));
+
+        CommandResult exit = new CommandResult.Sequence(List.of(result, new CommandResult.Exit(false)));
+        assertTrue(exit.isExit());
+        assertTrue(render(exit, new JsonRenderer()).endsWith("\n{\"result\":\"exit\"}"));
+    }
+
+    @Test
+    public void testPipeline_uncheckedFailure_rolledBack() throws Exception {
+        TaskList tasks = new TaskList();
+        Command failing = new Command() {
+            @Override
+            public CommandResult execute(TaskList tasks, Storage storage) {
+                throw new IllegalStateException("broken command");
+            }
+        };
+        ArrayList<Command> commands = new ArrayList<>(List.of(new TodoCommand("read book"), failing));
+
+        assertThrows(IllegalStateException.class, () -> new PipelineCommand(commands).execute(tasks, null));
+        assertEquals(0, tasks.getTaskCount());
+        assertFalse(tasks.isInTransaction());
+
+        // Only a line starting with "do" is split into commands
+        assertEquals("added: [T][ ] milk ; eggs (1 tasks)",
+                render(Parser.parse("todo milk ; eggs").execute(tasks, null), new CompactRenderer()));
+        assertEquals(2, ((CommandResult.Sequence) Parser.parse("do mark 1 ; todo bread").execute(tasks, null))
+                .getResults().size());
+    }
+
+    @Test
+    public void testTaskListing_laterChangesNotShown() {
+        TaskList tasks = new TaskList();
+        tasks.addTask(new ToDo("read book"));
+        tasks.addTask(new ToDo("buy pens"));
+        CommandResult listing = new ListCommand().execute(tasks, null);
+        CommandResult matches = new FindCommand("book").execute(tasks, null);
+
+        tasks.markTask(1, true);
+        tasks.deleteTask(2);
+        assertTrue(render(listing, new Ui()).contains("2.[T][ ] buy pens"));
+        assertFalse(render(listing, new Ui()).contains("[X]"));
+        assertFalse(render(matches, new Ui()).contains("[X]"));
+    }
+}
@@ -0,0 +1,70 @@
+package darwin.parser;
+
+import darwin.parser.Autocompleter.Suggestion;
+import darwin.task.Deadline;
+import darwin.task.Task;
+import darwin.task.TaskList;
+import darwin.task.ToDo;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class AutocompleterTest {
+
+    private static List<String> complete(String input, TaskList tasks) {
+        ArrayList<String> descriptions = new ArrayList<>();
+        for (Task task : tasks.getTasks()) {
+            descriptions.add(task.getDescription());
+        }
+        ArrayList<String> completedInputs = new ArrayList<>();
+        for (Suggestion suggestion : Autocompleter.suggest(input, tasks, descriptions, 5)) {
+            completedInputs.add(suggestion.getCompletedInput());
+        }
+        return completedInputs;
+    }
+
+    @Test
+    public void testSuggest_keywordsFlagsNumbersAndWords() {
+        TaskList tasks = new TaskList();
+        tasks.addTask(new ToDo("read report"));
+        tasks.addTask(new Deadline("submit report", "2026-03-01"));
+        tasks.addTask(new ToDo("reply to Rita"));
+
+        assertEquals(List.of("deadline ", "delete "), complete("de", tasks));
+        assertEquals(List.of("list"), complete("li", tasks));
+        assertEquals(List.of("deadline essay /by "), complete("deadline essay /b", tasks));
+        assertEquals(List.of("event fair /from 2026-01-01 /to "), complete("event fair /from 2026-01-01 /", tasks));
+        assertEquals(List.of("mark 1", "mark 2", "mark 3"), complete("mark ", tasks));
+        assertEquals(List.of("find report ", "find read ", "find reply "), complete("find re", tasks));
+
+        tasks.deleteTask(1);
+        tasks.deleteTask(1);
+        assertEquals(List.of("todo reply "), complete("todo re", tasks));
+    }
+
+    @Test
+    public void testSuggest_manyWords_bestFirstAndStopsWhenInterrupted() {
+        TaskList tasks = new TaskList();
+        for (int i = 0; i < 500; i++) {
+            tasks.addTask(new ToDo("word" + i + (i % 100 == 7 ? " wordy" : "")));
+        }
+        tasks.addTask(new ToDo("wordy wordsmith"));
+        tasks.addTask(new ToDo("wordsmith"));
+
+        assertEquals(List.of("find wordy ", "find wordsmith ", "find word0 ", "find word1 ", "find word10 "),
+                complete("find wor", tasks));
+        tasks.deleteTask(501);
+        assertEquals(List.of("find wordy ", "find word0 ", "find word1 ", "find word10 ", "find word100 "),
+                complete("find wor", tasks));
+
+        Thread.currentThread().interrupt();
+        try {
+            assertEquals(List.of(), complete("find wor", tasks));
+        } finally {
+            Thread.interrupted();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package darwin.query;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import darwin.DarwinException;
+import darwin.command.FindCommand;
+import darwin.command.QueryCommand;
+import darwin.parser.Parser;
+import darwin.task.Deadline;
+import darwin.task.Event;
+import darwin.task.Recurrence;
+import darwin.task.Recurring;
+import darwin.task.Task;
+import darwin.task.TaskList;
+import darwin.task.ToDo;
+
+public class QueryPlanTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 1, 1);
+
+    private static ArrayList<Task> createTasks() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new ToDo("write report"));
+        tasks.add(new Deadline("submit report", "2026-05-01"));
+        tasks.add(new Deadline("file report", "2026-07-01"));
+        tasks.add(new Deadline("pay rent", "2026-03-01"));
+        tasks.add(new Event("report review", "2026-02-01", "2026-02-02"));
+        return tasks;
+    }
+
+    private static List<String> describe(ArrayList<Task> tasks) {
+        ArrayList<String> descriptions = new ArrayList<>();
+        for (Task task : tasks) {
+            descriptions.add(task.getDescription());
+        }
+        return descriptions;
+    }
+
+    private static ArrayList<Task> run(TaskList tasks, String query) throws DarwinException {
+        return QueryPlan.create(QueryParser.parse(query, TODAY), tasks).execute(tasks);
+    }
+
+    @Test
+    public void testExecute_allConditionsHold_allStores() throws DarwinException {
+        for (TaskList tasks : new TaskList[] {new TaskList(createTasks()), TaskList.createColumnar(createTasks())}) {
+            tasks.markTask(4, true);
+            ArrayList<Task> matches = run(tasks, "type:D done:no due<2026-06-01 text:report");
+            assertEquals(1, matches.size());
+            assertEquals("submit report", matches.get(0).getDescription());
+
+            assertEquals(3, run(tasks, "due>=2026-03-01").size());
+            assertEquals(2, run(tasks, "type:d rep").size());
+        }
+    }
+
+    @Test
+    public void testExecute_predicateTree_allStores() throws DarwinException {
+        for (TaskList tasks : new TaskList[] {new TaskList(createTasks()), TaskList.createColumnar(createTasks())}) {
+            tasks.markTask(2, true);
+            assertEquals(List.of("write report", "file report", "report review"),
+                    describe(run(tasks, "word:report (done:no and not type:D or due>2026-06-01)")));
+            assertEquals(List.of("write report", "submit report", "pay rent"),
+                    describe(run(tasks, "(type:T or done:yes) or rent")));
+            assertEquals(List.of("file report"),
+                    describe(run(tasks, "not (type:T or type:E) (report) due>=2026-06-01")));
+        }
+    }
+
+    @Test
+    public void testExplain_missingWord_skipsScan() throws DarwinException {
+        TaskList tasks = new TaskList(createTasks());
+        QueryPlan plan = QueryPlan.create(QueryParser.parse("type:D word:taxes", TODAY), tasks);
+
+        ArrayList<String> lines = plan.explain(tasks);
+        assertTrue(lines.get(0).startsWith("1. word:taxes"));
+        assertTrue(lines.get(lines.size() - 1).contains("nothing is scanned"));
+        assertEquals(0, plan.execute(tasks).size());
+    }
+
+    @Test
+    public void testExplain_rareWord_readsWordIndex() throws DarwinException {
+        TaskList tasks = new TaskList(createTasks());
+        QueryPlan plan = QueryPlan.create(QueryParser.parse("done:no (type:D or type:E) word:rent", TODAY), tasks);
+
+        ArrayList<String> lines = plan.explain(tasks);
+        assertTrue(lines.get(0).startsWith("1. word:rent - word index"));
+        assertTrue(lines.get(1).startsWith("2. any of (at most 4 of 5 tasks):"));
+        assertTrue(lines.get(2).startsWith("   2.1. type:D"));
+        assertTrue(lines.get(lines.size() - 1).contains("word index lists for 'rent'"));
+        assertEquals(List.of("pay rent"), describe(plan.execute(tasks)));
+    }
+
+    @Test
+    public void testExplain_dueRange_readsDueView() throws DarwinException {
+        TaskList tasks = new TaskList(createTasks());
+        QueryPlan plan = QueryPlan.create(QueryParser.parse("type:D due<2026-04-01", TODAY), tasks);
+
+        ArrayList<String> lines = plan.explain(tasks);
+        assertEquals("1. due<2026-04-01 - due view (at most 2 of 5 tasks)", lines.get(0));
+        assertTrue(lines.get(lines.size() - 1).contains("due view lists for 'due<2026-04-01'"));
+        assertEquals(List.of("pay rent"), describe(plan.execute(tasks)));
+    }
+
+    @Test
+    public void testExecute_dueRange_recurringByNextOccurrence_allStores() throws DarwinException {
+        for (TaskList tasks : new TaskList[] {new TaskList(createTasks()), TaskList.createColumnar(createTasks())}) {
+            assertEquals(List.of("file report"), describe(run(tasks, "due>2026-06-01")));
+            assertEquals(1, QueryParser.parse("due>2026-06-01", TODAY).estimateMatches(tasks));
+
+            // Started long before the range, but next due on 2026-01-05, so only the view's bound holds
+            tasks.addTask(new Recurring("water plants", "2025-01-06", Recurrence.WEEK));
+            assertEquals(List.of("water plants"), describe(run(tasks, "due<2026-01-10")));
+            assertEquals(List.of(), describe(run(tasks, "due<2025-06-01")));
+            assertEquals(List.of("submit report", "file report", "pay rent", "report review", "water plants"),
+                    describe(run(tasks, "due>2025-12-31")));
+            assertEquals(2, QueryParser.parse("due>2026-06-01", TODAY).estimateMatches(tasks));
+        }
+    }
+
+    @Test
+    public void testParse_malformedTerms_exceptionThrown() {
+        // Queries need the explicit form, so plain finds starting with a term stay plain finds
+        assertTrue(Parser.parse("find type:D") instanceof FindCommand);
+        assertTrue(Parser.parse("find --where type:D") instanceof QueryCommand);
+        assertTrue(Parser.parse("list --where done:no") instanceof QueryCommand);
+
+        assertThrows(DarwinException.class, () -> QueryParser.parse("type:X", TODAY));
+        assertThrows(DarwinException.class, () -> QueryParser.parse("done:maybe", TODAY));
+        assertThrows(DarwinException.class, () -> QueryParser.parse("due<tomorrow", TODAY));
+        assertThrows(DarwinException.class, () -> QueryParser.parse("(done:no or type:D", TODAY));
+        assertThrows(DarwinException.class, () -> QueryParser.parse("done:no) type:D", TODAY));
+        assertThrows(DarwinException.class, () -> QueryParser.parse("done:no or", TODAY));
+        assertThrows(DarwinException.class, () -> QueryParser.parse("type:D not", TODAY));
+    }
+}
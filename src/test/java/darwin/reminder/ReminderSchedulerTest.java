@@ -0,0 +1,99 @@
+package darwin.reminder;
+
+import darwin.task.Deadline;
+import darwin.task.Event;
+import darwin.task.Task;
+import darwin.task.TaskList;
+import darwin.task.ToDo;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class ReminderSchedulerTest {
+
+    private static final ZoneId ZONE = ZoneId.of("UTC");
+    private static final Clock CLOCK = Clock.fixed(
+            LocalDate.of(2026, 3, 1).atTime(10, 0).atZone(ZONE).toInstant(), ZONE);
+
+    @Test
+    public void testSchedule_onlyUpcomingUndoneDatedTasks() {
+        ReminderScheduler scheduler = new ReminderScheduler(CLOCK);
+
+        assertNull(scheduler.schedule(new ToDo("read book")));
+        assertNull(scheduler.schedule(new Deadline("old essay", "2026-02-28")));
+
+        Deadline done = new Deadline("done essay", "2026-03-05");
+        done.markAsDone();
+        assertNull(scheduler.schedule(done));
+
+        ReminderScheduler.Reminder reminder = scheduler.schedule(new Deadline("essay", "2026-03-05"));
+        assertNotNull(reminder);
+        assertNotNull(scheduler.schedule(new Event("fair", "2026-04-01", "2026-04-02")));
+        assertEquals(2, scheduler.getPendingCount());
+
+        scheduler.cancel(reminder);
+        scheduler.cancel(reminder);
+        assertEquals(1, scheduler.getPendingCount());
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void testSchedule_dueToday_firesImmediately() throws InterruptedException {
+        ReminderScheduler scheduler = new ReminderScheduler(CLOCK);
+        BlockingQueue<String> received = new ArrayBlockingQueue<>(1);
+        scheduler.setListener(received::add);
+
+        scheduler.schedule(new Deadline("return book", "2026-03-01"));
+
+        String message = received.poll(5, TimeUnit.SECONDS);
+        assertNotNull(message);
+        assertTrue(message.contains("return book"));
+        assertEquals(0, scheduler.getPendingCount());
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void testTaskReminders_followTaskList() throws Exception {
+        ArrayList<Task> initialTasks = new ArrayList<>();
+        initialTasks.add(new Deadline("essay", "2026-03-05"));
+        initialTasks.add(new ToDo("read book"));
+        // A columnar list hands out a new copy of a task in every change, so tasks are told apart by key
+        for (TaskList tasks : new TaskList[] {new TaskList(initialTasks), TaskList.createColumnar(initialTasks)}) {
+            ReminderScheduler scheduler = new ReminderScheduler(CLOCK);
+            tasks.addListener(new TaskReminders(scheduler, tasks));
+            assertEquals(1, scheduler.getPendingCount());
+
+            tasks.beginBatch();
+            tasks.addTask(new Event("fair", "2026-03-10", "2026-03-11"));
+            tasks.deleteTask(2);
+            tasks.markTask(1, true);
+            tasks.endBatch();
+            assertEquals(1, scheduler.getPendingCount());
+
+            tasks.markTask(1, false);
+            assertEquals(2, scheduler.getPendingCount());
+
+            tasks.beginTransaction();
+            tasks.deleteTask(2);
+            tasks.rollbackTransaction();
+            assertEquals(2, scheduler.getPendingCount());
+
+            tasks.replaceTasks(0, 0, new ArrayList<>(List.of(new ToDo("buy pens"))));
+            tasks.deleteTask(2);
+            assertEquals(1, scheduler.getPendingCount());
+            scheduler.shutdown();
+        }
+    }
+}
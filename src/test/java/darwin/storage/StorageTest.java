@@ -0,0 +1,366 @@
+package darwin.storage;
+
+import darwin.task.Deadline;
+import darwin.task.Task;
+import darwin.task.TaskChange;
+import darwin.task.TaskList;
+import darwin.task.ToDo;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class StorageTest {
+
+    private static Path createTempFile() throws IOException {
+        Path file = Files.createTempFile("darwin", ".txt");
+        file.toFile().deleteOnExit();
+        return file;
+    }
+
+    private static String read(Path file) throws IOException {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+
+    private static List<String> listSegments(Path file) throws IOException {
+        try (Stream<Path> files = Files.list(Path.of(file + ".segments"))) {
+            return files.map(segment -> segment.getFileName().toString()).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static List<String> render(ArrayList<Task> tasks) {
+        return tasks.stream().map(Task::toFileFormat).collect(Collectors.toList());
+    }
+
+    private static ArrayList<Task> createDeadlines(int count, String year) {
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            tasks.add(new Deadline("essay " + i, year + "-03-" + (10 + i % 10)));
+        }
+        return tasks;
+    }
+
+    @Test
+    public void testSaveAndLoad_statusFlipAndAppend_roundTrips() throws IOException {
+        Path file = createTempFile();
+        Storage storage = new Storage(file.toString());
+
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new ToDo("read book"));
+        tasks.add(new Deadline("return book", "2026-03-01"));
+        storage.saveTasks(tasks);
+
+        // Status flip and append are written without rewriting the file
+        tasks.get(0).markAsDone();
+        tasks.add(new ToDo("buy book"));
+        storage.saveTasks(tasks);
+
+        String content = read(file);
+        assertTrue(content.startsWith("T | 1 | read book # "));
+        assertTrue(content.endsWith("# count=3\n"));
+
+        Storage reloaded = new Storage(file.toString());
+        ArrayList<Task> loaded = reloaded.loadTasks();
+        assertEquals(3, loaded.size());
+        assertTrue(loaded.get(0).isDone());
+        assertEquals("T | 0 | buy book", loaded.get(2).toFileFormat());
+        assertNull(reloaded.getRecoveryMessage());
+    }
+
+    @Test
+    public void testSaveTasks_deletion_rewritesFile() throws IOException {
+        Path file = createTempFile();
+        Storage storage = new Storage(file.toString());
+
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new ToDo("read book"));
+        tasks.add(new ToDo("buy book"));
+        storage.saveTasks(tasks);
+
+        tasks.remove(0);
+        tasks.get(0).markAsDone();
+        storage.saveTasks(tasks);
+
+        ArrayList<Task> loaded = new Storage(file.toString()).loadTasks();
+        assertEquals(1, loaded.size());
+        assertEquals("T | 1 | buy book", loaded.get(0).toFileFormat());
+    }
+
+    @Test
+    public void testLoadTasks_damagedRecord_stopsAtLastGoodRecord() throws IOException {
+        Path file = createTempFile();
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new ToDo("read book"));
+        tasks.add(new ToDo("buy book"));
+        tasks.add(new ToDo("sell book"));
+        new Storage(file.toString()).saveTasks(tasks);
+
+        Files.write(file, read(file).replace("buy book", "buy bock").getBytes(StandardCharsets.UTF_8));
+
+        Storage storage = new Storage(file.toString());
+        ArrayList<Task> loaded = storage.loadTasks();
+        assertEquals(1, loaded.size());
+        assertNotNull(storage.getRecoveryMessage());
+    }
+
+    @Test
+    public void testLoadTasks_patchCutShort_finishedFromJournal() throws IOException {
+        Path file = createTempFile();
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new ToDo("read book"));
+        tasks.add(new ToDo("buy book"));
+        new Storage(file.toString()).saveTasks(tasks);
+
+        // The journal of a save that marks the first task and appends a third, cut short after
+        // the first byte of the status patch reached the file
+        String content = read(file);
+        byte[] statusPatch = RecordLine.encode("T | 1 | read book").substring(4).getBytes(StandardCharsets.UTF_8);
+        PatchJournal journal = new PatchJournal(file.toString());
+        journal.add(4, statusPatch);
+        journal.add(content.indexOf(RecordLine.FOOTER_PREFIX), (RecordLine.encode("T | 0 | sell book") + "\n"
+                + RecordLine.footer(3) + "\n").getBytes(StandardCharsets.UTF_8));
+        journal.writeJournal();
+        Files.write(file, ("T | 1" + content.substring(5)).getBytes(StandardCharsets.UTF_8));
+
+        Storage storage = new Storage(file.toString());
+        ArrayList<Task> loaded = storage.loadTasks();
+        assertEquals(List.of("T | 1 | read book", "T | 0 | buy book", "T | 0 | sell book"), render(loaded));
+        assertNull(storage.getRecoveryMessage());
+        assertTrue(!Files.exists(Path.of(file + PatchJournal.JOURNAL_FILE_SUFFIX)));
+    }
+
+    @Test
+    public void testLoadTasks_legacyFile_loadedAndMigrated() throws IOException {
+        Path file = createTempFile();
+        Files.write(file, "T | 1 | read book\nD | 0 | return book | 2026-03-01\n".getBytes(StandardCharsets.UTF_8));
+
+        Storage storage = new Storage(file.toString());
+        ArrayList<Task> loaded = storage.loadTasks();
+        assertEquals(2, loaded.size());
+        assertNull(storage.getRecoveryMessage());
+
+        storage.saveTasks(loaded);
+        assertTrue(read(file).endsWith("# count=2\n"));
+    }
+
+    @Test
+    public void testLoadTasks_progressReported_endsAtComplete() throws IOException {
+        Path file = createTempFile();
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            tasks.add(new ToDo("task " + i));
+        }
+        new Storage(file.toString()).saveTasks(tasks);
+
+        ArrayList<Integer> progress = new ArrayList<>();
+        assertEquals(50, new Storage(file.toString()).loadTasks(progress::add).size());
+        assertTrue(progress.size() > 2);
+        for (int i = 1; i < progress.size(); i++) {
+            assertTrue(progress.get(i) > progress.get(i - 1));
+        }
+        assertEquals(100, (int) progress.get(progress.size() - 1));
+    }
+
+    @Test
+    public void testReadChanges_otherWriter_onlyChangedRunReturned() throws IOException {
+        Path file = createTempFile();
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new ToDo("read book"));
+        tasks.add(new ToDo("buy book"));
+        tasks.add(new ToDo("sell book"));
+        new Storage(file.toString()).saveTasks(tasks);
+
+        Storage storage = new Storage(file.toString());
+        ArrayList<Task> loaded = storage.loadTasks();
+        storage.saveTasks(loaded);
+        assertNull(storage.readChanges()); // its own save
+
+        Storage other = new Storage(file.toString());
+        ArrayList<Task> otherTasks = other.loadTasks();
+        otherTasks.get(1).markAsDone();
+        otherTasks.add(1, new ToDo("borrow book"));
+        other.saveTasks(otherTasks);
+
+        StorageChange change = storage.readChanges();
+        assertNotNull(change);
+        assertEquals(1, change.getFirstIndex());
+        assertEquals(1, change.getRemovedCount());
+        assertEquals(2, change.getAddedTasks().size());
+        assertEquals("T | 1 | buy book", change.getAddedTasks().get(1).toFileFormat());
+        assertNull(storage.readChanges());
+    }
+
+    @Test
+    public void testSaveTasks_unreadChangesByOtherWriter_keptAside() throws IOException {
+        Path file = createTempFile();
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new ToDo("read book"));
+        new Storage(file.toString()).saveTasks(tasks);
+
+        Storage storage = new Storage(file.toString());
+        ArrayList<Task> loaded = storage.loadTasks();
+        Storage other = new Storage(file.toString());
+        ArrayList<Task> otherTasks = other.loadTasks();
+        otherTasks.add(new ToDo("buy book"));
+        other.saveTasks(otherTasks);
+
+        loaded.get(0).markAsDone();
+        storage.saveTasks(loaded);
+        assertNotNull(storage.getConflictMessage());
+        Path conflictFile = Path.of(file + ".conflict");
+        conflictFile.toFile().deleteOnExit();
+        assertTrue(read(conflictFile).contains("buy book"));
+        assertEquals(1, new Storage(file.toString()).loadTasks().size());
+    }
+
+    @Test
+    public void testSegmentedSave_onlyChangedSegmentRewritten() throws IOException {
+        Path file = createTempFile();
+        int capacity = SegmentedArchive.SEGMENT_CAPACITY;
+        ArrayList<Task> tasks = createDeadlines(2 * capacity + 8, "2026");
+        Storage storage = Storage.createSegmented(file.toString());
+        storage.saveTasks(tasks);
+        List<String> segments = listSegments(file);
+        assertEquals(3, segments.size());
+        assertTrue(read(file).startsWith("# segments\n"));
+
+        tasks.get(capacity + 4).markAsDone();
+        storage.saveTasks(tasks);
+        List<String> afterMark = listSegments(file);
+        assertEquals(3, afterMark.size());
+        afterMark.retainAll(segments);
+        assertEquals(2, afterMark.size());
+
+        tasks.remove(0);
+        storage.saveTasks(tasks);
+        ArrayList<Task> loaded = Storage.createSegmented(file.toString()).loadTasks();
+        assertEquals(2 * capacity + 7, loaded.size());
+        assertTrue(loaded.get(capacity + 3).isDone());
+        assertEquals(tasks.get(2 * capacity + 6).toFileFormat(), loaded.get(2 * capacity + 6).toFileFormat());
+    }
+
+    @Test
+    public void testSaveChanges_onlyDirtySegmentsRewritten() throws IOException {
+        Path file = createTempFile();
+        int capacity = SegmentedArchive.SEGMENT_CAPACITY;
+        Storage storage = Storage.createSegmented(file.toString());
+        storage.saveTasks(createDeadlines(3 * capacity, "2026"));
+        TaskList tasks = new TaskList(storage.loadTasks());
+        ArrayList<TaskChange> changes = new ArrayList<>();
+        tasks.addListener(changes::addAll);
+        List<String> segments = listSegments(file);
+
+        tasks.markTask(capacity + 1, true);
+        tasks.deleteTask(capacity + 2);
+        tasks.addTask(new ToDo("buy book"));
+        storage.saveChanges(changes, () -> {
+            throw new AssertionError("The whole list should not be needed");
+        });
+        List<String> kept = listSegments(file);
+        kept.retainAll(segments);
+        assertEquals(1, kept.size());
+
+        // Growing a segment past its capacity splits it
+        changes.clear();
+        for (int i = 0; i < capacity; i++) {
+            tasks.addTask(new ToDo("task " + i));
+        }
+        storage.saveChanges(changes, tasks::getTasks);
+        assertEquals(5, listSegments(file).size());
+        ArrayList<Task> loaded = Storage.createSegmented(file.toString()).loadTasks();
+        assertEquals(render(tasks.getTasks()), render(loaded));
+    }
+
+    @Test
+    public void testSaveChanges_singleFile_onlyChangedTasksFormatted() throws IOException {
+        Path file = createTempFile();
+        Storage storage = new Storage(file.toString());
+        storage.saveTasks(createDeadlines(100, "2026"));
+        TaskList tasks = new TaskList(storage.loadTasks());
+        ArrayList<TaskChange> changes = new ArrayList<>();
+        tasks.addListener(changes::addAll);
+
+        tasks.markTask(5, true);
+        tasks.addTask(new ToDo("buy book"));
+        tasks.markTask(101, true);
+        storage.saveChanges(changes, () -> {
+            throw new AssertionError("The whole list should not be needed");
+        });
+        assertTrue(read(file).endsWith("# count=101\n"));
+        assertEquals(render(tasks.getTasks()), render(new Storage(file.toString()).loadTasks()));
+
+        // A deletion moves every following line, so the whole file is rewritten
+        changes.clear();
+        tasks.deleteTask(1);
+        storage.saveChanges(changes, tasks::getTasks);
+        assertEquals(render(tasks.getTasks()), render(new Storage(file.toString()).loadTasks()));
+    }
+
+    @Test
+    public void testSegmentedLoad_singleFile_migratedOnSave() throws IOException {
+        Path file = createTempFile();
+        new Storage(file.toString()).saveTasks(createDeadlines(3, "2026"));
+
+        Storage storage = Storage.createSegmented(file.toString());
+        ArrayList<Task> loaded = storage.loadTasks();
+        assertEquals(3, loaded.size());
+        storage.saveTasks(loaded);
+        assertTrue(read(file).startsWith("# segments\n"));
+
+        Storage other = Storage.createSegmented(file.toString());
+        ArrayList<Task> otherTasks = other.loadTasks();
+        otherTasks.add(new ToDo("buy book"));
+        other.saveTasks(otherTasks);
+        StorageChange change = storage.readChanges();
+        assertNotNull(change);
+        assertEquals(3, change.getFirstIndex());
+        assertEquals(1, change.getAddedTasks().size());
+    }
+
+    @Test
+    public void testArchiveTasks_coldSegmentSearchedButNotLoaded() throws IOException {
+        Path file = createTempFile();
+        Storage storage = Storage.createSegmented(file.toString());
+        storage.saveTasks(createDeadlines(20, "2026"));
+        ArrayList<Task> tasks = storage.loadTasks();
+        ArrayList<Task> archived = new ArrayList<>(tasks.subList(0, 5));
+        ArrayList<Task> remaining = new ArrayList<>(tasks.subList(5, 20));
+        remaining.add(new ToDo("essay outline"));
+        storage.archiveTasks(archived, remaining);
+        storage.saveTasks(remaining);
+
+        assertEquals(1, listSegments(file).stream().filter(name -> name.startsWith("cold-")).count());
+        Storage other = Storage.createSegmented(file.toString());
+        assertEquals(16, other.loadTasks().size());
+        ArrayList<Task> found = other.findArchivedTasks("ESSAY 3");
+        assertEquals(1, found.size());
+        assertEquals("D | 0 | essay 3 | 2026-03-13", found.get(0).toFileFormat());
+        assertEquals(5, other.findArchivedTasks("essay").size());
+    }
+
+    @Test
+    public void testFindArchivedTasks_filterRulesOut_segmentNotOpened() throws IOException {
+        Path file = createTempFile();
+        Storage storage = Storage.createSegmented(file.toString());
+        ArrayList<Task> tasks = createDeadlines(4, "2026");
+        tasks.add(new ToDo("dentist appointment"));
+        storage.saveTasks(tasks);
+        storage.archiveTasks(new ArrayList<>(tasks.subList(0, 4)), new ArrayList<>(tasks.subList(4, 5)));
+        storage.archiveTasks(new ArrayList<>(tasks.subList(4, 5)), new ArrayList<>());
+
+        Path essayArchive = Path.of(file + ".segments").resolve(listSegments(file).get(0));
+        Files.delete(essayArchive);
+        assertEquals(1, storage.findArchivedTasks("dentist").size());
+    }
+}
@@ -0,0 +1,40 @@
+package darwin.storage;
+
+import darwin.task.Task;
+import darwin.task.ToDo;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+
+public class TrigramFilterTest {
+
+    @Test
+    public void testMayContain_substringsKeptAbsentWordsRuledOut() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            tasks.add(new ToDo("Return library book " + i));
+        }
+        TrigramFilter filter = TrigramFilter.parse(TrigramFilter.create(tasks).toField());
+
+        assertTrue(filter.mayContain("library"));
+        assertTrue(filter.mayContain("rary bo"));
+        assertTrue(filter.mayContain("book 199"));
+        assertTrue(filter.mayContain("xy")); // too short to tell
+        int falsePositives = 0;
+        for (int i = 0; i < 100; i++) {
+            falsePositives += filter.mayContain("quiz " + i) ? 1 : 0;
+        }
+        assertTrue(falsePositives < 10);
+        assertFalse(filter.mayContain("dentist"));
+    }
+
+    @Test
+    public void testParse_malformedField_rejected() {
+        assertEquals(null, TrigramFilter.parse("not base64!"));
+        assertEquals(null, TrigramFilter.parse("AAAA"));
+    }
+}
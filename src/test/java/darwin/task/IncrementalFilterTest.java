@@ -0,0 +1,31 @@
+package darwin.task;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+
+public class IncrementalFilterTest {
+
+    @Test
+    public void testFilter_refinedKeyword_matchesFindAcrossChanges() {
+        TaskList tasks = new TaskList();
+        tasks.addTask(new ToDo("Read BOOK"));
+        tasks.addTask(new Deadline("return book", "2026-03-01"));
+        tasks.addTask(new ToDo("buy pens"));
+        IncrementalFilter filter = new IncrementalFilter();
+        TaskSnapshot snapshot = tasks.snapshot();
+
+        assertEquals(List.of(0, 1, 2), filter.filter(snapshot, "", () -> false));
+        assertEquals(List.of(0, 1), filter.filter(snapshot, "o", () -> false));
+        assertNull(filter.filter(snapshot, "ok", () -> true));
+        assertEquals(List.of(0, 1), filter.filter(snapshot, "ook", () -> false));
+        assertEquals(List.of(1), filter.filter(snapshot, "n book", () -> false));
+        assertEquals(List.of(0, 1, 2), filter.filter(snapshot, "", () -> false));
+
+        tasks.addTask(new ToDo("book club"));
+        assertEquals(List.of(0, 1, 3), filter.filter(tasks.snapshot(), "book", () -> false));
+        assertEquals("[T][ ] book club", tasks.snapshot().getDisplayStrings().get(3));
+    }
+}
@@ -0,0 +1,38 @@
+package darwin.task;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+
+public class RecurringTest {
+    @Test
+    public void testToStringAndFileFormat() {
+        Recurring recurring = new Recurring("water plants", "2026-03-02", Recurrence.WEEK);
+        assertEquals("[R][ ] water plants (every week from: Mar 02 2026)", recurring.toString());
+        assertEquals("R | 0 | water plants | 2026-03-02 | week", recurring.toFileFormat());
+    }
+
+    @Test
+    public void testOccurrencesBetween() {
+        // Weekly occurrences are generated only inside the window
+        Recurring weekly = new Recurring("water plants", "2026-03-02", Recurrence.WEEK);
+        ArrayList<LocalDate> dates = new ArrayList<>();
+        Iterator<LocalDate> iterator = weekly.occurrencesBetween(LocalDate.of(2026, 3, 10), LocalDate.of(2026, 3, 23));
+        iterator.forEachRemaining(dates::add);
+        assertEquals(2, dates.size());
+        assertEquals(LocalDate.of(2026, 3, 16), dates.get(0));
+        assertEquals(LocalDate.of(2026, 3, 23), dates.get(1));
+
+        // Monthly occurrences keep the start day after a shorter month
+        Recurring monthly = new Recurring("pay rent", "2026-01-31", Recurrence.MONTH);
+        assertEquals(LocalDate.of(2026, 2, 28), monthly.getNextOccurrence(LocalDate.of(2026, 2, 1)));
+        assertEquals(LocalDate.of(2026, 3, 31), monthly.getNextOccurrence(LocalDate.of(2026, 3, 1)));
+
+        // Windows before the start date are empty
+        assertFalse(monthly.occurrencesBetween(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31)).hasNext());
+    }
+}
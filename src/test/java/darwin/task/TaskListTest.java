@@ -0,0 +1,233 @@
+package darwin.task;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TaskListTest {
+
+    private static ArrayList<Task> createTasks() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new ToDo("Read BOOK"));
+        tasks.add(new Deadline("return book", "2026-03-01"));
+        tasks.add(new Event("Caf\u00e9 meetup", "2026-01-01", "2026-01-02"));
+        tasks.add(new ToDo("buy pens"));
+        return tasks;
+    }
+
+    private static ArrayList<String> render(ArrayList<Task> tasks) {
+        ArrayList<String> rendered = new ArrayList<>();
+        for (Task task : tasks) {
+            rendered.add(task.toString());
+        }
+        return rendered;
+    }
+
+    @Test
+    public void testColumnarStore_behavesLikeObjectStore() {
+        TaskList objectList = new TaskList(createTasks());
+        TaskList columnarList = TaskList.createColumnar(createTasks());
+        TaskList offHeapList = TaskList.createOffHeap(createTasks());
+
+        for (TaskList tasks : new TaskList[] {objectList, columnarList, offHeapList}) {
+            tasks.markTask(2, true);
+            tasks.deleteTask(1);
+            tasks.addTask(new ToDo("sell book"));
+        }
+
+        assertEquals(render(objectList.getTasks()), render(columnarList.getTasks()));
+        assertEquals(render(objectList.getTasks()), render(offHeapList.getTasks()));
+        assertTrue(columnarList.getTask(1).isDone());
+        assertEquals("D | 1 | return book | 2026-03-01", columnarList.getTask(1).toFileFormat());
+    }
+
+    @Test
+    public void testAddTask_beyondHundredTasks_allStores() {
+        for (TaskList tasks : new TaskList[] {new TaskList(), TaskList.createColumnar(new ArrayList<>()),
+                TaskList.createOffHeap(new ArrayList<>())}) {
+            for (int i = 0; i < 1500; i++) {
+                tasks.addTask(i % 100 == 0 ? new Deadline("find needle " + i, "2026-03-01") : new ToDo("task " + i));
+            }
+            tasks.markTask(1201, true);
+
+            assertEquals(1500, tasks.getTaskCount());
+            assertEquals(15, tasks.findTasks("needle").size());
+            assertEquals("[D][X] find needle 1200 (by: Mar 01 2026)",
+                    tasks.selectTasks((typeCode, isDone) -> isDone, task -> true).get(0).toString());
+            assertEquals("task 1499", tasks.deleteTask(1500).getDescription());
+            tasks.close();
+        }
+    }
+
+    @Test
+    public void testFindTasks_caseInsensitive_allStores() {
+        for (TaskList tasks : new TaskList[] {new TaskList(createTasks()), TaskList.createColumnar(createTasks()),
+                TaskList.createOffHeap(createTasks())}) {
+            assertEquals(2, tasks.findTasks("book").size());
+            assertEquals(1, tasks.findTasks("CAF\u00c9").size());
+            assertEquals(0, tasks.findTasks("books").size());
+        }
+    }
+
+    @Test
+    public void testClose_offHeapList_rejectsFurtherUse() {
+        TaskList tasks = TaskList.createOffHeap(createTasks());
+        tasks.close();
+        assertThrows(IllegalStateException.class, () -> tasks.findTasks("book"));
+    }
+
+    @Test
+    public void testFindTasksFuzzy_rankedByDistance() {
+        ArrayList<Task> initial = new ArrayList<>();
+        initial.add(new ToDo("submit report"));
+        initial.add(new ToDo("read book"));
+        initial.add(new ToDo("reprot card"));
+        TaskList tasks = new TaskList(initial);
+
+        ArrayList<Task> matches = tasks.findTasksFuzzy("Reprot");
+        assertEquals(2, matches.size());
+        assertEquals("reprot card", matches.get(0).getDescription());
+        assertEquals("submit report", matches.get(1).getDescription());
+
+        // Every query word has to match, and deleted tasks drop out of the index
+        assertEquals(1, tasks.findTasksFuzzy("submt reprot").size());
+        tasks.deleteTask(1);
+        assertEquals(0, tasks.findTasksFuzzy("submit").size());
+        assertEquals(1, tasks.findTasksFuzzy("reprot").size());
+
+        // A task put before the others renumbers the list; ties still come out in list order
+        tasks.replaceTasks(0, 0, new ArrayList<>(List.of(new ToDo("report back"))));
+        tasks.addTask(new ToDo("report card"));
+        assertEquals(List.of("[T][ ] report back", "[T][ ] report card", "[T][ ] reprot card"),
+                render(tasks.findTasksFuzzy("report")));
+    }
+
+    @Test
+    public void testGetSortedTaskNumbers_followsChanges_allStores() throws Exception {
+        for (TaskList tasks : new TaskList[] {new TaskList(createTasks()), TaskList.createColumnar(createTasks())}) {
+            // Read BOOK, return book (Mar 1), Cafe meetup (Jan 1), buy pens
+            assertEquals(List.of(3, 2, 1, 4), tasks.getSortedTaskNumbers(SortOrder.DUE, 0, 10));
+            assertEquals(List.of(4, 3, 1, 2), tasks.getSortedTaskNumbers(SortOrder.NAME, 0, 10));
+
+            tasks.markTask(1, true);
+            tasks.deleteTask(3);
+            tasks.addTask(new Deadline("apply", "2025-12-01"));
+            assertEquals(List.of(2, 3, 4, 1), tasks.getSortedTaskNumbers(SortOrder.STATUS, 0, 10));
+            assertEquals(List.of(2), tasks.getSortedTaskNumbers(SortOrder.DUE, 1, 1));
+            assertEquals(List.of(), tasks.getSortedTaskNumbers(SortOrder.DUE, 4, 10));
+        }
+    }
+
+    @Test
+    public void testRollbackTransaction_restoresListAndViews_allStores() {
+        for (TaskList tasks : new TaskList[] {new TaskList(createTasks()), TaskList.createColumnar(createTasks()),
+                TaskList.createOffHeap(createTasks())}) {
+            ArrayList<String> before = render(tasks.getTasks());
+            List<Integer> dueOrder = tasks.getSortedTaskNumbers(SortOrder.DUE, 0, 10);
+
+            tasks.beginTransaction();
+            tasks.markTask(2, true);
+            tasks.deleteTask(1);
+            tasks.addTask(new ToDo("sell book"));
+            tasks.beginTransaction();
+            tasks.deleteTask(2);
+            tasks.rollbackTransaction();
+            assertEquals(3, tasks.getTransactionChangeCount());
+            tasks.rollbackTransaction();
+
+            assertTrue(!tasks.isInTransaction());
+            assertEquals(before, render(tasks.getTasks()));
+            assertEquals(dueOrder, tasks.getSortedTaskNumbers(SortOrder.DUE, 0, 10));
+            assertEquals(0, tasks.countDoneTasks());
+            assertEquals(2, tasks.countTasksWithWord("book"));
+            tasks.close();
+        }
+    }
+
+    @Test
+    public void testReplaceTasks_middleRun_keepsSortedViewsInListOrder() {
+        for (TaskList tasks : new TaskList[] {new TaskList(createTasks()), TaskList.createColumnar(createTasks())}) {
+            ArrayList<Task> newTasks = new ArrayList<>();
+            newTasks.add(new Deadline("apply", "2025-12-01"));
+            newTasks.add(new ToDo("Read BOOK"));
+            tasks.replaceTasks(1, 1, newTasks);
+
+            // Read BOOK, apply (Dec 1), Read BOOK, Cafe meetup (Jan 1), buy pens
+            assertEquals(5, tasks.getTaskCount());
+            assertEquals(List.of(2, 4, 1, 3, 5), tasks.getSortedTaskNumbers(SortOrder.DUE, 0, 10));
+            assertEquals(List.of(2, 5, 4, 1, 3), tasks.getSortedTaskNumbers(SortOrder.NAME, 0, 10));
+        }
+    }
+
+    @Test
+    public void testListeners_batchedPerCommandAndDroppedOnRollback() throws Exception {
+        TaskList tasks = new TaskList(createTasks());
+        ArrayList<List<TaskChange>> batches = new ArrayList<>();
+        tasks.addListener(batches::add);
+
+        tasks.markTask(1, true);
+        assertEquals(1, batches.size());
+
+        tasks.beginBatch();
+        tasks.deleteTask(1);
+        tasks.addTask(new ToDo("sell book"));
+        tasks.markTask(1, true);
+        tasks.endBatch();
+        assertEquals(2, batches.size());
+        assertEquals("[REMOVED 0: [T][X] Read BOOK, ADDED 3: [T][ ] sell book, STATUS_CHANGED 0: "
+                + "[D][X] return book (by: Mar 01 2026)]", batches.get(1).toString());
+
+        tasks.beginTransaction();
+        tasks.deleteTask(1);
+        tasks.beginTransaction();
+        tasks.deleteTask(1);
+        tasks.rollbackTransaction();
+        assertEquals(2, batches.size());
+        tasks.commitTransaction();
+        assertEquals(3, batches.size());
+        assertEquals(1, batches.get(2).size());
+
+        tasks.beginTransaction();
+        tasks.deleteTask(1);
+        tasks.rollbackTransaction();
+        assertEquals(3, batches.size());
+    }
+
+    @Test
+    public void testSnapshotApply_acrossChunks_matchesFreshSnapshot() {
+        ArrayList<Task> initial = new ArrayList<>();
+        for (int i = 0; i < 3 * TaskSnapshot.CHUNK_CAPACITY; i++) {
+            initial.add(new ToDo("task " + i));
+        }
+        TaskList tasks = new TaskList(initial);
+        ArrayList<List<TaskChange>> batches = new ArrayList<>();
+        tasks.addListener(batches::add);
+        TaskSnapshot before = tasks.snapshot();
+
+        tasks.beginBatch();
+        for (int i = 0; i < 2 * TaskSnapshot.CHUNK_CAPACITY; i++) {
+            tasks.replaceTasks(TaskSnapshot.CHUNK_CAPACITY, 0, new ArrayList<>(List.of(new ToDo("new " + i))));
+        }
+        tasks.endBatch();
+        for (int i = 1; i <= TaskSnapshot.CHUNK_CAPACITY + 1; i++) {
+            tasks.deleteTask(1);
+        }
+        tasks.markTask(tasks.getTaskCount(), true);
+        tasks.addTask(new ToDo("last"));
+
+        TaskSnapshot after = before;
+        for (List<TaskChange> batch : batches) {
+            after = after.apply(batch);
+        }
+        TaskSnapshot fresh = tasks.snapshot();
+        assertEquals(fresh.size(), after.size());
+        assertEquals(fresh.getDescriptions(), after.getDescriptions());
+        assertEquals(fresh.getDisplayStrings(), after.getDisplayStrings());
+        assertEquals("task 0", before.getDescriptions().get(0));
+        assertEquals(3 * TaskSnapshot.CHUNK_CAPACITY, before.size());
+    }
+}
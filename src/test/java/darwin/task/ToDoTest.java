@@ -2,6 +2,7 @@ package darwin.task;
 
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 public class ToDoTest {
     @Test
@@ -33,4 +34,17 @@ public class ToDoTest {
         ToDo specialTodo = new ToDo("Task with | pipe");
         assertEquals("T | 0 | Task with | pipe", specialTodo.toFileFormat());
     }
+
+    @Test
+    public void testCachedRenderings() {
+        // Cached strings are reused while the task is unchanged
+        ToDo todo = new ToDo("Read notes");
+        assertSame(todo.getDisplayString(), todo.getDisplayString());
+        assertEquals("T | 0 | Read notes", todo.getFileFormat());
+
+        // Marking the task invalidates both cached strings
+        todo.markAsDone();
+        assertEquals("[T][X] Read notes", todo.getDisplayString());
+        assertEquals("T | 1 | Read notes", todo.getFileFormat());
+    }
 }
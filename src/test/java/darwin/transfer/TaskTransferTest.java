@@ -0,0 +1,114 @@
+package darwin.transfer;
+
+import darwin.Darwin;
+import darwin.DarwinException;
+import darwin.storage.Storage;
+import darwin.task.Deadline;
+import darwin.task.Event;
+import darwin.task.Recurrence;
+import darwin.task.Recurring;
+import darwin.task.Task;
+import darwin.task.TaskList;
+import darwin.task.ToDo;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+public class TaskTransferTest {
+
+    private static Path createTempFile(String suffix) throws IOException {
+        Path file = Files.createTempFile("darwin", suffix);
+        file.toFile().deleteOnExit();
+        return file;
+    }
+
+    private static TaskList createTasks() throws DarwinException {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new ToDo("read \"Origin\", again; slowly"));
+        tasks.add(new Deadline("return book", "2026-03-01"));
+        tasks.add(new Event("caf\u00e9 meetup", "2026-01-01", "2026-01-02"));
+        tasks.add(new Recurring("water plants", "2026-03-02", Recurrence.WEEK));
+        tasks.get(1).markAsDone();
+        return new TaskList(tasks);
+    }
+
+    @Test
+    public void testExportThenImport_everyFormat_roundTrips() throws Exception {
+        TaskList original = createTasks();
+        for (String suffix : new String[] {".csv", ".jsonl", ".ics"}) {
+            Path file = createTempFile(suffix);
+            assertEquals(4, TaskTransfer.exportTasks(file.toString(), original).getTransferredCount());
+
+            TaskList imported = new TaskList();
+            TransferReport report = TaskTransfer.importTasks(file.toString(), imported);
+            assertEquals(4, report.getTransferredCount(), suffix);
+            assertEquals(0, report.getSkippedCount(), suffix);
+            for (int i = 1; i <= 4; i++) {
+                assertEquals(original.getTask(i).toFileFormat(), imported.getTask(i).toFileFormat(), suffix);
+            }
+        }
+    }
+
+    @Test
+    public void testImport_malformedRecords_skipped() throws Exception {
+        Path file = createTempFile(".csv");
+        Files.write(file, ("type,done,description,date,end,repeat\r\n"
+                + "T,0,buy pens,,,\r\n"
+                + "D,0,no date,,,\r\n"
+                + "X,0,unknown type,,,\r\n"
+                + "\r\n"
+                + "E,1,\"fair, big\",2026-01-01,2026-01-03,\r\n").getBytes(StandardCharsets.UTF_8));
+
+        TaskList tasks = new TaskList();
+        TransferReport report = TaskTransfer.importTasks(file.toString(), tasks);
+        assertEquals(2, report.getTransferredCount());
+        assertEquals(2, report.getSkippedCount());
+        assertFalse(report.isListFull());
+        assertEquals("E | 1 | fair, big | 2026-01-01 | 2026-01-03", tasks.getTask(2).toFileFormat());
+    }
+
+    @Test
+    public void testImport_lineBreakInDescription_survivesReload() throws Exception {
+        Path directory = Files.createTempDirectory("darwin-transfer-test");
+        Path file = directory.resolve("tasks.jsonl");
+        Files.write(file, ("{\"type\":\"T\",\"description\":\"first\"}\n"
+                + "{\"type\":\"T\",\"description\":\"two\\nlines\\r\"}\n"
+                + "{\"type\":\"T\",\"description\":\"third\"}\n").getBytes(StandardCharsets.UTF_8));
+        String dataFile = directory.resolve("darwin.txt").toString();
+
+        Darwin darwin = new Darwin(dataFile);
+        darwin.loadTasks(percent -> { });
+        darwin.getResponse("import " + file);
+        darwin.shutdown();
+
+        ArrayList<Task> loaded = Storage.createSegmented(dataFile).loadTasks();
+        assertEquals(3, loaded.size());
+        assertEquals("two lines", loaded.get(1).getDescription());
+        assertEquals("third", loaded.get(2).getDescription());
+    }
+
+    @Test
+    public void testImport_unknownExtension_exceptionThrown() throws Exception {
+        Path file = createTempFile(".xml");
+        Files.write(file, "<tasks><task>buy pens</task></tasks>".getBytes(StandardCharsets.UTF_8));
+
+        TaskList tasks = new TaskList();
+        DarwinException exception = assertThrows(DarwinException.class, () -> TaskTransfer.importTasks(file.toString(), tasks));
+        assertTrue(exception.getMessage().contains("Unknown file type"));
+        assertEquals(0, tasks.getTaskCount());
+    }
+
+    @Test
+    public void testExport_unknownExtension_exceptionThrown() {
+        assertThrows(DarwinException.class, () -> TaskTransfer.exportTasks("tasks.xml", new TaskList()));
+    }
+}